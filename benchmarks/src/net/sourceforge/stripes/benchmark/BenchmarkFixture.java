@@ -0,0 +1,57 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+/**
+ * Sets up a {@link MockServletContext} that routes requests through the {@link StripesFilter}
+ * and {@link DispatcherServlet} and that knows about the ActionBeans in this package. Each
+ * benchmark creates one context when its state is set up and closes it when it is torn down.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class BenchmarkFixture {
+    /** The name of the servlet context, which is also the context path of the requests. */
+    public static final String CONTEXT_NAME = "bench";
+
+    /** Create and return a new MockServletContext with Stripes initialized. */
+    public static MockServletContext createServletContext() {
+        return new MockServletContext(CONTEXT_NAME)
+                .addFilter(StripesFilter.class, "StripesFilter", getFilterParams())
+                .setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    /** Get the Configuration of the StripesFilter that was initialized in the given context. */
+    public static Configuration getConfiguration(MockServletContext context) {
+        StripesFilter filter = (StripesFilter) context.getAttribute(StripesFilter.class.getName());
+        return filter.getInstanceConfiguration();
+    }
+
+    /** Gets a map containing the initialization parameters for StripesFilter. */
+    public static Map<String, String> getFilterParams() {
+        Map<String, String> map = new HashMap<String, String>();
+        map.put("ActionResolver.Packages", BenchmarkFixture.class.getPackage().getName());
+        map.put("LocalePicker.Locales", "en_US:UTF-8");
+        return map;
+    }
+}
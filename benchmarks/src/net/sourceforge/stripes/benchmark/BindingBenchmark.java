@@ -0,0 +1,95 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.validation.ValidationErrors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full request that binds nested and indexed properties to {@link OrderActionBean}
+ * and validates them, once with input that passes validation and once with input that fails.
+ * Each invocation is a complete {@link MockRoundtrip} through the StripesFilter and
+ * DispatcherServlet.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BindingBenchmark {
+    private MockServletContext context;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixture.createServletContext();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Bind nested and indexed properties that all pass validation. */
+    @Benchmark
+    public ValidationErrors bindAndValidate() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(context, "/orders/42/save");
+        trip.setParameter("customer.name", "Jane Doe");
+        trip.setParameter("customer.email", "jane@example.com");
+        trip.setParameter("customer.address.street", "1 Main St");
+        trip.setParameter("customer.address.city", "Springfield");
+        trip.setParameter("customer.address.postalCode", "12345");
+        for (int i = 0; i < 5; i++) {
+            trip.setParameter("items[" + i + "].sku", "SKU-" + i);
+            trip.setParameter("items[" + i + "].quantity", String.valueOf(i + 1));
+            trip.setParameter("items[" + i + "].price", "19.99");
+        }
+        trip.execute();
+        return trip.getValidationErrors();
+    }
+
+    /** Bind nested and indexed properties, several of which fail conversion or validation. */
+    @Benchmark
+    public ValidationErrors bindWithValidationErrors() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(context, "/orders/42/save");
+        trip.setParameter("customer.email", "not an email");
+        trip.setParameter("customer.address.postalCode", "ABCDE");
+        for (int i = 0; i < 5; i++) {
+            trip.setParameter("items[" + i + "].sku", "SKU-" + i);
+            trip.setParameter("items[" + i + "].quantity", i % 2 == 0 ? "0" : "many");
+            trip.setParameter("items[" + i + "].price", "19.99");
+        }
+        trip.execute();
+        return trip.getValidationErrors();
+    }
+}
@@ -0,0 +1,50 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+
+/**
+ * An ActionBean with a clean URL that has two parameters and a default value, so that URL
+ * resolution has more than one binding with a common prefix to choose from.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@UrlBinding("/catalog/{category}/{page=1}")
+public class CatalogActionBean implements ActionBean {
+    private ActionBeanContext context;
+    private String category;
+    private int page;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+
+    @DefaultHandler
+    public Resolution list() {
+        return new ForwardResolution("/catalog/list.jsp");
+    }
+}
@@ -0,0 +1,35 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+/**
+ * Simple domain object bound as a nested property of {@link OrderActionBean}.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class Customer {
+    private String name, email;
+    private Address address;
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public Address getAddress() { return address; }
+    public void setAddress(Address address) { this.address = address; }
+}
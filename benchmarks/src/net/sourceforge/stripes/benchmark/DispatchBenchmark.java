@@ -0,0 +1,85 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the fixed cost of dispatching a request to an event handler when there is little or
+ * nothing to bind, so that the overhead of the lifecycle itself can be compared against the cost
+ * of binding and validation measured by {@link BindingBenchmark}.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DispatchBenchmark {
+    private MockServletContext context;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixture.createServletContext();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** The default handler of a clean URL, with one URI parameter and no validation. */
+    @Benchmark
+    public String defaultHandler() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(context, "/orders/42");
+        trip.execute();
+        return trip.getDestination();
+    }
+
+    /** The default handler of a static URL, with one request parameter. */
+    @Benchmark
+    public String staticUrl() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(context, "/catalog/Search.action");
+        trip.setParameter("query", "stripes");
+        trip.execute();
+        return trip.getDestination();
+    }
+
+    /** A clean URL whose parameters come from the URI and from a default value. */
+    @Benchmark
+    public String cleanUrlWithDefaults() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(context, "/catalog/books");
+        trip.execute();
+        return trip.getDestination();
+    }
+}
@@ -0,0 +1,75 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.List;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.DontValidate;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.validation.EmailTypeConverter;
+import net.sourceforge.stripes.validation.Validate;
+import net.sourceforge.stripes.validation.ValidateNestedProperties;
+
+/**
+ * The main ActionBean exercised by the benchmarks. It has a clean URL with a parameter and an
+ * event name, a nested property graph, an indexed property and validations that only apply to
+ * the {@code save} event.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@UrlBinding("/orders/{id}/{$event}")
+public class OrderActionBean implements ActionBean {
+    private ActionBeanContext context;
+    private Integer id;
+
+    @ValidateNestedProperties( {
+            @Validate(field = "name", on = "save", required = true, maxlength = 50),
+            @Validate(field = "email", on = "save", required = true, converter = EmailTypeConverter.class),
+            @Validate(field = "address.postalCode", on = "save", mask = "\\d{5}") })
+    private Customer customer;
+
+    @ValidateNestedProperties( {
+            @Validate(field = "sku", on = "save", required = true),
+            @Validate(field = "quantity", on = "save", required = true, minvalue = 1) })
+    private List<LineItem> items;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    public Integer getId() { return id; }
+    public void setId(Integer id) { this.id = id; }
+
+    public Customer getCustomer() { return customer; }
+    public void setCustomer(Customer customer) { this.customer = customer; }
+
+    public List<LineItem> getItems() { return items; }
+    public void setItems(List<LineItem> items) { this.items = items; }
+
+    @DefaultHandler
+    @DontValidate
+    public Resolution view() {
+        return new ForwardResolution("/orders/view.jsp");
+    }
+
+    public Resolution save() {
+        return new ForwardResolution("/orders/saved.jsp");
+    }
+}
@@ -0,0 +1,162 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.jsp.JspException;
+
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockPageContext;
+import net.sourceforge.stripes.mock.MockServletContext;
+import net.sourceforge.stripes.tag.FormTag;
+import net.sourceforge.stripes.tag.InputTextTag;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Measures rendering of a {@link FormTag} that contains several {@link InputTextTag}s whose
+ * values are populated from nested and indexed properties of an {@link OrderActionBean}. The
+ * tags are driven through their lifecycle methods by hand against a {@link MockPageContext}, the
+ * same way a JSP container would call them. No body content is pushed for the form, so the text
+ * fields are written straight to the page ahead of the form markup. The output is not valid HTML,
+ * but the tags do the same work they would do in a container.</p>
+ *
+ * <p>The tags are rendered outside of the StripesFilter, so they find the Configuration through
+ * {@link net.sourceforge.stripes.controller.StripesFilter#getConfiguration()}, which falls back
+ * to the only Configuration in the JVM. That is always the case here because each benchmark runs
+ * in its own fork.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TagRenderingBenchmark {
+    private static final String ACTION = "/orders/42/save";
+    private static final String[] FIELDS = { "customer.name", "customer.email",
+            "customer.address.street", "customer.address.city", "customer.address.postalCode",
+            "items[0].sku", "items[0].quantity", "items[0].price", "items[1].sku",
+            "items[1].quantity", "items[1].price" };
+
+    private MockServletContext context;
+    private MockPageContext pageContext;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixture.createServletContext();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("/"
+                + BenchmarkFixture.CONTEXT_NAME, "/orders/edit.jsp");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        ActionBeanContext actionBeanContext = new ActionBeanContext();
+        actionBeanContext.setRequest(request);
+        actionBeanContext.setResponse(response);
+        actionBeanContext.setServletContext(context);
+        OrderActionBean bean = createActionBean();
+        bean.setContext(actionBeanContext);
+
+        Configuration configuration = BenchmarkFixture.getConfiguration(context);
+        request.setAttribute(configuration.getActionResolver().getUrlBinding(
+                OrderActionBean.class), bean);
+        pageContext = new MockPageContext(context, request, response);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** Render a form with text fields whose values come from the ActionBean. */
+    @Benchmark
+    public String renderForm() throws JspException {
+        pageContext.getMockOut().clearBuffer();
+
+        FormTag form = new FormTag();
+        form.setPageContext(pageContext);
+        form.setAction(ACTION);
+        form.doStartTag();
+        try {
+            for (String field : FIELDS) {
+                InputTextTag text = new InputTextTag();
+                text.setPageContext(pageContext);
+                text.setParent(form);
+                text.setName(field);
+                text.doStartTag();
+                try {
+                    text.doEndTag();
+                }
+                finally {
+                    text.doFinally();
+                }
+            }
+            form.doEndTag();
+        }
+        finally {
+            form.doFinally();
+        }
+
+        return pageContext.getMockOut().getString();
+    }
+
+    /** Create an ActionBean with all the rendered properties populated. */
+    protected OrderActionBean createActionBean() {
+        Address address = new Address();
+        address.setStreet("1 Main St");
+        address.setCity("Springfield");
+        address.setPostalCode("12345");
+
+        Customer customer = new Customer();
+        customer.setName("Jane Doe");
+        customer.setEmail("jane@example.com");
+        customer.setAddress(address);
+
+        List<LineItem> items = new ArrayList<LineItem>();
+        for (int i = 0; i < 2; i++) {
+            LineItem item = new LineItem();
+            item.setSku("SKU-" + i);
+            item.setQuantity(i + 1);
+            item.setPrice(new BigDecimal("19.99"));
+            items.add(item);
+        }
+
+        OrderActionBean bean = new OrderActionBean();
+        bean.setId(42);
+        bean.setCustomer(customer);
+        bean.setItems(items);
+        return bean;
+    }
+}
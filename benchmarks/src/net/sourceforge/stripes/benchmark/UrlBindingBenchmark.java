@@ -0,0 +1,103 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.controller.ActionResolver;
+import net.sourceforge.stripes.controller.AnnotatedClassActionResolver;
+import net.sourceforge.stripes.controller.UrlBinding;
+import net.sourceforge.stripes.controller.UrlBindingFactory;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how long it takes to map a request URI to an ActionBean, both through the
+ * {@link UrlBindingFactory} directly and through the {@link ActionResolver}.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBindingBenchmark {
+    private MockServletContext context;
+    private ActionResolver resolver;
+    private UrlBindingFactory factory;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkFixture.createServletContext();
+        resolver = BenchmarkFixture.getConfiguration(context).getActionResolver();
+        factory = ((AnnotatedClassActionResolver) resolver).getUrlBindingFactory();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /** A static binding that matches the URI exactly. */
+    @Benchmark
+    public UrlBinding staticUrl() {
+        return factory.getBindingPrototype("/catalog/Search.action");
+    }
+
+    /** A clean URL with a parameter and an event name. */
+    @Benchmark
+    public UrlBinding cleanUrl() {
+        return factory.getBindingPrototype("/orders/42/save");
+    }
+
+    /** A clean URL that relies on a parameter default value. */
+    @Benchmark
+    public UrlBinding cleanUrlWithDefaults() {
+        return factory.getBindingPrototype("/catalog/books");
+    }
+
+    /** A URI that does not map to any ActionBean. */
+    @Benchmark
+    public UrlBinding unmatchedUrl() {
+        return factory.getBindingPrototype("/static/images/logo.png");
+    }
+
+    /** A clean URL, including extraction of the parameter values. */
+    @Benchmark
+    public UrlBinding cleanUrlWithParameters() {
+        return factory.getBinding("/orders/42/save");
+    }
+
+    /** A clean URL, resolved to an ActionBean class through the ActionResolver. */
+    @Benchmark
+    public Class<? extends ActionBean> resolveActionBeanType() {
+        return resolver.getActionBeanType("/orders/42/save");
+    }
+}
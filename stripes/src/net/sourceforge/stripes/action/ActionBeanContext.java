@@ -257,7 +257,7 @@ public class ActionBeanContext {
     public String getSourcePage() {
         String sourcePage = request.getParameter(StripesConstants.URL_KEY_SOURCE_PAGE);
         if (sourcePage != null) {
-            sourcePage = CryptoUtil.decrypt(sourcePage);
+            sourcePage = CryptoUtil.decryptToken(sourcePage);
         }
         return sourcePage;
     }
@@ -0,0 +1,71 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.action;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * This annotation can be applied to an event handler method or to an {@link ActionBean} class to
+ * cache the response on the server. It has no effect unless the
+ * {@link net.sourceforge.stripes.controller.cache.ResponseCacheInterceptor} is configured. Classes
+ * will inherit this annotation from their superclass, and method-level annotations override
+ * class-level annotations.
+ * </p>
+ * <p>
+ * Only GET requests are cached, and only when the event handler returns a
+ * {@link ForwardResolution}, a {@link StreamingResolution} or a
+ * {@link net.sourceforge.stripes.ajax.JavaScriptResolution} and there are no validation errors.
+ * Once a response has been cached, later GET and HEAD requests that produce the same cache key are
+ * answered with the cached headers and bytes before the request is bound, validated or handled. By
+ * default the key is made up of the ActionBean class, the event, the requested path, all the
+ * request parameters and the locale.
+ * </p>
+ * <p>
+ * Because cached responses are served at the end of handler resolution, {@code @Before} methods,
+ * validation and interceptors for the later lifecycle stages do not run for them. Do not use this
+ * annotation on events whose access checks happen in those stages.
+ * </p>
+ * <p>
+ * Responses that differ by user, session or flash scope must not be cached unless a
+ * {@link net.sourceforge.stripes.controller.cache.ResponseCacheKeyFactory} that accounts for those
+ * differences is configured.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target( { ElementType.METHOD, ElementType.TYPE })
+@Inherited
+@Documented
+public @interface CacheResponse {
+    /** The number of seconds for which a cached response is served. Defaults to 60. */
+    int ttl() default 60;
+
+    /**
+     * The names of the request parameters that are part of the cache key. If empty, which is the
+     * default, then all request parameters are part of the key.
+     */
+    String[] parameters() default {};
+
+    /** Indicates whether the request's locale is part of the cache key. Defaults to true. */
+    boolean varyByLocale() default true;
+}
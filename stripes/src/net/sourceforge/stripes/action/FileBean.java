@@ -15,13 +15,19 @@
 package net.sourceforge.stripes.action;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 
 /**
  * <p>Represents a file that was submitted as part of an HTTP POST request.  Provides methods for
  * examining information about the file, and the retrieving the contents of the file. When a file
  * is uploaded by a user it is stored as a temporary file on the file system, which is wrapped by an
  * instance of this class. This is necessary because browsers may send file upload segments before
- * sending any other form parameters needed to identify what to do with the uploaded files!</p>
+ * sending any other form parameters needed to identify what to do with the uploaded files!
+ * Some {@link net.sourceforge.stripes.controller.multipart.MultipartWrapper}s keep small uploads in
+ * memory instead, so {@link #getInputStream()} and {@link #getChannel()} should be used to read the
+ * contents rather than assuming there is a file.</p>
  *
  * <p>The application developer is responsible for removing this temporary file once they have
  * processed it.  This can be accomplished in one of two ways.  Firstly a call to save(File) will
@@ -108,6 +114,23 @@ public class FileBean {
     public InputStream getInputStream() throws IOException {
         return new FileInputStream(this.file);
     }
+
+    /**
+     * Gets a channel to read from the file uploaded. If the upload is stored in a file then the
+     * channel is a {@link FileChannel}, which allows the contents to be transferred directly to
+     * another channel. Otherwise, the channel wraps the stream returned by
+     * {@link #getInputStream()}. The caller is responsible for closing the channel.
+     *
+     * @return a new channel
+     * @throws IOException if the channel cannot be opened
+     * @since Stripes 1.6
+     */
+    public ReadableByteChannel getChannel() throws IOException {
+        if (this.file == null)
+            return Channels.newChannel(getInputStream());
+        else
+            return new FileInputStream(this.file).getChannel();
+    }
     
     /**
      * Gets a reader to read characters from the uploaded file. If the servlet request specifies a
@@ -184,22 +207,24 @@ public class FileBean {
     }
 
     /**
-     * Attempts to save the uploaded file to the specified file by performing a stream
-     * based copy. This is only used when a rename cannot be executed, e.g. because the
-     * target file is on a different file system than the temporary file.
+     * Attempts to save the uploaded file to the specified file by copying it. This is only used
+     * when a rename cannot be executed, e.g. because the target file is on a different file
+     * system than the temporary file. The copy is done with {@link FileChannel#transferTo}, which
+     * lets the operating system move the data without copying it through the JVM's heap.
      *
      * @param toFile the file to save to
      */
     protected void saveViaCopy(File toFile) throws IOException {
-        OutputStream out = null;
-        InputStream in = null;
+        FileChannel out = null;
+        FileChannel in = null;
         try {
-            out = new FileOutputStream(toFile);
-            in = new FileInputStream(this.file);
+            out = new FileOutputStream(toFile).getChannel();
+            in = new FileInputStream(this.file).getChannel();
 
-            byte[] buffer = new byte[1024];
-            for (int count; (count = in.read(buffer)) > 0;) {
-                out.write(buffer, 0, count);
+            // transferTo may transfer fewer bytes than requested, so loop until done
+            long size = in.size();
+            for (long position = 0; position < size;) {
+                position += in.transferTo(position, size - position, out);
             }
 
             out.close();
@@ -39,8 +39,19 @@ import java.lang.annotation.Target;
  * <li>{@code @HttpCache(allow=false)} - Set headers to disable caching and immediately expire the
  * document.</li>
  * <li>{@code @HttpCache(expires=600)} - Caching is allowed. The document expires in 10 minutes.</li>
+ * <li>{@code @HttpCache(lastModified="getLastModified")} - Caching is allowed. The bean's
+ * {@code getLastModified()} method supplies the Last-Modified header, and conditional GET requests
+ * for a document that has not changed are answered with 304 Not Modified.</li>
  * </ul>
  * </p>
+ * <p>
+ * When {@link #eTag()} or {@link #lastModified()} names a method, that method is invoked after the
+ * request has been bound and validated but before the event handler is invoked. If the request is a
+ * GET or HEAD whose If-None-Match or If-Modified-Since header shows that the client's copy is still
+ * current, then the response status is set to 304 and neither the event handler nor a
+ * {@link Resolution} from it is executed. Otherwise, the ETag and Last-Modified headers are set and
+ * the request is processed as usual.
+ * </p>
  * 
  * @author Ben Gunter
  * @since Stripes 1.5
@@ -62,4 +73,20 @@ public @interface HttpCache {
      * value is less than zero, then no Expires header is sent.
      */
     int expires() default DEFAULT_EXPIRES;
+
+    /**
+     * The name of a public, no-argument method on the {@link ActionBean} that returns the entity tag
+     * of the response. The {@code toString()} of the return value is used, and it is quoted if it is
+     * not already. If the method returns null, no ETag is sent. Ignored if {@link #allow()} is
+     * false.
+     */
+    String eTag() default "";
+
+    /**
+     * The name of a public, no-argument method on the {@link ActionBean} that returns the time the
+     * response was last modified, as a {@code long}, {@link Long} or {@link java.util.Date}. If the
+     * method returns null or a negative number, no Last-Modified header is sent. Ignored if
+     * {@link #allow()} is false.
+     */
+    String lastModified() default "";
 }
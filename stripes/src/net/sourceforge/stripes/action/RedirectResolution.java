@@ -185,6 +185,7 @@ public class RedirectResolution extends OnwardResolution<RedirectResolution> {
         FlashScope flash = FlashScope.getCurrent(request, false);
         if (flash != null) {
             addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, flash.key());
+            flash.save(response);
         }
 
         // Prepend the context path if requested
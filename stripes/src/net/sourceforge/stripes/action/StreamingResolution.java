@@ -14,23 +14,37 @@
  */
 package net.sourceforge.stripes.action;
 
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.WritableByteChannel;
+import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.HttpUtil;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.Range;
 
@@ -59,6 +73,14 @@ import net.sourceforge.stripes.util.Range;
  *}.setFilename("your-filename.xml");
  *</pre>
  *
+ * <p>Files and NIO channels are streamed without going through an InputStream. When the output
+ * stream provided by the servlet container is also a {@link WritableByteChannel}, data is sent
+ * from a file with {@link FileChannel#transferTo(long, long, WritableByteChannel)}, which lets
+ * the operating system copy it directly. Otherwise it is copied through a buffer taken from a
+ * small shared pool. Byte ranges of files are read at their positions in the file instead of by
+ * reading and discarding the bytes before them. A channel in non-blocking mode is waited on
+ * with a {@link Selector} when it has no data ready.</p>
+ *
  * @author Tim Fennell
  */
 public class StreamingResolution implements Resolution {
@@ -66,9 +88,30 @@ public class StreamingResolution implements Resolution {
     private static final String RFC_822_DATE_FORMAT = "EEE, d MMM yyyy HH:mm:ss Z";
     /** Boundary for use in multipart responses. */
     private static final String MULTIPART_BOUNDARY = "BOUNDARY_F7C98B76AEF711DF86D1B4FCDFD72085";
+    /** Size of the buffers used to copy data to the response. */
+    private static final int BUFFER_SIZE = 32 * 1024;
+    /** The maximum number of idle copy buffers kept in {@link #buffers}. */
+    private static final int MAX_POOLED_BUFFERS = 16;
+    /** Milliseconds to wait for data from a non-blocking channel before giving up. */
+    private static final long CHANNEL_TIMEOUT = 30000;
     private static final Log log = Log.getInstance(StreamingResolution.class);
+
+    /** Idle copy buffers, shared by all threads so that idle threads do not hold any. */
+    private static final ConcurrentLinkedQueue<byte[]> buffers = new ConcurrentLinkedQueue<byte[]>();
+    private static final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    /** Formats for Content-Disposition dates, one per thread since they are not thread safe. */
+    private static final ThreadLocal<DateFormat> dateFormats = new ThreadLocal<DateFormat>() {
+        @Override
+        protected DateFormat initialValue() {
+            return new SimpleDateFormat(RFC_822_DATE_FORMAT);
+        }
+    };
+
     private InputStream inputStream;
     private Reader reader;
+    private File file;
+    private ReadableByteChannel channel;
     private String filename;
     private String contentType;
     private String characterEncoding;
@@ -113,6 +156,59 @@ public class StreamingResolution implements Resolution {
         this.reader = reader;
     }
 
+    /**
+     * Constructor that builds a StreamingResolution that will stream the contents of a file back
+     * to the client and identify the data as being of the specified content type. The length
+     * and last modified time are set from the file, and the file is not opened until the data
+     * is streamed.
+     *
+     * @param contentType the content type of the data in the file (e.g. image/png)
+     * @param file the file to return to the client
+     * @since Stripes 1.6
+     */
+    public StreamingResolution(String contentType, File file) {
+        this.contentType = contentType;
+        this.file = file;
+        if (file.isFile()) {
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+    }
+
+    /**
+     * Constructor that builds a StreamingResolution that will stream the contents of a file,
+     * from the channel's current position to the end of the file, back to the client and identify
+     * the data as being of the specified content type. The length is set from the size of the
+     * file.
+     *
+     * @param contentType the content type of the data in the file (e.g. image/png)
+     * @param channel a channel from which to read the data to return to the client
+     * @since Stripes 1.6
+     */
+    public StreamingResolution(String contentType, FileChannel channel) {
+        this.contentType = contentType;
+        this.channel = channel;
+        try {
+            this.length = channel.size() - channel.position();
+        }
+        catch (IOException e) {
+            log.warn("Could not get the size of a file channel", e);
+        }
+    }
+
+    /**
+     * Constructor that builds a StreamingResolution that will stream binary data from a channel
+     * back to the client and identify the data as being of the specified content type.
+     *
+     * @param contentType the content type of the data in the channel (e.g. image/png)
+     * @param channel a channel from which to read the data to return to the client
+     * @since Stripes 1.6
+     */
+    public StreamingResolution(String contentType, ReadableByteChannel channel) {
+        this.contentType = contentType;
+        this.channel = channel;
+    }
+
     /**
      * Constructor that builds a StreamingResolution that will stream character data from a String
      * back to the client and identify the data as being of the specified content type.
@@ -153,7 +249,9 @@ public class StreamingResolution implements Resolution {
     /**
      * Sets the modification-date timestamp. If this property is set, the browser may be able to
      * apply it to the downloaded file. If this property is unset, the modification-date parameter
-     * will be omitted.
+     * will be omitted. If this property is set and the request is a GET or HEAD with an
+     * If-Modified-Since header that is not older than the timestamp, then 304 Not Modified is sent
+     * and nothing is streamed.
      * 
      * @param lastModified The date-time (as a long) that the file was last modified. Optional.
      * @return StreamingResolution so that this method call can be chained to the constructor and
@@ -227,13 +325,22 @@ public class StreamingResolution implements Resolution {
      */
     final public void execute(HttpServletRequest request, HttpServletResponse response)
             throws Exception {
+        if (lastModified >= 0 && HttpUtil.isNotModified(request, null, lastModified)) {
+            log.debug("Client's copy is current; sending 304 Not Modified");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            response.setDateHeader("Last-Modified", lastModified);
+            close();
+            return;
+        }
+
         /*-
          * Process byte ranges only when the following three conditions are met:
          *     - Length has been defined (without length it is impossible to efficiently stream)
          *     - rangeSupport has not been set to false
          *     - Output is binary and not character based
         -*/
-        if (rangeSupport && (length >= 0) && (inputStream != null))
+        if (rangeSupport && (length >= 0)
+                && (inputStream != null || file != null || channel != null))
             byteRanges = parseRangeHeader(request.getHeader("Range"));
 
         applyHeaders(response);
@@ -294,8 +401,7 @@ public class StreamingResolution implements Resolution {
             StringBuilder header = new StringBuilder(attachment ? "attachment" : "inline").append(
                     ";filename=\"").append(escaped).append("\"");
             if (lastModified >= 0) {
-                SimpleDateFormat format = new SimpleDateFormat(RFC_822_DATE_FORMAT);
-                String value = format.format(new Date(lastModified));
+                String value = dateFormats.get().format(new Date(lastModified));
                 header.append(";modification-date=\"").append(value).append("\"");
             }
             if (length >= 0) {
@@ -395,6 +501,21 @@ public class StreamingResolution implements Resolution {
             return res;
     }
 
+    /** Close the InputStream, Reader or channel, if any, without streaming from it. */
+    private void close() {
+        try {
+            if (this.reader != null)
+                this.reader.close();
+            else if (this.inputStream != null)
+                this.inputStream.close();
+            else if (this.channel != null)
+                this.channel.close();
+        }
+        catch (Exception e) {
+            log.warn("Error closing input", e);
+        }
+    }
+
     /**
      * <p>
      * Does the actual streaming of data through the response. If subclassed, this method should be
@@ -404,11 +525,11 @@ public class StreamingResolution implements Resolution {
      * </p>
      * 
      * <p>
-     * If an InputStream or Reader was supplied to a constructor, this implementation uses a
-     * moderately sized buffer to stream data from it to the response to make the operation
-     * reasonably efficient, and closes the InputStream or the Reader. If an IOException occurs when
-     * closing it, that exception will be logged as a warning, and <em>not</em> thrown to avoid
-     * masking a possibly previously thrown exception.
+     * If an InputStream, Reader, File or channel was supplied to a constructor, this
+     * implementation uses a large buffer, or a direct transfer if possible, to stream data from it
+     * to the response to make the operation efficient, and closes the InputStream, Reader or
+     * channel. If an IOException occurs when closing it, that exception will be logged as a
+     * warning, and <em>not</em> thrown to avoid masking a possibly previously thrown exception.
      * </p>
      * 
      * @param response the HttpServletResponse from which either the output stream or writer can be
@@ -418,7 +539,7 @@ public class StreamingResolution implements Resolution {
     protected void stream(HttpServletResponse response) throws Exception {
         int length = 0;
         if (this.reader != null) {
-            char[] buffer = new char[512];
+            char[] buffer = new char[BUFFER_SIZE / 8];
             try {
                 PrintWriter out = response.getWriter();
 
@@ -435,8 +556,31 @@ public class StreamingResolution implements Resolution {
                 }
             }
         }
+        else if (this.file != null || this.channel != null
+                || this.inputStream instanceof FileInputStream) {
+            ReadableByteChannel in = this.channel;
+            try {
+                if (in == null && this.file != null)
+                    in = new FileInputStream(this.file).getChannel();
+                else if (in == null)
+                    in = ((FileInputStream) this.inputStream).getChannel();
+
+                streamChannel(in, response.getOutputStream());
+            }
+            finally {
+                try {
+                    if (in != null)
+                        in.close();
+                    else if (this.inputStream != null)
+                        this.inputStream.close();
+                }
+                catch (Exception e) {
+                    log.warn("Error closing channel", e);
+                }
+            }
+        }
         else if (this.inputStream != null) {
-            byte[] buffer = new byte[512];
+            byte[] buffer = borrowBuffer();
             long count = 0;
 
             try {
@@ -457,11 +601,15 @@ public class StreamingResolution implements Resolution {
                                     + byteRange.getEnd() + "/" + this.length + "\r\n");
                             out.print("\r\n");
                         }
-                        if (count < byteRange.getStart()) {
+                        while (count < byteRange.getStart()) {
                             long skip;
 
-                            skip = byteRange.getStart() - count;
-                            this.inputStream.skip(skip);
+                            skip = this.inputStream.skip(byteRange.getStart() - count);
+                            if (skip <= 0) {
+                                if (this.inputStream.read() < 0)
+                                    break;
+                                skip = 1;
+                            }
                             count += skip;
                         }
                         while ((length = this.inputStream.read(buffer, 0, (int) Math.min(
@@ -480,6 +628,7 @@ public class StreamingResolution implements Resolution {
                 }
             }
             finally {
+                releaseBuffer(buffer);
                 try {
                     this.inputStream.close();
                 }
@@ -495,4 +644,160 @@ public class StreamingResolution implements Resolution {
         }
     }
 
+    /**
+     * Streams the data from a channel to the response, either all of it or the requested byte
+     * ranges. If the channel is a {@link FileChannel}, streaming starts at its current position
+     * and byte ranges are read at their positions in the file.
+     *
+     * @param in the channel from which to read
+     * @param out the output stream of the response
+     * @throws IOException if the channel cannot be read or the response cannot be written
+     */
+    private void streamChannel(ReadableByteChannel in, ServletOutputStream out)
+            throws IOException {
+        long start = in instanceof FileChannel ? ((FileChannel) in).position() : 0;
+
+        if (byteRanges == null) {
+            copy(in, out, start, this.length);
+            return;
+        }
+
+        long position = start;
+        for (Range<Long> byteRange : byteRanges) {
+            // See RFC 2616 section 14.16
+            if (byteRanges.size() > 1) {
+                out.print("--" + MULTIPART_BOUNDARY + "\r\n");
+                out.print("Content-Type: " + contentType + "\r\n");
+                out.print("Content-Range: bytes " + byteRange.getStart() + "-"
+                        + byteRange.getEnd() + "/" + this.length + "\r\n");
+                out.print("\r\n");
+            }
+
+            // Other channels cannot seek, so read up to the start of the range and discard it
+            long rangeStart = start + byteRange.getStart();
+            if (!(in instanceof FileChannel) && position < rangeStart)
+                position += copy(in, null, position, rangeStart - position);
+
+            long count = byteRange.getEnd() - byteRange.getStart() + 1;
+            position = rangeStart + copy(in, out, rangeStart, count);
+
+            if (byteRanges.size() > 1) {
+                out.print("\r\n");
+            }
+        }
+        if (byteRanges.size() > 1)
+            out.print("--" + MULTIPART_BOUNDARY + "--\r\n");
+    }
+
+    /**
+     * Copies bytes from a channel to an output stream. A {@link FileChannel} is read at the given
+     * position, using {@link FileChannel#transferTo(long, long, WritableByteChannel)} if the
+     * output stream is a {@link WritableByteChannel}. Other channels are read from wherever they
+     * are. If a non-blocking {@link SelectableChannel} has no data ready, this waits for it.
+     *
+     * @param in the channel from which to read
+     * @param out the stream to which to write, or null to discard the bytes
+     * @param position the position in the file, if the channel is a FileChannel
+     * @param count the number of bytes to copy, or a negative number to copy all of them
+     * @return the number of bytes copied
+     * @throws IOException if the channel cannot be read or the stream cannot be written, or if
+     *         the channel has no data ready and cannot be waited on or times out
+     */
+    private long copy(ReadableByteChannel in, OutputStream out, long position, long count)
+            throws IOException {
+        FileChannel file = in instanceof FileChannel ? (FileChannel) in : null;
+        if (file != null && count < 0)
+            count = file.size() - position;
+
+        long copied = 0;
+        if (file != null && out instanceof WritableByteChannel) {
+            WritableByteChannel target = (WritableByteChannel) out;
+            while (copied < count) {
+                long n = file.transferTo(position + copied, count - copied, target);
+                if (n <= 0)
+                    break; // end of file, or the target is not accepting; copy the rest below
+                copied += n;
+            }
+        }
+
+        byte[] array = borrowBuffer();
+        Selector selector = null;
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(array);
+            while (count < 0 || copied < count) {
+                buffer.clear();
+                if (count >= 0 && count - copied < array.length)
+                    buffer.limit((int) (count - copied));
+
+                int n = file == null ? in.read(buffer) : file.read(buffer, position + copied);
+                if (n < 0)
+                    break;
+
+                if (n == 0) {
+                    // A non-blocking channel has nothing yet, so wait for it instead of spinning
+                    if (selector == null)
+                        selector = openSelector(in);
+                    if (selector.select(CHANNEL_TIMEOUT) == 0) {
+                        throw new IOException("No data was received from " + in + " within "
+                                + CHANNEL_TIMEOUT + " ms");
+                    }
+                    selector.selectedKeys().clear();
+                    continue;
+                }
+
+                if (out != null)
+                    out.write(array, 0, n);
+                copied += n;
+            }
+        }
+        finally {
+            if (selector != null)
+                selector.close();
+            releaseBuffer(array);
+        }
+
+        return copied;
+    }
+
+    /**
+     * Opens a selector that waits for a channel to become readable.
+     *
+     * @param in a channel that returned no data
+     * @return the selector, with the channel registered for reading
+     * @throws IOException if the channel is not a non-blocking {@link SelectableChannel}
+     */
+    private Selector openSelector(ReadableByteChannel in) throws IOException {
+        if (!(in instanceof SelectableChannel) || ((SelectableChannel) in).isBlocking()) {
+            throw new IOException("Channel " + in + " returned no data, but it is not a "
+                    + "non-blocking SelectableChannel so it cannot be waited on");
+        }
+
+        Selector selector = Selector.open();
+        try {
+            ((SelectableChannel) in).register(selector, SelectionKey.OP_READ);
+        }
+        catch (IOException e) {
+            selector.close();
+            throw e;
+        }
+        return selector;
+    }
+
+    /** Take an idle copy buffer from the pool, or create one if the pool is empty. */
+    private static byte[] borrowBuffer() {
+        byte[] buffer = buffers.poll();
+        if (buffer == null)
+            return new byte[BUFFER_SIZE];
+
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    /** Return a copy buffer to the pool, unless the pool is full. */
+    private static void releaseBuffer(byte[] buffer) {
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS)
+            buffers.offer(buffer);
+        else
+            pooledBuffers.decrementAndGet();
+    }
 }
@@ -61,7 +61,8 @@ public class ValidationErrorReportResolution implements Resolution {
         PrintWriter writer = response.getWriter();
         writer.println("<div style=\"font-family: Arial, sans-serif; font-size: 10pt;\">");
         writer.println("<h1>Stripes validation error report</h1><p>");
-        writer.println(HtmlUtil.encode(exception.getMessage()));
+        HtmlUtil.encodeText(exception.getMessage(), writer);
+        writer.println();
         writer.println("</p><h2>Validation errors</h2><p>");
         sendErrors(request, response);
         writer.println("</p></div>");
@@ -105,7 +106,7 @@ public class ValidationErrorReportResolution implements Resolution {
         for (List<ValidationError> list : getContext().getValidationErrors().values()) {
             for (ValidationError fieldError : list) {
                 writer.write(openElement);
-                writer.write(HtmlUtil.encode(fieldError.getMessage(locale)));
+                HtmlUtil.encodeText(fieldError.getMessage(locale), writer);
                 writer.write(closeElement);
             }
         }
@@ -15,10 +15,12 @@
 package net.sourceforge.stripes.config;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +37,7 @@ import net.sourceforge.stripes.controller.DefaultActionBeanPropertyBinder;
 import net.sourceforge.stripes.controller.DefaultObjectFactory;
 import net.sourceforge.stripes.controller.HttpCacheInterceptor;
 import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.InterceptorStack;
 import net.sourceforge.stripes.controller.Intercepts;
 import net.sourceforge.stripes.controller.LifecycleStage;
 import net.sourceforge.stripes.controller.NameBasedActionResolver;
@@ -42,6 +45,8 @@ import net.sourceforge.stripes.controller.ObjectFactory;
 import net.sourceforge.stripes.controller.ObjectPostProcessor;
 import net.sourceforge.stripes.controller.multipart.DefaultMultipartWrapperFactory;
 import net.sourceforge.stripes.controller.multipart.MultipartWrapperFactory;
+import net.sourceforge.stripes.controller.FlashScopeStore;
+import net.sourceforge.stripes.controller.SessionFlashScopeStore;
 import net.sourceforge.stripes.exception.DefaultExceptionHandler;
 import net.sourceforge.stripes.exception.ExceptionHandler;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
@@ -81,7 +86,7 @@ import net.sourceforge.stripes.validation.ValidationMetadataProvider;
  *
  * @author Tim Fennell
  */
-public class DefaultConfiguration implements Configuration {
+public class DefaultConfiguration implements Configuration, DestroyableComponent {
     /** Log implementation for use within this class. */
     private static final Log log = Log.getInstance(DefaultConfiguration.class);
 
@@ -101,6 +106,7 @@ public class DefaultConfiguration implements Configuration {
     private ExceptionHandler exceptionHandler;
     private MultipartWrapperFactory multipartWrapperFactory;
     private ValidationMetadataProvider validationMetadataProvider;
+    private FlashScopeStore flashScopeStore;
 
     /** Gratefully accepts the BootstrapPropertyResolver handed to the Configuration. */
     public void setBootstrapPropertyResolver(BootstrapPropertyResolver resolver) {
@@ -212,7 +218,13 @@ public class DefaultConfiguration implements Configuration {
                 this.validationMetadataProvider.init(this);
             }
 
-            this.interceptors = new HashMap<LifecycleStage, Collection<Interceptor>>();
+            this.flashScopeStore = initFlashScopeStore();
+            if (this.flashScopeStore == null) {
+                this.flashScopeStore = new SessionFlashScopeStore();
+                this.flashScopeStore.init(this);
+            }
+
+            this.interceptors = new EnumMap<LifecycleStage, Collection<Interceptor>>(LifecycleStage.class);
             Map<LifecycleStage, Collection<Interceptor>> map = initCoreInterceptors();
             if (map != null) {
                 mergeInterceptorMaps(this.interceptors, map);
@@ -240,6 +252,11 @@ public class DefaultConfiguration implements Configuration {
                     }
                 }
             }
+
+            // compile the interceptors for each stage into a fixed, array-backed stack
+            for (Map.Entry<LifecycleStage, Collection<Interceptor>> entry : this.interceptors.entrySet()) {
+                entry.setValue(InterceptorStack.compile(entry.getValue()));
+            }
         }
         catch (Exception e) {
             throw new StripesRuntimeException
@@ -429,19 +446,70 @@ public class DefaultConfiguration implements Configuration {
     /** Allows subclasses to initialize a non-default {@link ValidationMetadataProvider}. */
     protected ValidationMetadataProvider initValidationMetadataProvider() { return null; }
 
+    /**
+     * Returns an instance of {@link FlashScopeStore} that holds flash scopes between requests.
+     * Unless a subclass has picked another implementation, will return an instance of
+     * {@link SessionFlashScopeStore}.
+     * 
+     * @return an instance of {@link FlashScopeStore}
+     */
+    public FlashScopeStore getFlashScopeStore() {
+        return this.flashScopeStore;
+    }
+
+    /** Allows subclasses to initialize a non-default {@link FlashScopeStore}. */
+    protected FlashScopeStore initFlashScopeStore() { return null; }
+
     /**
      * Returns a list of interceptors that should be executed around the lifecycle stage
      * indicated.  By default returns a single element list containing the 
-     * {@link BeforeAfterMethodInterceptor}.
+     * {@link BeforeAfterMethodInterceptor}. The returned collection is an
+     * {@link InterceptorStack} that is compiled when the configuration is initialized. It can
+     * still be modified, and changes apply to lifecycle stages that start afterward.
      */
     public Collection<Interceptor> getInterceptors(LifecycleStage stage) {
         Collection<Interceptor> interceptors = this.interceptors.get(stage);
         if (interceptors == null) {
-            interceptors = Collections.emptyList();
+            interceptors = InterceptorStack.EMPTY;
         }
         return interceptors;
     }
     
+    /**
+     * Destroys every component and interceptor of this configuration that implements
+     * {@link DestroyableComponent}. Interceptors that are configured for more than one lifecycle
+     * stage are destroyed once. A component that fails to destroy itself is logged and does not
+     * keep the others from being destroyed.
+     */
+    public void destroy() {
+        List<Object> components = new ArrayList<Object>();
+        if (this.interceptors != null) {
+            for (Collection<Interceptor> stack : this.interceptors.values()) {
+                components.addAll(stack);
+            }
+        }
+        components.addAll(Arrays.asList(this.actionResolver, this.actionBeanPropertyBinder,
+                this.actionBeanContextFactory, this.typeConverterFactory,
+                this.localizationBundleFactory, this.localePicker, this.formatterFactory,
+                this.tagErrorRendererFactory, this.populationStrategy, this.exceptionHandler,
+                this.multipartWrapperFactory, this.validationMetadataProvider,
+                this.flashScopeStore, this.objectFactory));
+
+        Map<Object, Object> destroyed = new IdentityHashMap<Object, Object>();
+        for (Object component : components) {
+            if (component instanceof DestroyableComponent
+                    && destroyed.put(component, component) == null) {
+                try {
+                    log.debug("Destroying ", component.getClass().getName());
+                    ((DestroyableComponent) component).destroy();
+                }
+                catch (Exception e) {
+                    log.error(e, "Failed to destroy ", component.getClass().getName());
+                }
+            }
+        }
+    }
+
     /**
      * Merges the two {@link Map}s of {@link LifecycleStage} to {@link Collection} of
      * {@link Interceptor}. A simple {@link Map#putAll(Map)} does not work because it overwrites
@@ -0,0 +1,37 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.config;
+
+/**
+ * <p>Implemented by components that hold resources that must be released when Stripes is shut
+ * down, such as threads, caches or registrations with external services. When the
+ * {@link net.sourceforge.stripes.controller.StripesFilter} is destroyed, it destroys its
+ * {@link Configuration} if the configuration implements this interface.
+ * {@link DefaultConfiguration} in turn destroys each of its {@link ConfigurableComponent}s and
+ * {@link net.sourceforge.stripes.controller.Interceptor}s that implement it.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface DestroyableComponent {
+    /**
+     * Invoked once when Stripes is shut down. Components should release any resources they hold
+     * and stop any threads they started. Exceptions are logged and do not keep other components
+     * from being destroyed.
+     *
+     * @throws Exception if the component cannot release its resources cleanly
+     */
+    void destroy() throws Exception;
+}
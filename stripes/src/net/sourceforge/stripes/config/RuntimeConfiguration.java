@@ -27,6 +27,7 @@ import net.sourceforge.stripes.controller.Interceptor;
 import net.sourceforge.stripes.controller.LifecycleStage;
 import net.sourceforge.stripes.controller.ObjectFactory;
 import net.sourceforge.stripes.controller.multipart.MultipartWrapperFactory;
+import net.sourceforge.stripes.controller.FlashScopeStore;
 import net.sourceforge.stripes.exception.ExceptionHandler;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.format.Formatter;
@@ -102,6 +103,9 @@ public class RuntimeConfiguration extends DefaultConfiguration {
     /** The Configuration Key for looking up the name of the ValidationMetadataProvider class */
     public static final String VALIDATION_METADATA_PROVIDER = "ValidationMetadataProvider.Class";
 
+    /** The Configuration Key for looking up the name of the FlashScopeStore class */
+    public static final String FLASH_SCOPE_STORE = "FlashScopeStore.Class";
+
     /** The Configuration Key for looking up the comma separated list of core interceptor classes. */
     public static final String CORE_INTERCEPTOR_LIST = "CoreInterceptor.Classes";
 
@@ -184,6 +188,11 @@ public class RuntimeConfiguration extends DefaultConfiguration {
         return initializeComponent(ValidationMetadataProvider.class, VALIDATION_METADATA_PROVIDER);
     }
 
+    /** Looks for a class name in config and uses that to create the component. */
+    @Override protected FlashScopeStore initFlashScopeStore() {
+        return initializeComponent(FlashScopeStore.class, FLASH_SCOPE_STORE);
+    }
+
     /**
      * Looks for a list of class names separated by commas under the configuration key
      * {@link #CORE_INTERCEPTOR_LIST}.  White space surrounding the class names is trimmed,
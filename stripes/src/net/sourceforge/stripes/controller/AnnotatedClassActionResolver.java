@@ -21,6 +21,7 @@ import net.sourceforge.stripes.action.HandlesEvent;
 import net.sourceforge.stripes.action.SessionScope;
 import net.sourceforge.stripes.config.BootstrapPropertyResolver;
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DestroyableComponent;
 import net.sourceforge.stripes.config.DontAutoLoad;
 import net.sourceforge.stripes.exception.ActionBeanNotFoundException;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
@@ -41,6 +42,13 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>Uses Annotations on classes to identify the ActionBean that corresponds to the current
@@ -51,10 +59,27 @@ import java.util.Set;
  * annotations, and potentially a @DefaultHandler annotation.  Using these annotations the
  * Resolver will determine which method should be executed for the current request.</p>
  *
+ * <p>By default the event handlers of every ActionBean are found when the resolver is
+ * initialized. Applications with many ActionBeans can start faster by setting
+ * {@value #INITIALIZATION} to {@code lazy} or {@code parallel}. In both modes only the URL
+ * bindings are registered at startup, and the metadata for an ActionBean is built the first
+ * time it is needed. In {@code parallel} mode, once the {@link StripesFilter} is initialized,
+ * the event handlers, {@code @Before}/{@code @After} methods, validation metadata and binding
+ * policies of all the ActionBeans are also built in the background on a small pool of threads.
+ * Use {@link #isReady()} or {@link #awaitReady(long, TimeUnit)} to find out when that is done,
+ * e.g. before a server starts accepting traffic.</p>
+ *
+ * <p>In those modes, mistakes such as two handlers for the same event are not found until the
+ * ActionBean's metadata is built. Every ActionBean whose metadata could not be built is
+ * recorded and returned by {@link #getFailures()}, and the resolver does not report that it is
+ * ready while there are any. In {@code lazy} mode an ActionBean is no longer reported once its
+ * metadata has been built successfully on a later attempt.</p>
+ *
  * @see net.sourceforge.stripes.action.UrlBinding
  * @author Tim Fennell
  */
-public class AnnotatedClassActionResolver implements ActionResolver {
+public class AnnotatedClassActionResolver
+        implements WarmableActionResolver, DestroyableComponent {
     /**
      * Configuration key used to lookup a comma-separated list of package names. The
      * packages (and their sub-packages) will be scanned for implementations of
@@ -63,6 +88,26 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      */
     public static final String PACKAGES = "ActionResolver.Packages";
 
+    /**
+     * Configuration key used to choose when ActionBean metadata is built. The value is one of
+     * {@code eager} (the default), {@code lazy} or {@code parallel}.
+     * @since Stripes 1.6
+     */
+    public static final String INITIALIZATION = "ActionResolver.Initialization";
+
+    /**
+     * When the metadata for ActionBeans is built.
+     * @since Stripes 1.6
+     */
+    public static enum Initialization {
+        /** Build everything for all ActionBeans, one after another, during initialization. */
+        EAGER,
+        /** Register the URL bindings and build everything else when it is first needed. */
+        LAZY,
+        /** Like {@link #LAZY}, but also build everything in the background after startup. */
+        PARALLEL
+    }
+
     /** Key used to store the default handler in the Map of handler methods. */
     private static final String DEFAULT_HANDLER_KEY = "__default_handler";
 
@@ -79,19 +124,25 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      * Map used to resolve the methods handling events within form beans. Maps the class
      * representing a subclass of ActionBean to a Map of event names to Method objects.
      */
-    private Map<Class<? extends ActionBean>,Map<String,Method>> eventMappings =
-        new HashMap<Class<? extends ActionBean>,Map<String,Method>>() {
-            private static final long serialVersionUID = 1L;
-
-            @Override
-            public Map<String, Method> get(Object key) {
-                Map<String, Method> value = super.get(key);
-                if (value == null)
-                    return Collections.emptyMap();
-                else
-                    return value;
-            }
-    };
+    private ConcurrentMap<Class<? extends ActionBean>,Map<String,Method>> eventMappings =
+        new ConcurrentHashMap<Class<? extends ActionBean>,Map<String,Method>>();
+
+    /** The URL bindings of ActionBeans whose event mappings have not been built yet. */
+    private Map<Class<? extends ActionBean>, String> deferredBindings =
+        new ConcurrentHashMap<Class<? extends ActionBean>, String>();
+
+    /** When ActionBean metadata is built. */
+    private Initialization initialization = Initialization.EAGER;
+
+    /** Counts down as ActionBeans are warmed up in parallel, or null if there is no warm-up. */
+    private volatile CountDownLatch warmUpLatch;
+
+    /** The threads that warm up ActionBeans in parallel, or null if there is no warm-up. */
+    private volatile ExecutorService warmUpExecutor;
+
+    /** The errors that kept the metadata of ActionBeans from being built, by ActionBean. */
+    private Map<Class<? extends ActionBean>, Throwable> failures =
+        new ConcurrentHashMap<Class<? extends ActionBean>, Throwable>();
 
     /**
      * Scans the classpath of the current classloader (not including parents) to find implementations
@@ -102,6 +153,17 @@ public class AnnotatedClassActionResolver implements ActionResolver {
     public void init(Configuration configuration) throws Exception {
         this.configuration = configuration;
 
+        String mode = configuration.getBootstrapPropertyResolver().getProperty(INITIALIZATION);
+        if (mode != null) {
+            try {
+                this.initialization = Initialization.valueOf(mode.trim().toUpperCase());
+            }
+            catch (IllegalArgumentException e) {
+                log.warn("Invalid value for ", INITIALIZATION, ": ", mode, ". Expected one of ",
+                        Arrays.toString(Initialization.values()), ". Using ", this.initialization);
+            }
+        }
+
         // Process each ActionBean
         for (Class<? extends ActionBean> clazz : findClasses()) {
             addActionBean(clazz);
@@ -135,13 +197,28 @@ public class AnnotatedClassActionResolver implements ActionResolver {
             getUrlBindingFactory().addBinding(clazz, new UrlBinding(clazz, binding));
         }
 
-        // Construct the mapping of event->method for the class
+        // Construct the mapping of event->method for the class, now or when it is first needed
+        if (this.initialization == Initialization.EAGER) {
+            this.eventMappings.put(clazz, createEventMappings(clazz, binding));
+        }
+        else {
+            this.eventMappings.remove(clazz);
+            this.deferredBindings.put(clazz, binding);
+        }
+    }
+
+    /**
+     * Builds the mapping of event names to handler methods for an ActionBean class.
+     *
+     * @param clazz a class that implements ActionBean
+     * @param binding the URL binding of the class, used for logging
+     * @return the event mappings
+     */
+    private Map<String, Method> createEventMappings(Class<? extends ActionBean> clazz,
+            String binding) {
         Map<String, Method> classMappings = new HashMap<String, Method>();
         processMethods(clazz, classMappings);
 
-        // Put the event->method mapping for the class into the set of mappings
-        this.eventMappings.put(clazz, classMappings);
-
         if (log.getRealLog().isDebugEnabled()) {
             // Print out the event mappings nicely
             for (Map.Entry<String, Method> entry : classMappings.entrySet()) {
@@ -153,6 +230,167 @@ public class AnnotatedClassActionResolver implements ActionResolver {
                         binding, isDefault ? "" : "?" + event);
             }
         }
+
+        return classMappings;
+    }
+
+    /**
+     * Gets the mapping of event names to handler methods for an ActionBean class, building it
+     * first if that was deferred.
+     *
+     * @param clazz a class that implements ActionBean
+     * @return the event mappings, which are empty if the class is not a known ActionBean
+     */
+    private Map<String, Method> getEventMappings(Class<? extends ActionBean> clazz) {
+        Map<String, Method> mappings = this.eventMappings.get(clazz);
+        if (mappings == null) {
+            String binding = this.deferredBindings.get(clazz);
+            if (binding == null)
+                return Collections.emptyMap();
+
+            try {
+                mappings = createEventMappings(clazz, binding);
+            }
+            catch (RuntimeException e) {
+                this.failures.put(clazz, e);
+                throw e;
+            }
+            Map<String, Method> existing = this.eventMappings.putIfAbsent(clazz, mappings);
+            if (existing != null)
+                mappings = existing;
+            this.deferredBindings.remove(clazz);
+            this.failures.remove(clazz);
+        }
+        return mappings;
+    }
+
+    /**
+     * Called by the {@link StripesFilter} when it has been initialized. In {@code parallel}
+     * mode this starts building the metadata for all ActionBeans in the background and returns
+     * immediately. In other modes it does nothing.
+     *
+     * @see #awaitReady(long, TimeUnit)
+     */
+    public void warmUp() {
+        if (this.initialization != Initialization.PARALLEL || this.warmUpLatch != null)
+            return;
+
+        Collection<Class<? extends ActionBean>> classes = getActionBeanClasses();
+        final CountDownLatch latch = new CountDownLatch(classes.size());
+        this.warmUpLatch = latch;
+        log.info("Warming up ", classes.size(), " ActionBeans in the background");
+
+        int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "Stripes ActionBean warm-up");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        for (final Class<? extends ActionBean> clazz : classes) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    try {
+                        StripesFilter.setCurrentConfiguration(getConfiguration());
+                        warmUp(clazz);
+                    }
+                    catch (Throwable t) {
+                        failures.put(clazz, t);
+                        log.error(t, "Could not warm up ActionBean ", clazz.getName());
+                    }
+                    finally {
+                        StripesFilter.setCurrentConfiguration(null);
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+        executor.shutdown();
+        this.warmUpExecutor = executor;
+    }
+
+    /**
+     * Stops the threads that warm up ActionBeans in parallel, if there are any, and waits briefly
+     * for them to finish. ActionBeans that were not warmed up are counted as done.
+     */
+    public void destroy() throws InterruptedException {
+        ExecutorService executor = this.warmUpExecutor;
+        if (executor != null) {
+            for (int i = executor.shutdownNow().size(); i > 0; i--) {
+                this.warmUpLatch.countDown();
+            }
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS))
+                log.warn("ActionBean warm-up threads did not stop within 10 seconds");
+            this.warmUpExecutor = null;
+        }
+    }
+
+    /**
+     * Builds and caches the metadata for a single ActionBean class: its event mappings, its
+     * {@code @Before}/{@code @After} methods, its validation metadata and its binding policy.
+     * This is called from several threads at once in {@code parallel} mode.
+     *
+     * @param clazz a class that implements ActionBean
+     */
+    protected void warmUp(Class<? extends ActionBean> clazz) {
+        getEventMappings(clazz);
+        BindingPolicyManager.getInstance(clazz);
+        getConfiguration().getValidationMetadataProvider().getValidationMetadata(clazz);
+        for (LifecycleStage stage : LifecycleStage.values()) {
+            for (Interceptor interceptor : getConfiguration().getInterceptors(stage)) {
+                if (interceptor instanceof BeforeAfterMethodInterceptor)
+                    ((BeforeAfterMethodInterceptor) interceptor).getFilterMethods(clazz);
+            }
+        }
+    }
+
+    /**
+     * Returns true if all ActionBeans have been warmed up and the metadata of none of them has
+     * failed to build. The warm-up is always done unless {@value #INITIALIZATION} is
+     * {@code parallel} and it has not finished.
+     *
+     * @see #getFailures()
+     */
+    public boolean isReady() {
+        CountDownLatch latch = this.warmUpLatch;
+        return (latch == null || latch.getCount() == 0) && this.failures.isEmpty();
+    }
+
+    /**
+     * Returns the errors that kept the metadata of ActionBeans from being built while they were
+     * warmed up, or when they were first used in {@code lazy} mode, keyed by ActionBean class.
+     *
+     * @return an unmodifiable map of the failures, which is empty if there were none
+     */
+    public Map<Class<? extends ActionBean>, Throwable> getFailures() {
+        return Collections.unmodifiableMap(this.failures);
+    }
+
+    /**
+     * Waits until all ActionBeans have been warmed up, if they are being warmed up in parallel.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the warm-up is done, false if the timeout elapsed first
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws StripesRuntimeException if the metadata of any ActionBean failed to build
+     * @see #getFailures()
+     */
+    public boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        CountDownLatch latch = this.warmUpLatch;
+        if (latch != null && !latch.await(timeout, unit))
+            return false;
+
+        if (!this.failures.isEmpty()) {
+            Map.Entry<Class<? extends ActionBean>, Throwable> failure =
+                this.failures.entrySet().iterator().next();
+            throw new StripesRuntimeException("The metadata of " + this.failures.size()
+                    + " ActionBean(s) could not be built, including " + failure.getKey().getName()
+                    + ": " + failure.getValue().getMessage(), failure.getValue());
+        }
+        return true;
     }
 
     /**
@@ -167,6 +405,8 @@ public class AnnotatedClassActionResolver implements ActionResolver {
             getUrlBindingFactory().removeBinding(clazz);
         }
         eventMappings.remove(clazz);
+        deferredBindings.remove(clazz);
+        failures.remove(clazz);
     }
 
     /**
@@ -472,7 +712,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
 
         List<String> eventParams = new ArrayList<String>();
         Map<String,String[]> parameterMap = context.getRequest().getParameterMap();
-        for (String event : this.eventMappings.get(bean).keySet()) {
+        for (String event : getEventMappings(bean).keySet()) {
             if (parameterMap.containsKey(event) || parameterMap.containsKey(event + ".x")) {
                 eventParams.add(event);
             }
@@ -503,7 +743,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      */
     protected String getEventNameFromPath(Class<? extends ActionBean> bean,
                                           ActionBeanContext context) {
-        Map<String,Method> mappings = this.eventMappings.get(bean);
+        Map<String,Method> mappings = getEventMappings(bean);
         String path = HttpUtil.getRequestedPath(context.getRequest());
         UrlBinding prototype = getUrlBindingFactory().getBindingPrototype(path);
         String binding = prototype == null ? null : prototype.getPath();
@@ -533,7 +773,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
                                                     ActionBeanContext context) {
         String[] values = context.getRequest().getParameterValues(StripesConstants.URL_KEY_EVENT_NAME);
         String event = null;
-        if (values != null && values.length == 1 && this.eventMappings.get(bean).containsKey(values[0])) {
+        if (values != null && values.length == 1 && getEventMappings(bean).containsKey(values[0])) {
             event = values[0];
         }
 
@@ -568,7 +808,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      */
     public Method getHandler(Class<? extends ActionBean> bean, String eventName)
         throws StripesServletException {
-        Map<String,Method> mappings = this.eventMappings.get(bean);
+        Map<String,Method> mappings = getEventMappings(bean);
         Method handler = mappings.get(eventName);
 
         // If we could not find a handler then we should blow up quickly
@@ -591,7 +831,7 @@ public class AnnotatedClassActionResolver implements ActionResolver {
      * @throws StripesServletException if no default handler could be located
      */
     public Method getDefaultHandler(Class<? extends ActionBean> bean) throws StripesServletException {
-        Map<String,Method> handlers = this.eventMappings.get(bean);
+        Map<String,Method> handlers = getEventMappings(bean);
 
         if (handlers.size() == 1) {
             return handlers.values().iterator().next();
@@ -17,11 +17,12 @@ package net.sourceforge.stripes.controller;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import net.sourceforge.stripes.action.ActionBean;
@@ -52,8 +53,11 @@ public class BindingPolicyManager {
     /** Log */
     private static final Log log = Log.getInstance(BindingPolicyManager.class);
 
+    /** The maximum number of binding decisions cached by each instance */
+    private static final int DECISION_CACHE_SIZE = 512;
+
     /** Cached instances */
-    private static final Map<Class<?>, BindingPolicyManager> instances = new HashMap<Class<?>, BindingPolicyManager>();
+    private static final ConcurrentMap<Class<?>, BindingPolicyManager> instances = new ConcurrentHashMap<Class<?>, BindingPolicyManager>();
 
     /**
      * Get the policy manager for the given class. Instances are cached and returned on subsequent
@@ -63,11 +67,13 @@ public class BindingPolicyManager {
      * @return a policy manager
      */
     public static BindingPolicyManager getInstance(Class<?> beanType) {
-        if (instances.containsKey(beanType))
-            return instances.get(beanType);
-
-        BindingPolicyManager instance = new BindingPolicyManager(beanType);
-        instances.put(beanType, instance);
+        BindingPolicyManager instance = instances.get(beanType);
+        if (instance == null) {
+            instance = new BindingPolicyManager(beanType);
+            BindingPolicyManager existing = instances.putIfAbsent(beanType, instance);
+            if (existing != null)
+                instance = existing;
+        }
         return instance;
     }
 
@@ -86,6 +92,9 @@ public class BindingPolicyManager {
     /** The regular expression that matches properties with {@literal @Validate} */
     private Pattern validatePattern;
 
+    /** Decisions for expressions whose type does not depend on the state of the bean */
+    private final ConcurrentMap<String, Boolean> decisions = new ConcurrentHashMap<String, Boolean>();
+
     /**
      * Create a new instance to handle binding security for the given type.
      * 
@@ -128,6 +137,27 @@ public class BindingPolicyManager {
      * @return true if binding is allowed; false if not
      */
     public boolean isBindingAllowed(PropertyExpressionEvaluation eval) {
+        // The decision depends only on the expression and the type of its root node
+        boolean cacheable = !eval.isInstanceDependent();
+        String source = eval.getExpression().getSource();
+        if (cacheable) {
+            Boolean allowed = decisions.get(source);
+            if (allowed != null)
+                return allowed;
+        }
+
+        boolean allowed = checkBindingAllowed(eval);
+        if (cacheable) {
+            // Parameter names come from the client, so keep the cache from growing without bound
+            if (decisions.size() >= DECISION_CACHE_SIZE)
+                decisions.clear();
+            decisions.put(source, allowed);
+        }
+        return allowed;
+    }
+
+    /** Applies the binding policy to an expression without consulting the cache. */
+    private boolean checkBindingAllowed(PropertyExpressionEvaluation eval) {
         // Ensure no-one is trying to bind into the ActionBeanContext!!
         Type firstNodeType = eval.getRootNode().getValueType();
         if (firstNodeType instanceof Class<?>
@@ -0,0 +1,123 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Collection;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>
+ * A {@link FlashScopeStore} that sends flash scopes to the client in a cookie. The flash scope is
+ * serialized, compressed and encrypted as described in {@link SerializingFlashScopeStore}, so the
+ * client can neither read nor alter it. The cookie expires when the flash scope times out, and is
+ * deleted when the flash scope is consumed. No state is kept on the server.
+ * </p>
+ * <p>
+ * Browsers limit the size of cookies. A flash scope that does not fit in
+ * {@value #MAX_COOKIE_LENGTH} characters is kept in the {@code HttpSession} instead, as if by
+ * {@link SessionFlashScopeStore}.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class CookieFlashScopeStore extends SerializingFlashScopeStore {
+    private static final Log log = Log.getInstance(CookieFlashScopeStore.class);
+
+    /** The prefix of the name of the cookie that holds a flash scope. */
+    public static final String COOKIE_NAME_PREFIX = "__fs";
+
+    /** The maximum length of the value of a cookie. */
+    public static final int MAX_COOKIE_LENGTH = 3800;
+
+    /** Holds the flash scopes that are too big to fit in a cookie. */
+    private final SessionFlashScopeStore overflow = new SessionFlashScopeStore();
+
+    /** Does nothing because the flash scope is not written until it is saved. */
+    public boolean add(HttpServletRequest request, FlashScope scope) {
+        return true;
+    }
+
+    /** Writes the flash scope to a cookie, or to the session if it is too big. */
+    public void save(HttpServletRequest request, HttpServletResponse response, FlashScope scope) {
+        String value = encode(serialize(scope));
+        if (value.length() > MAX_COOKIE_LENGTH) {
+            log.debug("Flash scope ", scope.key(), " is too big for a cookie (", value.length(),
+                    " characters) so it will be stored in the session");
+            overflow.add(request, scope);
+            return;
+        }
+
+        response.addCookie(FlashScopeCookies.createCookie(request, getCookieName(scope.key()),
+                value, scope.getTimeout()));
+    }
+
+    /** Reads the flash scope from its cookie and deletes the cookie, or checks the session. */
+    public FlashScope remove(HttpServletRequest request, HttpServletResponse response,
+            String key) {
+        Cookie cookie = FlashScopeCookies.findCookie(request, getCookieName(key));
+        if (cookie != null) {
+            FlashScopeCookies.expire(request, response, cookie.getName());
+            FlashScope scope = decode(cookie.getValue(), key);
+            if (scope != null)
+                return scope;
+        }
+
+        return overflow.remove(request, response, key);
+    }
+
+    /** Returns only the flash scopes that were too big for a cookie. */
+    public Collection<FlashScope> getAll(HttpServletRequest request) {
+        return overflow.getAll(request);
+    }
+
+    /** Removes expired flash scopes that were too big for a cookie. */
+    public void removeExpired(HttpServletRequest request) {
+        overflow.removeExpired(request);
+    }
+
+    /** Get the name of the cookie that holds the flash scope with the given key. */
+    protected String getCookieName(String key) {
+        return COOKIE_NAME_PREFIX + key;
+    }
+
+    /** Base 64 encode the encrypted flash scope, dropping any trailing padding. */
+    protected String encode(byte[] bytes) {
+        return FlashScopeCookies.encode(bytes);
+    }
+
+    /**
+     * Decode, decrypt and deserialize the value of a cookie.
+     * 
+     * @param value the value of the cookie
+     * @param key the key that the flash scope is expected to have
+     * @return the flash scope, or null if the cookie was altered or is invalid for any reason
+     */
+    protected FlashScope decode(String value, String key) {
+        byte[] bytes = FlashScopeCookies.decode(value);
+        if (bytes == null) {
+            log.warn("Ignoring invalid flash scope cookie ", getCookieName(key));
+            return null;
+        }
+
+        FlashScope scope = deserialize(bytes);
+        return scope != null && key.equals(scope.key()) ? scope : null;
+    }
+}
@@ -52,6 +52,8 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <p>
@@ -72,9 +74,37 @@ import java.util.TreeMap;
 public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder {
     private static final Log log = Log.getInstance(DefaultActionBeanPropertyBinder.class);
 
+    /** The default maximum number of binding plans cached for each ActionBean class. */
+    public static final int DEFAULT_BINDING_PLAN_CACHE_SIZE = 512;
+
     /** Configuration instance passed in at initialization time. */
     private Configuration configuration;
 
+    /** Maps ActionBean classes to the binding plans for the parameters that have been bound */
+    private final ConcurrentMap<Class<?>, Map<String, BindingPlan>> bindingPlans = new ConcurrentHashMap<Class<?>, Map<String, BindingPlan>>();
+
+    /** The maximum number of binding plans cached for each ActionBean class */
+    private int bindingPlanCacheSize = DEFAULT_BINDING_PLAN_CACHE_SIZE;
+
+    /**
+     * The parts of binding a request parameter to an ActionBean that depend only on the class of
+     * the ActionBean and the name of the parameter: the type information of the property
+     * expression and the validation metadata.
+     */
+    private static class BindingPlan {
+        final PropertyExpressionEvaluation template;
+        final ValidationMetadata validationInfo;
+        final Class<?> type, scalarType;
+
+        BindingPlan(PropertyExpressionEvaluation template, ValidationMetadata validationInfo,
+                Class<?> type, Class<?> scalarType) {
+            this.template = template;
+            this.validationInfo = validationInfo;
+            this.type = type;
+            this.scalarType = scalarType;
+        }
+    }
+
     /**
      * Looks up and caches in a useful form the metadata necessary to perform validations as
      * properties are bound to the bean.
@@ -86,6 +116,27 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
     /** Returns the Configuration object that was passed to the init() method. */
     protected Configuration getConfiguration() { return configuration; }
 
+    /**
+     * Get the maximum number of binding plans that are cached for each ActionBean class. The
+     * default is {@value #DEFAULT_BINDING_PLAN_CACHE_SIZE}.
+     */
+    public int getBindingPlanCacheSize() {
+        return bindingPlanCacheSize;
+    }
+
+    /**
+     * Set the maximum number of binding plans that are cached for each ActionBean class. Since
+     * parameter names are supplied by the client, the number of distinct names is unbounded (for
+     * example, indexed properties). When the cache for a class is full, it is emptied and starts
+     * filling again. A size of zero disables the cache.
+     * 
+     * @param bindingPlanCacheSize the maximum number of binding plans per ActionBean class
+     */
+    public void setBindingPlanCacheSize(int bindingPlanCacheSize) {
+        this.bindingPlanCacheSize = bindingPlanCacheSize;
+        this.bindingPlans.clear();
+    }
+
     /**
      * <p>
      * Loops through the parameters contained in the request and attempts to bind each one to the
@@ -132,21 +183,38 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
                         && !fieldErrors.containsKey(pname)) {
                     log.trace("Running binding for property with name: ", name);
 
-                    // Determine the target type
-                    ValidationMetadata validationInfo = validationInfos.get(name.getStrippedName());
+                    // Determine the target type, using the cached plan if there is one
+                    BindingPlan plan = getBindingPlan(bean.getClass(), pname);
+                    ValidationMetadata validationInfo;
                     PropertyExpressionEvaluation eval;
-                    try {
-                        eval = new PropertyExpressionEvaluation(PropertyExpression
-                                .getExpression(pname), bean);
+                    Class<?> type, scalarType;
+                    if (plan != null) {
+                        validationInfo = plan.validationInfo;
+                        eval = new PropertyExpressionEvaluation(plan.template, bean);
+                        type = plan.type;
+                        scalarType = plan.scalarType;
                     }
-                    catch (Exception e) {
-                        if (pname.equals(context.getEventName()))
-                            continue;
-                        else
-                            throw e;
+                    else {
+                        validationInfo = validationInfos.get(name.getStrippedName());
+                        try {
+                            eval = new PropertyExpressionEvaluation(PropertyExpression
+                                    .getExpression(pname), bean);
+                        }
+                        catch (Exception e) {
+                            if (pname.equals(context.getEventName()))
+                                continue;
+                            else
+                                throw e;
+                        }
+                        type = eval.getType();
+                        scalarType = eval.getScalarType();
+
+                        if (!eval.isInstanceDependent()) {
+                            cacheBindingPlan(bean.getClass(), pname, new BindingPlan(
+                                    new PropertyExpressionEvaluation(eval, null),
+                                    validationInfo, type, scalarType));
+                        }
                     }
-                    Class<?> type = eval.getType();
-                    Class<?> scalarType = eval.getScalarType();
 
                     // Check to see if binding into this expression is permitted
                     if (!isBindingAllowed(eval))
@@ -236,6 +304,44 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
         return fieldErrors;
     }
 
+    /**
+     * Get the cached binding plan for a parameter of an ActionBean class.
+     * 
+     * @param beanType the ActionBean class
+     * @param name the exact name of the parameter in the request
+     * @return the binding plan, or null if none has been cached
+     */
+    private BindingPlan getBindingPlan(Class<?> beanType, String name) {
+        Map<String, BindingPlan> plans = bindingPlans.get(beanType);
+        return plans == null ? null : plans.get(name);
+    }
+
+    /**
+     * Cache the binding plan for a parameter of an ActionBean class so that subsequent requests
+     * that bind the same parameter to the same class can skip evaluating the property expression
+     * and looking up validation metadata. The cache for each class is
+     * bounded by {@link #getBindingPlanCacheSize()}.
+     * 
+     * @param beanType the ActionBean class
+     * @param name the exact name of the parameter in the request
+     * @param plan the binding plan
+     */
+    private void cacheBindingPlan(Class<?> beanType, String name, BindingPlan plan) {
+        if (bindingPlanCacheSize > 0) {
+            Map<String, BindingPlan> plans = bindingPlans.get(beanType);
+            if (plans == null) {
+                plans = new ConcurrentHashMap<String, BindingPlan>();
+                Map<String, BindingPlan> existing = bindingPlans.putIfAbsent(beanType, plans);
+                if (existing != null)
+                    plans = existing;
+            }
+
+            if (plans.size() >= bindingPlanCacheSize)
+                plans.clear();
+            plans.put(name, plan);
+        }
+    }
+
     /**
      * <p>
      * Checks to see if binding is permitted for the provided expression evaluation. Note that the
@@ -248,6 +354,12 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
      * ActionBeanContext for security reasons.
      * </p>
      * 
+     * <p>
+     * This method is called for every parameter on every request, so subclasses may make
+     * decisions that depend on the request or the current user. The default implementation
+     * delegates to the {@link BindingPolicyManager}, which caches its decisions.
+     * </p>
+     * 
      * @param eval the expression evaluation to check for binding permission
      * @return true if binding can/should proceed, false to veto binding
      */
@@ -341,7 +453,7 @@ public class DefaultActionBeanPropertyBinder implements ActionBeanPropertyBinder
             }
         }
         else {
-            fieldsPresent = CryptoUtil.decrypt(fieldsPresent);
+            fieldsPresent = CryptoUtil.decryptToken(fieldsPresent);
             return HtmlUtil.splitValues(fieldsPresent);
         }
     }
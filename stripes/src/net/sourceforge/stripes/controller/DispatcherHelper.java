@@ -101,31 +101,34 @@ public class DispatcherHelper {
         final Configuration config = StripesFilter.getConfiguration();
         ctx.setLifecycleStage(LifecycleStage.ActionBeanResolution);
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.ActionBeanResolution));
-        return  ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext ctx) throws Exception {
-                // Look up the ActionBean and set it on the context
-                ActionBeanContext context = ctx.getActionBeanContext();
-                ActionBean bean = StripesFilter.getConfiguration().getActionResolver().getActionBean(context);
-                ctx.setActionBean(bean);
-
-                // Prefer the context from the resolved bean if it differs from the ExecutionContext
-                if (context != bean.getContext()) {
-                    ActionBeanContext other = bean.getContext();
-                    other.setEventName(context.getEventName());
-                    other.setRequest(context.getRequest());
-                    other.setResponse(context.getResponse());
-
-                    context = other;
-                    ctx.setActionBeanContext(context);
-                }
+        return ctx.wrap(RESOLVE_ACTION_BEAN);
+    }
 
-                // Then register it in the Request as THE ActionBean for this request
-                HttpServletRequest request = context.getRequest();
-                request.setAttribute(StripesConstants.REQ_ATTR_ACTION_BEAN, bean);
-                return null;
+    /** Lifecycle code for {@link LifecycleStage#ActionBeanResolution}. */
+    private static final Interceptor RESOLVE_ACTION_BEAN = new Interceptor() {
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            // Look up the ActionBean and set it on the context
+            ActionBeanContext context = ctx.getActionBeanContext();
+            ActionBean bean = StripesFilter.getConfiguration().getActionResolver().getActionBean(context);
+            ctx.setActionBean(bean);
+
+            // Prefer the context from the resolved bean if it differs from the ExecutionContext
+            if (context != bean.getContext()) {
+                ActionBeanContext other = bean.getContext();
+                other.setEventName(context.getEventName());
+                other.setRequest(context.getRequest());
+                other.setResponse(context.getResponse());
+
+                context = other;
+                ctx.setActionBeanContext(context);
             }
-        });
-    }
+
+            // Then register it in the Request as THE ActionBean for this request
+            HttpServletRequest request = context.getRequest();
+            request.setAttribute(StripesConstants.REQ_ATTR_ACTION_BEAN, bean);
+            return null;
+        }
+    };
 
     /**
      * Responsible for resolving the event name for this request and setting it on the
@@ -141,43 +144,45 @@ public class DispatcherHelper {
         final Configuration config = StripesFilter.getConfiguration();
         ctx.setLifecycleStage(LifecycleStage.HandlerResolution);
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.HandlerResolution));
+        return ctx.wrap(RESOLVE_HANDLER);
+    }
 
-        return ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext ctx) throws Exception {
-                ActionBean bean = ctx.getActionBean();
-                ActionBeanContext context = ctx.getActionBeanContext();
-                ActionResolver resolver = config.getActionResolver();
+    /** Lifecycle code for {@link LifecycleStage#HandlerResolution}. */
+    private static final Interceptor RESOLVE_HANDLER = new Interceptor() {
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            ActionBean bean = ctx.getActionBean();
+            ActionBeanContext context = ctx.getActionBeanContext();
+            ActionResolver resolver = StripesFilter.getConfiguration().getActionResolver();
 
-                // Then lookup the event name and handler method etc.
-                String eventName = resolver.getEventName(bean.getClass(), context);
-                context.setEventName(eventName);
+            // Then lookup the event name and handler method etc.
+            String eventName = resolver.getEventName(bean.getClass(), context);
+            context.setEventName(eventName);
 
-                final Method handler;
-                if (eventName != null) {
-                    handler = resolver.getHandler(bean.getClass(), eventName);
-                }
-                else {
-                    handler = resolver.getDefaultHandler(bean.getClass());
-                    if (handler != null) {
-                        context.setEventName(resolver.getHandledEvent(handler));
-                    }
+            final Method handler;
+            if (eventName != null) {
+                handler = resolver.getHandler(bean.getClass(), eventName);
+            }
+            else {
+                handler = resolver.getDefaultHandler(bean.getClass());
+                if (handler != null) {
+                    context.setEventName(resolver.getHandledEvent(handler));
                 }
+            }
 
-                // Insist that we have a handler
-                if (handler == null) {
-                    throw new StripesServletException(
-                            "No handler method found for request with  ActionBean [" +
-                            bean.getClass().getName() + "] and eventName [ " + eventName + "]");
-                }
+            // Insist that we have a handler
+            if (handler == null) {
+                throw new StripesServletException(
+                        "No handler method found for request with  ActionBean [" +
+                        bean.getClass().getName() + "] and eventName [ " + eventName + "]");
+            }
 
-                log.debug("Resolved event: ", context.getEventName(), "; will invoke: ",
-                          bean.getClass().getSimpleName(), ".", handler.getName(), "()");
+            log.debug("Resolved event: ", context.getEventName(), "; will invoke: ",
+                      bean.getClass().getSimpleName(), ".", handler.getName(), "()");
 
-                ctx.setHandler(handler);
-                return null;
-            }
-        });
-    }
+            ctx.setHandler(handler);
+            return null;
+        }
+    };
 
     /**
      * Responsible for performing binding and validation. Once properties have been bound and
@@ -200,16 +205,47 @@ public class DispatcherHelper {
         ctx.setLifecycleStage(LifecycleStage.BindingAndValidation);
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.BindingAndValidation));
 
-        return ctx.wrap(new Interceptor() {
-            public Resolution intercept(ExecutionContext ctx) throws Exception {
-                if (doBind) {
-                    ActionBeanPropertyBinder binder = config.getActionBeanPropertyBinder();
-                    binder.bind(ctx.getActionBean(), ctx.getActionBeanContext(), doValidate);
-                    fillInValidationErrors(ctx);
-                }
-                return null;
-            }
-        });
+        if (doValidate)
+            return ctx.wrap(BIND_AND_VALIDATE);
+        else if (doBind)
+            return ctx.wrap(BIND_WITHOUT_VALIDATION);
+        else
+            return ctx.wrap(NO_OP);
+    }
+
+    /** Lifecycle code for {@link LifecycleStage#BindingAndValidation} when validating. */
+    private static final Interceptor BIND_AND_VALIDATE = new BindingInterceptor(true);
+
+    /** Lifecycle code for {@link LifecycleStage#BindingAndValidation} when not validating. */
+    private static final Interceptor BIND_WITHOUT_VALIDATION = new BindingInterceptor(false);
+
+    /**
+     * Lifecycle code for stages that have no Stripes processing associated with them, such as
+     * {@link LifecycleStage#RequestInit}, or that are skipped for the current request.
+     */
+    static final Interceptor NO_OP = new Interceptor() {
+        public Resolution intercept(ExecutionContext context) throws Exception {
+            return null;
+        }
+    };
+
+    /**
+     * Binds request parameters to the ActionBean, with or without validation. Holds no request
+     * state so that a single instance can be shared by all requests.
+     */
+    private static class BindingInterceptor implements Interceptor {
+        private final boolean validate;
+
+        BindingInterceptor(boolean validate) {
+            this.validate = validate;
+        }
+
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            ActionBeanPropertyBinder binder = StripesFilter.getConfiguration().getActionBeanPropertyBinder();
+            binder.bind(ctx.getActionBean(), ctx.getActionBeanContext(), validate);
+            fillInValidationErrors(ctx);
+            return null;
+        }
     }
 
     /**
@@ -223,8 +259,6 @@ public class DispatcherHelper {
      */
     public static Resolution doCustomValidation(final ExecutionContext ctx,
                                                 final boolean alwaysInvokeValidate) throws Exception {
-        final ValidationErrors errors = ctx.getActionBeanContext().getValidationErrors();
-        final ActionBean bean = ctx.getActionBean();
         final Method handler = ctx.getHandler();
         final boolean doBind = handler != null && handler.getAnnotation(DontBind.class) == null;
         final boolean doValidate = doBind && handler.getAnnotation(DontValidate.class) == null;
@@ -238,35 +272,58 @@ public class DispatcherHelper {
 
             ctx.setLifecycleStage(LifecycleStage.CustomValidation);
             ctx.setInterceptors(config.getInterceptors(LifecycleStage.CustomValidation));
+            return ctx.wrap(alwaysInvokeValidate ? CUSTOM_VALIDATION_ALWAYS : CUSTOM_VALIDATION);
+        }
+        else {
+            return null;
+        }
+    }
 
-            return ctx.wrap( new Interceptor() {
-				public Resolution intercept(ExecutionContext context) throws Exception {
-                    // Run any of the annotated validation methods
-                    Method[] validations = findCustomValidationMethods(bean.getClass());
-                    for (Method validation : validations) {
-                        ValidationMethod ann = validation.getAnnotation(ValidationMethod.class);
-
-                        boolean run = (ann.when() == ValidationState.ALWAYS)
-                                   || (ann.when() == ValidationState.DEFAULT && alwaysInvokeValidate)
-                                   || errors.isEmpty();
-
-                        if (run && applies(ann, ctx.getActionBeanContext().getEventName())) {
-                            Class<?>[] args = validation.getParameterTypes();
-                            if (args.length == 1 && args[0].equals(ValidationErrors.class)) {
-                                validation.invoke(bean, errors);
-                            }
-                            else {
-                                validation.invoke(bean);
-                            }
-                        }
-                    }
+    /** Lifecycle code for {@link LifecycleStage#CustomValidation}. */
+    private static final Interceptor CUSTOM_VALIDATION = new CustomValidationInterceptor(false);
 
-                    fillInValidationErrors(ctx);
-                    return null;
-                }
-            });
+    /**
+     * Lifecycle code for {@link LifecycleStage#CustomValidation} when validation methods are
+     * to be invoked even if validation errors already exist.
+     */
+    private static final Interceptor CUSTOM_VALIDATION_ALWAYS = new CustomValidationInterceptor(true);
+
+    /**
+     * Invokes the custom validation methods of the ActionBean. Holds no request state so that a
+     * single instance can be shared by all requests.
+     */
+    private static class CustomValidationInterceptor implements Interceptor {
+        private final boolean alwaysInvokeValidate;
+
+        CustomValidationInterceptor(boolean alwaysInvokeValidate) {
+            this.alwaysInvokeValidate = alwaysInvokeValidate;
         }
-        else {
+
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            ActionBean bean = ctx.getActionBean();
+            ValidationErrors errors = ctx.getActionBeanContext().getValidationErrors();
+
+            // Run any of the annotated validation methods
+            Method[] validations = findCustomValidationMethods(bean.getClass());
+            for (Method validation : validations) {
+                ValidationMethod ann = validation.getAnnotation(ValidationMethod.class);
+
+                boolean run = (ann.when() == ValidationState.ALWAYS)
+                           || (ann.when() == ValidationState.DEFAULT && alwaysInvokeValidate)
+                           || errors.isEmpty();
+
+                if (run && applies(ann, ctx.getActionBeanContext().getEventName())) {
+                    Class<?>[] args = validation.getParameterTypes();
+                    if (args.length == 1 && args[0].equals(ValidationErrors.class)) {
+                        validation.invoke(bean, errors);
+                    }
+                    else {
+                        validation.invoke(bean);
+                    }
+                }
+            }
+
+            fillInValidationErrors(ctx);
             return null;
         }
     }
@@ -444,32 +501,34 @@ public class DispatcherHelper {
      */
     public static Resolution invokeEventHandler(ExecutionContext ctx) throws Exception {
         final Configuration config = StripesFilter.getConfiguration();
-        final Method handler = ctx.getHandler();
-        final ActionBean bean = ctx.getActionBean();
 
         // Finally execute the handler method!
         ctx.setLifecycleStage(LifecycleStage.EventHandling);
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.EventHandling));
+        return ctx.wrap(INVOKE_EVENT_HANDLER);
+    }
 
-        return ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext ctx) throws Exception {
-                Object returnValue = handler.invoke(bean);
-                fillInValidationErrors(ctx);
-
-                if (returnValue != null && returnValue instanceof Resolution) {
-                    ctx.setResolutionFromHandler(true);
-                    return (Resolution) returnValue;
-                }
-                else if (returnValue != null) {
-                    log.warn("Expected handler method ", handler.getName(), " on class ",
-                             bean.getClass().getSimpleName(), " to return a Resolution. Instead it ",
-                             "returned: ", returnValue);
-                }
+    /** Lifecycle code for {@link LifecycleStage#EventHandling}. */
+    private static final Interceptor INVOKE_EVENT_HANDLER = new Interceptor() {
+        public Resolution intercept(ExecutionContext ctx) throws Exception {
+            Method handler = ctx.getHandler();
+            ActionBean bean = ctx.getActionBean();
+            Object returnValue = handler.invoke(bean);
+            fillInValidationErrors(ctx);
 
-                return null;
+            if (returnValue != null && returnValue instanceof Resolution) {
+                ctx.setResolutionFromHandler(true);
+                return (Resolution) returnValue;
             }
-        });
-    }
+            else if (returnValue != null) {
+                log.warn("Expected handler method ", handler.getName(), " on class ",
+                         bean.getClass().getSimpleName(), " to return a Resolution. Instead it ",
+                         "returned: ", returnValue);
+            }
+
+            return null;
+        }
+    };
 
     /**
      * Responsible for executing the Resolution returned by the request. Transitions the
@@ -488,18 +547,7 @@ public class DispatcherHelper {
         ctx.setInterceptors(config.getInterceptors(LifecycleStage.ResolutionExecution));
         ctx.setResolution(resolution);
 
-        Resolution retval = ctx.wrap( new Interceptor() {
-            public Resolution intercept(ExecutionContext context) throws Exception {
-                ActionBeanContext abc = context.getActionBeanContext();
-                Resolution resolution = context.getResolution();
-
-                if (resolution != null) {
-                    resolution.execute(abc.getRequest(), abc.getResponse());
-                }
-
-                return null;
-            }
-        });
+        Resolution retval = ctx.wrap(EXECUTE_RESOLUTION);
 
         if (retval != null) {
             log.warn("An interceptor wrapping LifecycleStage.ResolutionExecution returned ",
@@ -516,6 +564,20 @@ public class DispatcherHelper {
         }
     }
 
+    /** Lifecycle code for {@link LifecycleStage#ResolutionExecution}. */
+    private static final Interceptor EXECUTE_RESOLUTION = new Interceptor() {
+        public Resolution intercept(ExecutionContext context) throws Exception {
+            ActionBeanContext abc = context.getActionBeanContext();
+            Resolution resolution = context.getResolution();
+
+            if (resolution != null) {
+                resolution.execute(abc.getRequest(), abc.getResponse());
+            }
+
+            return null;
+        }
+    };
+
     /** Log validation errors at DEBUG to help during development. */
     public static final void logValidationErrors(ActionBeanContext context) {
         StringBuilder buf = new StringBuilder("The following validation errors need to be fixed:");
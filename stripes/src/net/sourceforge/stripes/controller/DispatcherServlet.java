@@ -207,7 +207,7 @@ public class DispatcherServlet extends HttpServlet {
     private Resolution requestInit(ExecutionContext ctx) throws Exception {
         ctx.setLifecycleStage(LifecycleStage.RequestInit);
         ctx.setInterceptors(StripesFilter.getConfiguration().getInterceptors(LifecycleStage.RequestInit));
-        return ctx.wrap(new Interceptor() {public Resolution intercept(ExecutionContext context) throws Exception {return null;}});
+        return ctx.wrap(DispatcherHelper.NO_OP);
     }
 
     /**
@@ -220,7 +220,7 @@ public class DispatcherServlet extends HttpServlet {
         ctx.setLifecycleStage(LifecycleStage.RequestComplete);
         ctx.setInterceptors(StripesFilter.getConfiguration().getInterceptors(LifecycleStage.RequestComplete));
         try {
-            Resolution resolution = ctx.wrap(new Interceptor() {public Resolution intercept(ExecutionContext context) throws Exception {return null;}});
+            Resolution resolution = ctx.wrap(DispatcherHelper.NO_OP);
             if (resolution != null)
                 log.warn("Resolutions returned from interceptors for ", ctx.getLifecycleStage(),
                         " are ignored because it is too late to execute them.");
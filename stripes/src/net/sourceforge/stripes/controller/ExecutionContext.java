@@ -20,7 +20,6 @@ import net.sourceforge.stripes.action.Resolution;
 import net.sourceforge.stripes.util.Log;
 
 import java.util.Collection;
-import java.util.Iterator;
 import java.lang.reflect.Method;
 
 /**
@@ -44,8 +43,8 @@ public class ExecutionContext {
         return currentContext.get();
     }
 
-    private Collection<Interceptor> interceptors;
-    private Iterator<Interceptor> iterator;
+    private Interceptor[] interceptors = InterceptorStack.EMPTY.getInterceptorArray();
+    private int position = -1;
     private Interceptor target;
     private ActionBeanContext actionBeanContext;
     private ActionBean actionBean;
@@ -57,11 +56,13 @@ public class ExecutionContext {
     /**
      * Used by the {@link DispatcherServlet} to initialize and/or swap out the list of
      * {@link Interceptor} instances which should wrap the current {@link LifecycleStage}.
+     * If the collection is an {@link InterceptorStack} then its backing array is used directly,
+     * otherwise the collection is copied.
      *
      * @param stack a non-null (though possibly empty) ordered collection of interceptors
      */
     public void setInterceptors(Collection<Interceptor> stack) {
-        this.interceptors = stack;
+        this.interceptors = InterceptorStack.compile(stack).getInterceptorArray();
     }
 
     /**
@@ -76,7 +77,7 @@ public class ExecutionContext {
      */
     public Resolution wrap(Interceptor target) throws Exception {
         this.target = target;
-        this.iterator = null;
+        this.position = -1;
 
         // Before executing RequestInit, set this as the current execution context
         if (lifecycleStage == LifecycleStage.RequestInit)
@@ -164,13 +165,13 @@ public class ExecutionContext {
      * @throws Exception if the lifecycle code or one of the interceptors throws one
      */
     public Resolution proceed() throws Exception {
-        if (this.iterator == null) {
+        if (this.position < 0) {
             log.debug("Transitioning to lifecycle stage ", lifecycleStage);
-            this.iterator = this.interceptors.iterator();
+            this.position = 0;
         }
 
-        if (this.iterator.hasNext()) {
-            return this.iterator.next().intercept(this);
+        if (this.position < this.interceptors.length) {
+            return this.interceptors[this.position++].intercept(this);
         }
         else {
             return this.target.intercept(this);
@@ -0,0 +1,278 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>
+ * A {@link FlashScopeStore} that writes each flash scope to its own file, serialized and
+ * compressed as described in {@link SerializingFlashScopeStore}. The directory must be set with
+ * the parameter {@value #DIRECTORY} and should be readable and writable only by the user that
+ * runs the servlet container. If it does not exist, it is created with those permissions where
+ * the JVM supports it. Files are encrypted and authenticated, so a file that was planted in the
+ * directory is discarded rather than deserialized. Pointing several nodes that share the same
+ * {@code Stripes.EncryptionKey} at a shared directory allows a flash scope to be consumed by a
+ * different node than the one that created it.
+ * </p>
+ * <p>
+ * The last modified time of each file is set to the time at which the flash scope expires, so
+ * expired flash scopes can be found without reading the files. The directory is scanned for
+ * expired flash scopes at most once per reap interval, as in {@link MemoryFlashScopeStore}.
+ * Flash scopes are tied to the client that received them with a cookie, as in
+ * {@link MemoryFlashScopeStore}.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class FileFlashScopeStore extends SerializingFlashScopeStore {
+    private static final Log log = Log.getInstance(FileFlashScopeStore.class);
+
+    /** The configuration parameter that sets the directory in which flash scopes are stored. */
+    public static final String DIRECTORY = "FlashScopeStore.Directory";
+
+    /** The suffix of the files that hold flash scopes. */
+    protected static final String FILE_SUFFIX = ".flash";
+
+    /** The suffix of files that are being written or read. */
+    protected static final String TEMP_SUFFIX = ".tmp";
+
+    /** Files that are being written or read are deleted if they are older than this. */
+    private static final long STALE_TEMP_FILE_AGE = FlashScope.DEFAULT_TIMEOUT_IN_SECONDS * 1000L;
+
+    /** Matches the files that this store creates. */
+    private static final FileFilter FILTER = new FileFilter() {
+        public boolean accept(File file) {
+            String name = file.getName();
+            return name.endsWith(FILE_SUFFIX) || name.endsWith(TEMP_SUFFIX);
+        }
+    };
+
+    private File directory;
+    private final AtomicLong nextReap = new AtomicLong();
+    private long reapInterval = MemoryFlashScopeStore.DEFAULT_REAP_INTERVAL * 1000L;
+
+    /** Reads the directory and reap interval from configuration and creates the directory. */
+    @Override
+    public void init(Configuration configuration) throws Exception {
+        String path = configuration.getBootstrapPropertyResolver().getProperty(DIRECTORY);
+        if (path == null || path.trim().length() == 0) {
+            throw new StripesRuntimeException(getClass().getSimpleName() + " requires the "
+                    + "parameter " + DIRECTORY + " to name a directory that only the servlet "
+                    + "container can read and write.");
+        }
+
+        this.directory = new File(path.trim());
+        if (!directory.isDirectory()) {
+            if (!directory.mkdirs()) {
+                throw new StripesRuntimeException("Could not create the flash scope directory "
+                        + directory.getAbsolutePath());
+            }
+            restrictToOwner(directory);
+        }
+        log.info("Storing flash scopes in ", directory.getAbsolutePath());
+
+        String value = configuration.getBootstrapPropertyResolver().getProperty(
+                MemoryFlashScopeStore.REAP_INTERVAL);
+        if (value != null) {
+            try {
+                this.reapInterval = Integer.parseInt(value.trim()) * 1000L;
+            }
+            catch (NumberFormatException e) {
+                throw new StripesRuntimeException("The value of "
+                        + MemoryFlashScopeStore.REAP_INTERVAL
+                        + " must be a whole number of seconds: " + value, e);
+            }
+        }
+    }
+
+    /** Get the directory in which flash scopes are stored. */
+    public File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Makes a directory that was created by this store accessible only to its owner. The methods
+     * that do this were added in Java 6, so they are called reflectively and nothing is done on
+     * older JVMs.
+     */
+    protected void restrictToOwner(File dir) {
+        try {
+            for (String name : new String[] { "setReadable", "setWritable", "setExecutable" }) {
+                Method method = File.class.getMethod(name, boolean.class, boolean.class);
+                method.invoke(dir, false, false);
+                method.invoke(dir, true, true);
+            }
+        }
+        catch (NoSuchMethodException e) {
+            log.warn("Could not restrict access to ", dir.getAbsolutePath(),
+                    " on this JVM. Make sure that only the servlet container can read it.");
+        }
+        catch (Exception e) {
+            log.warn(e, "Could not restrict access to ", dir.getAbsolutePath());
+        }
+    }
+
+    /** Returns false if a file for the flash scope's key already exists. */
+    public boolean add(HttpServletRequest request, FlashScope scope) {
+        return !getFile(scope.key()).exists();
+    }
+
+    /**
+     * Writes the flash scope to a temporary file and then renames it into place, and writes the
+     * cookie that ties the flash scope to the client.
+     */
+    public void save(HttpServletRequest request, HttpServletResponse response, FlashScope scope) {
+        FlashScopeCookies.bind(request, response, scope);
+        byte[] bytes = serialize(scope);
+        File file = getFile(scope.key());
+        try {
+            File temp = File.createTempFile("flash", TEMP_SUFFIX, directory);
+            OutputStream out = new FileOutputStream(temp);
+            try {
+                out.write(bytes);
+            }
+            finally {
+                out.close();
+            }
+
+            if (!temp.renameTo(file) && !(file.delete() && temp.renameTo(file))) {
+                temp.delete();
+                throw new IOException("Could not rename " + temp + " to " + file);
+            }
+            file.setLastModified(System.currentTimeMillis() + scope.getTimeout() * 1000L);
+        }
+        catch (IOException e) {
+            throw new StripesRuntimeException("Failed to save flash scope " + scope.key(), e);
+        }
+    }
+
+    /**
+     * Claims the file for the given key by renaming it so that no other thread or node can consume
+     * the same flash scope, then reads and deletes it. Nothing is done unless the request carries
+     * the cookie that ties the flash scope to the client.
+     */
+    public FlashScope remove(HttpServletRequest request, HttpServletResponse response,
+            String key) {
+        if (!FlashScopeCookies.unbind(request, response, key))
+            return null;
+
+        File file = getFile(key);
+        File claimed = new File(directory, key + "-" + Thread.currentThread().getId() + "-"
+                + System.nanoTime() + TEMP_SUFFIX);
+        if (!file.renameTo(claimed))
+            return null;
+
+        try {
+            if (claimed.lastModified() < System.currentTimeMillis())
+                return null;
+            return deserialize(read(claimed));
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to read flash scope ", key, " from ", claimed);
+            return null;
+        }
+        finally {
+            claimed.delete();
+        }
+    }
+
+    /**
+     * Reads the flash scopes that have not expired and that were created by the current request
+     * or are tied to its client by cookie. The flash scopes of other clients are never read.
+     */
+    public Collection<FlashScope> getAll(HttpServletRequest request) {
+        List<FlashScope> scopes = new ArrayList<FlashScope>();
+        long now = System.currentTimeMillis();
+        for (String key : FlashScopeCookies.getClientKeys(request)) {
+            File file = getFile(key);
+            if (file.lastModified() >= now) {
+                try {
+                    FlashScope scope = deserialize(read(file));
+                    if (scope != null)
+                        scopes.add(scope);
+                }
+                catch (IOException e) {
+                    // The file was consumed or expired after it was found
+                }
+            }
+        }
+        return scopes;
+    }
+
+    /**
+     * Deletes the files for expired flash scopes, and any temporary files that were left behind,
+     * if the reap interval has elapsed since the last scan and no other thread has started a scan
+     * in the meantime.
+     */
+    public void removeExpired(HttpServletRequest request) {
+        long now = System.currentTimeMillis();
+        long next = nextReap.get();
+        if (now < next || !nextReap.compareAndSet(next, now + reapInterval))
+            return;
+
+        File[] files = directory.listFiles(FILTER);
+        if (files != null) {
+            for (File file : files) {
+                long expires = file.lastModified();
+                if (file.getName().endsWith(TEMP_SUFFIX))
+                    expires += STALE_TEMP_FILE_AGE;
+                if (expires < now)
+                    file.delete();
+            }
+        }
+    }
+
+    /** Get the file that holds the flash scope with the given key. */
+    protected File getFile(String key) {
+        return new File(directory, key + FILE_SUFFIX);
+    }
+
+    /** Read the contents of a file. */
+    protected byte[] read(File file) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0, count;
+            while (offset < bytes.length
+                    && (count = in.read(bytes, offset, bytes.length - offset)) > 0) {
+                offset += count;
+            }
+            return bytes;
+        }
+        finally {
+            in.close();
+        }
+    }
+}
@@ -3,12 +3,18 @@ package net.sourceforge.stripes.controller;
 import java.io.BufferedReader;
 import java.io.Serializable;
 import java.security.Principal;
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
 
 import javax.servlet.RequestDispatcher;
 import javax.servlet.ServletInputStream;
@@ -17,6 +23,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpSession;
 
 /**
+ * <p>
  * Captures the state of an {@link javax.servlet.http.HttpServletRequest} so that the information
  * contained therein can be carried over to the next request for use by the flash scope. There are
  * several methods in here that cannot be faked and so must delegate to an active {@link
@@ -25,6 +32,14 @@ import javax.servlet.http.HttpSession;
  * net.sourceforge.stripes.exception.StripesRuntimeException}. Unless this class is used outside its
  * intended context (during a live request processed through {@link StripesFilter}), you won't need
  * to worry about that.
+ * </p>
+ * <p>
+ * Headers and locales are captured in compact arrays, and date headers are parsed only when they
+ * are requested. By default all the prototype's attributes are copied. If a collection of
+ * attribute names is passed to {@link #FlashRequest(HttpServletRequest, Collection)}, then only
+ * those attributes are retained, which keeps large request attributes from being held in memory
+ * until the flash scope is consumed or expires.
+ * </p>
  *
  * @author Ben Gunter
  * @since Stripes 1.4.3
@@ -32,14 +47,18 @@ import javax.servlet.http.HttpSession;
 public class FlashRequest implements HttpServletRequest, Serializable {
 	private static final long serialVersionUID = 1L;
 
+    /** The formats in which HTTP dates may be sent, as listed in RFC 2616 section 3.3.1. */
+    private static final String[] DATE_FORMATS = { "EEE, dd MMM yyyy HH:mm:ss zzz",
+            "EEEE, dd-MMM-yy HH:mm:ss zzz", "EEE MMM d HH:mm:ss yyyy" };
+
     private Cookie[] cookies;
     private HttpServletRequest delegate;
-    private List<Locale> locales;
+    private Locale[] locales;
     private Locale locale;
-    private Map<String, List<String>> headers = new HashMap<String, List<String>>();
-    private Map<String, Long> dateHeaders = new HashMap<String, Long>();
-    private Map<String, Object> attributes = new HashMap<String, Object>();
-    private Map<String, String[]> parameters = new HashMap<String, String[]>();
+    private String[] headerNames;
+    private String[][] headerValues;
+    private Map<String, Object> attributes;
+    private Map<String, String[]> parameters;
     private String authType;
     private String characterEncoding;
     private String contentType;
@@ -59,7 +78,7 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     private String scheme;
     private String serverName;
     private String servletPath;
-    private StringBuffer requestURL;
+    private String requestURL;
     private boolean requestedSessionIdFromCookie;
     private boolean requestedSessionIdFromURL;
     private boolean requestedSessionIdFromUrl;
@@ -77,8 +96,22 @@ public class FlashRequest implements HttpServletRequest, Serializable {
 	 * @return the StripesRequestWrapper for this request with the "live" request replaced
 	 */
     public static StripesRequestWrapper replaceRequest(HttpServletRequest request) {
+        return replaceRequest(request, null);
+    }
+
+    /**
+     * Finds the StripesRequestWrapper for the supplied request and swaps out the underlying
+     * request for an instance of FlashRequest that retains only the named attributes.
+     *
+     * @param request the current HttpServletRequest
+     * @param attributeNames the names of the attributes to retain, or null to retain all of them
+     * @return the StripesRequestWrapper for this request with the "live" request replaced
+     */
+    public static StripesRequestWrapper replaceRequest(HttpServletRequest request,
+            Collection<String> attributeNames) {
         StripesRequestWrapper wrapper = StripesRequestWrapper.findStripesWrapper(request);
-        wrapper.setRequest(new FlashRequest((HttpServletRequest) wrapper.getRequest()));
+        wrapper.setRequest(new FlashRequest((HttpServletRequest) wrapper.getRequest(),
+                attributeNames));
         return wrapper;
     }
 
@@ -88,8 +121,19 @@ public class FlashRequest implements HttpServletRequest, Serializable {
      *
      * @param prototype the HttpServletRequest to create a disconnected copy of
      */
-    @SuppressWarnings({ "unchecked", "deprecation" })
     public FlashRequest(HttpServletRequest prototype) {
+        this(prototype, null);
+    }
+
+    /**
+     * Creates a new FlashRequest by copying the request properties, headers, parameters and the
+     * named attributes from the prototype request supplied.
+     *
+     * @param prototype the HttpServletRequest to create a disconnected copy of
+     * @param attributeNames the names of the attributes to copy, or null to copy all of them
+     */
+    @SuppressWarnings({ "unchecked", "deprecation" })
+    public FlashRequest(HttpServletRequest prototype, Collection<String> attributeNames) {
         // copy properties
         authType = prototype.getAuthType();
         characterEncoding = prototype.getCharacterEncoding();
@@ -110,7 +154,8 @@ public class FlashRequest implements HttpServletRequest, Serializable {
         remotePort = prototype.getRemotePort();
         remoteUser = prototype.getRemoteUser();
         requestURI = prototype.getRequestURI();
-        requestURL = prototype.getRequestURL();
+        StringBuffer url = prototype.getRequestURL();
+        requestURL = url == null ? null : url.toString();
         requestedSessionId = prototype.getRequestedSessionId();
         requestedSessionIdFromCookie = prototype.isRequestedSessionIdFromCookie();
         requestedSessionIdFromURL = prototype.isRequestedSessionIdFromURL();
@@ -123,25 +168,44 @@ public class FlashRequest implements HttpServletRequest, Serializable {
         servletPath = prototype.getServletPath();
 
         // copy attributes
-        for (String key : Collections.list((Enumeration<String>) prototype.getAttributeNames())) {
-            attributes.put(key, prototype.getAttribute(key));
+        if (attributeNames == null) {
+            attributeNames = Collections.list((Enumeration<String>) prototype.getAttributeNames());
+        }
+        for (String key : attributeNames) {
+            Object value = prototype.getAttribute(key);
+            if (value != null)
+                setAttribute(key, value);
         }
 
         // copy headers
-        for (String key : Collections.list((Enumeration<String>) prototype.getHeaderNames())) {
-            headers.put(key, Collections.list(prototype.getHeaders(key)));
-            try {
-                dateHeaders.put(key, prototype.getDateHeader(key));
-            }
-            catch (Exception e) {
-            }
+        List<String> names = Collections.list((Enumeration<String>) prototype.getHeaderNames());
+        headerNames = names.toArray(new String[names.size()]);
+        headerValues = new String[headerNames.length][];
+        for (int i = 0; i < headerNames.length; i++) {
+            List<String> values = Collections.list((Enumeration<String>) prototype
+                    .getHeaders(headerNames[i]));
+            headerValues[i] = values.toArray(new String[values.size()]);
         }
 
         // copy locales
-        locales = Collections.list(prototype.getLocales());
+        List<Locale> locales = Collections.list((Enumeration<Locale>) prototype.getLocales());
+        this.locales = locales.toArray(new Locale[locales.size()]);
 
         // copy parameters
-        parameters.putAll(prototype.getParameterMap());
+        Map<String, String[]> parameters = prototype.getParameterMap();
+        if (parameters.isEmpty())
+            this.parameters = Collections.emptyMap();
+        else
+            this.parameters = Collections.unmodifiableMap(new HashMap<String, String[]>(parameters));
+    }
+
+    /** Get the values of the named header, or null if the header was not present. */
+    private String[] getHeaderValues(String name) {
+        for (int i = 0; i < headerNames.length; i++) {
+            if (headerNames[i].equalsIgnoreCase(name))
+                return headerValues[i];
+        }
+        return null;
     }
 
     protected HttpServletRequest getDelegate() {
@@ -166,22 +230,42 @@ public class FlashRequest implements HttpServletRequest, Serializable {
         return cookies;
     }
 
+    /**
+     * Parses the named header as an HTTP date. Returns 0 if the header was not present or is not
+     * a valid date.
+     */
     public long getDateHeader(String name) {
-        Long value = dateHeaders.get(name);
-        return value == null ? 0 : value;
+        String value = getHeader(name);
+        if (value != null) {
+            for (String format : DATE_FORMATS) {
+                DateFormat parser = new SimpleDateFormat(format, Locale.US);
+                parser.setTimeZone(TimeZone.getTimeZone("GMT"));
+                try {
+                    return parser.parse(value).getTime();
+                }
+                catch (ParseException e) {
+                    // try the next format
+                }
+            }
+        }
+        return 0;
     }
 
     public String getHeader(String name) {
-        List<String> values = headers.get(name);
-        return values != null && values.size() > 0 ? values.get(0) : null;
+        String[] values = getHeaderValues(name);
+        return values != null && values.length > 0 ? values[0] : null;
     }
 
     public Enumeration<String> getHeaders(String name) {
-        return Collections.enumeration(headers.get(name));
+        String[] values = getHeaderValues(name);
+        if (values == null)
+            return Collections.enumeration(Collections.<String> emptyList());
+        else
+            return Collections.enumeration(Arrays.asList(values));
     }
 
     public Enumeration<String> getHeaderNames() {
-        return Collections.enumeration(headers.keySet());
+        return Collections.enumeration(Arrays.asList(headerNames));
     }
 
     public int getIntHeader(String name) {
@@ -234,7 +318,7 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     }
 
     public StringBuffer getRequestURL() {
-        return new StringBuffer(requestURL.toString());
+        return requestURL == null ? null : new StringBuffer(requestURL);
     }
 
     public String getServletPath() {
@@ -267,11 +351,14 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     }
 
     public Object getAttribute(String name) {
-        return attributes.get(name);
+        return attributes == null ? null : attributes.get(name);
     }
 
     public Enumeration<String> getAttributeNames() {
-        return Collections.enumeration(attributes.keySet());
+        if (attributes == null)
+            return Collections.enumeration(Collections.<String> emptySet());
+        else
+            return Collections.enumeration(attributes.keySet());
     }
 
     public String getCharacterEncoding() {
@@ -308,7 +395,7 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     }
 
     public Map<String, String[]> getParameterMap() {
-        return Collections.unmodifiableMap(parameters);
+        return parameters;
     }
 
     public String getProtocol() {
@@ -340,11 +427,14 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     }
 
     public void setAttribute(String name, Object value) {
+        if (attributes == null)
+            attributes = new HashMap<String, Object>();
         attributes.put(name, value);
     }
 
     public void removeAttribute(String name) {
-        attributes.remove(name);
+        if (attributes != null)
+            attributes.remove(name);
     }
 
     public Locale getLocale() {
@@ -352,7 +442,7 @@ public class FlashRequest implements HttpServletRequest, Serializable {
     }
 
     public Enumeration<Locale> getLocales() {
-        return Collections.enumeration(locales);
+        return Collections.enumeration(Arrays.asList(locales));
     }
 
     public boolean isSecure() {
@@ -16,20 +16,18 @@ package net.sourceforge.stripes.controller;
 
 import net.sourceforge.stripes.action.ActionBean;
 import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DefaultConfiguration;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.util.Log;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import java.lang.reflect.Proxy;
+import java.security.SecureRandom;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.Map;
-import java.util.Random;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 
@@ -58,19 +56,29 @@ import java.util.concurrent.TimeUnit;
  *FlashScope flash = FlashScope.getCurrent(request, false);
  *if (flash != null) {
  *    url.addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, flash.key());
+ *    flash.save(response);
  *}
  *</pre>
  *
+ * <p>The key of a flash scope is 128 bits from a {@link SecureRandom}, so it cannot be guessed.
+ * Stores that do not keep flash scopes in the session also require the cookie written by
+ * {@link #save(HttpServletResponse)}, so a flash scope cannot be consumed by a client that only
+ * learned its key, for example from a log file.</p>
+ *
+ * <p>Where FlashScopes are kept between the two requests is decided by the
+ * {@link FlashScopeStore} returned by {@link DefaultConfiguration#getFlashScopeStore()}. By
+ * default, and with other {@link Configuration}s, they are kept in the HttpSession.</p>
+ *
  * <p>The lifecycle of a FlashScope is managed is conjunction with the {@link StripesFilter}.
  * FlashScopes are manufactured using lazy instantiation when
  * {@code FlashScope.getCurrent(request, true)} is called.  When a request is completed, the
  * StripesFilter notifies the current FlashScope that the request is over, which causes it
  * to record the time when the request terminated.  On the subsequent request, if the flash
- * scope is referenced by a URL parameter, then it is removed from session and it's contents
+ * scope is referenced by a URL parameter, then it is removed from the store and it's contents
  * are pushed into request attributes for the current request.</p>
  *
- * <p>To ensure that orphaned FlashScopes do not consume increasing amounts of HttpSession memory,
- * the StripesFilter, after each request, checks to see if any FlashScopes have recently expired.
+ * <p>To ensure that orphaned FlashScopes do not consume increasing amounts of memory, the
+ * StripesFilter, after each request, asks the store to discard any FlashScopes that have expired.
  * A FlashScope is expired when the length of time from the end of the request that created the
  * FlashScope is greater than the timeout set on the FlashScope.  The default timeout is 120 seconds
  * (or two minutes), and can be varied by calling {@link #setTimeout(int)} Since the timer
@@ -86,12 +94,33 @@ public class FlashScope extends HashMap<String,Object> {
     /** The default timeout for a flash scope. */
     public static final int DEFAULT_TIMEOUT_IN_SECONDS = 120;
 
+    /**
+     * The configuration parameter that, if true, causes only the attributes stored in a flash
+     * scope to be retained by the {@link FlashRequest} that replaces the request that created it.
+     */
+    public static final String LAZY_SNAPSHOT = "FlashScope.LazySnapshot";
+
     private static final Log log = Log.getInstance(FlashScope.class);
-    private static final Random random = new Random();
+
+    /** The number of random bytes in the key of a flash scope. */
+    private static final int KEY_BYTES = 16;
+
+    /** Used to encode keys as hexadecimal strings. */
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /** Generates the keys of flash scopes. */
+    private static final SecureRandom keyGenerator = new SecureRandom();
+
+    /** The request attribute that holds the current flash scope. */
+    private static final String REQ_ATTR_CURRENT_INSTANCE = FlashScope.class.getName();
+
+    /** Used when there is no configuration from which to get the {@link FlashScopeStore}. */
+    private static final FlashScopeStore defaultStore = new SessionFlashScopeStore();
+
     private long startTime;
     private int timeout = DEFAULT_TIMEOUT_IN_SECONDS;
     private HttpServletRequest request;
-    private Integer key;
+    private String key;
     private Semaphore semaphore;
 
     /**
@@ -102,13 +131,43 @@ public class FlashScope extends HashMap<String,Object> {
      * @param request the request for which this flash scope will be used.
      * @param key the key by which this flash scope can be looked up in the map
      */
-    protected FlashScope(HttpServletRequest request, Integer key) {
+    protected FlashScope(HttpServletRequest request, String key) {
         this.request = request;
         this.key = key;
         this.semaphore = new Semaphore(1);
         this.semaphore.acquireUninterruptibly();
     }
 
+    /**
+     * Creates a flash scope with a newly generated key. Flash scope keys used to be integers, but
+     * they are now random strings so that they cannot be guessed, and the integer is ignored.
+     *
+     * @param request the request for which this flash scope will be used.
+     * @param key ignored
+     * @deprecated Use {@link #FlashScope(HttpServletRequest, String)} instead.
+     */
+    @Deprecated
+    protected FlashScope(HttpServletRequest request, Integer key) {
+        this(request, generateKey());
+    }
+
+    /**
+     * Constructor used by {@link SerializingFlashScopeStore} to restore a flash scope that was
+     * saved by a previous request. The flash scope is ready to be copied into the current request.
+     *
+     * @param key the key of the flash scope
+     * @param timeout the timeout of the flash scope, in seconds
+     * @param values the contents of the flash scope
+     */
+    FlashScope(String key, int timeout, Map<String, Object> values) {
+        this.key = key;
+        this.timeout = timeout;
+        this.semaphore = new Semaphore(1);
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            super.put(entry.getKey(), entry.getValue());
+        }
+    }
+
     /** Returns the timeout in seconds after which the flash scope will be discarded. */
     public int getTimeout() { return timeout; }
 
@@ -116,9 +175,10 @@ public class FlashScope extends HashMap<String,Object> {
     public void setTimeout(int timeout) { this.timeout = timeout; }
 
     /**
-     * Returns the key used to store this flash scope in the collection of flash scopes.
+     * Returns the key used to store this flash scope in the collection of flash scopes. Before
+     * Stripes 1.6 this was an Integer.
      */
-    public Integer key() {
+    public String key() {
         return key;
     }
 
@@ -141,19 +201,12 @@ public class FlashScope extends HashMap<String,Object> {
      */
     public void completeRequest() {
         // Clean up any old-age flash scopes
-        Map<Integer, FlashScope> scopes = getContainer(request, false);
-        if (scopes != null && !scopes.isEmpty()) {
-            Iterator<FlashScope> iterator = scopes.values().iterator();
-            while (iterator.hasNext()) {
-                if (iterator.next().isExpired()) {
-                    iterator.remove();
-                }
-            }
-        }
+        getStore().removeExpired(request);
 
         // Replace the request and response objects for the request cycle that is ending
         // with objects that are safe to use on the ensuing request.
-        HttpServletRequest flashRequest = FlashRequest.replaceRequest(request);
+        HttpServletRequest flashRequest = FlashRequest.replaceRequest(request,
+                isLazySnapshot() ? keySet() : null);
         HttpServletResponse flashResponse = (HttpServletResponse) Proxy.newProxyInstance(
                 getClass().getClassLoader(),
                 new Class<?>[] { HttpServletResponse.class },
@@ -174,6 +227,19 @@ public class FlashScope extends HashMap<String,Object> {
         this.semaphore.release();
     }
 
+    /**
+     * Returns true if the {@link FlashRequest} created by {@link #completeRequest()} should retain
+     * only the attributes that are stored in this flash scope. This is controlled by the
+     * configuration parameter {@value #LAZY_SNAPSHOT}. The default is false, which retains all
+     * the attributes of the request.
+     */
+    protected boolean isLazySnapshot() {
+        Configuration configuration = StripesFilter.getConfiguration();
+        return configuration != null
+                && Boolean.valueOf(configuration.getBootstrapPropertyResolver().getProperty(
+                        LAZY_SNAPSHOT));
+    }
+
     /**
      * <p>
      * Called by {@link StripesFilter} to copy all the attributes from this flash scope to the given
@@ -203,7 +269,7 @@ public class FlashScope extends HashMap<String,Object> {
             // Copy all the attributes from this scope to the request scope
             for (Map.Entry<String, Object> entry : entrySet()) {
                 Object value = entry.getValue();
-                if (value instanceof ActionBean) {
+                if (value instanceof ActionBean && ((ActionBean) value).getContext() != null) {
                     HttpServletRequest tmp = ((ActionBean) value).getContext().getRequest();
                     if (tmp != null) {
                         tmp = StripesRequestWrapper.findStripesWrapper(tmp);
@@ -227,6 +293,18 @@ public class FlashScope extends HashMap<String,Object> {
         }
     }
 
+    /**
+     * Gives the {@link FlashScopeStore} its last chance to write to the response before the
+     * redirect that carries this flash scope's key is sent. {@link RedirectResolution} calls this
+     * method automatically. It must be called before the request that created the flash scope
+     * completes.
+     *
+     * @param response the response that will carry this flash scope's key
+     */
+    public void save(HttpServletResponse response) {
+        getStore().save(request, response, this);
+    }
+
     /**
      * Returns the time in seconds since the request that generated this flash scope
      * completed.  Will return 0 if this flash scope has not yet started to age.
@@ -286,20 +364,15 @@ public class FlashScope extends HashMap<String,Object> {
     }
 
     /**
-     * Gets the collection of all flash scopes present in the current session.
+     * Gets the collection of all flash scopes visible to the current request. For the default
+     * store, these are the flash scopes present in the current session.
      * @param req the current request, needed to get access to the session
      * @return a collection of flash scopes.  Will return an empty collection if there are
      *         no flash scopes present.
+     * @see FlashScopeStore#getAll(HttpServletRequest)
      */
     public static Collection<FlashScope> getAllFlashScopes(HttpServletRequest req) {
-        Map<Integer,FlashScope> scopes = getContainer(req, false);
-
-        if (scopes == null) {
-            return Collections.emptySet();
-        }
-        else {
-            return scopes.values();
-        }
+        return getStore().getAll(req);
     }
 
     /**
@@ -312,24 +385,45 @@ public class FlashScope extends HashMap<String,Object> {
      * the set of managed flash scopes!</p>
      *
      * @param req the current request
+     * @param res the current response, to which the store may write
      * @return a FlashScope if one exists with the key provided.
      */
-    public static FlashScope getPrevious(HttpServletRequest req) {
-        String keyString = req.getParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID);
-
-        if (keyString == null) {
+    public static FlashScope getPrevious(HttpServletRequest req, HttpServletResponse res) {
+        String key = req.getParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID);
+        if (!isValidKey(key))
             return null;
+        else
+            return getStore().remove(req, res, key);
+    }
+
+    /**
+     * Returns true if the string has the form of a flash scope key. Stores may use keys in file
+     * and cookie names, so anything else that is passed as a key is ignored.
+     */
+    private static boolean isValidKey(String key) {
+        if (key == null || key.length() != KEY_BYTES * 2)
+            return false;
+
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f'))
+                return false;
         }
-        else {
-            try {
-                Integer id = new Integer(keyString);
-                Map<Integer, FlashScope> scopes = getContainer(req, false);
-                return scopes == null ? null : scopes.remove(id);
-            }
-            catch (NumberFormatException e) {
-                return null;
-            }
-        }
+        return true;
+    }
+
+    /**
+     * Fetch the flash scope that was populated during the previous request without giving the
+     * store access to the response. Stores that keep flash scopes in cookies cannot expire those
+     * cookies when called this way.
+     *
+     * @param req the current request
+     * @return a FlashScope if one exists with the key provided.
+     * @deprecated Use {@link #getPrevious(HttpServletRequest, HttpServletResponse)} instead.
+     */
+    @Deprecated
+    public static FlashScope getPrevious(HttpServletRequest req) {
+        return getPrevious(req, null);
     }
 
     /**
@@ -339,97 +433,50 @@ public class FlashScope extends HashMap<String,Object> {
      * </p>
      * <p>
      * It is assumed that the request object will be used by only one thread so access to the
-     * request is not synchronized. Access to the scopes map that is stored in the session and the
-     * static {@link Random} that is used to generate the keys for the map is synchronized.
+     * request is not synchronized.
      * </p>
      * 
      * @param req the current request
      * @param create if true then the FlashScope will be created when it does not exist already
-     * @return the current FlashScope, or null if it does not exist and create is false
+     * @return the current FlashScope, or null if it does not exist and create is false, or if
+     *         the store could not hold a new flash scope
      */
     public static FlashScope getCurrent(HttpServletRequest req, boolean create) {
-        Map<Integer,FlashScope> scopes = getContainer(req, create);
+        FlashScope scope = (FlashScope) req.getAttribute(REQ_ATTR_CURRENT_INSTANCE);
+        if (scope == null && create) {
+            scope = new FlashScope(req, generateKey());
+            if (!getStore().add(req, scope))
+                return null;
 
-        if (scopes == null) {
-            return null;
+            req.setAttribute(REQ_ATTR_CURRENT_INSTANCE, scope);
+            req.setAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE, scope.key());
         }
-        else {
-            FlashScope scope = null;
-            Integer key = (Integer) req.getAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE);
-            if (key != null) {
-                scope = scopes.get(key);
-            }
-            else if (create) {
-                synchronized (random) {
-                    do {
-                        key = random.nextInt();
-                    } while (scopes.containsKey(key));
-                    scope = new FlashScope(req, key);
-                    scopes.put(scope.key(), scope);
-                }
-                req.setAttribute(StripesConstants.REQ_ATTR_CURRENT_FLASH_SCOPE, key);
-            }
 
-            return scope;
-        }
+        return scope;
     }
 
-    /**
-     * Internal helper method to retrieve (and selectively create) the container for all
-     * the flash scopes.  Will return null if the container does not exist and <i>create</i> is
-     * false.  Will also return null if the current session has been invalidated, regardless
-     * of the value of <i>create</i>.
-     *
-     * @param req the current request
-     * @param create if true, create the container when it doesn't exist.
-     * @return a Map of integer keys to FlashScope objects
-     */
-    private static Map<Integer,FlashScope> getContainer(HttpServletRequest req, boolean create) {
-        try {
-            HttpSession session =  req.getSession(create);
-            Map<Integer,FlashScope> scopes = null;
-            if (session != null) {
-                scopes = getContainer(session);
-
-                if (scopes == null && create) {
-                    synchronized (FlashScope.class) {
-                        // after obtaining a lock, try looking it up again
-                        scopes = getContainer(session);
-
-                        // if still not there, then create and save it
-                        if (scopes == null) {
-                            scopes = new ConcurrentHashMap<Integer, FlashScope>();
-                            session.setAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION, scopes);
-                        }
-                    }
-                }
-            }
+    /** Generates a random key for a new flash scope, encoded as a hexadecimal string. */
+    private static String generateKey() {
+        byte[] bytes = new byte[KEY_BYTES];
+        keyGenerator.nextBytes(bytes);
 
-            return scopes;
-        }
-        catch (IllegalStateException ise) {
-            // If the session has been invalidated we'll get this exception, but there's no
-            // way to know this without try and getting the exception :(
-            log.warn("An IllegalStateException got thrown trying to create a flash scope. ",
-                     "This happens when add something to flash scope for the first time ",
-                     "causes creation of the HttpSession, but for some other reason the ",
-                     "response is already committed!");
-            return null;
+        char[] chars = new char[KEY_BYTES * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX_DIGITS[(bytes[i] >> 4) & 0xf];
+            chars[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xf];
         }
+        return new String(chars);
     }
-    
+
     /**
-     * Internal helper method to retrieve the container for all the flash scopes. Will return null
-     * if the container does not exist.
-     * 
-     * @param session
-     * @return a Map of integer keys to FlashScope objects
-     * @throws IllegalStateException if the session has been invalidated
+     * Get the {@link FlashScopeStore} of the current {@link DefaultConfiguration}, or a
+     * {@link SessionFlashScopeStore} if the configuration does not provide one.
      */
-    @SuppressWarnings("unchecked")
-    private static Map<Integer, FlashScope> getContainer(HttpSession session)
-            throws IllegalStateException {
-        return (Map<Integer, FlashScope>) session
-                .getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION);
+    protected static FlashScopeStore getStore() {
+        Configuration configuration = StripesFilter.getConfiguration();
+        FlashScopeStore store = null;
+        if (configuration instanceof DefaultConfiguration)
+            store = ((DefaultConfiguration) configuration).getFlashScopeStore();
+        return store == null ? defaultStore : store;
     }
 }
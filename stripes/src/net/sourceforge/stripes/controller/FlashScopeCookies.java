@@ -0,0 +1,185 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.Base64;
+import net.sourceforge.stripes.util.CryptoUtil;
+
+/**
+ * Writes and checks the cookies that {@link FlashScopeStore}s use to tie flash scopes to the
+ * client that received them. The cookie for a flash scope holds its key, encrypted with
+ * {@link CryptoUtil}, so a client cannot create one for a flash scope that was not sent to it.
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+class FlashScopeCookies {
+    /** The prefix of the name of the cookie that ties a flash scope to a client. */
+    static final String BINDING_COOKIE_PREFIX = "__fsb";
+
+    /** The options used to Base 64 encode cookie values. */
+    private static final int BASE64_OPTIONS = Base64.URL_SAFE | Base64.DONT_BREAK_LINES;
+
+    /** Prevent instantiation. */
+    private FlashScopeCookies() {
+    }
+
+    /**
+     * Add a cookie that ties the flash scope to the client that receives the response.
+     * 
+     * @param request the request that created the flash scope
+     * @param response the response that will carry the flash scope's key
+     * @param scope the flash scope
+     */
+    static void bind(HttpServletRequest request, HttpServletResponse response, FlashScope scope) {
+        byte[] value = CryptoUtil.encrypt(getBytes(scope.key()));
+        response.addCookie(createCookie(request, BINDING_COOKIE_PREFIX + scope.key(),
+                encode(value), scope.getTimeout()));
+    }
+
+    /**
+     * Check that the current request carries the cookie written by
+     * {@link #bind(HttpServletRequest, HttpServletResponse, FlashScope)} for the given key, and
+     * expire the cookie if it does.
+     * 
+     * @param request the current request
+     * @param response the current response, or null if it is not available
+     * @param key the key of the flash scope
+     * @return true if the flash scope was created for the client that made the current request
+     */
+    static boolean unbind(HttpServletRequest request, HttpServletResponse response, String key) {
+        Cookie cookie = findCookie(request, BINDING_COOKIE_PREFIX + key);
+        if (cookie == null || !isBinding(cookie, key))
+            return false;
+
+        expire(request, response, cookie.getName());
+        return true;
+    }
+
+    /**
+     * Get the keys of the flash scopes that belong to the client that made the current request:
+     * the flash scope created by the request, if there is one, and those for which the request
+     * carries the cookie written by
+     * {@link #bind(HttpServletRequest, HttpServletResponse, FlashScope)}.
+     * 
+     * @param request the current request
+     * @return the keys, which may be empty
+     */
+    static Set<String> getClientKeys(HttpServletRequest request) {
+        Set<String> keys = new LinkedHashSet<String>();
+        FlashScope current = FlashScope.getCurrent(request, false);
+        if (current != null)
+            keys.add(current.key());
+
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                String name = cookie.getName();
+                if (name.startsWith(BINDING_COOKIE_PREFIX)) {
+                    String key = name.substring(BINDING_COOKIE_PREFIX.length());
+                    if (isBinding(cookie, key))
+                        keys.add(key);
+                }
+            }
+        }
+        return keys;
+    }
+
+    /** Returns true if the cookie holds the encrypted key written by bind(). */
+    private static boolean isBinding(Cookie cookie, String key) {
+        byte[] bytes = decode(cookie.getValue());
+        if (bytes != null)
+            bytes = CryptoUtil.decrypt(bytes);
+        return bytes != null && Arrays.equals(bytes, getBytes(key));
+    }
+
+    /**
+     * Create a cookie that is sent with every request to the web application.
+     * 
+     * @param request the current request
+     * @param name the name of the cookie
+     * @param value the value of the cookie
+     * @param maxAge the number of seconds after which the cookie expires
+     */
+    static Cookie createCookie(HttpServletRequest request, String name, String value, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        String path = request.getContextPath();
+        cookie.setPath(path == null || path.length() == 0 ? "/" : path);
+        cookie.setMaxAge(maxAge);
+        cookie.setSecure(request.isSecure());
+        return cookie;
+    }
+
+    /**
+     * Tell the client to delete the named cookie. Does nothing if the response is null.
+     * 
+     * @param request the current request
+     * @param response the current response, or null if it is not available
+     * @param name the name of the cookie
+     */
+    static void expire(HttpServletRequest request, HttpServletResponse response, String name) {
+        if (response != null)
+            response.addCookie(createCookie(request, name, "", 0));
+    }
+
+    /** Get the cookie with the given name from the request, or null if there is none. */
+    static Cookie findCookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (name.equals(cookie.getName()))
+                    return cookie;
+            }
+        }
+        return null;
+    }
+
+    /** Base 64 encode a cookie value, dropping any trailing padding. */
+    static String encode(byte[] bytes) {
+        String value = Base64.encodeBytes(bytes, BASE64_OPTIONS);
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == '=')
+            --end;
+        return value.substring(0, end);
+    }
+
+    /** Decode a cookie value that was encoded by {@link #encode(byte[])}. */
+    static byte[] decode(String value) {
+        StringBuilder padded = new StringBuilder(value);
+        while (padded.length() % 4 != 0)
+            padded.append('=');
+        return Base64.decode(padded.toString(), Base64.URL_SAFE);
+    }
+
+    /** Convert a key to bytes. Keys contain only ASCII characters. */
+    private static byte[] getBytes(String key) {
+        try {
+            return key.getBytes("US-ASCII");
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new StripesRuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Collection;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.config.ConfigurableComponent;
+
+/**
+ * <p>
+ * Stores {@link FlashScope}s between the request that creates them and the request that consumes
+ * them. The store is configured with the parameter {@code FlashScopeStore.Class}. The default is
+ * {@link SessionFlashScopeStore}, which keeps flash scopes in the {@code HttpSession}. Stripes also
+ * includes {@link MemoryFlashScopeStore}, {@link CookieFlashScopeStore} and
+ * {@link FileFlashScopeStore}, none of which create a session.
+ * </p>
+ * <p>
+ * A flash scope passes through the store as follows:
+ * </p>
+ * <ol>
+ * <li>{@link #add(HttpServletRequest, FlashScope)} is called when the flash scope is created.</li>
+ * <li>{@link #save(HttpServletRequest, HttpServletResponse, FlashScope)} is called just before the
+ * redirect that carries the flash scope's key is sent. This is the last chance to write to the
+ * response.</li>
+ * <li>{@link #remove(HttpServletRequest, HttpServletResponse, String)} is called by the next
+ * request, which copies the contents of the flash scope into its request attributes.</li>
+ * </ol>
+ * <p>
+ * Flash scope keys are random and cannot be guessed, but they are sent in URLs and may leak, for
+ * example into log files. Stores that do not keep flash scopes in the session must therefore tie
+ * each flash scope to the client that received it, so that no other client can consume it.
+ * {@link MemoryFlashScopeStore} and {@link FileFlashScopeStore} do this with an encrypted cookie
+ * that is written when the flash scope is saved.
+ * </p>
+ * <p>
+ * {@link #removeExpired(HttpServletRequest)} is called at the end of each request that creates a
+ * flash scope so that flash scopes that were never consumed can be discarded.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface FlashScopeStore extends ConfigurableComponent {
+    /**
+     * Called when a flash scope is created. Stores that hold flash scopes in memory will usually
+     * store the flash scope now so that it is available to the next request even if that request
+     * arrives before the current one is complete.
+     * 
+     * @param request the request that created the flash scope
+     * @param scope the new flash scope
+     * @return false if the flash scope cannot be stored, for example because the session has
+     *         been invalidated, in which case no flash scope is created; otherwise true
+     */
+    boolean add(HttpServletRequest request, FlashScope scope);
+
+    /**
+     * Called just before the response that carries the flash scope's key is sent, after the flash
+     * scope has been populated.
+     * 
+     * @param request the request that created the flash scope
+     * @param response the response that is about to be sent
+     * @param scope the flash scope
+     */
+    void save(HttpServletRequest request, HttpServletResponse response, FlashScope scope);
+
+    /**
+     * Remove a flash scope from the store and return it. Stores that write cookies should expire
+     * them now.
+     * 
+     * @param request the current request
+     * @param response the current response, which may be null if it is not available
+     * @param key the key of the flash scope, which was passed as a request parameter
+     * @return the flash scope, or null if it does not exist, has expired or was not created for
+     *         the client that made the current request
+     */
+    FlashScope remove(HttpServletRequest request, HttpServletResponse response, String key);
+
+    /**
+     * Get all the flash scopes that are stored and visible to the given request. Stores that are
+     * not associated with a session must return only the flash scopes that belong to the client
+     * that made the request, or an empty collection, never those of other clients.
+     * 
+     * @param request the current request
+     * @return a collection of flash scopes, which may be empty but never null
+     */
+    Collection<FlashScope> getAll(HttpServletRequest request);
+
+    /**
+     * Discard flash scopes that have expired. Stores are free to do this less often than it is
+     * called.
+     * 
+     * @param request the current request
+     */
+    void removeExpired(HttpServletRequest request);
+}
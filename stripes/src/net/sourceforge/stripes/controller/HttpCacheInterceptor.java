@@ -16,25 +16,36 @@ package net.sourceforge.stripes.controller;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.util.Date;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import net.sourceforge.stripes.action.ActionBean;
 import net.sourceforge.stripes.action.HttpCache;
 import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.HttpUtil;
 import net.sourceforge.stripes.util.Log;
 
 /**
  * Looks for an {@link HttpCache} annotation on the event handler method, the {@link ActionBean}
  * class or the {@link ActionBean}'s superclasses. If an {@link HttpCache} is found, then the
  * appropriate response headers are set to control client-side caching.
+ * <p>
+ * If the annotation names an {@link HttpCache#eTag()} or {@link HttpCache#lastModified()} method,
+ * then this interceptor also intercepts {@link LifecycleStage#EventHandling}. It invokes the named
+ * methods on the {@link ActionBean} and, if a GET or HEAD request shows that the client already has
+ * the current document, it returns a {@link Resolution} that sends 304 Not Modified instead of
+ * invoking the event handler.
+ * </p>
  * 
  * @author Ben Gunter
  * @since Stripes 1.5
  */
-@Intercepts(LifecycleStage.ResolutionExecution)
+@Intercepts( { LifecycleStage.EventHandling, LifecycleStage.ResolutionExecution })
 public class HttpCacheInterceptor implements Interceptor {
     private static final class CacheKey {
         private Method method;
@@ -76,14 +87,38 @@ public class HttpCacheInterceptor implements Interceptor {
             return 0;
         }
 
+        public String eTag() {
+            return "";
+        }
+
+        public String lastModified() {
+            return "";
+        }
+
         public Class<? extends Annotation> annotationType() {
             return null;
         }
     };
 
+    /** Placeholder for event handlers that have no ETag or last-modified methods. */
+    private static final Method[] NO_VALIDATORS = new Method[2];
+
+    /** Sends 304 Not Modified in place of the response the event handler would have sent. */
+    private static final Resolution NOT_MODIFIED = new Resolution() {
+        public void execute(HttpServletRequest request, HttpServletResponse response) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        }
+    };
+
     private Map<CacheKey, HttpCache> cache = new ConcurrentHashMap<CacheKey, HttpCache>(128);
+    private Map<CacheKey, Method[]> validators = new ConcurrentHashMap<CacheKey, Method[]>(128);
 
     public Resolution intercept(ExecutionContext ctx) throws Exception {
+        if (ctx.getLifecycleStage() == LifecycleStage.EventHandling) {
+            Resolution resolution = checkNotModified(ctx);
+            return resolution == null ? ctx.proceed() : resolution;
+        }
+
         final ActionBean actionBean = ctx.getActionBean();
         final Method handler = ctx.getHandler();
         if (actionBean != null && handler != null) {
@@ -114,6 +149,100 @@ public class HttpCacheInterceptor implements Interceptor {
         return ctx.proceed();
     }
 
+    /**
+     * Invoke the {@link HttpCache#eTag()} and {@link HttpCache#lastModified()} methods, if any, for
+     * the current event and set the ETag and Last-Modified response headers. If the request is a
+     * conditional GET or HEAD and the client's copy is current, then return a {@link Resolution}
+     * that sends 304 Not Modified.
+     * 
+     * @param ctx the current execution context
+     * @return a {@link Resolution} that sends 304 Not Modified, or null if the event handler must
+     *         be invoked
+     */
+    protected Resolution checkNotModified(ExecutionContext ctx) throws Exception {
+        final ActionBean actionBean = ctx.getActionBean();
+        final Method handler = ctx.getHandler();
+        if (actionBean == null || handler == null)
+            return null;
+
+        Method[] methods = getValidators(handler, actionBean.getClass());
+        if (methods == NO_VALIDATORS)
+            return null;
+
+        String eTag = null;
+        if (methods[0] != null) {
+            Object value = methods[0].invoke(actionBean);
+            if (value != null)
+                eTag = HttpUtil.quoteETag(value.toString());
+        }
+
+        long lastModified = -1;
+        if (methods[1] != null) {
+            Object value = methods[1].invoke(actionBean);
+            if (value instanceof Date)
+                lastModified = ((Date) value).getTime();
+            else if (value instanceof Number)
+                lastModified = ((Number) value).longValue();
+        }
+
+        HttpServletResponse response = ctx.getActionBeanContext().getResponse();
+        if (eTag != null)
+            response.setHeader("ETag", eTag);
+        if (lastModified >= 0)
+            response.setDateHeader("Last-Modified", lastModified);
+
+        HttpServletRequest request = ctx.getActionBeanContext().getRequest();
+        if (HttpUtil.isNotModified(request, eTag, lastModified)) {
+            logger.debug("Client's copy of ", actionBean.getClass().getName(), ".",
+                    handler.getName(), "() is current; sending 304 Not Modified");
+            return NOT_MODIFIED;
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the ETag and last-modified methods named by the {@link HttpCache} annotation that applies
+     * to an event handler. The methods are looked up once and cached.
+     * 
+     * @param method an event handler method
+     * @param beanClass the class of the {@link ActionBean}
+     * @return an array containing the ETag method and the last-modified method, either of which may
+     *         be null, or {@link #NO_VALIDATORS} if there are neither
+     */
+    protected Method[] getValidators(Method method, Class<? extends ActionBean> beanClass) {
+        CacheKey cacheKey = new CacheKey(method, beanClass);
+        Method[] methods = validators.get(cacheKey);
+        if (methods != null)
+            return methods;
+
+        methods = NO_VALIDATORS;
+        HttpCache annotation = getAnnotation(method, beanClass);
+        if (annotation != null && annotation.allow()
+                && (annotation.eTag().length() > 0 || annotation.lastModified().length() > 0)) {
+            methods = new Method[] { getValidator(beanClass, annotation.eTag()),
+                    getValidator(beanClass, annotation.lastModified()) };
+        }
+
+        validators.put(cacheKey, methods);
+        return methods;
+    }
+
+    /** Look up a public, no-argument method on an {@link ActionBean} class. */
+    private Method getValidator(Class<? extends ActionBean> beanClass, String name) {
+        if (name.length() == 0)
+            return null;
+
+        try {
+            return beanClass.getMethod(name);
+        }
+        catch (NoSuchMethodException e) {
+            throw new StripesRuntimeException(HttpCache.class.getSimpleName() + " for "
+                    + beanClass.getName() + " refers to method " + name
+                    + "() but no public method with that name and no parameters exists", e);
+        }
+    }
+
     /**
      * Look for a {@link HttpCache} annotation on the method first and then on the class and its
      * superclasses.
@@ -0,0 +1,131 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * <p>An array-backed list of the {@link Interceptor}s that wrap a single
+ * {@link LifecycleStage}. The {@link net.sourceforge.stripes.config.Configuration} compiles the
+ * interceptors for each stage into an {@code InterceptorStack} once, when it is initialized.
+ * When an {@code InterceptorStack} is handed to
+ * {@link ExecutionContext#setInterceptors(Collection)}, the execution context walks the
+ * backing array by index instead of copying the collection or allocating an Iterator every
+ * time a lifecycle stage is executed.</p>
+ *
+ * <p>The list may still be modified, as the collections returned by
+ * {@link net.sourceforge.stripes.config.Configuration#getInterceptors(LifecycleStage)} always
+ * could be. Every modification copies the backing array, so an execution context that is
+ * already walking the old array is not affected, and the change applies to lifecycle stages
+ * that start afterward. {@link #EMPTY} is shared and cannot be modified.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public final class InterceptorStack extends AbstractList<Interceptor> implements RandomAccess {
+    /** An empty stack, shared by all lifecycle stages that have no interceptors. */
+    public static final InterceptorStack EMPTY = new InterceptorStack(new Interceptor[0], false);
+
+    private volatile Interceptor[] interceptors;
+    private final boolean modifiable;
+
+    /** Wraps an array that has already been copied and that is never modified afterward. */
+    private InterceptorStack(Interceptor[] interceptors, boolean modifiable) {
+        this.interceptors = interceptors;
+        this.modifiable = modifiable;
+    }
+
+    /**
+     * Compile a collection of interceptors into an {@code InterceptorStack}. The order of the
+     * interceptors is preserved. If the collection is null or empty then {@link #EMPTY} is
+     * returned.
+     *
+     * @param interceptors the interceptors, in the order in which they are to be invoked
+     * @return a stack containing the same interceptors
+     */
+    public static InterceptorStack compile(Collection<Interceptor> interceptors) {
+        if (interceptors instanceof InterceptorStack)
+            return (InterceptorStack) interceptors;
+        else if (interceptors == null || interceptors.isEmpty())
+            return EMPTY;
+        else
+            return new InterceptorStack(interceptors.toArray(new Interceptor[interceptors.size()]),
+                    true);
+    }
+
+    /**
+     * Get the array that backs this stack. The array is shared and <em>must not</em> be
+     * modified. Changes to the stack replace the array instead of writing to it.
+     */
+    Interceptor[] getInterceptorArray() {
+        return interceptors;
+    }
+
+    @Override
+    public Interceptor get(int index) {
+        return interceptors[index];
+    }
+
+    @Override
+    public int size() {
+        return interceptors.length;
+    }
+
+    @Override
+    public synchronized Interceptor set(int index, Interceptor interceptor) {
+        checkModifiable();
+        Interceptor[] copy = interceptors.clone();
+        Interceptor old = copy[index];
+        copy[index] = interceptor;
+        interceptors = copy;
+        return old;
+    }
+
+    @Override
+    public synchronized void add(int index, Interceptor interceptor) {
+        checkModifiable();
+        Interceptor[] old = interceptors;
+        if (index < 0 || index > old.length)
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + old.length);
+
+        Interceptor[] copy = new Interceptor[old.length + 1];
+        System.arraycopy(old, 0, copy, 0, index);
+        copy[index] = interceptor;
+        System.arraycopy(old, index, copy, index + 1, old.length - index);
+        interceptors = copy;
+        ++modCount;
+    }
+
+    @Override
+    public synchronized Interceptor remove(int index) {
+        checkModifiable();
+        Interceptor[] old = interceptors;
+        Interceptor removed = old[index];
+        Interceptor[] copy = new Interceptor[old.length - 1];
+        System.arraycopy(old, 0, copy, 0, index);
+        System.arraycopy(old, index + 1, copy, index, old.length - index - 1);
+        interceptors = copy;
+        ++modCount;
+        return removed;
+    }
+
+    /** Throws {@link UnsupportedOperationException} if this is the shared {@link #EMPTY} stack. */
+    private void checkModifiable() {
+        if (!modifiable)
+            throw new UnsupportedOperationException("The empty interceptor stack is shared");
+    }
+}
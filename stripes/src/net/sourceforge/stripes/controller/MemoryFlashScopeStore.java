@@ -0,0 +1,142 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+
+/**
+ * <p>
+ * A {@link FlashScopeStore} that keeps the flash scopes for the whole application in a single
+ * concurrent map instead of the {@code HttpSession}. No session is created, and flash scopes do
+ * not add to the size of replicated sessions. Since flash scopes are not tied to a session, they
+ * are visible only to the node that created them. Each flash scope is tied to the client that
+ * received it by a cookie that is written when the flash scope is saved, so a flash scope that is
+ * not saved with {@link FlashScope#save(HttpServletResponse)} cannot be consumed.
+ * </p>
+ * <p>
+ * Expired flash scopes are removed in bulk. The map is scanned at most once per reap interval,
+ * which defaults to {@value #DEFAULT_REAP_INTERVAL} seconds and can be changed with the parameter
+ * {@value #REAP_INTERVAL}. Only one thread scans the map at a time and the other threads never
+ * wait for it.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class MemoryFlashScopeStore implements FlashScopeStore {
+    /** The configuration parameter that sets the number of seconds between scans. */
+    public static final String REAP_INTERVAL = "FlashScopeStore.ReapInterval";
+
+    /** The default number of seconds between scans for expired flash scopes. */
+    public static final int DEFAULT_REAP_INTERVAL = 10;
+
+    /** The number of lock stripes in the map. */
+    private static final int CONCURRENCY_LEVEL = 32;
+
+    private final ConcurrentMap<String, FlashScope> scopes =
+            new ConcurrentHashMap<String, FlashScope>(64, 0.75f, CONCURRENCY_LEVEL);
+    private final AtomicLong nextReap = new AtomicLong();
+    private long reapInterval = DEFAULT_REAP_INTERVAL * 1000L;
+
+    /** Reads the reap interval from configuration. */
+    public void init(Configuration configuration) throws Exception {
+        String value = configuration.getBootstrapPropertyResolver().getProperty(REAP_INTERVAL);
+        if (value != null) {
+            try {
+                setReapInterval(Integer.parseInt(value.trim()));
+            }
+            catch (NumberFormatException e) {
+                throw new StripesRuntimeException("The value of " + REAP_INTERVAL
+                        + " must be a whole number of seconds: " + value, e);
+            }
+        }
+    }
+
+    /** Get the minimum number of seconds between scans for expired flash scopes. */
+    public int getReapInterval() {
+        return (int) (reapInterval / 1000);
+    }
+
+    /** Set the minimum number of seconds between scans for expired flash scopes. */
+    public void setReapInterval(int seconds) {
+        this.reapInterval = seconds * 1000L;
+    }
+
+    public boolean add(HttpServletRequest request, FlashScope scope) {
+        return scopes.putIfAbsent(scope.key(), scope) == null;
+    }
+
+    /** Writes the cookie that ties the flash scope to the client. */
+    public void save(HttpServletRequest request, HttpServletResponse response, FlashScope scope) {
+        FlashScopeCookies.bind(request, response, scope);
+    }
+
+    /**
+     * Removes the flash scope if the request carries the cookie that ties it to the client. The
+     * flash scope is left in place for its rightful client otherwise.
+     */
+    public FlashScope remove(HttpServletRequest request, HttpServletResponse response,
+            String key) {
+        if (!FlashScopeCookies.unbind(request, response, key))
+            return null;
+
+        FlashScope scope = scopes.remove(key);
+        return scope == null || scope.isExpired() ? null : scope;
+    }
+
+    /**
+     * Returns the flash scope created by the current request and those tied to its client by
+     * cookie. The flash scopes of other clients are never returned.
+     */
+    public Collection<FlashScope> getAll(HttpServletRequest request) {
+        List<FlashScope> all = new ArrayList<FlashScope>();
+        for (String key : FlashScopeCookies.getClientKeys(request)) {
+            FlashScope scope = scopes.get(key);
+            if (scope != null && !scope.isExpired())
+                all.add(scope);
+        }
+        return all;
+    }
+
+    /**
+     * Scans the map for expired flash scopes if the reap interval has elapsed since the last scan
+     * and no other thread has started a scan in the meantime.
+     */
+    public void removeExpired(HttpServletRequest request) {
+        long now = System.currentTimeMillis();
+        long next = nextReap.get();
+        if (now < next || !nextReap.compareAndSet(next, now + reapInterval))
+            return;
+
+        Iterator<FlashScope> iterator = scopes.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().isExpired()) {
+                iterator.remove();
+            }
+        }
+    }
+}
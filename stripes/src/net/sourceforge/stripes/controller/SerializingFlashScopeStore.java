@@ -0,0 +1,127 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.CryptoUtil;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>
+ * Base class for {@link FlashScopeStore}s that store flash scopes outside the JVM's heap. Flash
+ * scopes are written as the key, the timeout and a map of the flash scope's contents, serialized,
+ * compressed and then encrypted and authenticated with {@link CryptoUtil}. Stored flash scopes
+ * that were altered, or that were not written with a known key, are discarded without being
+ * deserialized.
+ * </p>
+ * <p>
+ * Only values that implement {@link Serializable} are written. {@link ActionBean}s are always
+ * skipped because they hold a reference to the
+ * {@link net.sourceforge.stripes.action.ActionBeanContext} of the request that created them.
+ * Applications that flash ActionBeans should use {@link SessionFlashScopeStore} or
+ * {@link MemoryFlashScopeStore} instead.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public abstract class SerializingFlashScopeStore implements FlashScopeStore {
+    private static final Log log = Log.getInstance(SerializingFlashScopeStore.class);
+
+    /** Does nothing. */
+    public void init(Configuration configuration) throws Exception {
+    }
+
+    /**
+     * Serialize, compress and encrypt a flash scope.
+     * 
+     * @param scope the flash scope
+     * @return the serialized flash scope
+     * @throws StripesRuntimeException if one of the values cannot be serialized
+     */
+    protected byte[] serialize(FlashScope scope) {
+        Map<String, Object> values = new HashMap<String, Object>(scope.size());
+        for (Map.Entry<String, Object> entry : scope.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof Serializable && !(value instanceof ActionBean)) {
+                values.put(entry.getKey(), value);
+            }
+            else if (value != null) {
+                log.warn("Flash scope attribute ", entry.getKey(), " of type ",
+                        value.getClass().getName(), " cannot be serialized and will be lost.");
+            }
+        }
+
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            ObjectOutputStream out = new ObjectOutputStream(new DeflaterOutputStream(bytes));
+            out.writeUTF(scope.key());
+            out.writeInt(scope.getTimeout());
+            out.writeObject(values);
+            out.close();
+            return CryptoUtil.encrypt(bytes.toByteArray());
+        }
+        catch (IOException e) {
+            throw new StripesRuntimeException("Failed to serialize flash scope " + scope.key(), e);
+        }
+    }
+
+    /**
+     * Decrypt, decompress and deserialize a flash scope that was serialized by
+     * {@link #serialize(FlashScope)}. Nothing is deserialized unless the bytes are authentic.
+     * 
+     * @param bytes the serialized flash scope
+     * @return the flash scope, or null if it was altered or could not be deserialized
+     */
+    @SuppressWarnings("unchecked")
+    protected FlashScope deserialize(byte[] bytes) {
+        bytes = CryptoUtil.decrypt(bytes);
+        if (bytes == null) {
+            log.warn("Ignoring a flash scope that was altered or written with an unknown key");
+            return null;
+        }
+
+        try {
+            ObjectInputStream in = new ObjectInputStream(new InflaterInputStream(
+                    new ByteArrayInputStream(bytes)));
+            try {
+                String key = in.readUTF();
+                int timeout = in.readInt();
+                Map<String, Object> values = (Map<String, Object>) in.readObject();
+                return new FlashScope(key, timeout, values);
+            }
+            finally {
+                in.close();
+            }
+        }
+        catch (Exception e) {
+            log.warn(e, "Failed to deserialize flash scope");
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * The default {@link FlashScopeStore}, which keeps flash scopes in a map stored in the
+ * {@link HttpSession}. A session is created, if necessary, when a flash scope is created.
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class SessionFlashScopeStore implements FlashScopeStore {
+    private static final Log log = Log.getInstance(SessionFlashScopeStore.class);
+
+    /** Does nothing. */
+    public void init(Configuration configuration) throws Exception {
+    }
+
+    /**
+     * Stores the flash scope in the session, creating the session if necessary. Returns false if
+     * the session has been invalidated.
+     */
+    public boolean add(HttpServletRequest request, FlashScope scope) {
+        ConcurrentMap<String, FlashScope> scopes = getContainer(request, true);
+        if (scopes == null)
+            return false;
+
+        return scopes.putIfAbsent(scope.key(), scope) == null;
+    }
+
+    /** Does nothing because the flash scope was stored when it was added. */
+    public void save(HttpServletRequest request, HttpServletResponse response, FlashScope scope) {
+    }
+
+    public FlashScope remove(HttpServletRequest request, HttpServletResponse response,
+            String key) {
+        ConcurrentMap<String, FlashScope> scopes = getContainer(request, false);
+        return scopes == null ? null : scopes.remove(key);
+    }
+
+    public Collection<FlashScope> getAll(HttpServletRequest request) {
+        ConcurrentMap<String, FlashScope> scopes = getContainer(request, false);
+        if (scopes == null)
+            return Collections.emptySet();
+        else
+            return scopes.values();
+    }
+
+    /** Removes the expired flash scopes from the current session. */
+    public void removeExpired(HttpServletRequest request) {
+        ConcurrentMap<String, FlashScope> scopes = getContainer(request, false);
+        if (scopes != null && !scopes.isEmpty()) {
+            Iterator<FlashScope> iterator = scopes.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isExpired()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal helper method to retrieve (and selectively create) the container for all
+     * the flash scopes.  Will return null if the container does not exist and <i>create</i> is
+     * false.  Will also return null if the current session has been invalidated, regardless
+     * of the value of <i>create</i>.
+     *
+     * @param req the current request
+     * @param create if true, create the container when it doesn't exist.
+     * @return a ConcurrentMap of keys to FlashScope objects
+     */
+    protected ConcurrentMap<String, FlashScope> getContainer(HttpServletRequest req,
+            boolean create) {
+        try {
+            HttpSession session = req.getSession(create);
+            ConcurrentMap<String, FlashScope> scopes = null;
+            if (session != null) {
+                scopes = getContainer(session);
+
+                if (scopes == null && create) {
+                    synchronized (SessionFlashScopeStore.class) {
+                        // after obtaining a lock, try looking it up again
+                        scopes = getContainer(session);
+
+                        // if still not there, then create and save it
+                        if (scopes == null) {
+                            scopes = new ConcurrentHashMap<String, FlashScope>();
+                            session.setAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION, scopes);
+                        }
+                    }
+                }
+            }
+
+            return scopes;
+        }
+        catch (IllegalStateException ise) {
+            // If the session has been invalidated we'll get this exception, but there's no
+            // way to know this without try and getting the exception :(
+            log.warn("An IllegalStateException got thrown trying to create a flash scope. ",
+                     "This happens when add something to flash scope for the first time ",
+                     "causes creation of the HttpSession, but for some other reason the ",
+                     "response is already committed!");
+            return null;
+        }
+    }
+
+    /**
+     * Internal helper method to retrieve the container for all the flash scopes. Will return null
+     * if the container does not exist.
+     * 
+     * @param session
+     * @return a ConcurrentMap of keys to FlashScope objects
+     * @throws IllegalStateException if the session has been invalidated
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<String, FlashScope> getContainer(HttpSession session)
+            throws IllegalStateException {
+        return (ConcurrentMap<String, FlashScope>) session
+                .getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION);
+    }
+}
@@ -16,11 +16,16 @@ package net.sourceforge.stripes.controller;
 
 import net.sourceforge.stripes.config.BootstrapPropertyResolver;
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DestroyableComponent;
 import net.sourceforge.stripes.config.RuntimeConfiguration;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.exception.StripesServletException;
+import net.sourceforge.stripes.tag.InputOptionsCollectionTag;
 import net.sourceforge.stripes.util.HttpUtil;
 import net.sourceforge.stripes.util.Log;
+import net.sourceforge.stripes.util.ReflectUtil;
+import net.sourceforge.stripes.util.bean.JavaBeanPropertyAccessor;
+import net.sourceforge.stripes.util.bean.ReflectivePropertyAccessorFactory;
 
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
@@ -92,6 +97,14 @@ public class StripesFilter implements Filter {
         }
     };
 
+    /**
+     * The response passed to {@link #flashInbound(HttpServletRequest, HttpServletResponse)}, kept
+     * while it calls the deprecated {@link #flashInbound(HttpServletRequest)} so that subclasses
+     * that override the old method are still called.
+     */
+    private static final ThreadLocal<HttpServletResponse> flashResponse =
+            new ThreadLocal<HttpServletResponse>();
+
     /**
      * Performs the necessary initialization for the StripesFilter.  Mainly this involves deciding
      * what configuration class to use, and then instantiating and initializing the chosen
@@ -106,6 +119,11 @@ public class StripesFilter implements Filter {
         this.servletContext = filterConfig.getServletContext();
         this.servletContext.setAttribute(StripesFilter.class.getName(), this);
 
+        // everything ActionBean metadata depends on is ready, so start warming it up
+        ActionResolver resolver = this.configuration.getActionResolver();
+        if (resolver instanceof WarmableActionResolver)
+            ((WarmableActionResolver) resolver).warmUp();
+
         Package pkg = getClass().getPackage();
         log.info("Stripes Initialization Complete. Version: ", pkg.getSpecificationVersion(),
                  ", Build: ", pkg.getImplementationVersion());
@@ -146,6 +164,18 @@ public class StripesFilter implements Filter {
         }
     }
 
+    /**
+     * Sets the Configuration returned by {@link #getConfiguration()} on the calling thread, for
+     * threads that do work on behalf of a Configuration outside of a request. Passing null
+     * clears it.
+     */
+    static void setCurrentConfiguration(Configuration configuration) {
+        if (configuration == null)
+            StripesFilter.configurationStash.remove();
+        else
+            StripesFilter.configurationStash.set(configuration);
+    }
+
     /**
      * Returns the Configuration that is being used to process the current request.
      */
@@ -256,7 +286,7 @@ public class StripesFilter implements Filter {
             }
 
             // Execute the rest of the chain
-            flashInbound(httpRequest);
+            flashInbound(httpRequest, httpResponse);
             filterChain.doFilter(httpRequest, servletResponse);
         }
         catch (Throwable t) {
@@ -265,11 +295,15 @@ public class StripesFilter implements Filter {
         finally {
             // reset the flag that indicates if this is the initial invocation
             if (initial) {
-                // Once the request is processed, clean up thread locals
-                StripesFilter.initialInvocation.remove();
-                StripesFilter.configurationStash.remove();
-
-                flashOutbound(httpRequest);
+                // Complete the flash scope while the configuration is still available to it
+                try {
+                    flashOutbound(httpRequest);
+                }
+                finally {
+                    // Once the request is processed, clean up thread locals
+                    StripesFilter.initialInvocation.remove();
+                    StripesFilter.configurationStash.remove();
+                }
             }
             else {
                 // restore URI parameters to their previous state
@@ -300,10 +334,35 @@ public class StripesFilter implements Filter {
      * <p>Checks to see if there is a flash scope identified by a parameter to the current
      * request, and if there is, retrieves items from the flash scope and moves them
      * back to request attributes.</p>
+     *
+     * <p>This calls {@link #flashInbound(HttpServletRequest)}, which does the work, so that
+     * subclasses that override either method are called.</p>
+     *
+     * @param req the current request
+     * @param res the current response, to which the flash scope store may write
      */
+    protected void flashInbound(HttpServletRequest req, HttpServletResponse res) {
+        flashResponse.set(res);
+        try {
+            flashInbound(req);
+        }
+        finally {
+            flashResponse.remove();
+        }
+    }
+
+    /**
+     * Copies the attributes from the previous flash scope to the request. The flash scope store
+     * is given the response only when this is called by
+     * {@link #flashInbound(HttpServletRequest, HttpServletResponse)}.
+     *
+     * @param req the current request
+     * @deprecated Override {@link #flashInbound(HttpServletRequest, HttpServletResponse)} instead.
+     *             This method is still called by it, so existing overrides keep working.
+     */
+    @Deprecated
     protected void flashInbound(HttpServletRequest req) {
-        // Copy the attributes from the previous flash scope to the new request
-        FlashScope flash = FlashScope.getPrevious(req);
+        FlashScope flash = FlashScope.getPrevious(req, flashResponse.get());
         if (flash != null) {
             flash.beginRequest(req);
         }
@@ -323,11 +382,26 @@ public class StripesFilter implements Filter {
         }
     }
 
-    /** Calls the cleanup() method on the log to release resources held by commons logging. */
+    /**
+     * Calls the cleanup() method on the log to release resources held by commons logging and
+     * flushes the caches of reflected class information.
+     */
     public void destroy() {
         this.servletContext.removeAttribute(StripesFilter.class.getName());
+        if (this.configuration instanceof DestroyableComponent) {
+            try {
+                ((DestroyableComponent) this.configuration).destroy();
+            }
+            catch (Exception e) {
+                log.error(e, "Failed to destroy the Stripes configuration");
+            }
+        }
         Log.cleanup();
         Introspector.flushCaches(); // Not 100% sure this is necessary, but it doesn't  hurt
+        ReflectUtil.flushCaches();
+        if (JavaBeanPropertyAccessor.getAccessorFactory() instanceof ReflectivePropertyAccessorFactory)
+            ((ReflectivePropertyAccessorFactory) JavaBeanPropertyAccessor.getAccessorFactory()).flushCache();
+        InputOptionsCollectionTag.clearOptionsCache();
         StripesFilter.configurations.clear();
     }
 }
@@ -24,9 +24,9 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -58,6 +58,9 @@ import net.sourceforge.stripes.util.bean.ParseException;
 public class UrlBindingFactory {
     private static final Log log = Log.getInstance(UrlBindingFactory.class);
 
+    /** The default maximum number of entries in the cache of resolved dynamic paths. */
+    public static final int DEFAULT_DYNAMIC_PATH_CACHE_SIZE = 1024;
+
     /** Maps {@link ActionBean} classes to {@link UrlBinding}s */
     private final Map<Class<? extends ActionBean>, UrlBinding> classCache = new HashMap<Class<? extends ActionBean>, UrlBinding>();
 
@@ -67,14 +70,35 @@ public class UrlBindingFactory {
     /** Keeps a list of all the paths that could not be cached due to conflicts between URL bindings */
     private final Map<String, List<UrlBinding>> pathConflicts = new HashMap<String, List<UrlBinding>>();
 
-    /** Holds the set of paths that are cached, sorted from longest to shortest */
-    private final Map<String, Set<UrlBinding>> prefixCache = new TreeMap<String, Set<UrlBinding>>(
-            new Comparator<String>() {
-                public int compare(String a, String b) {
-                    int cmp = b.length() - a.length();
-                    return cmp == 0 ? a.compareTo(b) : cmp;
-                }
-            });
+    /** Maps path prefixes to the set of bindings that could match paths that begin with them */
+    private final UrlPrefixTree<Set<UrlBinding>> prefixCache = new UrlPrefixTree<Set<UrlBinding>>();
+
+    /** Maps paths that were matched by prefix to the binding that was chosen for them */
+    private final Map<String, UrlBinding> dynamicPathCache = new ConcurrentHashMap<String, UrlBinding>();
+
+    /** The maximum number of entries allowed in {@link #dynamicPathCache} */
+    private int dynamicPathCacheSize = DEFAULT_DYNAMIC_PATH_CACHE_SIZE;
+
+    /**
+     * Get the maximum number of request paths that are matched by prefix (for example, paths that
+     * contain URI parameters) whose resolved binding is remembered. The default is
+     * {@value #DEFAULT_DYNAMIC_PATH_CACHE_SIZE}.
+     */
+    public int getDynamicPathCacheSize() {
+        return dynamicPathCacheSize;
+    }
+
+    /**
+     * Set the maximum number of request paths that are matched by prefix whose resolved binding
+     * is remembered. When the cache is full, it is emptied and starts filling again. A size of
+     * zero disables the cache.
+     * 
+     * @param dynamicPathCacheSize the maximum number of entries in the cache
+     */
+    public void setDynamicPathCacheSize(int dynamicPathCacheSize) {
+        this.dynamicPathCacheSize = dynamicPathCacheSize;
+        this.dynamicPathCache.clear();
+    }
 
     /**
      * Get all the classes implementing {@link ActionBean}
@@ -124,15 +148,16 @@ public class UrlBindingFactory {
             throw new UrlBindingConflictException(uri, strings);
         }
 
-        // Get all the bindings whose prefix matches the URI
-        Set<UrlBinding> candidates = null;
-        for (Entry<String, Set<UrlBinding>> entry : prefixCache.entrySet()) {
-            if (uri.startsWith(entry.getKey())) {
-                candidates = entry.getValue();
-                break;
-            }
+        // Check for a path that has already been matched by prefix
+        prototype = dynamicPathCache.get(uri);
+        if (prototype != null) {
+            log.debug("Matched ", uri, " to ", prototype);
+            return prototype;
         }
 
+        // Get all the bindings whose prefix matches the URI
+        Set<UrlBinding> candidates = prefixCache.getLongestPrefixMatch(uri);
+
         // If none matched or exactly one matched then return now
         if (candidates == null) {
             log.debug("No URL binding matches ", uri);
@@ -140,7 +165,7 @@ public class UrlBindingFactory {
         }
         else if (candidates.size() == 1) {
             log.debug("Matched ", uri, " to ", candidates);
-            return candidates.iterator().next();
+            return cacheDynamicPath(uri, candidates.iterator().next());
         }
 
         // Now find the one that matches deepest into the URI with the fewest components
@@ -202,7 +227,24 @@ public class UrlBindingFactory {
             throw new UrlBindingConflictException(uri, conflicts);
         }
 
-        return prototype;
+        return cacheDynamicPath(uri, prototype);
+    }
+
+    /**
+     * Remember the binding that was matched to a URI by prefix so that later requests for the same
+     * URI can skip the search. The cache is bounded by {@link #getDynamicPathCacheSize()}.
+     * 
+     * @param uri the request URI
+     * @param binding the binding that matched the URI
+     * @return the binding
+     */
+    protected UrlBinding cacheDynamicPath(String uri, UrlBinding binding) {
+        if (dynamicPathCacheSize > 0) {
+            if (dynamicPathCache.size() >= dynamicPathCacheSize)
+                dynamicPathCache.clear();
+            dynamicPathCache.put(uri, binding);
+        }
+        return binding;
     }
 
     /**
@@ -352,6 +394,9 @@ public class UrlBindingFactory {
         if (existing != null)
             removeBinding(existing);
 
+        // Adding a binding can change the outcome of prefix matches
+        dynamicPathCache.clear();
+
         // And now we can safely add the class
         for (String path : getCachedPaths(binding)) {
             cachePath(path, binding);
@@ -372,6 +417,8 @@ public class UrlBindingFactory {
         if (binding == null)
             return;
 
+        dynamicPathCache.clear();
+
         Set<UrlBinding> resolvedConflicts = null;
         for (String path : getCachedPaths(binding)) {
             log.debug("Clearing cached path ", path, " for ", binding);
@@ -0,0 +1,237 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A radix tree that maps URL prefixes to values. Each edge in the tree is labeled with a string
+ * instead of a single character, and edges are split only where two keys diverge, so the depth of
+ * the tree is bounded by the number of distinct branch points rather than the length of the keys.
+ * </p>
+ * <p>
+ * The primary operation is {@link #getLongestPrefixMatch(String)}, which walks the tree once along
+ * the given URI and returns the value of the longest key that is a prefix of it. The cost of the
+ * lookup is proportional to the length of the URI and does not depend on how many keys are in the
+ * tree.
+ * </p>
+ * <p>
+ * Like the other caches in {@link UrlBindingFactory}, this class is not synchronized. It is
+ * populated when ActionBeans are bound and read while requests are processed.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+class UrlPrefixTree<V> {
+    /** A node in the tree. The label is the string on the edge from the parent to this node. */
+    private static class Node<V> {
+        private static final Node<?>[] NO_CHILDREN = new Node<?>[0];
+
+        String label;
+        V value;
+        Node<?>[] children = NO_CHILDREN;
+
+        Node(String label, V value) {
+            this.label = label;
+            this.value = value;
+        }
+
+        /** Get the child whose label starts with the given character, or null if none. */
+        @SuppressWarnings("unchecked")
+        Node<V> getChild(char c) {
+            for (Node<?> child : children) {
+                if (child.label.charAt(0) == c)
+                    return (Node<V>) child;
+            }
+            return null;
+        }
+
+        /** Add a child, or replace the child whose label starts with the same character. */
+        void putChild(Node<V> node) {
+            char c = node.label.charAt(0);
+            for (int i = 0; i < children.length; i++) {
+                if (children[i].label.charAt(0) == c) {
+                    children[i] = node;
+                    return;
+                }
+            }
+
+            Node<?>[] copy = new Node<?>[children.length + 1];
+            System.arraycopy(children, 0, copy, 0, children.length);
+            copy[children.length] = node;
+            children = copy;
+        }
+
+        /** Remove the given child node. */
+        void removeChild(Node<V> node) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == node) {
+                    Node<?>[] copy = new Node<?>[children.length - 1];
+                    System.arraycopy(children, 0, copy, 0, i);
+                    System.arraycopy(children, i + 1, copy, i, copy.length - i);
+                    children = copy;
+                    return;
+                }
+            }
+        }
+    }
+
+    private final Node<V> root = new Node<V>("", null);
+
+    /**
+     * Get the value that is mapped to exactly the given key.
+     *
+     * @param key the key
+     * @return the value mapped to the key, or null if the key is not mapped
+     */
+    public V get(String key) {
+        Node<V> node = root;
+        int index = 0;
+        while (index < key.length()) {
+            node = node.getChild(key.charAt(index));
+            if (node == null || !key.startsWith(node.label, index))
+                return null;
+            index += node.label.length();
+        }
+        return node.value;
+    }
+
+    /**
+     * Map a key to a value, replacing the value that was previously mapped to the key, if any.
+     *
+     * @param key the key
+     * @param value the value to map to the key; must not be null
+     */
+    public void put(String key, V value) {
+        Node<V> node = root;
+        int index = 0;
+        while (index < key.length()) {
+            Node<V> child = node.getChild(key.charAt(index));
+            if (child == null) {
+                node.putChild(new Node<V>(key.substring(index), value));
+                return;
+            }
+
+            // Find out how much of the edge label matches the key
+            String label = child.label;
+            int common = 1, max = Math.min(label.length(), key.length() - index);
+            while (common < max && label.charAt(common) == key.charAt(index + common))
+                ++common;
+
+            // Split the edge where the key diverges from it
+            if (common < label.length()) {
+                // Replace the child before relabeling it, since putChild() matches on the label
+                Node<V> split = new Node<V>(label.substring(0, common), null);
+                node.putChild(split);
+                child.label = label.substring(common);
+                split.putChild(child);
+                child = split;
+            }
+
+            node = child;
+            index += common;
+        }
+        node.value = value;
+    }
+
+    /**
+     * Remove the mapping for a key, if there is one. Nodes that are left with neither a value nor
+     * any children are pruned from the tree, and nodes that are left with no value and a single
+     * child are merged into that child.
+     *
+     * @param key the key
+     */
+    @SuppressWarnings("unchecked")
+    public void remove(String key) {
+        List<Node<V>> path = new ArrayList<Node<V>>();
+        Node<V> node = root;
+        int index = 0;
+        path.add(node);
+        while (index < key.length()) {
+            node = node.getChild(key.charAt(index));
+            if (node == null || !key.startsWith(node.label, index))
+                return;
+            index += node.label.length();
+            path.add(node);
+        }
+
+        node.value = null;
+
+        // Walk back up toward the root, pruning and merging as long as nodes are left empty
+        for (int i = path.size() - 1; i > 0; i--) {
+            node = path.get(i);
+            Node<V> parent = path.get(i - 1);
+            if (node.value != null) {
+                break;
+            }
+            else if (node.children.length == 0) {
+                parent.removeChild(node);
+            }
+            else if (node.children.length == 1) {
+                // Merge the node into its only child so the tree stays compact
+                Node<V> child = (Node<V>) node.children[0];
+                child.label = node.label + child.label;
+                parent.putChild(child);
+                break;
+            }
+            else {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Get the value mapped to the longest key that is a prefix of the given string.
+     *
+     * @param string the string, usually a request URI
+     * @return the value mapped to the longest matching key, or null if no key matches
+     */
+    public V getLongestPrefixMatch(String string) {
+        Node<V> node = root;
+        V match = root.value;
+        int index = 0;
+        while (index < string.length()) {
+            node = node.getChild(string.charAt(index));
+            if (node == null || !string.startsWith(node.label, index))
+                break;
+
+            index += node.label.length();
+            if (node.value != null)
+                match = node.value;
+        }
+        return match;
+    }
+
+    /** Get the number of nodes in the tree, not counting the root. Used for testing. */
+    int getNodeCount() {
+        return countNodes(root) - 1;
+    }
+
+    private int countNodes(Node<?> node) {
+        int count = 1;
+        for (Node<?> child : node.children)
+            count += countNodes(child);
+        return count;
+    }
+
+    /** Remove all mappings from the tree. */
+    public void clear() {
+        root.value = null;
+        root.children = Node.NO_CHILDREN;
+    }
+}
@@ -0,0 +1,64 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.action.ActionBean;
+
+/**
+ * <p>Implemented by {@link ActionResolver}s that can build the metadata of ActionBeans after
+ * startup and report when they are done. Once the {@link StripesFilter} has been initialized, it
+ * calls {@link #warmUp()} if the configured ActionResolver implements this interface. Other
+ * ActionResolvers are not warmed up and have no way to report that they are ready.</p>
+ *
+ * @see AnnotatedClassActionResolver
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface WarmableActionResolver extends ActionResolver {
+    /**
+     * Called by the {@link StripesFilter} when it has been initialized. Implementations that
+     * build metadata in the background should start doing so and return immediately.
+     */
+    void warmUp();
+
+    /**
+     * Returns true if the metadata of all ActionBeans has been built and none of it failed to
+     * build.
+     */
+    boolean isReady();
+
+    /**
+     * Returns the errors that kept the metadata of ActionBeans from being built, keyed by
+     * ActionBean class.
+     *
+     * @return an unmodifiable map of the failures, which is empty if there were none
+     */
+    Map<Class<? extends ActionBean>, Throwable> getFailures();
+
+    /**
+     * Waits until the metadata of all ActionBeans has been built.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return true if the metadata has been built, false if the timeout elapsed first
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws net.sourceforge.stripes.exception.StripesRuntimeException if the metadata of any
+     *         ActionBean failed to build
+     */
+    boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException;
+}
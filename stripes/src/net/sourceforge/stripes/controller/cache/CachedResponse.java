@@ -0,0 +1,173 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.util.HttpUtil;
+
+/**
+ * The bytes, content type, character encoding and headers of a response that was captured by the
+ * {@link ResponseCacheInterceptor}, along with the time at which it expires. Executing it as a
+ * {@link Resolution} sends the captured response again, or 304 Not Modified if the captured
+ * {@code ETag} or {@code Last-Modified} header shows that the client's copy is current. Instances
+ * are immutable.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class CachedResponse implements Resolution {
+    private final String contentType;
+    private final String characterEncoding;
+    private final byte[] body;
+    private final long expires;
+    private final Map<String, List<Object>> headers;
+    private final String eTag;
+    private final long lastModified;
+
+    /**
+     * Create a new cached response without headers.
+     *
+     * @param contentType the content type of the response, or null if none was set
+     * @param characterEncoding the character encoding of the response, or null if none was set
+     * @param body the body of the response; not copied, so it must not be modified afterward
+     * @param expires the time, in milliseconds since the epoch, at which the response expires
+     */
+    public CachedResponse(String contentType, String characterEncoding, byte[] body, long expires) {
+        this(contentType, characterEncoding, Collections.<String, List<Object>> emptyMap(), body,
+                expires);
+    }
+
+    /**
+     * Create a new cached response.
+     *
+     * @param contentType the content type of the response, or null if none was set
+     * @param characterEncoding the character encoding of the response, or null if none was set
+     * @param headers maps the name of each header to its values, which are Strings, or Longs for
+     *            date headers, or Integers for integer headers; not copied, so it must not be
+     *            modified afterward
+     * @param body the body of the response; not copied, so it must not be modified afterward
+     * @param expires the time, in milliseconds since the epoch, at which the response expires
+     */
+    public CachedResponse(String contentType, String characterEncoding,
+            Map<String, List<Object>> headers, byte[] body, long expires) {
+        this.contentType = contentType;
+        this.characterEncoding = characterEncoding;
+        this.headers = headers;
+        this.body = body;
+        this.expires = expires;
+
+        Object value = getHeader("ETag");
+        this.eTag = value instanceof String ? (String) value : null;
+        value = getHeader("Last-Modified");
+        this.lastModified = value instanceof Long ? (Long) value : -1;
+    }
+
+    /** Get the content type of the response, or null if none was set. */
+    public String getContentType() {
+        return contentType;
+    }
+
+    /** Get the character encoding of the response, or null if none was set. */
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    /** Get the headers of the response. The map must not be modified. */
+    public Map<String, List<Object>> getHeaders() {
+        return headers;
+    }
+
+    /** Get the first value of the named header, or null if the response does not have it. */
+    public Object getHeader(String name) {
+        for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name) && !header.getValue().isEmpty())
+                return header.getValue().get(0);
+        }
+        return null;
+    }
+
+    /** Get the number of bytes in the body of the response. */
+    public int getLength() {
+        return body.length;
+    }
+
+    /** Get the time, in milliseconds since the epoch, at which the response expires. */
+    public long getExpires() {
+        return expires;
+    }
+
+    /** Returns true if the response has expired as of the given time. */
+    public boolean isExpired(long now) {
+        return now >= expires;
+    }
+
+    /**
+     * Sends the cached headers, and then either 304 Not Modified, if the request's conditional
+     * headers match the cached {@code ETag} or {@code Last-Modified} header, or the cached
+     * content type, character encoding and body.
+     */
+    public void execute(HttpServletRequest request, HttpServletResponse response) throws Exception {
+        for (Map.Entry<String, List<Object>> header : headers.entrySet()) {
+            boolean first = true;
+            for (Object value : header.getValue()) {
+                writeHeader(response, header.getKey(), value, first);
+                first = false;
+            }
+        }
+
+        if ((eTag != null || lastModified >= 0)
+                && HttpUtil.isNotModified(request, eTag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (contentType != null)
+            response.setContentType(contentType);
+        if (characterEncoding != null)
+            response.setCharacterEncoding(characterEncoding);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    /** Set or add a header using the method that matches the type of its value. */
+    private static void writeHeader(HttpServletResponse response, String name, Object value,
+            boolean set) {
+        if (value instanceof Long) {
+            if (set)
+                response.setDateHeader(name, (Long) value);
+            else
+                response.addDateHeader(name, (Long) value);
+        }
+        else if (value instanceof Integer) {
+            if (set)
+                response.setIntHeader(name, (Integer) value);
+            else
+                response.addIntHeader(name, (Integer) value);
+        }
+        else if (set) {
+            response.setHeader(name, String.valueOf(value));
+        }
+        else {
+            response.addHeader(name, String.valueOf(value));
+        }
+    }
+}
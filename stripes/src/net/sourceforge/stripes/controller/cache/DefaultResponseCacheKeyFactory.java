@@ -0,0 +1,98 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.CacheResponse;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.ExecutionContext;
+import net.sourceforge.stripes.controller.StripesConstants;
+import net.sourceforge.stripes.util.HttpUtil;
+import net.sourceforge.stripes.util.StringUtil;
+
+/**
+ * Default implementation of {@link ResponseCacheKeyFactory}. The key is made up of the ActionBean
+ * class, the event name, the requested path, the request parameters sorted by name and, unless
+ * {@link CacheResponse#varyByLocale()} is false, the request's locale. If
+ * {@link CacheResponse#parameters()} is not empty, then only the named parameters are part of the
+ * key. The parameters that Stripes adds to forms and links for its own use, such as the source
+ * page, are never part of the key. Requests that carry a flash scope are not cached, since their
+ * responses usually include the contents of the flash scope.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class DefaultResponseCacheKeyFactory implements ResponseCacheKeyFactory {
+    /** Stripes' own request parameters, which are not part of the key. */
+    private static final Set<String> IGNORED_PARAMETERS = new HashSet<String>(Arrays.asList(
+            StripesConstants.URL_KEY_SOURCE_PAGE, StripesConstants.URL_KEY_FIELDS_PRESENT,
+            StripesConstants.URL_KEY_EVENT_NAME));
+
+    /** Does nothing. */
+    public void init(Configuration configuration) throws Exception {
+    }
+
+    @SuppressWarnings("unchecked")
+    public String getKey(ExecutionContext context, CacheResponse annotation) {
+        ActionBeanContext beanContext = context.getActionBeanContext();
+        HttpServletRequest request = beanContext.getRequest();
+        if (request.getParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID) != null)
+            return null;
+
+        StringBuilder key = new StringBuilder(128);
+        key.append(context.getActionBean().getClass().getName()).append('.').append(
+                beanContext.getEventName()).append(' ').append(HttpUtil.getRequestedPath(request));
+
+        Map<String, String[]> parameters = request.getParameterMap();
+        String[] names = annotation.parameters();
+        if (names.length == 0) {
+            parameters = new TreeMap<String, String[]>(parameters);
+            names = parameters.keySet().toArray(new String[parameters.size()]);
+        }
+        else {
+            names = names.clone();
+            Arrays.sort(names);
+        }
+
+        char separator = '?';
+        for (String name : names) {
+            String[] values = parameters.get(name);
+            if (values == null || IGNORED_PARAMETERS.contains(name))
+                continue;
+
+            for (String value : values) {
+                key.append(separator).append(StringUtil.urlEncode(name)).append('=').append(
+                        StringUtil.urlEncode(value));
+                separator = '&';
+            }
+        }
+
+        if (annotation.varyByLocale()) {
+            Locale locale = request.getLocale();
+            key.append(' ').append(locale);
+        }
+
+        return key.toString();
+    }
+}
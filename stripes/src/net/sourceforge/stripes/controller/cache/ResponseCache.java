@@ -0,0 +1,184 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A cache of {@link CachedResponse}s that is bounded by the total number of bytes in the
+ * cached responses. When adding a response would exceed the bound, the least recently used
+ * responses are evicted until it fits. Responses that have expired are removed when they are
+ * looked up.</p>
+ *
+ * <p>The number of hits, misses, evictions and expirations is counted so the effectiveness of
+ * the cache can be monitored. All methods are thread safe.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class ResponseCache {
+    /** The approximate number of bytes of overhead for each entry, including its key. */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final long maxSize;
+    private final LinkedHashMap<String, CachedResponse> entries =
+            new LinkedHashMap<String, CachedResponse>(64, 0.75f, true);
+    private long size;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    /**
+     * Create a new cache.
+     *
+     * @param maxSize the maximum number of bytes the cached responses may take up
+     */
+    public ResponseCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Look up a response.
+     *
+     * @param key the cache key
+     * @return the cached response, or null if there is none or it has expired
+     */
+    public CachedResponse get(String key) {
+        CachedResponse response;
+        synchronized (entries) {
+            response = entries.get(key);
+            if (response != null && response.isExpired(System.currentTimeMillis())) {
+                entries.remove(key);
+                size -= sizeOf(key, response);
+                expirations.incrementAndGet();
+                response = null;
+            }
+        }
+
+        if (response == null)
+            misses.incrementAndGet();
+        else
+            hits.incrementAndGet();
+        return response;
+    }
+
+    /**
+     * Add a response to the cache, replacing the response that is already cached under the same
+     * key, if any. Responses that are larger than the cache itself are not added.
+     *
+     * @param key the cache key
+     * @param response the response to cache
+     * @return true if the response was added
+     */
+    public boolean put(String key, CachedResponse response) {
+        long entrySize = sizeOf(key, response);
+        if (entrySize > maxSize)
+            return false;
+
+        synchronized (entries) {
+            CachedResponse previous = entries.put(key, response);
+            if (previous != null)
+                size -= sizeOf(key, previous);
+            size += entrySize;
+
+            // Evict the least recently used responses until the new one fits
+            Iterator<Map.Entry<String, CachedResponse>> iterator = entries.entrySet().iterator();
+            while (size > maxSize && iterator.hasNext()) {
+                Map.Entry<String, CachedResponse> eldest = iterator.next();
+                if (eldest.getKey().equals(key))
+                    continue;
+
+                iterator.remove();
+                size -= sizeOf(eldest.getKey(), eldest.getValue());
+                evictions.incrementAndGet();
+            }
+        }
+
+        return true;
+    }
+
+    /** Remove all responses from the cache. Statistics are not reset. */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+            size = 0;
+        }
+    }
+
+    /** Get the number of cached responses, including any that have expired but not been removed. */
+    public int getEntryCount() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /** Get the approximate number of bytes taken up by the cached responses. */
+    public long getSize() {
+        synchronized (entries) {
+            return size;
+        }
+    }
+
+    /** Get the maximum number of bytes the cached responses may take up. */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    /** Get the number of lookups that found a response. */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** Get the number of lookups that did not find a response, including expired responses. */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** Get the number of responses that were removed to make room for others. */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** Get the number of responses that were removed because they had expired. */
+    public long getExpirationCount() {
+        return expirations.get();
+    }
+
+    /** Reset the hit, miss, eviction and expiration counts to zero. */
+    public void resetStatistics() {
+        hits.set(0);
+        misses.set(0);
+        evictions.set(0);
+        expirations.set(0);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{entries=" + getEntryCount() + ", size=" + getSize()
+                + ", maxSize=" + maxSize + ", hits=" + getHitCount() + ", misses="
+                + getMissCount() + ", evictions=" + getEvictionCount() + ", expirations="
+                + getExpirationCount() + "}";
+    }
+
+    /** Get the approximate number of bytes taken up by a cached response and its key. */
+    private static long sizeOf(String key, CachedResponse response) {
+        return ENTRY_OVERHEAD + 2L * key.length() + response.getLength();
+    }
+}
@@ -0,0 +1,304 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.CacheResponse;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.StreamingResolution;
+import net.sourceforge.stripes.ajax.JavaScriptResolution;
+import net.sourceforge.stripes.config.ConfigurableComponent;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.ExecutionContext;
+import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.Intercepts;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.controller.StripesConstants;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.HttpUtil;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>Caches the responses to events that are annotated with {@link CacheResponse} in a
+ * {@link ResponseCache} and answers later requests for the same events from the cache.</p>
+ *
+ * <p>When a GET request is made for such an event and a {@link ForwardResolution},
+ * {@link StreamingResolution} or {@link JavaScriptResolution} is executed without validation
+ * errors, the headers set after the event handler was resolved and everything written to the
+ * response are copied into the cache. Once the ActionBean and event handler have been resolved
+ * for a later GET or HEAD request, the cache is checked, and if it has a response that has not
+ * expired, that response is sent in place of the rest of the request processing. If the cached
+ * response has an {@code ETag} or {@code Last-Modified} header, conditional requests are checked
+ * against it with {@link HttpUtil#isNotModified(HttpServletRequest, String, long)} and answered
+ * with 304 Not Modified when the client's copy is current. Cache keys are built by a
+ * {@link ResponseCacheKeyFactory}.</p>
+ *
+ * <p><b>A cached response is served at the end of {@link LifecycleStage#HandlerResolution}.</b>
+ * The {@link LifecycleStage#BindingAndValidation}, {@link LifecycleStage#CustomValidation},
+ * {@link LifecycleStage#EventHandling} and {@link LifecycleStage#ResolutionExecution} stages do
+ * not run for a cache hit. That means no binding or validation, no {@code @Before} or
+ * {@code @After} methods for those stages, no event handler, and no interceptors for those
+ * stages. Access checks that must apply to cached responses have to run in an interceptor for
+ * {@link LifecycleStage#ActionBeanResolution} or {@link LifecycleStage#HandlerResolution} that is
+ * listed before this one, or be reflected in the cache key.</p>
+ *
+ * <p>This interceptor is not enabled by default. To enable it, add it to the
+ * {@code Interceptor.Classes} initialization parameter of the StripesFilter. The following
+ * parameters are also supported:</p>
+ *
+ * <ul>
+ * <li>{@value #MAX_SIZE} - the maximum number of bytes in the cache. Defaults to 16 MB.</li>
+ * <li>{@value #MAX_ENTRY_SIZE} - the maximum number of bytes in a single cached response. Larger
+ * responses are not cached. Defaults to 1 MB.</li>
+ * <li>{@value #KEY_FACTORY_CLASS} - the implementation of {@link ResponseCacheKeyFactory}. Defaults
+ * to {@link DefaultResponseCacheKeyFactory}.</li>
+ * </ul>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@Intercepts( { LifecycleStage.HandlerResolution, LifecycleStage.ResolutionExecution })
+public class ResponseCacheInterceptor implements Interceptor, ConfigurableComponent {
+    /** The configuration key used to look up the maximum number of bytes in the cache. */
+    public static final String MAX_SIZE = "ResponseCache.MaxSize";
+
+    /** The configuration key used to look up the maximum number of bytes in one response. */
+    public static final String MAX_ENTRY_SIZE = "ResponseCache.MaxEntrySize";
+
+    /** The configuration key used to look up the implementation of ResponseCacheKeyFactory. */
+    public static final String KEY_FACTORY_CLASS = "ResponseCacheKeyFactory.Class";
+
+    /** The default maximum number of bytes in the cache. */
+    public static final long DEFAULT_MAX_SIZE = 16 * 1024 * 1024;
+
+    /** The default maximum number of bytes in one response. */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 1024 * 1024;
+
+    /** The request attribute that holds the capturing response between lifecycle stages. */
+    private static final String REQ_ATTR_CAPTURE = ResponseCacheInterceptor.class.getName()
+            + ".capture";
+
+    /** Stands in for a missing annotation in the maps, which do not allow null values. */
+    private static final Object NO_ANNOTATION = new Object();
+
+    private static final Log log = Log.getInstance(ResponseCacheInterceptor.class);
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, Object>> annotations =
+            new ConcurrentHashMap<Class<?>, ConcurrentMap<Method, Object>>();
+    private ResponseCache cache;
+    private ResponseCacheKeyFactory keyFactory;
+    private int maxEntrySize = DEFAULT_MAX_ENTRY_SIZE;
+
+    /** Creates the cache and the key factory. */
+    public void init(Configuration configuration) throws Exception {
+        long maxSize = DEFAULT_MAX_SIZE;
+        String value = configuration.getBootstrapPropertyResolver().getProperty(MAX_SIZE);
+        if (value != null) {
+            try {
+                maxSize = Long.parseLong(value.trim());
+            }
+            catch (NumberFormatException e) {
+                throw new StripesRuntimeException("Value of " + MAX_SIZE + " must be a number: "
+                        + value, e);
+            }
+        }
+
+        value = configuration.getBootstrapPropertyResolver().getProperty(MAX_ENTRY_SIZE);
+        if (value != null) {
+            try {
+                maxEntrySize = Integer.parseInt(value.trim());
+            }
+            catch (NumberFormatException e) {
+                throw new StripesRuntimeException("Value of " + MAX_ENTRY_SIZE
+                        + " must be a number: " + value, e);
+            }
+        }
+
+        Class<? extends ResponseCacheKeyFactory> keyFactoryClass = configuration
+                .getBootstrapPropertyResolver().getClassProperty(KEY_FACTORY_CLASS,
+                        ResponseCacheKeyFactory.class);
+        if (keyFactoryClass == null)
+            keyFactoryClass = DefaultResponseCacheKeyFactory.class;
+
+        ResponseCacheKeyFactory keyFactory = configuration.getObjectFactory().newInstance(
+                keyFactoryClass);
+        keyFactory.init(configuration);
+        this.keyFactory = keyFactory;
+        this.cache = new ResponseCache(maxSize);
+
+        log.info("Caching responses of up to ", maxEntrySize, " bytes in a cache of ", maxSize,
+                " bytes with keys from ", keyFactoryClass.getName());
+    }
+
+    /** Get the cache in which responses are kept. */
+    public ResponseCache getCache() {
+        return cache;
+    }
+
+    /** Get the factory that builds the cache keys. */
+    public ResponseCacheKeyFactory getKeyFactory() {
+        return keyFactory;
+    }
+
+    public Resolution intercept(ExecutionContext context) throws Exception {
+        if (cache == null)
+            return context.proceed();
+        else if (context.getLifecycleStage() == LifecycleStage.HandlerResolution)
+            return lookup(context);
+        else
+            return capture(context);
+    }
+
+    /**
+     * After the event handler has been resolved, check the cache for a response to the current
+     * request. If one is found, it is returned so it can be executed in place of the rest of the
+     * request processing. If not, the response is wrapped so that the headers and output of the
+     * rest of the request can be cached.
+     */
+    protected Resolution lookup(ExecutionContext context) throws Exception {
+        Resolution resolution = context.proceed();
+        if (resolution != null)
+            return resolution;
+
+        ActionBean bean = context.getActionBean();
+        Method handler = context.getHandler();
+        if (bean == null || handler == null)
+            return null;
+
+        CacheResponse annotation = getAnnotation(handler, bean.getClass());
+        if (annotation == null)
+            return null;
+
+        HttpServletRequest request = context.getActionBeanContext().getRequest();
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)
+                || request.getAttribute(StripesConstants.REQ_ATTR_INCLUDE_PATH) != null)
+            return null;
+
+        String key = keyFactory.getKey(context, annotation);
+        if (key == null)
+            return null;
+
+        CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            log.debug("Serving cached response for ", key);
+            return cached;
+        }
+
+        if ("GET".equals(method)) {
+            ActionBeanContext beanContext = context.getActionBeanContext();
+            ResponseCaptureWrapper wrapper = new ResponseCaptureWrapper(beanContext.getResponse(),
+                    key, maxEntrySize);
+            beanContext.setResponse(wrapper);
+            request.setAttribute(REQ_ATTR_CAPTURE, wrapper);
+        }
+        return null;
+    }
+
+    /**
+     * If the response was wrapped for the current request and the resolution can be cached, then
+     * execute the resolution while copying the response and add the copy to the cache.
+     */
+    protected Resolution capture(ExecutionContext context) throws Exception {
+        ActionBeanContext beanContext = context.getActionBeanContext();
+        HttpServletRequest request = beanContext.getRequest();
+        ResponseCaptureWrapper wrapper = (ResponseCaptureWrapper) request
+                .getAttribute(REQ_ATTR_CAPTURE);
+        if (wrapper == null)
+            return context.proceed();
+
+        // Remove the wrapper so that ActionBeans invoked by a forward do not see it
+        request.removeAttribute(REQ_ATTR_CAPTURE);
+        HttpServletResponse response = (HttpServletResponse) wrapper.getResponse();
+        String key = wrapper.getKey();
+
+        if (!isCacheable(context.getResolution()) || !beanContext.getValidationErrors().isEmpty()) {
+            beanContext.setResponse(response);
+            return context.proceed();
+        }
+
+        Resolution resolution;
+        try {
+            resolution = context.proceed();
+        }
+        finally {
+            beanContext.setResponse(response);
+        }
+
+        if (wrapper.isCacheable()) {
+            int ttl = getAnnotation(context.getHandler(), context.getActionBean().getClass()).ttl();
+            long expires = System.currentTimeMillis() + ttl * 1000L;
+            CachedResponse cached = new CachedResponse(wrapper.getContentType(),
+                    wrapper.getCharacterEncoding(), wrapper.getHeaders(), wrapper.getBody(),
+                    expires);
+            if (cache.put(key, cached))
+                log.debug("Cached ", cached.getLength(), " bytes for ", ttl, " seconds for ", key);
+        }
+        else {
+            log.debug("Response for ", key, " cannot be cached");
+        }
+
+        return resolution;
+    }
+
+    /**
+     * Returns true if the output of a resolution can be cached. By default, that is true of
+     * {@link ForwardResolution}, {@link StreamingResolution} and {@link JavaScriptResolution}.
+     */
+    protected boolean isCacheable(Resolution resolution) {
+        return resolution instanceof ForwardResolution
+                || resolution instanceof StreamingResolution
+                || resolution instanceof JavaScriptResolution;
+    }
+
+    /**
+     * Look for a {@link CacheResponse} annotation on the event handler first and then on the class
+     * and its superclasses. The result is cached.
+     *
+     * @param method an event handler method
+     * @param beanClass the class to inspect for annotations if none is found on the method
+     * @return the first {@link CacheResponse} annotation found, or null if there is none
+     */
+    protected CacheResponse getAnnotation(Method method, Class<? extends ActionBean> beanClass) {
+        ConcurrentMap<Method, Object> byMethod = annotations.get(beanClass);
+        if (byMethod == null) {
+            byMethod = new ConcurrentHashMap<Method, Object>();
+            ConcurrentMap<Method, Object> existing = annotations.putIfAbsent(beanClass, byMethod);
+            if (existing != null)
+                byMethod = existing;
+        }
+
+        Object annotation = byMethod.get(method);
+        if (annotation == null) {
+            annotation = method.getAnnotation(CacheResponse.class);
+            if (annotation == null)
+                annotation = beanClass.getAnnotation(CacheResponse.class);
+            if (annotation == null)
+                annotation = NO_ANNOTATION;
+            byMethod.put(method, annotation);
+        }
+
+        return annotation == NO_ANNOTATION ? null : (CacheResponse) annotation;
+    }
+}
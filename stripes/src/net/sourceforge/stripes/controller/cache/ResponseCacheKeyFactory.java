@@ -0,0 +1,42 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import net.sourceforge.stripes.action.CacheResponse;
+import net.sourceforge.stripes.config.ConfigurableComponent;
+import net.sourceforge.stripes.controller.ExecutionContext;
+
+/**
+ * <p>Builds the keys under which the {@link ResponseCacheInterceptor} caches responses. Two
+ * requests that produce the same key are answered with the same response, so the key must
+ * include everything that the response depends on. Implementations must be thread safe.</p>
+ *
+ * <p>The implementation is configured with the {@value ResponseCacheInterceptor#KEY_FACTORY_CLASS}
+ * initialization parameter. The default is {@link DefaultResponseCacheKeyFactory}.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface ResponseCacheKeyFactory extends ConfigurableComponent {
+    /**
+     * Build the cache key for the current request. This is called after the ActionBean and the
+     * event handler have been resolved but before any request parameters are bound.
+     *
+     * @param context the execution context of the current request
+     * @param annotation the annotation that applies to the event handler
+     * @return the cache key, or null if the response to this request must not be cached
+     */
+    String getKey(ExecutionContext context, CacheResponse annotation);
+}
@@ -0,0 +1,319 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Wraps a response to keep a copy of everything written to it, and of the headers that are set on
+ * it, while passing both through to the wrapped response. The copy is abandoned if it grows larger
+ * than a given limit, or if the response sets a status other than 200, sends an error or a
+ * redirect, or sets a cookie, since such responses must not be cached.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+class ResponseCaptureWrapper extends HttpServletResponseWrapper {
+    /** Copies everything written to an output stream into {@link #bytes}. */
+    private class CaptureOutputStream extends ServletOutputStream {
+        private final ServletOutputStream out;
+
+        CaptureOutputStream(ServletOutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (capture(1))
+                bytes.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (capture(len))
+                bytes.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /** Copies everything written to a writer into {@link #chars}. */
+    private class CaptureWriter extends Writer {
+        private final Writer out;
+
+        CaptureWriter(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            out.write(cbuf, off, len);
+            if (capture(len))
+                chars.write(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            out.write(str, off, len);
+            if (capture(len))
+                chars.write(str, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private final String key;
+    private final int maxLength;
+    private final Map<String, List<Object>> headers =
+            new TreeMap<String, List<Object>>(String.CASE_INSENSITIVE_ORDER);
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final CharArrayWriter chars = new CharArrayWriter();
+    private int length;
+    private boolean cacheable = true;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Wrap a response.
+     *
+     * @param response the response to wrap
+     * @param key the key under which the response will be cached
+     * @param maxLength the maximum number of bytes or characters to capture
+     */
+    ResponseCaptureWrapper(HttpServletResponse response, String key, int maxLength) {
+        super(response);
+        this.key = key;
+        this.maxLength = maxLength;
+    }
+
+    /** Get the key under which the response will be cached. */
+    String getKey() {
+        return key;
+    }
+
+    /**
+     * Get the headers that were set on the response. Values are Strings, or Longs for date
+     * headers, or Integers for integer headers.
+     */
+    Map<String, List<Object>> getHeaders() {
+        return headers;
+    }
+
+    /** Returns true if the response can be cached. */
+    boolean isCacheable() {
+        return cacheable;
+    }
+
+    /**
+     * Get the captured body of the response. If it was written to a writer, it is encoded using the
+     * response's character encoding.
+     */
+    byte[] getBody() throws UnsupportedEncodingException {
+        if (chars.size() > 0) {
+            String encoding = getCharacterEncoding();
+            return chars.toString().getBytes(encoding == null ? "ISO-8859-1" : encoding);
+        }
+        else {
+            return bytes.toByteArray();
+        }
+    }
+
+    /** Count some output and return true if it should be captured. */
+    private boolean capture(int count) {
+        if (!cacheable)
+            return false;
+
+        length += count;
+        if (length > maxLength)
+            abandon();
+        return cacheable;
+    }
+
+    /** Abandon the copy of the response. */
+    private void abandon() {
+        cacheable = false;
+        headers.clear();
+        bytes.reset();
+        chars.reset();
+    }
+
+    /**
+     * Record a header that was set or added. Cookies cannot be cached, and the content length is
+     * set when the cached response is sent.
+     */
+    private void captureHeader(String name, Object value, boolean add) {
+        if ("Set-Cookie".equalsIgnoreCase(name))
+            abandon();
+        if (!cacheable || "Content-Length".equalsIgnoreCase(name))
+            return;
+
+        List<Object> values = add ? headers.get(name) : null;
+        if (values == null) {
+            values = new ArrayList<Object>(1);
+            headers.put(name, values);
+        }
+        values.add(value);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null)
+            outputStream = new CaptureOutputStream(super.getOutputStream());
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null)
+            writer = new PrintWriter(new CaptureWriter(super.getWriter()));
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null)
+            writer.flush();
+        super.flushBuffer();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        headers.clear();
+        resetCapture();
+    }
+
+    @Override
+    public void resetBuffer() {
+        super.resetBuffer();
+        resetCapture();
+    }
+
+    /** Discard what has been captured so far, as the wrapped response has discarded it too. */
+    private void resetCapture() {
+        if (cacheable) {
+            bytes.reset();
+            chars.reset();
+            length = 0;
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        super.setStatus(sc);
+        if (sc != SC_OK)
+            abandon();
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setStatus(int sc, String sm) {
+        super.setStatus(sc, sm);
+        if (sc != SC_OK)
+            abandon();
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        abandon();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        abandon();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        abandon();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        abandon();
+        super.addCookie(cookie);
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        captureHeader(name, value, false);
+        super.setHeader(name, value);
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        captureHeader(name, value, true);
+        super.addHeader(name, value);
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        captureHeader(name, date, false);
+        super.setDateHeader(name, date);
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        captureHeader(name, date, true);
+        super.addDateHeader(name, date);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        captureHeader(name, value, false);
+        super.setIntHeader(name, value);
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        captureHeader(name, value, true);
+        super.addIntHeader(name, value);
+    }
+}
@@ -0,0 +1,116 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.controller.LifecycleStage;
+
+/**
+ * Default implementation of {@link MetricsRegistry} that keeps a {@link LatencyHistogram} for each
+ * ActionBean class, event and lifecycle stage. Histograms are looked up through nested maps keyed
+ * by class and event name, and then by the ordinal of the lifecycle stage, so recording a value
+ * does not allocate anything once the histogram exists.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+    /** Stands in for a null ActionBean class in the maps, which do not allow null keys. */
+    private static final Class<?> NO_BEAN = Void.class;
+
+    /** Stands in for a null event name in the maps, which do not allow null keys. */
+    private static final String NO_EVENT = "";
+
+    private static final int STAGE_COUNT = LifecycleStage.values().length;
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>>> histograms = new ConcurrentHashMap<Class<?>, ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>>>();
+
+    /** Does nothing. */
+    public void init(Configuration configuration) throws Exception {
+    }
+
+    public void record(Class<? extends ActionBean> beanType, String event, LifecycleStage stage,
+            long nanos) {
+        getHistogram(beanType, event, stage).record(nanos);
+    }
+
+    /**
+     * Get the histogram for the given ActionBean class, event and lifecycle stage, creating it if
+     * necessary.
+     */
+    protected LatencyHistogram getHistogram(Class<? extends ActionBean> beanType, String event,
+            LifecycleStage stage) {
+        Class<?> beanKey = beanType == null ? NO_BEAN : beanType;
+        ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>> byEvent = histograms.get(beanKey);
+        if (byEvent == null) {
+            byEvent = new ConcurrentHashMap<String, AtomicReferenceArray<LatencyHistogram>>();
+            ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>> existing = histograms
+                    .putIfAbsent(beanKey, byEvent);
+            if (existing != null)
+                byEvent = existing;
+        }
+
+        String eventKey = event == null ? NO_EVENT : event;
+        AtomicReferenceArray<LatencyHistogram> byStage = byEvent.get(eventKey);
+        if (byStage == null) {
+            byStage = new AtomicReferenceArray<LatencyHistogram>(STAGE_COUNT);
+            AtomicReferenceArray<LatencyHistogram> existing = byEvent.putIfAbsent(eventKey, byStage);
+            if (existing != null)
+                byStage = existing;
+        }
+
+        LatencyHistogram histogram = byStage.get(stage.ordinal());
+        if (histogram == null) {
+            byStage.compareAndSet(stage.ordinal(), null, new LatencyHistogram());
+            histogram = byStage.get(stage.ordinal());
+        }
+
+        return histogram;
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<MetricKey, HistogramSnapshot> getSnapshots() {
+        Map<MetricKey, HistogramSnapshot> snapshots = new HashMap<MetricKey, HistogramSnapshot>();
+        for (Map.Entry<Class<?>, ConcurrentMap<String, AtomicReferenceArray<LatencyHistogram>>> beanEntry : histograms
+                .entrySet()) {
+            Class<? extends ActionBean> beanType = beanEntry.getKey() == NO_BEAN ? null
+                    : (Class<? extends ActionBean>) beanEntry.getKey();
+            for (Map.Entry<String, AtomicReferenceArray<LatencyHistogram>> eventEntry : beanEntry
+                    .getValue().entrySet()) {
+                String event = NO_EVENT.equals(eventEntry.getKey()) ? null : eventEntry.getKey();
+                AtomicReferenceArray<LatencyHistogram> byStage = eventEntry.getValue();
+                for (LifecycleStage stage : LifecycleStage.values()) {
+                    LatencyHistogram histogram = byStage.get(stage.ordinal());
+                    if (histogram != null) {
+                        snapshots.put(new MetricKey(beanType, event, stage), histogram
+                                .getSnapshot());
+                    }
+                }
+            }
+        }
+        return snapshots;
+    }
+
+    public void reset() {
+        histograms.clear();
+    }
+}
@@ -0,0 +1,114 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+/**
+ * An immutable snapshot of a {@link LatencyHistogram}. Percentiles are estimated from the bucket
+ * counts, and are reported as the midpoint of the bucket that holds the requested percentile.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class HistogramSnapshot {
+    private final long count, totalNanos, maxNanos;
+    private final long[] bucketCounts;
+
+    /**
+     * Create a new snapshot. The bucket counts are not copied, so the caller must not modify the
+     * array afterward.
+     *
+     * @param count the number of values recorded
+     * @param totalNanos the sum of the values recorded, in nanoseconds
+     * @param maxNanos the largest value recorded, in nanoseconds
+     * @param bucketCounts the number of values recorded in each bucket
+     */
+    public HistogramSnapshot(long count, long totalNanos, long maxNanos, long[] bucketCounts) {
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+        this.bucketCounts = bucketCounts;
+    }
+
+    /** Get the number of values recorded. */
+    public long getCount() {
+        return count;
+    }
+
+    /** Get the sum of all the values recorded, in nanoseconds. */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /** Get the largest value recorded, in nanoseconds. */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /** Get the mean of the values recorded, in nanoseconds, or zero if none were recorded. */
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) totalNanos / count;
+    }
+
+    /**
+     * Get the number of values recorded in the bucket with the given index.
+     *
+     * @see LatencyHistogram#getBucketLowerBound(int)
+     * @see LatencyHistogram#getBucketUpperBound(int)
+     */
+    public long getBucketCount(int index) {
+        return bucketCounts[index];
+    }
+
+    /**
+     * Estimate the value, in microseconds, below which the given percentage of the recorded
+     * values fall.
+     *
+     * @param percentile a percentage between 0 and 100; the 100th percentile is the maximum
+     * @return the estimated value in microseconds, or zero if no values were recorded
+     */
+    public long getPercentileMicros(double percentile) {
+        long total = 0;
+        for (long bucketCount : bucketCounts) {
+            total += bucketCount;
+        }
+        if (total == 0)
+            return 0;
+        else if (percentile >= 100)
+            return maxNanos / 1000;
+
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 100) / 100);
+        if (rank < 1)
+            rank = 1;
+
+        long seen = 0;
+        for (int i = 0; i < bucketCounts.length; i++) {
+            seen += bucketCounts[i];
+            if (seen >= rank) {
+                long lower = LatencyHistogram.getBucketLowerBound(i);
+                long upper = LatencyHistogram.getBucketUpperBound(i);
+                return Math.min(lower + (upper - lower) / 2, maxNanos / 1000);
+            }
+        }
+
+        return maxNanos / 1000;
+    }
+
+    @Override
+    public String toString() {
+        return "count=" + count + ", mean=" + (long) (getMeanNanos() / 1000) + "us, p50="
+                + getPercentileMicros(50) + "us, p99=" + getPercentileMicros(99) + "us, max="
+                + (maxNanos / 1000) + "us";
+    }
+}
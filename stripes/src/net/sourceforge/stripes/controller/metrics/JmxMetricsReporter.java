@@ -0,0 +1,233 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanException;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+import javax.management.openmbean.CompositeData;
+import javax.management.openmbean.CompositeDataSupport;
+import javax.management.openmbean.CompositeType;
+import javax.management.openmbean.OpenDataException;
+import javax.management.openmbean.OpenType;
+import javax.management.openmbean.SimpleType;
+
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>Default {@link MetricsReporter} that registers an MBean with the platform MBean server. The
+ * MBean has one read-only attribute for each {@link MetricKey}, named by
+ * {@link MetricKey#toString()}, whose value is a {@link CompositeData} with the count, mean,
+ * 50th, 90th and 99th percentiles and maximum in microseconds. It also has a {@code reset}
+ * operation that discards all recorded latencies.</p>
+ *
+ * <p>The object name of the MBean can be set with the {@value #OBJECT_NAME} initialization
+ * parameter. It defaults to {@code net.sourceforge.stripes:type=Metrics,context=<context path>}.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class JmxMetricsReporter implements MetricsReporter {
+    /** The configuration key used to look up the object name of the MBean. */
+    public static final String OBJECT_NAME = "MetricsReporter.ObjectName";
+
+    private static final Log log = Log.getInstance(JmxMetricsReporter.class);
+
+    private static final String[] ITEM_NAMES = { "count", "meanMicros", "p50Micros", "p90Micros",
+            "p99Micros", "maxMicros" };
+
+    private static final CompositeType SNAPSHOT_TYPE;
+    static {
+        try {
+            OpenType<?>[] types = new OpenType<?>[ITEM_NAMES.length];
+            for (int i = 0; i < types.length; i++) {
+                types[i] = SimpleType.LONG;
+            }
+            SNAPSHOT_TYPE = new CompositeType("LatencySnapshot",
+                    "Latency statistics for one lifecycle stage", ITEM_NAMES, ITEM_NAMES, types);
+        }
+        catch (OpenDataException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private ObjectName objectName;
+    private ObjectName registeredName;
+    private MBeanServer server;
+
+    /** Determines the object name under which the MBean will be registered. */
+    public void init(Configuration configuration) throws Exception {
+        String name = configuration.getBootstrapPropertyResolver().getProperty(OBJECT_NAME);
+        if (name == null) {
+            String contextPath = configuration.getServletContext().getContextPath();
+            name = "net.sourceforge.stripes:type=Metrics,context="
+                    + ObjectName.quote(contextPath == null || contextPath.length() == 0 ? "/"
+                            : contextPath);
+        }
+        this.objectName = new ObjectName(name);
+    }
+
+    /** Get the object name under which the MBean is registered, or null if it is not. */
+    public ObjectName getObjectName() {
+        return registeredName;
+    }
+
+    /**
+     * Registers the MBean with the platform MBean server. If the object name is already in use,
+     * which can happen when more than one StripesFilter is running in the same context, then a
+     * unique {@code instance} key is added to the name.
+     */
+    public synchronized void start(MetricsRegistry registry) throws Exception {
+        if (registeredName != null)
+            return;
+
+        server = ManagementFactory.getPlatformMBeanServer();
+        MetricsMBean mbean = new MetricsMBean(registry);
+        try {
+            registeredName = server.registerMBean(mbean, objectName).getObjectName();
+        }
+        catch (InstanceAlreadyExistsException e) {
+            ObjectName unique = new ObjectName(objectName.getCanonicalName() + ",instance="
+                    + Integer.toHexString(System.identityHashCode(mbean)));
+            registeredName = server.registerMBean(mbean, unique).getObjectName();
+        }
+
+        log.info("Registered lifecycle metrics MBean as ", registeredName);
+    }
+
+    /** Unregisters the MBean. */
+    public synchronized void stop() {
+        if (registeredName == null)
+            return;
+
+        try {
+            server.unregisterMBean(registeredName);
+        }
+        catch (Exception e) {
+            log.warn(e, "Failed to unregister lifecycle metrics MBean ", registeredName);
+        }
+        finally {
+            registeredName = null;
+            server = null;
+        }
+    }
+
+    /** Convert a snapshot to the composite data returned by the MBean. */
+    protected static CompositeData toCompositeData(HistogramSnapshot snapshot)
+            throws OpenDataException {
+        Object[] values = { snapshot.getCount(), (long) (snapshot.getMeanNanos() / 1000),
+                snapshot.getPercentileMicros(50), snapshot.getPercentileMicros(90),
+                snapshot.getPercentileMicros(99), snapshot.getMaxNanos() / 1000 };
+        return new CompositeDataSupport(SNAPSHOT_TYPE, ITEM_NAMES, values);
+    }
+
+    /** The MBean that exposes the snapshots of a registry. */
+    private static class MetricsMBean implements DynamicMBean {
+        private final MetricsRegistry registry;
+
+        MetricsMBean(MetricsRegistry registry) {
+            this.registry = registry;
+        }
+
+        public Object getAttribute(String attribute) throws AttributeNotFoundException,
+                MBeanException {
+            for (Map.Entry<MetricKey, HistogramSnapshot> entry : registry.getSnapshots()
+                    .entrySet()) {
+                if (entry.getKey().toString().equals(attribute)) {
+                    try {
+                        return toCompositeData(entry.getValue());
+                    }
+                    catch (OpenDataException e) {
+                        throw new MBeanException(e);
+                    }
+                }
+            }
+
+            throw new AttributeNotFoundException(attribute);
+        }
+
+        public AttributeList getAttributes(String[] attributes) {
+            Map<MetricKey, HistogramSnapshot> snapshots = registry.getSnapshots();
+            AttributeList list = new AttributeList();
+            for (Map.Entry<MetricKey, HistogramSnapshot> entry : snapshots.entrySet()) {
+                String name = entry.getKey().toString();
+                for (String attribute : attributes) {
+                    if (name.equals(attribute)) {
+                        try {
+                            list.add(new Attribute(name, toCompositeData(entry.getValue())));
+                        }
+                        catch (OpenDataException e) {
+                            log.warn(e, "Failed to convert snapshot for ", name);
+                        }
+                        break;
+                    }
+                }
+            }
+            return list;
+        }
+
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Attribute " + attribute.getName()
+                    + " is read-only");
+        }
+
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        public Object invoke(String actionName, Object[] params, String[] signature)
+                throws ReflectionException {
+            if ("reset".equals(actionName)) {
+                registry.reset();
+                return null;
+            }
+
+            throw new ReflectionException(new NoSuchMethodException(actionName));
+        }
+
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<MBeanAttributeInfo>();
+            for (MetricKey key : registry.getSnapshots().keySet()) {
+                attributes.add(new MBeanAttributeInfo(key.toString(), CompositeData.class
+                        .getName(), "Latency of " + key, true, false, false));
+            }
+
+            MBeanOperationInfo reset = new MBeanOperationInfo("reset",
+                    "Discard all recorded latencies", new MBeanParameterInfo[0], "void",
+                    MBeanOperationInfo.ACTION);
+
+            return new MBeanInfo(getClass().getName(), "Stripes lifecycle stage latencies",
+                    attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null,
+                    new MBeanOperationInfo[] { reset }, null);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A latency histogram with a fixed set of buckets. Values are recorded in nanoseconds and
+ * bucketed in microseconds. The first {@value #LINEAR_BUCKETS} buckets are one microsecond wide.
+ * Above that, each power of two is divided into {@value #SUB_BUCKETS} equal buckets, so that the
+ * relative error of any percentile is at most 1/{@value #SUB_BUCKETS}. Values above the range of
+ * the last bucket are counted in the last bucket.</p>
+ *
+ * <p>Recording a value takes no locks and allocates nothing. The bucket counts are held in a
+ * single {@link AtomicLongArray}. The total count and sum, which every thread updates, are striped
+ * across several counters selected by thread ID so that threads recording into the same
+ * histogram do not all contend on the same memory location.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class LatencyHistogram {
+    /** The number of one microsecond wide buckets at the start of the histogram. */
+    public static final int LINEAR_BUCKETS = 16;
+
+    /** The number of buckets each power of two is divided into above the linear buckets. */
+    public static final int SUB_BUCKETS = 8;
+
+    /** The largest power of two that has its own buckets. About 36 minutes in microseconds. */
+    private static final int MAX_EXPONENT = 31;
+
+    private static final int LINEAR_BITS = Integer.numberOfTrailingZeros(LINEAR_BUCKETS);
+    private static final int SUB_BUCKET_BITS = Integer.numberOfTrailingZeros(SUB_BUCKETS);
+
+    /** The total number of buckets. */
+    public static final int BUCKET_COUNT = LINEAR_BUCKETS + (MAX_EXPONENT - LINEAR_BITS + 1)
+            * SUB_BUCKETS;
+
+    private static final int STRIPES;
+    static {
+        int stripes = 1;
+        while (stripes < Runtime.getRuntime().availableProcessors() && stripes < 16)
+            stripes <<= 1;
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    /** Holds a count and a sum for each stripe, padded so that stripes do not share a cache line. */
+    private final AtomicLongArray counters = new AtomicLongArray(STRIPES * 8);
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Get the index of the bucket that holds the given value.
+     *
+     * @param micros a latency in microseconds
+     */
+    public static int getBucketIndex(long micros) {
+        if (micros < LINEAR_BUCKETS)
+            return micros < 0 ? 0 : (int) micros;
+
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        if (exponent > MAX_EXPONENT)
+            return BUCKET_COUNT - 1;
+
+        int sub = (int) (micros >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_BUCKETS + (exponent - LINEAR_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Get the smallest value, in microseconds, that falls in the bucket with the given index.
+     *
+     * @param index the index of a bucket
+     */
+    public static long getBucketLowerBound(int index) {
+        if (index < LINEAR_BUCKETS)
+            return index;
+
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        int sub = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS);
+    }
+
+    /**
+     * Get the value, in microseconds, just above the largest value that falls in the bucket with
+     * the given index.
+     *
+     * @param index the index of a bucket
+     */
+    public static long getBucketUpperBound(int index) {
+        if (index < LINEAR_BUCKETS)
+            return index + 1;
+
+        int exponent = (index - LINEAR_BUCKETS) / SUB_BUCKETS + LINEAR_BITS;
+        return getBucketLowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS));
+    }
+
+    /**
+     * Record a latency.
+     *
+     * @param nanos the latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (nanos < 0)
+            nanos = 0;
+
+        buckets.incrementAndGet(getBucketIndex(nanos / 1000));
+
+        int stripe = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * 8;
+        counters.incrementAndGet(stripe);
+        counters.addAndGet(stripe + 1, nanos);
+
+        long current;
+        while (nanos > (current = max.get()) && !max.compareAndSet(current, nanos))
+            continue;
+    }
+
+    /**
+     * Take a snapshot of the histogram. Values that are recorded while the snapshot is being
+     * taken may or may not be included in it, so the total count might not exactly match the sum
+     * of the bucket counts.
+     */
+    public HistogramSnapshot getSnapshot() {
+        long count = 0, sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            count += counters.get(i * 8);
+            sum += counters.get(i * 8 + 1);
+        }
+
+        long[] bucketCounts = new long[BUCKET_COUNT];
+        for (int i = 0; i < bucketCounts.length; i++) {
+            bucketCounts[i] = buckets.get(i);
+        }
+
+        return new HistogramSnapshot(count, sum, max.get(), bucketCounts);
+    }
+
+    /** Discard all recorded values. */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+        max.set(0);
+    }
+}
@@ -0,0 +1,84 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.controller.LifecycleStage;
+
+/**
+ * Identifies the latencies recorded for one {@link LifecycleStage} of requests to one event of
+ * one {@link ActionBean} class. Either the ActionBean class or the event name may be null if the
+ * request did not get far enough to determine it.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public final class MetricKey {
+    private final Class<? extends ActionBean> beanType;
+    private final String event;
+    private final LifecycleStage stage;
+
+    /**
+     * Create a new key.
+     *
+     * @param beanType the ActionBean class, or null if it is not known
+     * @param event the event name, or null if it is not known
+     * @param stage the lifecycle stage
+     */
+    public MetricKey(Class<? extends ActionBean> beanType, String event, LifecycleStage stage) {
+        this.beanType = beanType;
+        this.event = event;
+        this.stage = stage;
+    }
+
+    /** Get the ActionBean class, or null if it was not known. */
+    public Class<? extends ActionBean> getBeanType() {
+        return beanType;
+    }
+
+    /** Get the event name, or null if it was not known. */
+    public String getEvent() {
+        return event;
+    }
+
+    /** Get the lifecycle stage. */
+    public LifecycleStage getStage() {
+        return stage;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (!(obj instanceof MetricKey))
+            return false;
+
+        MetricKey that = (MetricKey) obj;
+        return this.beanType == that.beanType && this.stage == that.stage
+                && (this.event == null ? that.event == null : this.event.equals(that.event));
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = beanType == null ? 0 : beanType.hashCode();
+        hash = hash * 31 + (event == null ? 0 : event.hashCode());
+        return hash * 31 + stage.hashCode();
+    }
+
+    /** Returns a string in the form {@code com.example.FooActionBean.save.EventHandling}. */
+    @Override
+    public String toString() {
+        return (beanType == null ? "-" : beanType.getName()) + "."
+                + (event == null ? "-" : event) + "." + stage;
+    }
+}
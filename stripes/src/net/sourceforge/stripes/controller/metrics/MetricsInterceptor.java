@@ -0,0 +1,126 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.config.ConfigurableComponent;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DestroyableComponent;
+import net.sourceforge.stripes.controller.ExecutionContext;
+import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.Intercepts;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>Records how long each major {@link LifecycleStage} takes, per ActionBean class and event, in
+ * a {@link MetricsRegistry}, and publishes the results through a {@link MetricsReporter}. The
+ * elapsed time of a stage includes the time spent in any interceptors that are invoked after this
+ * one by {@link ExecutionContext#wrap(Interceptor)}.</p>
+ *
+ * <p>This interceptor is not enabled by default. To enable it, add it to the
+ * {@code Interceptor.Classes} initialization parameter of the StripesFilter. The registry and
+ * reporter implementations can be changed with the {@value #REGISTRY_CLASS} and
+ * {@value #REPORTER_CLASS} parameters. By default, latencies are kept in a
+ * {@link DefaultMetricsRegistry} and published over JMX by a {@link JmxMetricsReporter}.</p>
+ *
+ * <p>The event name is not known until {@link LifecycleStage#HandlerResolution} has completed, so
+ * latencies for {@link LifecycleStage#ActionBeanResolution} are recorded with a null event.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@Intercepts( { LifecycleStage.ActionBeanResolution, LifecycleStage.HandlerResolution,
+        LifecycleStage.BindingAndValidation, LifecycleStage.CustomValidation,
+        LifecycleStage.EventHandling, LifecycleStage.ResolutionExecution })
+public class MetricsInterceptor implements Interceptor, ConfigurableComponent,
+        DestroyableComponent {
+    /** The configuration key used to look up the implementation of MetricsRegistry. */
+    public static final String REGISTRY_CLASS = "MetricsRegistry.Class";
+
+    /** The configuration key used to look up the implementation of MetricsReporter. */
+    public static final String REPORTER_CLASS = "MetricsReporter.Class";
+
+    private static final Log log = Log.getInstance(MetricsInterceptor.class);
+
+    private MetricsRegistry registry;
+    private MetricsReporter reporter;
+
+    /** Creates and initializes the registry and the reporter, and starts the reporter. */
+    public void init(Configuration configuration) throws Exception {
+        Class<? extends MetricsRegistry> registryClass = configuration
+                .getBootstrapPropertyResolver().getClassProperty(REGISTRY_CLASS,
+                        MetricsRegistry.class);
+        if (registryClass == null)
+            registryClass = DefaultMetricsRegistry.class;
+
+        Class<? extends MetricsReporter> reporterClass = configuration
+                .getBootstrapPropertyResolver().getClassProperty(REPORTER_CLASS,
+                        MetricsReporter.class);
+        if (reporterClass == null)
+            reporterClass = JmxMetricsReporter.class;
+
+        MetricsRegistry registry = configuration.getObjectFactory().newInstance(registryClass);
+        registry.init(configuration);
+        this.registry = registry;
+
+        MetricsReporter reporter = configuration.getObjectFactory().newInstance(reporterClass);
+        reporter.init(configuration);
+        reporter.start(registry);
+        this.reporter = reporter;
+
+        log.info("Recording lifecycle metrics in ", registryClass.getName(),
+                " and reporting them with ", reporterClass.getName());
+    }
+
+    /** Get the registry in which latencies are recorded. */
+    public MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /** Get the reporter that publishes the latencies. */
+    public MetricsReporter getReporter() {
+        return reporter;
+    }
+
+    /** Times the rest of the lifecycle stage and records the elapsed time in the registry. */
+    public Resolution intercept(ExecutionContext context) throws Exception {
+        if (registry == null)
+            return context.proceed();
+
+        long start = System.nanoTime();
+        try {
+            return context.proceed();
+        }
+        finally {
+            long elapsed = System.nanoTime() - start;
+
+            ActionBean bean = context.getActionBean();
+            ActionBeanContext beanContext = context.getActionBeanContext();
+            registry.record(bean == null ? null : bean.getClass(),
+                    beanContext == null ? null : beanContext.getEventName(),
+                    context.getLifecycleStage(), elapsed);
+        }
+    }
+
+    /** Stops the reporter. Called by the Configuration when the StripesFilter is destroyed. */
+    public void destroy() {
+        if (reporter != null) {
+            reporter.stop();
+        }
+    }
+}
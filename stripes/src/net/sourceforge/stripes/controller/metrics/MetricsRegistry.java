@@ -0,0 +1,55 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import java.util.Map;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.config.ConfigurableComponent;
+import net.sourceforge.stripes.controller.LifecycleStage;
+
+/**
+ * <p>Collects the latencies recorded by the {@link MetricsInterceptor}. Implementations must be
+ * thread safe, and {@link #record(Class, String, LifecycleStage, long)} is called at least once
+ * for every lifecycle stage of every request, so it must be cheap.</p>
+ *
+ * <p>The implementation is configured with the {@value MetricsInterceptor#REGISTRY_CLASS}
+ * initialization parameter. The default is {@link DefaultMetricsRegistry}.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface MetricsRegistry extends ConfigurableComponent {
+    /**
+     * Record the time it took to execute a lifecycle stage.
+     *
+     * @param beanType the ActionBean class, or null if it was not resolved
+     * @param event the event name, or null if it was not resolved
+     * @param stage the lifecycle stage
+     * @param nanos the elapsed time in nanoseconds
+     */
+    void record(Class<? extends ActionBean> beanType, String event, LifecycleStage stage,
+            long nanos);
+
+    /**
+     * Take a snapshot of all the latencies that have been recorded.
+     *
+     * @return a map of keys to the snapshots of their histograms
+     */
+    Map<MetricKey, HistogramSnapshot> getSnapshots();
+
+    /** Discard all the latencies that have been recorded. */
+    void reset();
+}
@@ -0,0 +1,40 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.metrics;
+
+import net.sourceforge.stripes.config.ConfigurableComponent;
+
+/**
+ * <p>Publishes the snapshots held by a {@link MetricsRegistry}. A reporter is started when the
+ * {@link MetricsInterceptor} is initialized and stopped when the StripesFilter is destroyed.</p>
+ *
+ * <p>The implementation is configured with the {@value MetricsInterceptor#REPORTER_CLASS}
+ * initialization parameter. The default is {@link JmxMetricsReporter}.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface MetricsReporter extends ConfigurableComponent {
+    /**
+     * Start publishing the snapshots held by a registry.
+     *
+     * @param registry the registry to report
+     * @throws Exception if the reporter could not be started
+     */
+    void start(MetricsRegistry registry) throws Exception;
+
+    /** Stop publishing and release any resources held by the reporter. */
+    void stop();
+}
@@ -29,7 +29,9 @@ import java.util.regex.Matcher;
  * <p>Default implementation of a factory for MultipartWrappers. Looks up a class name in
  * Configuration under the key specified by {@link #WRAPPER_CLASS_NAME}. If no class
  * name is configured, defaults to the {@link CosMultipartWrapper}. An additional configuration
- * parameter is supported to specify the maximum post size allowable.</p>
+ * parameter is supported to specify the maximum post size allowable. Two more apply only to
+ * {@link StreamingMultipartWrapper}: the size above which it spools file parts to disk, and the
+ * maximum size of a single form field that is not a file.</p>
  * 
  * @author Tim Fennell
  * @since Stripes 1.4
@@ -38,20 +40,40 @@ public class DefaultMultipartWrapperFactory implements MultipartWrapperFactory {
     /** The configuration key used to lookup the implementation of MultipartWrapper. */
     public static final String WRAPPER_CLASS_NAME = "MultipartWrapper.Class";
 
-    /** The names of the MultipartWrapper classes that will be tried if no other is specified. */
+    /**
+     * The names of the MultipartWrapper classes that will be tried if no other is specified.
+     * {@link StreamingMultipartWrapper} has no dependencies, so it is always available as a last
+     * resort.
+     */
     public static final String[] BUNDLED_IMPLEMENTATIONS = {
             "net.sourceforge.stripes.controller.multipart.CommonsMultipartWrapper",
-            "net.sourceforge.stripes.controller.multipart.CosMultipartWrapper" };
+            "net.sourceforge.stripes.controller.multipart.CosMultipartWrapper",
+            "net.sourceforge.stripes.controller.multipart.StreamingMultipartWrapper" };
 
     /** Key used to lookup the name of the maximum post size. */
     public static final String MAX_POST = "FileUpload.MaximumPostSize";
 
+    /**
+     * Key used to lookup the size above which {@link StreamingMultipartWrapper} spools file parts
+     * to disk instead of keeping them in memory.
+     */
+    public static final String MEMORY_THRESHOLD = "FileUpload.MemoryThreshold";
+
+    /**
+     * Key used to lookup the maximum size of a form field that is not a file. Such fields are held
+     * in memory by {@link StreamingMultipartWrapper}, so they are limited separately from the
+     * maximum post size.
+     */
+    public static final String MAX_FIELD_SIZE = "FileUpload.MaximumFieldSize";
+
     private static final Log log = Log.getInstance(DefaultMultipartWrapperFactory.class);
 
     // Instance level fields
     private Configuration configuration;
     private Class<? extends MultipartWrapper> multipartClass;
     private long maxPostSizeInBytes = 1024 * 1024 * 10; // Defaults to 10MB
+    private int memoryThreshold = StreamingMultipartWrapper.DEFAULT_MEMORY_THRESHOLD;
+    private int maxFieldSize = StreamingMultipartWrapper.DEFAULT_MAX_FIELD_SIZE;
     private File temporaryDirectory;
 
     /** Get the configuration object that was passed into {@link #init(Configuration)}. */
@@ -121,27 +143,71 @@ public class DefaultMultipartWrapperFactory implements MultipartWrapperFactory {
         // See if a maximum post size was configured
         String limit = config.getBootstrapPropertyResolver().getProperty(MAX_POST);
         if (limit != null) {
-            Pattern pattern = Pattern.compile("([\\d,]+)([kKmMgG]?).*");
-            Matcher matcher = pattern.matcher(limit);
-            if (!matcher.matches()) {
-                log.error("Did not understand value of configuration parameter ", MAX_POST,
-                         " You supplied: ", limit, ". Valid values are any string of numbers ",
-                         "optionally followed by (case insensitive) [k|kb|m|mb|g|gb]. ",
-                         "Default value of ", this.maxPostSizeInBytes, " bytes will be used instead.");
-            }
-            else {
-                String digits = matcher.group(1);
-                String suffix = matcher.group(2).toLowerCase();
-                long number = Long.parseLong(digits);
-
-                if ("k".equals(suffix)) { number = number * 1024; }
-                else if ("m".equals(suffix)) {  number = number * 1024 * 1024; }
-                else if ("g".equals(suffix)) { number = number * 1024 * 1024 * 1024; }
-
+            long number = parseSize(MAX_POST, limit, this.maxPostSizeInBytes);
+            if (number != this.maxPostSizeInBytes) {
                 this.maxPostSizeInBytes = number;
                 log.info("Configured file upload post size limit: ", number, " bytes.");
             }
         }
+
+        // See if a memory threshold or a maximum field size was configured
+        this.memoryThreshold = parseIntSize(MEMORY_THRESHOLD, this.memoryThreshold,
+                "file upload memory threshold");
+        this.maxFieldSize = parseIntSize(MAX_FIELD_SIZE, this.maxFieldSize,
+                "multipart form field size limit");
+    }
+
+    /**
+     * Looks up a size that must fit in an int. If the size is not configured, cannot be parsed or
+     * is too large then the default is returned.
+     */
+    private int parseIntSize(String key, int defaultValue, String description) {
+        String value = getConfiguration().getBootstrapPropertyResolver().getProperty(key);
+        if (value == null)
+            return defaultValue;
+
+        long number = parseSize(key, value, defaultValue);
+        if (number > Integer.MAX_VALUE) {
+            log.error("Value of configuration parameter ", key, " is too large. ",
+                    "Default value of ", defaultValue, " bytes will be used instead.");
+            return defaultValue;
+        }
+        else if (number != defaultValue) {
+            log.info("Configured ", description, ": ", number, " bytes.");
+        }
+        return (int) number;
+    }
+
+    /**
+     * Parses a size given as a string of numbers optionally followed by (case insensitive)
+     * [k|kb|m|mb|g|gb]. If the value cannot be parsed then an error is logged and the default
+     * value is returned.
+     *
+     * @param name the name of the configuration parameter, for logging
+     * @param value the value to parse
+     * @param defaultValue the value to return if the value cannot be parsed
+     * @return the size in bytes
+     */
+    protected long parseSize(String name, String value, long defaultValue) {
+        Pattern pattern = Pattern.compile("([\\d,]+)([kKmMgG]?).*");
+        Matcher matcher = pattern.matcher(value);
+        if (!matcher.matches()) {
+            log.error("Did not understand value of configuration parameter ", name,
+                     " You supplied: ", value, ". Valid values are any string of numbers ",
+                     "optionally followed by (case insensitive) [k|kb|m|mb|g|gb]. ",
+                     "Default value of ", defaultValue, " bytes will be used instead.");
+            return defaultValue;
+        }
+
+        String digits = matcher.group(1);
+        String suffix = matcher.group(2).toLowerCase();
+        long number = Long.parseLong(digits);
+
+        if ("k".equals(suffix)) { number = number * 1024; }
+        else if ("m".equals(suffix)) {  number = number * 1024 * 1024; }
+        else if ("g".equals(suffix)) { number = number * 1024 * 1024 * 1024; }
+
+        return number;
     }
 
     /**
@@ -158,6 +224,10 @@ public class DefaultMultipartWrapperFactory implements MultipartWrapperFactory {
         try {
             MultipartWrapper wrapper = getConfiguration().getObjectFactory().newInstance(
                     this.multipartClass);
+            if (wrapper instanceof StreamingMultipartWrapper) {
+                ((StreamingMultipartWrapper) wrapper).setMemoryThreshold(this.memoryThreshold);
+                ((StreamingMultipartWrapper) wrapper).setMaxFieldSize(this.maxFieldSize);
+            }
             wrapper.build(request, this.temporaryDirectory, this.maxPostSizeInBytes);
             return wrapper;
         }
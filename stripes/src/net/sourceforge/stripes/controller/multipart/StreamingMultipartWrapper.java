@@ -0,0 +1,727 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.controller.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import javax.servlet.http.HttpServletRequest;
+
+import net.sourceforge.stripes.action.FileBean;
+import net.sourceforge.stripes.controller.FileUploadLimitExceededException;
+import net.sourceforge.stripes.util.Log;
+
+/**
+ * <p>An implementation of MultipartWrapper that parses the request itself and does not depend on
+ * any third party library. The request body is read in a single pass through a pooled buffer.
+ * File parts no larger than the memory threshold are kept on the heap and never touch the disk.
+ * Larger parts are spooled to a temporary file through a {@link FileChannel} as they are read, so
+ * the whole part is never held in memory.</p>
+ *
+ * <p>The memory threshold defaults to {@value #DEFAULT_MEMORY_THRESHOLD} bytes and can be changed
+ * with the {@value DefaultMultipartWrapperFactory#MEMORY_THRESHOLD} initialization parameter.</p>
+ *
+ * <p>Form fields that are not files are always held in memory. Each one is limited to
+ * {@value #DEFAULT_MAX_FIELD_SIZE} bytes by default, which can be changed with the
+ * {@value DefaultMultipartWrapperFactory#MAX_FIELD_SIZE} initialization parameter. A larger field
+ * causes a {@link FileUploadLimitExceededException}.</p>
+ *
+ * <p>The {@link FileBean}s returned by this wrapper support {@link FileBean#getInputStream()} and
+ * {@link FileBean#getChannel()} wherever the data are stored. Saving a part that was spooled to
+ * disk renames the temporary file, or transfers it with {@link FileChannel#transferTo} if it
+ * cannot be renamed. Saving a part held in memory writes it straight to the target file.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class StreamingMultipartWrapper implements MultipartWrapper {
+    private static final Log log = Log.getInstance(StreamingMultipartWrapper.class);
+
+    /** The default size in bytes above which file parts are spooled to disk. */
+    public static final int DEFAULT_MEMORY_THRESHOLD = 64 * 1024;
+
+    /** The default maximum size in bytes of a form field that is not a file. */
+    public static final int DEFAULT_MAX_FIELD_SIZE = 256 * 1024;
+
+    /** The size of the buffers used to read the request. */
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /** The maximum number of read buffers kept in the pool. */
+    private static final int MAX_POOLED_BUFFERS = 64;
+
+    /** The maximum number of bytes in the headers of a single part. */
+    private static final int MAX_HEADER_SIZE = 10 * 1024;
+
+    private static final Pattern WINDOWS_PATH_PREFIX_PATTERN = Pattern.compile("(?i:^[A-Z]:\\\\)");
+
+    private static final ConcurrentLinkedQueue<byte[]> bufferPool = new ConcurrentLinkedQueue<byte[]>();
+    private static final AtomicInteger pooledBuffers = new AtomicInteger();
+
+    private int memoryThreshold = DEFAULT_MEMORY_THRESHOLD;
+    private int maxFieldSize = DEFAULT_MAX_FIELD_SIZE;
+    private Map<String, String[]> parameters = new HashMap<String, String[]>();
+    private Map<String, PartFileBean> files = new LinkedHashMap<String, PartFileBean>();
+    private String charset;
+
+    /** Get the size in bytes above which file parts are spooled to disk. */
+    public int getMemoryThreshold() {
+        return memoryThreshold;
+    }
+
+    /** Set the size in bytes above which file parts are spooled to disk. */
+    public void setMemoryThreshold(int memoryThreshold) {
+        this.memoryThreshold = memoryThreshold;
+    }
+
+    /** Get the maximum size in bytes of a form field that is not a file. */
+    public int getMaxFieldSize() {
+        return maxFieldSize;
+    }
+
+    /** Set the maximum size in bytes of a form field that is not a file. */
+    public void setMaxFieldSize(int maxFieldSize) {
+        this.maxFieldSize = maxFieldSize;
+    }
+
+    /** Take a read buffer from the pool, or allocate one if the pool is empty. */
+    private static byte[] borrowBuffer() {
+        byte[] buffer = bufferPool.poll();
+        if (buffer == null)
+            return new byte[BUFFER_SIZE];
+
+        pooledBuffers.decrementAndGet();
+        return buffer;
+    }
+
+    /** Return a read buffer to the pool, unless the pool is full. */
+    private static void releaseBuffer(byte[] buffer) {
+        if (pooledBuffers.incrementAndGet() <= MAX_POOLED_BUFFERS)
+            bufferPool.offer(buffer);
+        else
+            pooledBuffers.decrementAndGet();
+    }
+
+    /**
+     * Pseudo-constructor that allows the class to perform any initialization necessary.
+     *
+     * @param request an HttpServletRequest that has a content-type of multipart.
+     * @param tempDir a File representing the temporary directory that is used to store file
+     *        parts that are larger than the memory threshold
+     * @param maxPostSize the size in bytes beyond which the request should not be read, and a
+     *        FileUploadLimitExceeded exception should be thrown
+     * @throws IOException if a problem occurs processing the request of storing temporary files
+     * @throws FileUploadLimitExceededException if the POST content is longer than the maxPostSize
+     *         supplied.
+     */
+    public void build(HttpServletRequest request, File tempDir, long maxPostSize)
+            throws IOException, FileUploadLimitExceededException {
+        this.charset = request.getCharacterEncoding();
+
+        String boundary = getBoundary(request.getContentType());
+        if (boundary == null) {
+            throw new IOException("The content type of the request does not specify a "
+                    + "multipart boundary: " + request.getContentType());
+        }
+
+        long contentLength = request.getContentLength();
+        if (maxPostSize > 0 && contentLength > maxPostSize) {
+            throw new FileUploadLimitExceededException(maxPostSize, contentLength);
+        }
+
+        Map<String, List<String>> params = new LinkedHashMap<String, List<String>>();
+        byte[] buffer = borrowBuffer();
+        boolean complete = false;
+        try {
+            PartReader reader = new PartReader(request.getInputStream(), buffer, boundary,
+                    maxPostSize);
+            for (boolean more = reader.skipPreamble(); more; more = reader.readBoundaryEnd()) {
+                Map<String, String> headers = reader.readHeaders(getHeaderCharset());
+                Map<String, String> disposition = parseParameters(headers
+                        .get("content-disposition"));
+                String name = disposition.get("name");
+                String filename = disposition.get("filename");
+
+                if (name == null) {
+                    reader.readBody(null);
+                }
+                else if (filename == null) {
+                    PartSink sink = new PartSink(this.maxFieldSize, false, null);
+                    reader.readBody(sink);
+                    List<String> values = params.get(name);
+                    if (values == null) {
+                        values = new ArrayList<String>();
+                        params.put(name, values);
+                    }
+                    values.add(sink.getString(this.charset));
+                }
+                else {
+                    PartSink sink = new PartSink(this.memoryThreshold, true, tempDir);
+                    try {
+                        reader.readBody(sink);
+                        sink.close();
+                    }
+                    catch (IOException e) {
+                        sink.discard();
+                        throw e;
+                    }
+                    catch (FileUploadLimitExceededException e) {
+                        sink.discard();
+                        throw e;
+                    }
+
+                    PartFileBean previous = files.put(name, new PartFileBean(sink,
+                            headers.get("content-type"), getBaseName(filename), this.charset));
+                    if (previous != null)
+                        previous.delete();
+                }
+            }
+
+            complete = true;
+        }
+        finally {
+            releaseBuffer(buffer);
+            if (!complete) {
+                for (PartFileBean file : files.values()) {
+                    try {
+                        file.delete();
+                    }
+                    catch (IOException e) {
+                        log.warn(e, "Could not delete temporary file for ", file.getFileName());
+                    }
+                }
+                files.clear();
+            }
+        }
+
+        for (Map.Entry<String, List<String>> entry : params.entrySet()) {
+            List<String> values = entry.getValue();
+            this.parameters.put(entry.getKey(), values.toArray(new String[values.size()]));
+        }
+    }
+
+    /** Get the charset used to decode part headers, which may include non-ASCII file names. */
+    protected String getHeaderCharset() {
+        return this.charset == null ? "ISO-8859-1" : this.charset;
+    }
+
+    /**
+     * Extract the boundary parameter from the content type of a multipart request.
+     *
+     * @param contentType the content type header
+     * @return the boundary, or null if there is none
+     */
+    protected static String getBoundary(String contentType) {
+        if (contentType == null)
+            return null;
+
+        int index = contentType.indexOf(';');
+        if (index < 0)
+            return null;
+
+        String boundary = parseParameters(contentType.substring(index)).get("boundary");
+        return boundary == null || boundary.length() == 0 ? null : boundary;
+    }
+
+    /**
+     * Parse the parameters of a header value such as
+     * {@code form-data; name="field"; filename="a.txt"}. Parameter names are converted to lower
+     * case. Quoted values are unquoted. Anything before the first semicolon is ignored.
+     *
+     * @param header the header value, which may be null
+     * @return a map of parameter names to values, which is empty if the header is null
+     */
+    protected static Map<String, String> parseParameters(String header) {
+        if (header == null)
+            return Collections.emptyMap();
+
+        Map<String, String> parameters = new HashMap<String, String>();
+        int index = header.indexOf(';');
+        while (index >= 0 && index < header.length()) {
+            int equals = header.indexOf('=', index);
+            if (equals < 0)
+                break;
+
+            String name = header.substring(index + 1, equals).trim().toLowerCase();
+            StringBuilder value = new StringBuilder();
+            int i = equals + 1;
+            while (i < header.length() && header.charAt(i) == ' ')
+                ++i;
+
+            if (i < header.length() && header.charAt(i) == '"') {
+                for (++i; i < header.length() && header.charAt(i) != '"'; i++) {
+                    char c = header.charAt(i);
+                    // Browsers do not escape backslashes in Windows file names, so only a
+                    // backslash that precedes a quote is treated as an escape
+                    if (c == '\\' && i + 1 < header.length() && header.charAt(i + 1) == '"')
+                        c = header.charAt(++i);
+                    value.append(c);
+                }
+                index = header.indexOf(';', i);
+            }
+            else {
+                int end = header.indexOf(';', i);
+                value.append(header.substring(i, end < 0 ? header.length() : end).trim());
+                index = end;
+            }
+
+            parameters.put(name, value.toString());
+        }
+
+        return parameters;
+    }
+
+    /** Strip any directory from a file name submitted by the browser. */
+    protected static String getBaseName(String filename) {
+        int index;
+        if (WINDOWS_PATH_PREFIX_PATTERN.matcher(filename).find())
+            index = filename.lastIndexOf('\\');
+        else
+            index = filename.lastIndexOf('/');
+        if (index >= 0 && index + 1 < filename.length() - 1)
+            filename = filename.substring(index + 1);
+        return filename;
+    }
+
+    /**
+     * Fetches the names of all non-file parameters in the request. Directly analogous to the
+     * method of the same name in HttpServletRequest when the request is non-multipart.
+     *
+     * @return an Enumeration of all non-file parameter names in the request
+     */
+    public Enumeration<String> getParameterNames() {
+        return Collections.enumeration(this.parameters.keySet());
+    }
+
+    /**
+     * Fetches all values of a specific parameter in the request. To simulate the HTTP request
+     * style, the array should be null for non-present parameters, and values in the array should
+     * never be null - the empty String should be used when there is value.
+     *
+     * @param name the name of the request parameter
+     * @return an array of non-null parameters or null
+     */
+    public String[] getParameterValues(String name) {
+        return this.parameters.get(name);
+    }
+
+    /**
+     * Fetches the names of all file parameters in the request. Note that these are not the file
+     * names, but the names given to the form fields in which the files are specified.
+     *
+     * @return the names of all file parameters in the request.
+     */
+    public Enumeration<String> getFileParameterNames() {
+        return Collections.enumeration(this.files.keySet());
+    }
+
+    /**
+     * Responsible for constructing a FileBean object for the named file parameter. If there is no
+     * file parameter with the specified name, or if the field was submitted without a file, this
+     * method returns null.
+     *
+     * @param name the name of the file parameter
+     * @return a FileBean object wrapping the uploaded file
+     */
+    public FileBean getFileParameterValue(String name) {
+        PartFileBean file = this.files.get(name);
+        if (file == null || (file.getFileName().length() == 0 && file.getSize() == 0))
+            return null;
+        else
+            return file;
+    }
+
+    /**
+     * Reads the parts of a multipart request from an input stream through a fixed size buffer.
+     * The end of each part is found by searching the buffer for the delimiter that precedes the
+     * next boundary. Bytes that cannot be part of a delimiter are passed on as soon as they are
+     * read, so memory use does not depend on the size of the parts.
+     */
+    private static class PartReader {
+        private final InputStream in;
+        private final byte[] buffer;
+        private final byte[] delimiter;
+        private final long maxPostSize;
+        private int position, limit;
+        private long total;
+        private boolean eof;
+
+        PartReader(InputStream in, byte[] buffer, String boundary, long maxPostSize)
+                throws IOException {
+            this.in = in;
+            this.buffer = buffer;
+            this.delimiter = ("\r\n--" + boundary).getBytes("ISO-8859-1");
+            this.maxPostSize = maxPostSize;
+            if (this.delimiter.length > buffer.length / 2)
+                throw new IOException("Multipart boundary is too long: " + boundary);
+        }
+
+        /**
+         * Make sure at least the given number of bytes are available in the buffer, unless the
+         * end of the stream is reached first.
+         *
+         * @return true if the bytes are available
+         */
+        boolean fill(int needed) throws IOException, FileUploadLimitExceededException {
+            if (limit - position >= needed)
+                return true;
+
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                limit -= position;
+                position = 0;
+            }
+
+            while (!eof && limit < needed) {
+                int count = in.read(buffer, limit, buffer.length - limit);
+                if (count < 0) {
+                    eof = true;
+                }
+                else {
+                    limit += count;
+                    total += count;
+                    if (maxPostSize > 0 && total > maxPostSize)
+                        throw new FileUploadLimitExceededException(maxPostSize, total);
+                }
+            }
+
+            return limit - position >= needed;
+        }
+
+        /** Find the delimiter in the buffer, starting at the given index, or return -1. */
+        int indexOfDelimiter(int from) {
+            int last = limit - delimiter.length;
+            outer: for (int i = from; i <= last; i++) {
+                for (int j = 0; j < delimiter.length; j++) {
+                    if (buffer[i + j] != delimiter[j])
+                        continue outer;
+                }
+                return i;
+            }
+            return -1;
+        }
+
+        /**
+         * Skip everything up to and including the first boundary, which is not preceded by a
+         * line break if there is no preamble.
+         *
+         * @return true if a part follows the boundary, false if the body has no parts
+         */
+        boolean skipPreamble() throws IOException, FileUploadLimitExceededException {
+            // Pretend the body starts with a line break so the first boundary is a delimiter
+            buffer[0] = '\r';
+            buffer[1] = '\n';
+            limit = 2;
+            readBody(null);
+            return readBoundaryEnd();
+        }
+
+        /**
+         * Read the two bytes that follow a boundary.
+         *
+         * @return true if another part follows, false if this was the closing boundary
+         */
+        boolean readBoundaryEnd() throws IOException, FileUploadLimitExceededException {
+            if (!fill(2))
+                throw new IOException("Unexpected end of multipart request");
+
+            if (buffer[position] == '-' && buffer[position + 1] == '-') {
+                position += 2;
+                return false;
+            }
+
+            // Skip any linear white space that follows the boundary
+            while (buffer[position] == ' ' || buffer[position] == '\t') {
+                ++position;
+                if (!fill(2))
+                    throw new IOException("Unexpected end of multipart request");
+            }
+
+            if (buffer[position] == '\r' && buffer[position + 1] == '\n') {
+                position += 2;
+                return true;
+            }
+            else {
+                throw new IOException("Malformed multipart boundary");
+            }
+        }
+
+        /** Find the next CRLF in the buffer, or return -1. */
+        int indexOfLineEnd() {
+            for (int i = position; i + 1 < limit; i++) {
+                if (buffer[i] == '\r' && buffer[i + 1] == '\n')
+                    return i;
+            }
+            return -1;
+        }
+
+        /**
+         * Read the headers of a part up to and including the blank line that ends them.
+         *
+         * @return a map of lower case header names to values
+         */
+        Map<String, String> readHeaders(String charset) throws IOException,
+                FileUploadLimitExceededException {
+            Map<String, String> headers = new HashMap<String, String>();
+            int size = 0;
+            while (true) {
+                // Find the end of the line, reading more if necessary
+                int end;
+                while ((end = indexOfLineEnd()) < 0) {
+                    if (limit - position >= buffer.length)
+                        throw new IOException("Multipart header line is too long");
+                    if (!fill(limit - position + 1))
+                        throw new IOException("Unexpected end of multipart request");
+                }
+
+                int length = end - position;
+                size += length + 2;
+                if (size > MAX_HEADER_SIZE)
+                    throw new IOException("Multipart headers are too long");
+
+                String line = new String(buffer, position, length, charset);
+                position = end + 2;
+                if (line.length() == 0)
+                    return headers;
+
+                int colon = line.indexOf(':');
+                if (colon > 0) {
+                    headers.put(line.substring(0, colon).trim().toLowerCase(), line.substring(
+                            colon + 1).trim());
+                }
+            }
+        }
+
+        /**
+         * Read the body of a part up to and including the next delimiter, passing the bytes to
+         * the given sink. If the sink is null then the bytes are discarded.
+         */
+        void readBody(PartSink sink) throws IOException, FileUploadLimitExceededException {
+            while (true) {
+                fill(buffer.length);
+
+                int index = indexOfDelimiter(position);
+                if (index >= 0) {
+                    if (sink != null)
+                        sink.write(buffer, position, index - position);
+                    position = index + delimiter.length;
+                    return;
+                }
+                else if (eof) {
+                    throw new IOException("Unexpected end of multipart request");
+                }
+
+                // Keep enough bytes to hold the start of a delimiter that spans two reads
+                int safe = limit - delimiter.length + 1;
+                if (safe > position) {
+                    if (sink != null)
+                        sink.write(buffer, position, safe - position);
+                    position = safe;
+                }
+            }
+        }
+    }
+
+    /**
+     * Receives the body of a part. Bytes are kept in memory until their number exceeds the
+     * threshold, at which point they are written to a temporary file along with everything that
+     * follows. A sink that does not spool holds everything in memory, and the threshold is the
+     * most it will hold.
+     */
+    private static class PartSink {
+        private final int threshold;
+        private final boolean spool;
+        private final File tempDir;
+        private byte[] bytes = new byte[256];
+        private int size;
+        private File file;
+        private FileChannel channel;
+        private long fileSize;
+
+        PartSink(int threshold, boolean spool, File tempDir) {
+            this.threshold = threshold;
+            this.spool = spool;
+            this.tempDir = tempDir;
+        }
+
+        void write(byte[] buffer, int offset, int length) throws IOException,
+                FileUploadLimitExceededException {
+            if (length <= 0)
+                return;
+
+            if (channel == null && size + length > threshold) {
+                if (!spool)
+                    throw new FileUploadLimitExceededException(threshold, (long) size + length);
+
+                file = File.createTempFile("stripes-upload-", ".tmp", tempDir);
+                channel = new FileOutputStream(file).getChannel();
+                writeFully(ByteBuffer.wrap(bytes, 0, size));
+                fileSize = size;
+                bytes = null;
+                size = 0;
+            }
+
+            if (channel != null) {
+                writeFully(ByteBuffer.wrap(buffer, offset, length));
+                fileSize += length;
+            }
+            else {
+                if (size + length > bytes.length) {
+                    byte[] copy = new byte[Math.max(bytes.length * 2, size + length)];
+                    System.arraycopy(bytes, 0, copy, 0, size);
+                    bytes = copy;
+                }
+                System.arraycopy(buffer, offset, bytes, size, length);
+                size += length;
+            }
+        }
+
+        private void writeFully(ByteBuffer source) throws IOException {
+            while (source.hasRemaining())
+                channel.write(source);
+        }
+
+        /** Close the temporary file, if there is one. */
+        void close() throws IOException {
+            if (channel != null) {
+                channel.close();
+                channel = null;
+            }
+        }
+
+        /** Close and delete the temporary file, if there is one, after a failure. */
+        void discard() {
+            try {
+                close();
+            }
+            catch (IOException e) {
+                log.debug(e, "Could not close temporary file ", file);
+            }
+            if (file != null && !file.delete())
+                log.warn("Could not delete temporary file ", file);
+        }
+
+        /** Decode the bytes held in memory using the given charset, or the default charset. */
+        String getString(String charset) throws UnsupportedEncodingException {
+            return charset == null ? new String(bytes, 0, size) : new String(bytes, 0, size,
+                    charset);
+        }
+    }
+
+    /** A FileBean over a part that may be held in memory or in a temporary file. */
+    private static class PartFileBean extends FileBean {
+        private final boolean inMemory;
+        private final long size;
+        private byte[] bytes;
+
+        PartFileBean(PartSink sink, String contentType, String fileName, String charset) {
+            super(sink.file, contentType, fileName, charset);
+            this.inMemory = sink.file == null;
+            if (inMemory) {
+                this.bytes = sink.bytes;
+                this.size = sink.size;
+            }
+            else {
+                this.size = sink.fileSize;
+            }
+        }
+
+        /** Returns true if the part is held in memory rather than in a temporary file. */
+        boolean isInMemory() {
+            return inMemory;
+        }
+
+        /** Get the bytes of a part held in memory, failing if it has been saved or deleted. */
+        private byte[] getBytes() throws IOException {
+            if (bytes == null) {
+                throw new IOException("The uploaded file " + getFileName()
+                        + " has already been saved or deleted");
+            }
+            return bytes;
+        }
+
+        @Override
+        public long getSize() {
+            return size;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            if (isInMemory())
+                return new ByteArrayInputStream(getBytes(), 0, (int) size);
+            else
+                return super.getInputStream();
+        }
+
+        @Override
+        public ReadableByteChannel getChannel() throws IOException {
+            if (isInMemory())
+                return Channels.newChannel(getInputStream());
+            else
+                return super.getChannel();
+        }
+
+        @Override
+        public void save(File toFile) throws IOException {
+            if (!isInMemory()) {
+                super.save(toFile);
+                return;
+            }
+
+            ByteBuffer source = ByteBuffer.wrap(getBytes(), 0, (int) size);
+            File parent = toFile.getAbsoluteFile().getParentFile();
+            if (!parent.exists() && !parent.mkdirs()) {
+                throw new IOException("Parent directory of specified file does not exist and "
+                        + "cannot be created. File location supplied: "
+                        + toFile.getAbsolutePath());
+            }
+
+            FileChannel out = new FileOutputStream(toFile).getChannel();
+            try {
+                while (source.hasRemaining())
+                    out.write(source);
+            }
+            finally {
+                out.close();
+            }
+            bytes = null;
+        }
+
+        @Override
+        public void delete() throws IOException {
+            if (isInMemory())
+                bytes = null;
+            else
+                super.delete();
+        }
+    }
+}
@@ -15,6 +15,7 @@
 package net.sourceforge.stripes.format;
 
 import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.Reusable;
 
 import java.util.Date;
 import java.util.Map;
@@ -49,6 +50,7 @@ import java.text.SimpleDateFormat;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class DateFormatter implements Formatter<Date> {
     /** Maintains a map of named formats that can be used instead of patterns. */
     protected static final Map<String,Integer> namedPatterns = new HashMap<String,Integer>();
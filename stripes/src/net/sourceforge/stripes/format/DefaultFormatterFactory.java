@@ -14,12 +14,17 @@
  */
 package net.sourceforge.stripes.format;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DestroyableComponent;
 import net.sourceforge.stripes.util.Log;
+import net.sourceforge.stripes.util.Reusable;
+import net.sourceforge.stripes.util.ReusableInstanceCache;
 import net.sourceforge.stripes.util.TypeHandlerCache;
 
 /**
@@ -31,7 +36,7 @@ import net.sourceforge.stripes.util.TypeHandlerCache;
  * 
  * @author Tim Fennell
  */
-public class DefaultFormatterFactory implements FormatterFactory {
+public class DefaultFormatterFactory implements FormatterFactory, DestroyableComponent {
     private static final Log log = Log.getInstance(DefaultFormatterFactory.class);
 
     /** Cache target type to Formatter class mappings. */
@@ -40,6 +45,9 @@ public class DefaultFormatterFactory implements FormatterFactory {
     /** Stores a reference to the Configuration passed in at initialization time. */
     private Configuration configuration;
 
+    /** Caches instances of {@link Reusable} formatters. */
+    private final ReusableInstanceCache<Formatter<?>> instances = new ReusableInstanceCache<Formatter<?>>();
+
     /** Stores a reference to the configuration and configures the default formatters. */
     public void init(Configuration configuration) throws Exception {
         this.configuration = configuration;
@@ -105,7 +113,10 @@ public class DefaultFormatterFactory implements FormatterFactory {
     }
 
     /**
-     * Gets an instance of the Formatter class specified.
+     * Gets an instance of the Formatter class specified. If the class is annotated with
+     * {@link Reusable} then an instance that was created earlier with the same format type,
+     * format pattern and locale is returned when there is one; otherwise a new instance is
+     * created.
      *
      * @param clazz the Formatter type that is desired
      * @return an instance of the Formatter specified
@@ -115,6 +126,31 @@ public class DefaultFormatterFactory implements FormatterFactory {
             String formatType, String formatPattern, Locale locale)
             throws Exception {
 
+        Reusable reusable = clazz.getAnnotation(Reusable.class);
+        if (reusable == null)
+            return createInstance(clazz, formatType, formatPattern, locale);
+
+        List<Object> key = Arrays.<Object> asList(clazz, formatType, formatPattern, locale);
+        Formatter<?> formatter = instances.get(key, reusable.threadSafe());
+        if (formatter == null) {
+            formatter = createInstance(clazz, formatType, formatPattern, locale);
+            instances.put(key, formatter, reusable.threadSafe());
+        }
+        return formatter;
+    }
+
+    /**
+     * Creates and initializes a new instance of the Formatter class specified.
+     *
+     * @param clazz the Formatter type that is desired
+     * @return a new instance of the Formatter specified
+     * @throws Exception if there is a problem instantiating the Formatter
+     * @since Stripes 1.6
+     */
+    protected Formatter<?> createInstance(Class<? extends Formatter<?>> clazz,
+            String formatType, String formatPattern, Locale locale)
+            throws Exception {
+
         Formatter<?> formatter = getConfiguration().getObjectFactory().newInstance(clazz);
         formatter.setFormatType(formatType);
         formatter.setFormatPattern(formatPattern);
@@ -122,4 +158,9 @@ public class DefaultFormatterFactory implements FormatterFactory {
         formatter.init();
         return formatter;
     }
+
+    /** Releases the cached instances of {@link Reusable} formatters. */
+    public void destroy() {
+        instances.clear();
+    }
 }
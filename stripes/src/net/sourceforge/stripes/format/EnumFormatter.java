@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.format;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Locale;
 
 /**
@@ -25,6 +27,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.4.1
  */
+@Reusable(threadSafe = true)
 public class EnumFormatter implements Formatter<Enum<?>> {
     /** Does nothing. Format types are not supported for Enums. */
     public void setFormatType(String formatType) { }
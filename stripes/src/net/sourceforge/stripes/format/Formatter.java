@@ -30,6 +30,10 @@ import java.util.Locale;
  * objects necessary to perform formatting.  The format() method will then be called one or more
  * times before the Formatter is eventually dereferenced.</p>
  *
+ * <p>Formatters annotated with {@link net.sourceforge.stripes.util.Reusable} may be cached by
+ * the {@link FormatterFactory} and used to format many values, possibly on many threads if the
+ * annotation declares them thread-safe.</p>
+ *
  * @author Tim Fennell
  */
 public interface Formatter<T> {
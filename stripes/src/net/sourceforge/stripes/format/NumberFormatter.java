@@ -15,6 +15,7 @@
 package net.sourceforge.stripes.format;
 
 import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.Reusable;
 
 import java.text.NumberFormat;
 import java.text.DecimalFormat;
@@ -45,6 +46,7 @@ import java.util.Set;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class NumberFormatter implements Formatter<Number> {
 
     /** Maintains a set of named formats that can be used instead of patterns. */
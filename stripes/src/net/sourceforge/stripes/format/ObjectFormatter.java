@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.format;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Locale;
 
 /**
@@ -23,6 +25,7 @@ import java.util.Locale;
  * @author Aaron Porter
  * @since Stripes 1.5
  */
+@Reusable(threadSafe = true)
 public class ObjectFormatter implements Formatter<Object> {
 
     /**
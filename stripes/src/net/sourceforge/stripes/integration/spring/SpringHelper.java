@@ -19,15 +19,21 @@ import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.ReflectUtil;
+import org.springframework.beans.factory.BeanNotOfRequiredTypeException;
+import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.NestedRuntimeException;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 
 import javax.servlet.ServletContext;
+import java.lang.ref.WeakReference;
 import java.lang.reflect.Field;
+import java.lang.reflect.Member;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -53,7 +59,11 @@ import java.util.concurrent.ConcurrentHashMap;
  *
  * <p>The first time that any of the injection methods in this class is called with a specific type
  * of object, the object's class is examined for annotated fields and methods. The discovered
- * fields and methods are then cached for future usage.</p>
+ * fields and methods are then cached for future usage. The names of the Spring beans to be
+ * injected are also resolved, by name or by type, only once per class and application context,
+ * without asking Spring to create the beans. Singleton beans are then cached along with the
+ * application context they came from; all other beans are looked up by their resolved name each
+ * time they are injected, so Spring remains in charge of their scope.</p>
  *
  * @see SpringBean
  * @author Dan Hayes, Tim Fennell
@@ -69,6 +79,117 @@ public class SpringHelper {
     private static Map<Class<?>, Collection<Field>> fieldMap =
             new ConcurrentHashMap<Class<?>, Collection<Field>>();
 
+    /** Lazily filled in map of Class to the plan for injecting Spring beans into it. */
+    private static Map<Class<?>, InjectionPlan> planMap =
+            new ConcurrentHashMap<Class<?>, InjectionPlan>();
+
+    /** Injects a single Spring bean into a field or through a method. */
+    private static abstract class Injection {
+        final String name;
+        final Class<?> type;
+        final boolean singleton;
+
+        /**
+         * The singleton bean, once it has been looked up. It is referenced weakly, like the
+         * application context of the plan, so that a discarded context can be collected.
+         */
+        volatile WeakReference<Object> instance;
+
+        /**
+         * Resolves the name of the bean, falling back to finding it by type. The bean definitions
+         * are checked without creating the bean, so prototypes and lazy singletons are not
+         * instantiated just to build the plan.
+         */
+        Injection(ApplicationContext ctx, SpringBean springBean, String defaultName,
+                Class<?> type) {
+            boolean nameSupplied = !"".equals(springBean.value());
+            String name = nameSupplied ? springBean.value() : defaultName;
+            try {
+                checkSpringBean(ctx, name, type);
+            }
+            catch (NestedRuntimeException nre) {
+                if (nameSupplied) throw nre;
+                name = findSpringBeanNameByType(ctx, name, type);
+            }
+
+            this.name = name;
+            this.type = type;
+            this.singleton = ctx.isSingleton(name);
+        }
+
+        /** Get the bean to inject, looking it up by its resolved name unless it is cached. */
+        Object getBean(ApplicationContext ctx) {
+            WeakReference<Object> ref = instance;
+            Object bean = ref == null ? null : ref.get();
+            if (bean == null) {
+                bean = ctx.getBean(name, type);
+                if (singleton) instance = new WeakReference<Object>(bean);
+            }
+            return bean;
+        }
+
+        /** Get the method or field through which the bean is injected. */
+        abstract Member getMember();
+
+        /** Inject the bean into the target object. */
+        abstract void inject(Object target, ApplicationContext ctx) throws Exception;
+    }
+
+    /** Injects a Spring bean by invoking a method. */
+    private static class MethodInjection extends Injection {
+        final Method method;
+
+        MethodInjection(ApplicationContext ctx, Method method) {
+            super(ctx, method.getAnnotation(SpringBean.class), methodToPropertyName(method),
+                    method.getParameterTypes()[0]);
+            this.method = method;
+        }
+
+        @Override
+        Member getMember() {
+            return method;
+        }
+
+        @Override
+        void inject(Object target, ApplicationContext ctx) throws Exception {
+            method.invoke(target, getBean(ctx));
+        }
+    }
+
+    /** Injects a Spring bean by setting a field. */
+    private static class FieldInjection extends Injection {
+        final Field field;
+
+        FieldInjection(ApplicationContext ctx, Field field) {
+            super(ctx, field.getAnnotation(SpringBean.class), field.getName(), field.getType());
+            this.field = field;
+        }
+
+        @Override
+        Member getMember() {
+            return field;
+        }
+
+        @Override
+        void inject(Object target, ApplicationContext ctx) throws Exception {
+            field.set(target, getBean(ctx));
+        }
+    }
+
+    /**
+     * The injections to be performed on instances of one class, resolved against one application
+     * context. Methods are injected before fields.
+     */
+    private static class InjectionPlan {
+        final WeakReference<ApplicationContext> context;
+        final Injection[] injections;
+
+        InjectionPlan(ApplicationContext ctx, Injection[] injections) {
+            this.context = new WeakReference<ApplicationContext>(ctx);
+            this.injections = injections;
+        }
+    }
+
     /**
      * Injects Spring managed beans into using a Web Application Context that is
      * derived from the ServletContext, which is in turn looked up using the
@@ -109,38 +230,64 @@ public class SpringHelper {
      * @param ctx the Spring application context
      */
     public static void injectBeans(Object bean, ApplicationContext ctx) {
-        // First inject any values using annotated methods
-        for (Method m : getMethods(bean.getClass())) {
+        for (Injection injection : getInjectionPlan(bean.getClass(), ctx).injections) {
             try {
-                SpringBean springBean = m.getAnnotation(SpringBean.class);
-                boolean nameSupplied = !"".equals(springBean.value());
-                String name = nameSupplied ? springBean.value() : methodToPropertyName(m);
-                Class<?> beanType = m.getParameterTypes()[0];
-                Object managedBean = findSpringBean(ctx, name, beanType, !nameSupplied);
-                m.invoke(bean, managedBean);
+                injection.inject(bean, ctx);
             }
             catch (Exception e) {
-                throw new StripesRuntimeException("Exception while trying to lookup and inject " +
-                    "a Spring bean into a bean of type " + bean.getClass().getSimpleName() +
-                    " using method " + m.toString(), e);
+                throw injectionFailed(bean.getClass(), injection.getMember(), e);
             }
         }
+    }
 
-        // And then inject any properties that are annotated
-        for (Field f : getFields(bean.getClass())) {
-            try {
-                SpringBean springBean = f.getAnnotation(SpringBean.class);
-                boolean nameSupplied = !"".equals(springBean.value());
-                String name = nameSupplied ? springBean.value() : f.getName();
-                Object managedBean = findSpringBean(ctx, name, f.getType(), !nameSupplied);
-                f.set(bean, managedBean);
+    /**
+     * Gets the plan for injecting Spring beans into instances of a class. The first time it is
+     * called for a particular class and application context, it resolves the Spring bean for each
+     * annotated method and field and caches the results.
+     *
+     * @param clazz the class into which beans will be injected
+     * @param ctx the Spring application context
+     * @return the injection plan
+     */
+    private static InjectionPlan getInjectionPlan(Class<?> clazz, ApplicationContext ctx) {
+        InjectionPlan plan = planMap.get(clazz);
+        if (plan == null || plan.context.get() != ctx) {
+            List<Injection> injections = new ArrayList<Injection>();
+
+            // First inject any values using annotated methods
+            for (Method m : getMethods(clazz)) {
+                try {
+                    injections.add(new MethodInjection(ctx, m));
+                }
+                catch (Exception e) {
+                    throw injectionFailed(clazz, m, e);
+                }
             }
-            catch (Exception e) {
-                throw new StripesRuntimeException("Exception while trying to lookup and inject " +
-                    "a Spring bean into a bean of type " + bean.getClass().getSimpleName() +
-                    " using field access on field " + f.toString(), e);
+
+            // And then inject any properties that are annotated
+            for (Field f : getFields(clazz)) {
+                try {
+                    injections.add(new FieldInjection(ctx, f));
+                }
+                catch (Exception e) {
+                    throw injectionFailed(clazz, f, e);
+                }
             }
+
+            plan = new InjectionPlan(ctx, injections.toArray(new Injection[injections.size()]));
+            planMap.put(clazz, plan);
         }
+
+        return plan;
+    }
+
+    /** Builds the exception to throw when an injection fails. */
+    private static StripesRuntimeException injectionFailed(Class<?> clazz, Member member,
+            Exception e) {
+        String using = member instanceof Method ? " using method "
+                : " using field access on field ";
+        return new StripesRuntimeException("Exception while trying to lookup and inject " +
+            "a Spring bean into a bean of type " + clazz.getSimpleName() + using + member, e);
     }
 
     /**
@@ -274,6 +421,42 @@ public class SpringHelper {
         }
 
         // If we got here then we didn't find a bean yet, try by type
+        return ctx.getBean(findSpringBeanNameByType(ctx, name, type), type);
+    }
+
+    /**
+     * Checks that a Spring application context contains a bean with the given name and type,
+     * without creating the bean. If the type of the bean cannot be determined without creating
+     * it, only the name is checked.
+     *
+     * @param ctx the Spring Application Context
+     * @param name the name of the spring bean to look for
+     * @param type the type of bean to look for
+     * @exception NoSuchBeanDefinitionException if there is no bean with the name
+     * @exception BeanNotOfRequiredTypeException if the bean is not of the type
+     */
+    private static void checkSpringBean(ApplicationContext ctx, String name, Class<?> type) {
+        if (!ctx.containsBean(name)) {
+            throw new NoSuchBeanDefinitionException(name, "no bean with this name was found");
+        }
+
+        Class<?> beanType = ctx.getType(name);
+        if (beanType != null && !type.isAssignableFrom(beanType)) {
+            throw new BeanNotOfRequiredTypeException(name, type, beanType);
+        }
+    }
+
+    /**
+     * Looks up the name of the only Spring managed bean of the given type. If zero or more than
+     * one bean of the correct type exists, an exception is thrown.
+     *
+     * @param ctx the Spring Application Context
+     * @param name the name of the spring bean that was looked for first, for use in messages
+     * @param type the type of bean to look for
+     * @return the name of the bean
+     */
+    private static String findSpringBeanNameByType(ApplicationContext ctx, String name,
+            Class<?> type) {
         String[] beanNames = ctx.getBeanNamesForType(type);
         if (beanNames.length == 0) {
             throw new StripesRuntimeException(
@@ -289,7 +472,7 @@ public class SpringHelper {
         else {
             log.debug("Found unique SpringBean with type [" + type.getName() + "]. Matching on ",
                      "type is a little risky so watch out!");
-            return ctx.getBean(beanNames[0], type);
+            return beanNames[0];
         }
     }
 
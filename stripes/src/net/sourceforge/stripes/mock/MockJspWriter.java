@@ -0,0 +1,141 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.mock;
+
+import java.io.IOException;
+
+import javax.servlet.jsp.JspWriter;
+
+/**
+ * Mock implementation of a JspWriter that captures all output in a StringBuilder and makes it
+ * available after the test is done. The writer is never flushed anywhere, so
+ * {@link #clearBuffer()} discards everything that has been written so far, which allows the same
+ * writer to be reused for many rendering passes.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class MockJspWriter extends JspWriter {
+    private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+    private StringBuilder out = new StringBuilder(1024);
+
+    /** Constructs a writer that claims to be unbuffered and auto-flushing. */
+    public MockJspWriter() {
+        super(NO_BUFFER, true);
+    }
+
+    /** Returns, as a character string, the output that has been written to the writer. */
+    public String getString() { return out.toString(); }
+
+    /** Appends the given characters to the captured output. */
+    @Override
+    public void write(char[] chars, int offset, int length) { out.append(chars, offset, length); }
+
+    /** Appends the given string to the captured output. */
+    @Override
+    public void write(String str) { out.append(str); }
+
+    /** Appends a portion of the given string to the captured output. */
+    @Override
+    public void write(String str, int offset, int length) {
+        out.append(str, offset, offset + length);
+    }
+
+    /** Appends the given character to the captured output. */
+    @Override
+    public void write(int c) { out.append((char) c); }
+
+    /** Writes the platform line separator. */
+    @Override
+    public void newLine() { out.append(LINE_SEPARATOR); }
+
+    @Override
+    public void print(boolean b) { out.append(b); }
+
+    @Override
+    public void print(char c) { out.append(c); }
+
+    @Override
+    public void print(int i) { out.append(i); }
+
+    @Override
+    public void print(long l) { out.append(l); }
+
+    @Override
+    public void print(float f) { out.append(f); }
+
+    @Override
+    public void print(double d) { out.append(d); }
+
+    @Override
+    public void print(char[] chars) { out.append(chars); }
+
+    @Override
+    public void print(String str) { out.append(str); }
+
+    @Override
+    public void print(Object obj) { out.append(obj); }
+
+    @Override
+    public void println() { newLine(); }
+
+    @Override
+    public void println(boolean b) { print(b); newLine(); }
+
+    @Override
+    public void println(char c) { print(c); newLine(); }
+
+    @Override
+    public void println(int i) { print(i); newLine(); }
+
+    @Override
+    public void println(long l) { print(l); newLine(); }
+
+    @Override
+    public void println(float f) { print(f); newLine(); }
+
+    @Override
+    public void println(double d) { print(d); newLine(); }
+
+    @Override
+    public void println(char[] chars) { print(chars); newLine(); }
+
+    @Override
+    public void println(String str) { print(str); newLine(); }
+
+    @Override
+    public void println(Object obj) { print(obj); newLine(); }
+
+    /** Discards all the output that has been captured so far. */
+    @Override
+    public void clear() { out.setLength(0); }
+
+    /** Discards all the output that has been captured so far. */
+    @Override
+    public void clearBuffer() { out.setLength(0); }
+
+    /** Has no effect. */
+    @Override
+    public void flush() throws IOException { }
+
+    /** Has no effect. The captured output remains available after the writer is closed. */
+    @Override
+    public void close() throws IOException { }
+
+    /** Always returns zero, since the writer is unbuffered. */
+    @Override
+    public int getRemaining() { return 0; }
+}
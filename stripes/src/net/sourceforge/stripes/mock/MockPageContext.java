@@ -0,0 +1,312 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.mock;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.el.ELContext;
+import javax.servlet.Servlet;
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import javax.servlet.jsp.JspWriter;
+import javax.servlet.jsp.PageContext;
+import javax.servlet.jsp.el.ExpressionEvaluator;
+import javax.servlet.jsp.el.VariableResolver;
+
+/**
+ * <p>Mock implementation of a PageContext that allows Stripes tags to be rendered outside of a
+ * JSP container. Page scoped attributes are held in an internal Map, while the request, session
+ * and application scopes are backed by the request, its session (if any) and the servlet context.
+ * All output is captured by a {@link MockJspWriter}.</p>
+ *
+ * <p>A tag is rendered by setting the page context on it and calling its lifecycle methods
+ * directly, in the order a container would. For example:</p>
+ *
+ * <pre>
+ * MockPageContext pageContext = new MockPageContext(context, request, response);
+ * FormTag form = new FormTag();
+ * form.setPageContext(pageContext);
+ * form.setAction("/foo/Bar.action");
+ * form.doStartTag();
+ * form.doEndTag();
+ * String html = pageContext.getMockOut().getString();
+ * </pre>
+ *
+ * <p>Forwards, includes and page exceptions are not supported and are simply recorded on or
+ * passed through to the request.</p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class MockPageContext extends PageContext {
+    private ServletContext servletContext;
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private MockJspWriter out = new MockJspWriter();
+    private Map<String, Object> attributes = new HashMap<String, Object>();
+
+    /**
+     * Constructs a page context that renders into a new {@link MockJspWriter}.
+     *
+     * @param servletContext the servlet context that backs the application scope
+     * @param request the request that backs the request scope
+     * @param response the response
+     */
+    public MockPageContext(ServletContext servletContext, HttpServletRequest request,
+            HttpServletResponse response) {
+        this.servletContext = servletContext;
+        this.request = request;
+        this.response = response;
+    }
+
+    /** Has no effect. The page context is fully initialized by its constructor. */
+    @Override
+    public void initialize(Servlet servlet, ServletRequest request, ServletResponse response,
+            String errorPageURL, boolean needsSession, int bufferSize, boolean autoFlush) {
+    }
+
+    /** Clears the page scope and discards any output that has been captured. */
+    @Override
+    public void release() {
+        this.attributes.clear();
+        this.out.clearBuffer();
+    }
+
+    /** Returns the session associated with the request, if any. */
+    @Override
+    public HttpSession getSession() { return this.request.getSession(false); }
+
+    /** Always returns null. */
+    @Override
+    public Object getPage() { return null; }
+
+    /** Returns the request supplied at construction time. */
+    @Override
+    public ServletRequest getRequest() { return this.request; }
+
+    /** Returns the response supplied at construction time. */
+    @Override
+    public ServletResponse getResponse() { return this.response; }
+
+    /** Always returns null. */
+    @Override
+    public Exception getException() { return null; }
+
+    /** Always returns null. */
+    @Override
+    public ServletConfig getServletConfig() { return null; }
+
+    /** Returns the servlet context supplied at construction time. */
+    @Override
+    public ServletContext getServletContext() { return this.servletContext; }
+
+    /** Returns the writer that captures all output. */
+    @Override
+    public JspWriter getOut() { return this.out; }
+
+    /** Returns the writer that captures all output, without the need for a cast. */
+    public MockJspWriter getMockOut() { return this.out; }
+
+    /** Forwards to the given URL using the request dispatcher from the request. */
+    @Override
+    public void forward(String url) throws ServletException, IOException {
+        this.request.getRequestDispatcher(url).forward(this.request, this.response);
+    }
+
+    /** Includes the given URL using the request dispatcher from the request. */
+    @Override
+    public void include(String url) throws ServletException, IOException {
+        this.request.getRequestDispatcher(url).include(this.request, this.response);
+    }
+
+    /** Includes the given URL using the request dispatcher from the request. */
+    @Override
+    public void include(String url, boolean flush) throws ServletException, IOException {
+        include(url);
+    }
+
+    /** Wraps and rethrows the given exception. */
+    @Override
+    public void handlePageException(Exception e) throws ServletException, IOException {
+        handlePageException((Throwable) e);
+    }
+
+    /** Wraps and rethrows the given exception. */
+    @Override
+    public void handlePageException(Throwable t) throws ServletException, IOException {
+        throw new ServletException(t);
+    }
+
+    /** Sets an attribute in page scope, or removes it if the value is null. */
+    @Override
+    public void setAttribute(String name, Object value) {
+        setAttribute(name, value, PAGE_SCOPE);
+    }
+
+    /** Sets an attribute in the given scope, or removes it if the value is null. */
+    @Override
+    public void setAttribute(String name, Object value, int scope) {
+        if (value == null) {
+            removeAttribute(name, scope);
+            return;
+        }
+
+        switch (scope) {
+        case PAGE_SCOPE:
+            this.attributes.put(name, value);
+            break;
+        case REQUEST_SCOPE:
+            this.request.setAttribute(name, value);
+            break;
+        case SESSION_SCOPE:
+            getRequiredSession().setAttribute(name, value);
+            break;
+        case APPLICATION_SCOPE:
+            this.servletContext.setAttribute(name, value);
+            break;
+        default:
+            throw new IllegalArgumentException("Invalid scope: " + scope);
+        }
+    }
+
+    /** Gets an attribute from page scope. */
+    @Override
+    public Object getAttribute(String name) {
+        return getAttribute(name, PAGE_SCOPE);
+    }
+
+    /** Gets an attribute from the given scope. */
+    @Override
+    public Object getAttribute(String name, int scope) {
+        switch (scope) {
+        case PAGE_SCOPE:
+            return this.attributes.get(name);
+        case REQUEST_SCOPE:
+            return this.request.getAttribute(name);
+        case SESSION_SCOPE:
+            HttpSession session = getSession();
+            return session == null ? null : session.getAttribute(name);
+        case APPLICATION_SCOPE:
+            return this.servletContext.getAttribute(name);
+        default:
+            throw new IllegalArgumentException("Invalid scope: " + scope);
+        }
+    }
+
+    /** Searches the page, request, session and application scopes, in that order. */
+    @Override
+    public Object findAttribute(String name) {
+        int scope = getAttributesScope(name);
+        return scope == 0 ? null : getAttribute(name, scope);
+    }
+
+    /** Removes an attribute from all scopes. */
+    @Override
+    public void removeAttribute(String name) {
+        removeAttribute(name, PAGE_SCOPE);
+        removeAttribute(name, REQUEST_SCOPE);
+        if (getSession() != null)
+            removeAttribute(name, SESSION_SCOPE);
+        removeAttribute(name, APPLICATION_SCOPE);
+    }
+
+    /** Removes an attribute from the given scope. */
+    @Override
+    public void removeAttribute(String name, int scope) {
+        switch (scope) {
+        case PAGE_SCOPE:
+            this.attributes.remove(name);
+            break;
+        case REQUEST_SCOPE:
+            this.request.removeAttribute(name);
+            break;
+        case SESSION_SCOPE:
+            getRequiredSession().removeAttribute(name);
+            break;
+        case APPLICATION_SCOPE:
+            this.servletContext.removeAttribute(name);
+            break;
+        default:
+            throw new IllegalArgumentException("Invalid scope: " + scope);
+        }
+    }
+
+    /** Returns the narrowest scope in which the attribute is found, or zero if it is not. */
+    @Override
+    public int getAttributesScope(String name) {
+        if (this.attributes.containsKey(name))
+            return PAGE_SCOPE;
+        else if (this.request.getAttribute(name) != null)
+            return REQUEST_SCOPE;
+        else if (getAttribute(name, SESSION_SCOPE) != null)
+            return SESSION_SCOPE;
+        else if (this.servletContext.getAttribute(name) != null)
+            return APPLICATION_SCOPE;
+        else
+            return 0;
+    }
+
+    /** Returns the names of all the attributes in the given scope. */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Enumeration<String> getAttributeNamesInScope(int scope) {
+        switch (scope) {
+        case PAGE_SCOPE:
+            return Collections.enumeration(this.attributes.keySet());
+        case REQUEST_SCOPE:
+            return this.request.getAttributeNames();
+        case SESSION_SCOPE:
+            HttpSession session = getSession();
+            return session == null ? Collections.enumeration(Collections.<String> emptySet())
+                    : session.getAttributeNames();
+        case APPLICATION_SCOPE:
+            return this.servletContext.getAttributeNames();
+        default:
+            throw new IllegalArgumentException("Invalid scope: " + scope);
+        }
+    }
+
+    /** Always returns null. Expression evaluation is not supported. */
+    @Override
+    @SuppressWarnings("deprecation")
+    public ExpressionEvaluator getExpressionEvaluator() { return null; }
+
+    /** Always returns null. Expression evaluation is not supported. */
+    @Override
+    @SuppressWarnings("deprecation")
+    public VariableResolver getVariableResolver() { return null; }
+
+    /** Always returns null. Expression evaluation is not supported. */
+    @Override
+    public ELContext getELContext() { return null; }
+
+    /** Returns the session or throws an exception if the request does not have one. */
+    protected HttpSession getRequiredSession() {
+        HttpSession session = getSession();
+        if (session == null)
+            throw new IllegalStateException("The request does not have a session");
+        return session;
+    }
+}
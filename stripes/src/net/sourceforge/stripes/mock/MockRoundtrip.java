@@ -235,7 +235,7 @@ public class MockRoundtrip {
      */
     public void setSourcePage(String url) {
         if (url != null) {
-            url = CryptoUtil.encrypt(url);
+            url = CryptoUtil.encryptToken(url);
         }
         setParameter(StripesConstants.URL_KEY_SOURCE_PAGE, url);
     }
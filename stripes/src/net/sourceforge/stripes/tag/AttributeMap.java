@@ -0,0 +1,229 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.tag;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * <p>
+ * A map of HTML attribute names to values that is backed by a pair of parallel arrays. Tags rarely
+ * have more than a handful of attributes, so a linear scan finds an attribute as fast as hashing
+ * would, and unlike a {@link java.util.HashMap} no entry objects are allocated when attributes are
+ * set. Clearing the map keeps the arrays, so a tag handler that is pooled and reused by the
+ * container does not allocate anything for its attributes after its first use.
+ * </p>
+ * <p>
+ * Attributes are kept in the order in which they were first set, which is also the order in which
+ * they are written by {@link HtmlTagSupport#writeAttributes(javax.servlet.jsp.JspWriter)}. Null
+ * keys are not supported. Since an attribute with a null value is never written, putting a null
+ * value removes the attribute instead of storing it. This class is not thread safe.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+final class AttributeMap extends AbstractMap<String, String> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+    private int size;
+
+    /** Get the index of the named attribute, or -1 if it is not set. */
+    private int indexOf(Object name) {
+        // Attribute names are usually literals, so check for identity before equality
+        for (int i = 0; i < size; i++) {
+            if (names[i] == name)
+                return i;
+        }
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name))
+                return i;
+        }
+        return -1;
+    }
+
+    /** Get the name of the attribute at the given index. */
+    String nameAt(int index) {
+        return names[index];
+    }
+
+    /** Get the value of the attribute at the given index. */
+    String valueAt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object name) {
+        return indexOf(name) >= 0;
+    }
+
+    @Override
+    public String get(Object name) {
+        int index = indexOf(name);
+        return index < 0 ? null : values[index];
+    }
+
+    /** Set an attribute, or remove it if the value is null. */
+    @Override
+    public String put(String name, String value) {
+        if (name == null)
+            throw new NullPointerException();
+        if (value == null)
+            return remove(name);
+
+        int index = indexOf(name);
+        if (index >= 0) {
+            String previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        if (size == names.length) {
+            String[] copy = new String[size * 2];
+            System.arraycopy(names, 0, copy, 0, size);
+            names = copy;
+            copy = new String[size * 2];
+            System.arraycopy(values, 0, copy, 0, size);
+            values = copy;
+        }
+
+        names[size] = name;
+        values[size] = value;
+        ++size;
+        return null;
+    }
+
+    @Override
+    public String remove(Object name) {
+        int index = indexOf(name);
+        if (index < 0)
+            return null;
+
+        String previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    /** Remove the attribute at the given index, keeping the others in order. */
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        if (moved > 0) {
+            System.arraycopy(names, index + 1, names, index, moved);
+            System.arraycopy(values, index + 1, values, index, moved);
+        }
+        --size;
+        names[size] = null;
+        values[size] = null;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            names[i] = null;
+            values[i] = null;
+        }
+        size = 0;
+    }
+
+    @Override
+    public Set<Map.Entry<String, String>> entrySet() {
+        return new AbstractSet<Map.Entry<String, String>>() {
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public Iterator<Map.Entry<String, String>> iterator() {
+                return new Iterator<Map.Entry<String, String>>() {
+                    private int next, last = -1;
+
+                    public boolean hasNext() {
+                        return next < size;
+                    }
+
+                    public Map.Entry<String, String> next() {
+                        if (next >= size)
+                            throw new NoSuchElementException();
+                        last = next++;
+                        return new Entry(last);
+                    }
+
+                    public void remove() {
+                        if (last < 0)
+                            throw new IllegalStateException();
+                        removeAt(last);
+                        next = last;
+                        last = -1;
+                    }
+                };
+            }
+        };
+    }
+
+    /** A view of the attribute at a given index. */
+    private class Entry implements Map.Entry<String, String> {
+        private final int index;
+
+        Entry(int index) {
+            this.index = index;
+        }
+
+        public String getKey() {
+            return names[index];
+        }
+
+        public String getValue() {
+            return values[index];
+        }
+
+        public String setValue(String value) {
+            if (value == null)
+                throw new NullPointerException();
+            String previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Map.Entry))
+                return false;
+            Map.Entry<?, ?> that = (Map.Entry<?, ?>) obj;
+            return getKey().equals(that.getKey()) && getValue().equals(that.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return getKey().hashCode() ^ getValue().hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + "=" + getValue();
+        }
+    }
+}
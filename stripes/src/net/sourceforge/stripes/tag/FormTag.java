@@ -311,10 +311,10 @@ public class FormTag extends HtmlTagSupport implements BodyTag, TryCatchFinally,
         out.write(isXmlTags() ? "\" />" : "\">");
     }
 
-    /** Get the encrypted value for the hidden _sourcePage field. */
+    /** Get the encrypted or signed value for the hidden _sourcePage field. */
     protected String getSourcePageValue() {
         HttpServletRequest request = (HttpServletRequest) getPageContext().getRequest();
-        return CryptoUtil.encrypt(request.getServletPath());
+        return CryptoUtil.encryptToken(request.getServletPath());
     }
 
     /**
@@ -342,7 +342,7 @@ public class FormTag extends HtmlTagSupport implements BodyTag, TryCatchFinally,
         out.write(isXmlTags() ? "\" />" : "\">");
     }
 
-    /** Get the encrypted value of the __fp hidden field. */
+    /** Get the encrypted or signed value of the __fp hidden field. */
     protected String getFieldsPresentValue() {
         // Figure out what set of names to include
         Set<String> namesToInclude = new HashSet<String>();
@@ -360,9 +360,9 @@ public class FormTag extends HtmlTagSupport implements BodyTag, TryCatchFinally,
             }
         }
 
-        // Combine the names into a delimited String and encrypt it
+        // Combine the names into a delimited String and encrypt or sign it
         String hiddenFieldValue = HtmlUtil.combineValues(namesToInclude);
-        return CryptoUtil.encrypt(hiddenFieldValue);
+        return CryptoUtil.encryptToken(hiddenFieldValue);
     }
 
     /**
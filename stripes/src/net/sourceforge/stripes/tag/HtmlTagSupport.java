@@ -23,7 +23,6 @@ import javax.servlet.jsp.JspWriter;
 import javax.servlet.jsp.tagext.BodyContent;
 import javax.servlet.jsp.tagext.DynamicAttributes;
 import java.io.IOException;
-import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -39,7 +38,7 @@ public abstract class HtmlTagSupport extends StripesTagSupport implements Dynami
     private static final Log log = Log.getInstance(HtmlTagSupport.class);
 
     /** Map containing all attributes of the tag. */
-    private final Map<String,String> attributes = new HashMap<String,String>();
+    private final AttributeMap attributes = new AttributeMap();
 
     /** Storage for a BodyContent instance, should the eventual child class implement BodyTag. */
     private BodyContent bodyContent;
@@ -197,23 +196,21 @@ public abstract class HtmlTagSupport extends StripesTagSupport implements Dynami
 
     /**
      * For every attribute stored in the attributes map for this tag, writes out the tag
-     * attributes in the form x="y".  All attributes are HTML encoded before being written
-     * to the page to ensure that HTML special characters are rendered properly.
+     * attributes in the form x="y".  All attributes are HTML encoded as they are written
+     * to the page to ensure that HTML special characters are rendered properly.  Attributes are
+     * written in the order in which they were first set.
      *
      * @param writer the JspWriter to write the open tag to
      * @throws IOException if the JspWriter causes an exception
      */
     protected void writeAttributes(JspWriter writer) throws IOException {
-        for (Map.Entry<String,String> attr: getAttributes().entrySet() ) {
-            // Skip the output of blank attributes!
-            String value = attr.getValue();
-            if (value == null) continue;
-
-            writer.print(" ");
-            writer.print(attr.getKey());
-            writer.print("=\"");
-            writer.print( HtmlUtil.encode(value) );
-            writer.print("\"");
+        AttributeMap attributes = this.attributes;
+        for (int i = 0, n = attributes.size(); i < n; i++) {
+            writer.write(' ');
+            writer.write(attributes.nameAt(i));
+            writer.write("=\"");
+            HtmlUtil.encodeAttribute(attributes.valueAt(i), writer);
+            writer.write('"');
         }
     }
 
@@ -19,16 +19,23 @@ import net.sourceforge.stripes.localization.LocalizationUtility;
 import net.sourceforge.stripes.util.bean.BeanUtil;
 import net.sourceforge.stripes.util.bean.ExpressionException;
 import net.sourceforge.stripes.util.bean.BeanComparator;
+import net.sourceforge.stripes.util.HtmlUtil;
 import net.sourceforge.stripes.util.StringUtil;
 import net.sourceforge.stripes.util.CollectionUtil;
+import net.sourceforge.stripes.validation.ValidationMetadata;
 
 import javax.servlet.jsp.JspException;
 import javax.servlet.jsp.JspWriter;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Locale;
 import java.util.Collections;
 import java.util.List;
 import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * <p>Writes a set of {@literal <option value="foo">bar</option>} tags to the page based on the
@@ -90,6 +97,12 @@ import java.util.LinkedList;
  *
  * <p>Since the tag has no use for one it does not allow a body.</p>
  *
+ * <p>If the cacheKey attribute is set, the options are rendered only the first time the tag is
+ * used with that key and the same servlet context, locale and HTML attributes. The markup is kept in memory and
+ * later uses of the tag write it out again without looking at the collection, determining only
+ * which options are selected. The key must change whenever the options would. Options for a
+ * field whose values are encrypted, and empty lists of options, are never cached.</p>
+ *
  * @author Tim Fennell
  */
 public class InputOptionsCollectionTag extends HtmlTagSupport {
@@ -112,6 +125,39 @@ public class InputOptionsCollectionTag extends HtmlTagSupport {
     private String sort;
     private String group;
     private Boolean localizeLabels;
+    private String cacheKey;
+
+    /** The maximum number of rendered option lists that are kept in {@link #optionsCache}. */
+    private static final int MAX_CACHED_OPTIONS = 256;
+
+    /** The attribute that is spliced into cached options that are selected. */
+    private static final String SELECTED = " selected=\"selected\"";
+
+    /**
+     * Option markup that was rendered ahead of time. The markup is split wherever the selected
+     * attribute of an option would be written, so there is one more segment than there are
+     * values. The values are kept unformatted so that the select tag can format them with its
+     * own formatType and formatPattern when deciding which options are selected.
+     */
+    private static class CachedOptions {
+        final String[] segments;
+        final Object[] values;
+
+        CachedOptions(String[] segments, Object[] values) {
+            this.segments = segments;
+            this.values = values;
+        }
+    }
+
+    /**
+     * Rendered options, keyed by servlet context, cache key, locale and HTML attributes. The
+     * cache is cleared when it fills up and when the Stripes filter is destroyed.
+     */
+    private static final Map<List<Object>, CachedOptions> optionsCache =
+            new ConcurrentHashMap<List<Object>, CachedOptions>();
+
+    /** The cached options found by {@link #findCachedOptions()}, if any. */
+    private CachedOptions cachedOptions;
 
     /**
      * A little container class that holds an entry in the collection of items being used
@@ -219,6 +265,46 @@ public class InputOptionsCollectionTag extends HtmlTagSupport {
         return localizeLabels;
     }
 
+    /**
+     * Sets the key under which the rendered options are cached. If null, which is the default,
+     * the options are not cached.
+     */
+    public void setCacheKey(String cacheKey) {
+        this.cacheKey = cacheKey;
+    }
+
+    /** Gets the key under which the rendered options are cached. */
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    /** Discards all options that have been cached by tags that set the cacheKey attribute. */
+    public static void clearOptionsCache() {
+        optionsCache.clear();
+    }
+
+    /** Gets the key used to look up the options in the cache, or null if there is none. */
+    private List<Object> getOptionsCacheKey() {
+        if (this.cacheKey == null)
+            return null;
+
+        return Arrays.<Object>asList(getPageContext().getServletContext(), this.cacheKey,
+                getPageContext().getRequest().getLocale(), getAttributes().toString());
+    }
+
+    /**
+     * Checks whether options have already been rendered and cached for this tag's cacheKey. If
+     * so, they will be written by {@link #doEndTag()} and subclasses can skip generating the
+     * entries.
+     *
+     * @return true if cached options were found
+     */
+    protected boolean findCachedOptions() {
+        List<Object> key = getOptionsCacheKey();
+        this.cachedOptions = key == null ? null : optionsCache.get(key);
+        return this.cachedOptions != null;
+    }
+
     protected boolean isAttemptToLocalizeLabels() {
         return (localizeLabels == null) || (localizeLabels != null && localizeLabels.booleanValue());
     }
@@ -255,7 +341,7 @@ public class InputOptionsCollectionTag extends HtmlTagSupport {
      */
     @Override
     public int doStartTag() throws JspException {
-      if (this.collection == null)
+      if (this.collection == null || findCachedOptions())
         return SKIP_BODY;
 
         String labelProperty = getLabel();
@@ -317,24 +403,17 @@ public class InputOptionsCollectionTag extends HtmlTagSupport {
      */
     @Override
     public int doEndTag() throws JspException {
-        // Determine if we're going to be sorting the collection
-        List<Entry> sortedEntries = new LinkedList<Entry>(this.entries);
-        if (this.sort != null) {
-            String[] props = StringUtil.standardSplit(this.sort);
-            for (int i=0;i<props.length;++i) {
-                if (!props[i].equals("label") && !props[i].equals("value")) {
-                    props[i] = "bean." + props[i];
-                }
-            }
-
-            Collections.sort(sortedEntries,
-                             new BeanComparator(getPageContext().getRequest().getLocale(), props));
-        }
-
         InputOptionTag tag = new InputOptionTag();
         tag.setParent(this);
         tag.setPageContext(getPageContext());
 
+        if (this.cacheKey != null && writeCachedOptions(tag)) {
+            this.entries.clear();
+            this.cachedOptions = null;
+            return EVAL_PAGE;
+        }
+
+        List<Entry> sortedEntries = getSortedEntries();
         Object lastGroup = null;
 
         JspWriter out = getPageContext().getOut();
@@ -385,6 +464,135 @@ public class InputOptionsCollectionTag extends HtmlTagSupport {
         return EVAL_PAGE;
     }
 
+    /** Returns a copy of the entries, sorted if the sort attribute is set. */
+    private List<Entry> getSortedEntries() {
+        // Determine if we're going to be sorting the collection
+        List<Entry> sortedEntries = new LinkedList<Entry>(this.entries);
+        if (this.sort != null) {
+            String[] props = StringUtil.standardSplit(this.sort);
+            for (int i=0;i<props.length;++i) {
+                if (!props[i].equals("label") && !props[i].equals("value")) {
+                    props[i] = "bean." + props[i];
+                }
+            }
+
+            Collections.sort(sortedEntries,
+                             new BeanComparator(getPageContext().getRequest().getLocale(), props));
+        }
+        return sortedEntries;
+    }
+
+    /**
+     * Writes the options from the cache, rendering and caching them first if they were not
+     * found by {@link #findCachedOptions()}. The options are rendered the same way
+     * {@link InputOptionTag} would render them, except that the selected attribute is left out
+     * and added for each request as the options are written.
+     *
+     * @param tag an option tag whose parent is this tag, used to format the option values
+     * @return false if the options cannot be cached because there are none, which happens when
+     *         the collection is null, or because the field is encrypted
+     */
+    private boolean writeCachedOptions(InputOptionTag tag) throws JspException {
+        InputSelectTag selectTag = getParentTag(InputSelectTag.class);
+        if (selectTag == null) {
+            throw new StripesJspException
+                    ("Option tags must always be contained inside a select tag.");
+        }
+
+        CachedOptions options = this.cachedOptions;
+        if (options == null) {
+            if (this.entries.isEmpty())
+                return false;
+
+            ValidationMetadata validate = tag.getValidationMetadata();
+            if (validate != null && validate.encrypted())
+                return false;
+
+            options = renderOptions(tag);
+            if (optionsCache.size() >= MAX_CACHED_OPTIONS)
+                optionsCache.clear();
+            optionsCache.put(getOptionsCacheKey(), options);
+        }
+
+        try {
+            JspWriter out = getPageContext().getOut();
+            String[] segments = options.segments;
+            Object[] values = options.values;
+            for (int i = 0; i < values.length; i++) {
+                out.write(segments[i]);
+                if (selectTag.isOptionSelected(values[i], false))
+                    out.write(SELECTED);
+            }
+            out.write(segments[values.length]);
+        }
+        catch (IOException ioe) {
+            throw new JspException("IOException in InputOptionsCollectionTag.doEndTag().", ioe);
+        }
+
+        return true;
+    }
+
+    /** Renders the entries into option markup that can be cached. */
+    private CachedOptions renderOptions(InputOptionTag tag) throws JspException {
+        List<Entry> sortedEntries = getSortedEntries();
+        String[] segments = new String[sortedEntries.size() + 1];
+        Object[] values = new Object[sortedEntries.size()];
+        StringWriter out = new StringWriter();
+        Object lastGroup = null;
+        int index = 0;
+
+        try {
+            for (Entry entry : sortedEntries) {
+                if (entry.group != null && !entry.group.equals(lastGroup)) {
+                    if (lastGroup != null)
+                        out.write("</optgroup>");
+
+                    out.write("<optgroup label=\"");
+                    HtmlUtil.encodeAttribute(String.valueOf(entry.group), out);
+                    out.write("\">");
+
+                    lastGroup = entry.group;
+                }
+
+                // Mirror the label and value logic of InputOptionTag
+                String label = entry.label == null ? null : HtmlUtil.encode(entry.label.toString());
+                Object value = entry.value == null ? label : entry.value;
+                values[index] = value;
+
+                out.write("<option");
+                for (Map.Entry<String, String> attribute : getAttributes().entrySet()) {
+                    if (!"value".equals(attribute.getKey())) {
+                        out.write(' ');
+                        out.write(attribute.getKey());
+                        out.write("=\"");
+                        HtmlUtil.encodeAttribute(attribute.getValue(), out);
+                        out.write('"');
+                    }
+                }
+                out.write(" value=\"");
+                HtmlUtil.encodeAttribute(tag.format(value, false), out);
+                out.write('"');
+
+                segments[index++] = out.toString();
+                out.getBuffer().setLength(0);
+
+                out.write('>');
+                if (label != null)
+                    out.write(label);
+                out.write("</option>");
+            }
+
+            if (lastGroup != null)
+                out.write("</optgroup>");
+            segments[index] = out.toString();
+        }
+        catch (IOException ioe) {
+            throw new JspException("IOException in InputOptionsCollectionTag.doEndTag().", ioe);
+        }
+
+        return new CachedOptions(segments, values);
+    }
+
     /**
      * Sets the name of the property that will be fetched on each bean in the collection in
      * order to generate optgroups. A new optgroup will be created each time the value changes.
@@ -85,6 +85,9 @@ public class InputOptionsEnumerationTag extends InputOptionsCollectionTag {
     @Override
     @SuppressWarnings("unchecked")
     public int doStartTag() throws JspException {
+        if (findCachedOptions())
+            return SKIP_BODY;
+
         Class<Enum> clazz = null;
         try {
             clazz = ReflectUtil.findClass(this.className);
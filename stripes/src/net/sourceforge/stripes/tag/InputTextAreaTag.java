@@ -103,7 +103,7 @@ public class InputTextAreaTag extends InputTagSupport implements BodyTag {
                     getPageContext().getOut().write('\n');
                 }
 
-                getPageContext().getOut().write( HtmlUtil.encode(format(value)) );
+                HtmlUtil.encodeText(format(value), getPageContext().getOut());
             }
 
             writeCloseTag(getPageContext().getOut(), "textarea");
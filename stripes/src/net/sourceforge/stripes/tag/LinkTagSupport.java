@@ -198,7 +198,7 @@ public abstract class LinkTagSupport extends HtmlTagSupport implements Parameter
         }
         if (addSourcePage) {
             builder.addParameter(StripesConstants.URL_KEY_SOURCE_PAGE,
-                    CryptoUtil.encrypt(request.getServletPath()));
+                    CryptoUtil.encryptToken(request.getServletPath()));
         }
         if (this.anchor != null) {
             builder.setAnchor(anchor);
@@ -155,7 +155,7 @@ public class WizardFieldsTag extends StripesTagSupport implements TryCatchFinall
         paramNames.addAll(request.getParameterMap().keySet());
         String fieldsPresent = request.getParameter(URL_KEY_FIELDS_PRESENT);
         if (fieldsPresent != null) {
-            paramNames.addAll(HtmlUtil.splitValues(CryptoUtil.decrypt(fieldsPresent)));
+            paramNames.addAll(HtmlUtil.splitValues(CryptoUtil.decryptToken(fieldsPresent)));
         }
         return paramNames;
     }
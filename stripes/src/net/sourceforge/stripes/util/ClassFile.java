@@ -0,0 +1,261 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * <p>
+ * The parts of a class file that are needed to decide whether a class is worth loading. The
+ * name, superclass, interfaces and class-level annotations are read straight from the bytes of
+ * the class file, without loading or linking the class. Methods, fields and the values of
+ * annotations are skipped.
+ * </p>
+ * <p>
+ * All names are binary names in the same form as {@link Class#getName()}, e.g.
+ * {@code net.sourceforge.stripes.action.ActionBean} or {@code com.myco.Outer$Inner}. Only
+ * annotations that are visible at runtime are recorded, since those are the only ones
+ * {@link Class#isAnnotationPresent(Class)} can see.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class ClassFile {
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int ACC_INTERFACE = 0x0200;
+    private static final int ACC_ANNOTATION = 0x2000;
+    private static final String RUNTIME_VISIBLE_ANNOTATIONS = "RuntimeVisibleAnnotations";
+
+    private final String name;
+    private final String superclassName;
+    private final String[] interfaceNames;
+    private final Set<String> annotationNames;
+    private final int access;
+
+    /**
+     * Read a class file from a stream. The stream is read only as far as the end of the class
+     * attributes, and it is not closed.
+     *
+     * @param in a stream that supplies the bytes of a class file
+     * @return the parsed class file
+     * @throws IOException if the stream cannot be read or does not contain a valid class file
+     */
+    public static ClassFile read(InputStream in) throws IOException {
+        return new ClassFile(new DataInputStream(new BufferedInputStream(in)));
+    }
+
+    /** Parse the class file from the stream. */
+    private ClassFile(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("Not a class file");
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        // Keep only the UTF-8 entries and the name indexes of the class entries
+        int count = in.readUnsignedShort();
+        String[] strings = new String[count];
+        int[] classes = new int[count];
+        for (int i = 1; i < count; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+            case 1: // Utf8
+                strings[i] = in.readUTF();
+                break;
+            case 7: // Class
+                classes[i] = in.readUnsignedShort();
+                break;
+            case 8: // String
+            case 16: // MethodType
+            case 19: // Module
+            case 20: // Package
+                skip(in, 2);
+                break;
+            case 15: // MethodHandle
+                skip(in, 3);
+                break;
+            case 3: // Integer
+            case 4: // Float
+            case 9: // Fieldref
+            case 10: // Methodref
+            case 11: // InterfaceMethodref
+            case 12: // NameAndType
+            case 17: // Dynamic
+            case 18: // InvokeDynamic
+                skip(in, 4);
+                break;
+            case 5: // Long
+            case 6: // Double
+                skip(in, 8);
+                ++i; // takes two slots
+                break;
+            default:
+                throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        this.access = in.readUnsignedShort();
+        this.name = getClassName(in.readUnsignedShort(), strings, classes);
+        this.superclassName = getClassName(in.readUnsignedShort(), strings, classes);
+        this.interfaceNames = new String[in.readUnsignedShort()];
+        for (int i = 0; i < interfaceNames.length; i++) {
+            interfaceNames[i] = getClassName(in.readUnsignedShort(), strings, classes);
+        }
+
+        // Skip the fields and methods
+        for (int members = 0; members < 2; members++) {
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                skip(in, 6);
+                skipAttributes(in);
+            }
+        }
+
+        Set<String> annotations = null;
+        for (int i = in.readUnsignedShort(); i > 0; i--) {
+            String attribute = strings[in.readUnsignedShort()];
+            int length = in.readInt();
+            if (RUNTIME_VISIBLE_ANNOTATIONS.equals(attribute)) {
+                int n = in.readUnsignedShort();
+                annotations = new HashSet<String>(n * 2);
+                for (int j = 0; j < n; j++) {
+                    annotations.add(getDescriptorClassName(strings[in.readUnsignedShort()]));
+                    skipElementValuePairs(in);
+                }
+            }
+            else {
+                skip(in, length);
+            }
+        }
+
+        if (annotations == null)
+            this.annotationNames = Collections.emptySet();
+        else
+            this.annotationNames = Collections.unmodifiableSet(annotations);
+    }
+
+    /** Get the binary name of a class from its index in the constant pool. */
+    private static String getClassName(int index, String[] strings, int[] classes) {
+        return index == 0 ? null : strings[classes[index]].replace('/', '.');
+    }
+
+    /** Get the binary name of a class from a field descriptor such as {@code Lcom/myco/Foo;}. */
+    private static String getDescriptorClassName(String descriptor) {
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    /** Skip exactly {@code n} bytes of the stream. */
+    private static void skip(DataInputStream in, int n) throws IOException {
+        while (n > 0) {
+            int skipped = in.skipBytes(n);
+            if (skipped <= 0) {
+                if (in.read() < 0)
+                    throw new EOFException();
+                skipped = 1;
+            }
+            n -= skipped;
+        }
+    }
+
+    /** Skip a table of attributes. */
+    private static void skipAttributes(DataInputStream in) throws IOException {
+        for (int i = in.readUnsignedShort(); i > 0; i--) {
+            skip(in, 2);
+            skip(in, in.readInt());
+        }
+    }
+
+    /** Skip the element-value pairs of an annotation. */
+    private static void skipElementValuePairs(DataInputStream in) throws IOException {
+        for (int i = in.readUnsignedShort(); i > 0; i--) {
+            skip(in, 2);
+            skipElementValue(in);
+        }
+    }
+
+    /** Skip a single element value of an annotation. */
+    private static void skipElementValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+        case 'e': // enum
+            skip(in, 4);
+            break;
+        case '@': // nested annotation
+            skip(in, 2);
+            skipElementValuePairs(in);
+            break;
+        case '[': // array
+            for (int i = in.readUnsignedShort(); i > 0; i--)
+                skipElementValue(in);
+            break;
+        default: // constant or class
+            skip(in, 2);
+        }
+    }
+
+    /** Get the binary name of the class. */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Get the binary name of the superclass, or null if the class is {@link Object}. For an
+     * interface this is always {@code java.lang.Object}.
+     */
+    public String getSuperclassName() {
+        return superclassName;
+    }
+
+    /** Get the binary names of the interfaces the class directly implements or extends. */
+    public String[] getInterfaceNames() {
+        return interfaceNames.clone();
+    }
+
+    /** Get the binary names of the runtime-visible annotations on the class. */
+    public Set<String> getAnnotationNames() {
+        return annotationNames;
+    }
+
+    /**
+     * Check if the class is directly annotated with an annotation. Annotations that are
+     * inherited from a superclass are not considered.
+     *
+     * @param annotationName the binary name of an annotation type
+     */
+    public boolean isAnnotationPresent(String annotationName) {
+        return annotationNames.contains(annotationName);
+    }
+
+    /** Returns true if the class is an interface, including annotation types. */
+    public boolean isInterface() {
+        return (access & ACC_INTERFACE) != 0;
+    }
+
+    /** Returns true if the class is an annotation type. */
+    public boolean isAnnotation() {
+        return (access & ACC_ANNOTATION) != 0;
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFile[" + name + "]";
+    }
+}
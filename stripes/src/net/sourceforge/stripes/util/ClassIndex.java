@@ -0,0 +1,435 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.zip.ZipEntry;
+
+/**
+ * <p>
+ * An index of the classes that implement or extend a type within a package and its
+ * subpackages, generated when an application is built so that {@link ResolverUtil} does not
+ * have to scan the class path when the application starts. When
+ * {@link ResolverUtil#findImplementations(Class, String...)} is asked for implementations of
+ * a type in a package that is covered by the index, it loads the classes named in the index
+ * instead of listing and reading the class files in the package. Packages that are not
+ * covered by the index are scanned as usual.
+ * </p>
+ * <p>
+ * An entry in the index covers a package, and all its subpackages, for the type with which
+ * it was generated and for all subtypes of that type. An index of the ActionBeans in
+ * {@code com.myco.web} also answers searches for subclasses of an abstract ActionBean in
+ * {@code com.myco.web.admin}. To cover the extensions in {@code ActionResolver.Packages} and
+ * {@code Extension.Packages}, which are searched for many different types, generate the entry
+ * for {@code java.lang.Object}.
+ * </p>
+ * <p>
+ * The index is read from every resource named {@value #RESOURCE} visible to the ClassLoader,
+ * so each jar and the classes directory of a web application can carry its own index. An
+ * entry must list every matching class in its package, no matter which jar or directory it
+ * came from, or the classes that are missing will not be found.
+ * </p>
+ * <p>
+ * The index is generated by running this class with the path of the index file followed by
+ * one or more arguments of the form {@code type=package[,package...]}, with the compiled
+ * classes and their dependencies on the class path. For example, using Ant:
+ * </p>
+ *
+ * <pre>
+ * &lt;java classname="net.sourceforge.stripes.util.ClassIndex" classpathref="build.classpath"
+ *       fork="true" failonerror="true"&gt;
+ *   &lt;arg value="${classes.dir}/META-INF/stripes/class-index"/&gt;
+ *   &lt;arg value="net.sourceforge.stripes.action.ActionBean=com.myco.web"/&gt;
+ *   &lt;arg value="java.lang.Object=com.myco.extensions"/&gt;
+ * &lt;/java&gt;
+ * </pre>
+ *
+ * <p>
+ * The index must be generated again whenever classes in the covered packages are added,
+ * removed or change their supertypes. When an index is read from a directory or a jar, the
+ * class files in the packages it covers in that same directory or jar are checked, and if any
+ * of them is newer than the index then the index is ignored with a warning and the packages
+ * are scanned instead. Classes in other directories or jars cannot be checked. The packages
+ * covered by each index that is used are logged at INFO level.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class ClassIndex {
+    /** The name of the resource from which the index is read. */
+    public static final String RESOURCE = "META-INF/stripes/class-index";
+
+    private static final Log log = Log.getInstance(ClassIndex.class);
+
+    /** Indexes that have already been read, by ClassLoader. */
+    private static final Map<ClassLoader, ClassIndex> indexes = Collections
+            .synchronizedMap(new WeakHashMap<ClassLoader, ClassIndex>());
+
+    /** The classes that implement or extend one type in one package. */
+    private static class Entry {
+        final String packageName;
+        final String typeName;
+        final List<String> classNames;
+
+        Entry(String packageName, String typeName, List<String> classNames) {
+            this.packageName = packageName;
+            this.typeName = typeName;
+            this.classNames = classNames;
+        }
+    }
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * Get the index that is made up of all the index resources visible to a ClassLoader. The
+     * index is read only once for each ClassLoader.
+     *
+     * @param classLoader the ClassLoader from which to read the index
+     * @return the index, which is empty if there are no index resources
+     */
+    public static ClassIndex getInstance(ClassLoader classLoader) {
+        ClassIndex index = indexes.get(classLoader);
+        if (index == null) {
+            index = new ClassIndex();
+            try {
+                for (URL url : Collections.list(classLoader.getResources(RESOURCE))) {
+                    log.debug("Reading class index from ", url);
+                    ClassIndex part = new ClassIndex();
+                    Reader reader = new InputStreamReader(url.openStream(), "UTF-8");
+                    try {
+                        part.read(reader);
+                    }
+                    finally {
+                        reader.close();
+                    }
+
+                    if (part.isStale(url)) {
+                        log.warn("Ignoring class index ", url, " because it is older than some ",
+                                "of the classes it covers. Generate the index again to avoid ",
+                                "scanning these packages: ", part.getCoverage());
+                    }
+                    else {
+                        log.info("Using class index ", url, " for ", part.getCoverage());
+                        index.entries.addAll(part.entries);
+                    }
+                }
+            }
+            catch (IOException e) {
+                log.warn(e, "Could not read class index. Classes will be found by scanning.");
+                index = new ClassIndex();
+            }
+            indexes.put(classLoader, index);
+        }
+        return index;
+    }
+
+    /** Returns true if the index does not cover any packages. */
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Add an entry to the index.
+     *
+     * @param packageName the package, including subpackages, that the entry covers
+     * @param typeName the name of the type that the classes implement or extend
+     * @param classNames the names of all the classes in the package that implement or extend
+     *            the type, including the type itself if it is in the package
+     */
+    public void add(String packageName, String typeName, Collection<String> classNames) {
+        entries.add(new Entry(packageName, typeName, new ArrayList<String>(classNames)));
+    }
+
+    /**
+     * Get the names of the classes in a package, and its subpackages, that might implement or
+     * extend a type. The names include every class that does, but they may include others that
+     * do not if the index entry was generated for a supertype of the given type.
+     *
+     * @param packageName the name of the package
+     * @param type the type that the classes must implement or extend
+     * @return the class names, or null if the index does not cover the package for the type
+     */
+    public List<String> getClassNames(String packageName, Class<?> type) {
+        Set<String> typeNames = null;
+        List<String> classNames = null;
+        for (Entry entry : entries) {
+            if (!isSubpackage(packageName, entry.packageName))
+                continue;
+
+            if (typeNames == null)
+                typeNames = getTypeNames(type);
+            if (!typeNames.contains(entry.typeName))
+                continue;
+
+            if (classNames == null)
+                classNames = new ArrayList<String>();
+            for (String className : entry.classNames) {
+                if (isSubpackage(className, packageName))
+                    classNames.add(className);
+            }
+        }
+        return classNames;
+    }
+
+    /** Returns a description of the packages and types that the index covers, for logging. */
+    String getCoverage() {
+        StringBuilder coverage = new StringBuilder();
+        for (Entry entry : entries) {
+            if (coverage.length() > 0)
+                coverage.append(", ");
+            coverage.append(entry.packageName).append(" (").append(entry.typeName).append(')');
+        }
+        return coverage.toString();
+    }
+
+    /**
+     * Checks whether the index read from a URL is older than any of the class files in the
+     * packages it covers that are in the same directory or jar as the index. Indexes read from
+     * other kinds of URL are never considered stale.
+     *
+     * @param url the URL from which the index was read
+     * @return true if a class file covered by the index is newer than the index
+     */
+    boolean isStale(URL url) {
+        try {
+            if ("file".equals(url.getProtocol())) {
+                File file = new File(url.toURI());
+                File root = file;
+                for (int i = RESOURCE.split("/").length; i > 0 && root != null; i--)
+                    root = root.getParentFile();
+                if (root == null)
+                    return false;
+
+                for (Entry entry : entries) {
+                    File directory = new File(root, entry.packageName.replace('.', '/'));
+                    if (getNewestClassFile(directory) > file.lastModified())
+                        return true;
+                }
+            }
+            else {
+                URLConnection connection = url.openConnection();
+                if (connection instanceof JarURLConnection) {
+                    connection.setUseCaches(false);
+                    JarFile jar = ((JarURLConnection) connection).getJarFile();
+                    try {
+                        ZipEntry index = jar.getEntry(RESOURCE);
+                        if (index == null)
+                            return false;
+
+                        for (JarEntry jarEntry : Collections.list(jar.entries())) {
+                            if (jarEntry.getTime() > index.getTime()
+                                    && isCoveredClassFile(jarEntry.getName()))
+                                return true;
+                        }
+                    }
+                    finally {
+                        jar.close();
+                    }
+                }
+            }
+        }
+        catch (Exception e) {
+            log.debug(e, "Could not check whether class index ", url, " is up to date");
+        }
+        return false;
+    }
+
+    /** Returns the time at which the newest class file in a directory tree was modified. */
+    private static long getNewestClassFile(File directory) {
+        long newest = 0;
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory())
+                    newest = Math.max(newest, getNewestClassFile(file));
+                else if (file.getName().endsWith(".class"))
+                    newest = Math.max(newest, file.lastModified());
+            }
+        }
+        return newest;
+    }
+
+    /** Returns true if a resource name is a class file in a package covered by the index. */
+    private boolean isCoveredClassFile(String name) {
+        if (!name.endsWith(".class"))
+            return false;
+
+        String className = name.substring(0, name.length() - 6).replace('/', '.');
+        for (Entry entry : entries) {
+            if (isSubpackage(className, entry.packageName))
+                return true;
+        }
+        return false;
+    }
+
+    /** Returns true if the name equals the package name or starts with it followed by a dot. */
+    private static boolean isSubpackage(String name, String packageName) {
+        return name.startsWith(packageName)
+                && (name.length() == packageName.length()
+                        || name.charAt(packageName.length()) == '.');
+    }
+
+    /** Get the names of a type and all of its supertypes. */
+    private static Set<String> getTypeNames(Class<?> type) {
+        Set<String> names = new HashSet<String>();
+        names.add(Object.class.getName()); // interfaces have no superclass
+
+        List<Class<?>> queue = new LinkedList<Class<?>>();
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            Class<?> c = queue.remove(0);
+            if (c != null) {
+                names.add(c.getName());
+                queue.add(c.getSuperclass());
+                Collections.addAll(queue, c.getInterfaces());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Read entries from the text form of an index and add them to this index.
+     *
+     * @param reader supplies the index
+     * @throws IOException if the index cannot be read or is malformed
+     */
+    public void read(Reader reader) throws IOException {
+        BufferedReader in = new BufferedReader(reader);
+        List<String> classNames = null;
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            else if (line.startsWith("[") && line.endsWith("]")) {
+                String[] header = line.substring(1, line.length() - 1).trim().split("\\s+");
+                if (header.length != 2)
+                    throw new IOException("Malformed class index entry: " + line);
+
+                classNames = new ArrayList<String>();
+                entries.add(new Entry(header[0], header[1], classNames));
+            }
+            else if (classNames == null) {
+                throw new IOException("Class name outside of a class index entry: " + line);
+            }
+            else {
+                classNames.add(line);
+            }
+        }
+    }
+
+    /**
+     * Write the text form of this index. Each entry is a line containing the package name and
+     * the type name in square brackets, followed by one line for each class name.
+     *
+     * @param writer the writer to which the index is written
+     * @throws IOException if the index cannot be written
+     */
+    public void write(Writer writer) throws IOException {
+        writer.write("# Stripes class index, generated by " + getClass().getName() + "\n");
+        for (Entry entry : entries) {
+            writer.write("[" + entry.packageName + " " + entry.typeName + "]\n");
+            for (String className : entry.classNames) {
+                writer.write(className);
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Generate an index by scanning the class path. Any index that is already on the class
+     * path is ignored.
+     *
+     * @param typesAndPackages strings of the form {@code type=package[,package...]}
+     * @return the generated index
+     * @throws ClassNotFoundException if one of the types cannot be loaded
+     */
+    public static ClassIndex generate(String... typesAndPackages) throws ClassNotFoundException {
+        ClassIndex index = new ClassIndex();
+        for (String arg : typesAndPackages) {
+            int eq = arg.indexOf('=');
+            if (eq < 1)
+                throw new IllegalArgumentException("Expected type=package[,package...]: " + arg);
+
+            Class<?> type = ReflectUtil.findClass(arg.substring(0, eq).trim());
+            for (String packageName : StringUtil.standardSplit(arg.substring(eq + 1))) {
+                ResolverUtil<Object> resolver = new ResolverUtil<Object>();
+                resolver.setClassIndex(new ClassIndex());
+                resolver.findImplementations(type, packageName);
+
+                List<String> classNames = new ArrayList<String>();
+                for (Class<?> c : resolver.getClasses()) {
+                    classNames.add(c.getName());
+                }
+                Collections.sort(classNames);
+                index.add(packageName, type.getName(), classNames);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Generate an index and write it to a file.
+     *
+     * @param args the path of the index file followed by one or more strings of the form
+     *            {@code type=package[,package...]}
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: java " + ClassIndex.class.getName()
+                    + " <index file> <type>=<package>[,<package>...] ...");
+            System.exit(1);
+        }
+
+        String[] typesAndPackages = new String[args.length - 1];
+        System.arraycopy(args, 1, typesAndPackages, 0, typesAndPackages.length);
+        ClassIndex index = generate(typesAndPackages);
+
+        File file = new File(args[0]);
+        if (file.getParentFile() != null)
+            file.getParentFile().mkdirs();
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            index.write(writer);
+        }
+        finally {
+            writer.close();
+        }
+    }
+}
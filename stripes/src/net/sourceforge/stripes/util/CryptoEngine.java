@@ -0,0 +1,306 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * <p>
+ * Encrypts and authenticates byte arrays for {@link CryptoUtil}. Values are encrypted with AES in
+ * CBC mode under a random IV and then authenticated with HMAC-SHA256 (encrypt-then-MAC). The
+ * output is laid out as {@code version | IV | ciphertext | tag}. Any change to the output, or an
+ * attempt to decrypt it with a different key, is detected by the tag before the ciphertext is
+ * decrypted.
+ * </p>
+ * <p>
+ * The engine is constructed with a current key and any number of previous keys. Values are always
+ * encrypted with the current key, but values that were encrypted with a previous key can still be
+ * decrypted, which allows keys to be rotated without invalidating pages that users already have
+ * open. The engine can also sign values without encrypting them (see {@link #sign(byte[])}) for
+ * callers that need a deterministic, tamper-proof token instead of a secret. The AES and HMAC
+ * keys are derived from the encoded form of each {@link SecretKey}, so any key with at least
+ * {@value #MIN_KEY_LENGTH} bytes of key material can be used.
+ * </p>
+ * <p>
+ * Looking up a {@link Cipher} or {@link Mac} from the security providers is far more expensive than
+ * the encryption itself. Each operation borrows a {@link Cipher}, a {@link Mac} per key and a
+ * {@link SecureRandom} from a small pool that belongs to the engine, and returns them when it is
+ * done. Nothing is held by the threads that use the engine, so discarding the engine releases
+ * everything it created. Instances of this class are thread-safe.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+class CryptoEngine {
+    /** The transformation used to encrypt values. */
+    public static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+
+    /** The algorithm used to authenticate encrypted values. */
+    public static final String MAC_ALGORITHM = "HmacSHA256";
+
+    /** The minimum number of bytes of key material required to build an engine. */
+    public static final int MIN_KEY_LENGTH = 16;
+
+    /** Identifies the output format. Input that starts with any other byte is rejected. */
+    private static final byte VERSION = 1;
+
+    /** The size of the AES block and the IV. */
+    private static final int IV_SIZE = 16;
+
+    /** The number of bytes of the HMAC that are kept as the authentication tag. */
+    private static final int TAG_SIZE = 16;
+
+    /** The smallest possible output: version, IV, one cipher block and the tag. */
+    private static final int MIN_OUTPUT_SIZE = 1 + IV_SIZE + IV_SIZE + TAG_SIZE;
+
+    /** The maximum number of idle {@link State}s kept in the pool. */
+    private static final int MAX_POOLED_STATES = 32;
+
+    /** The AES and HMAC keys derived from one {@link SecretKey}. */
+    private static class KeyPair {
+        final SecretKeySpec cipherKey, macKey, signingKey;
+
+        KeyPair(SecretKey key) throws GeneralSecurityException {
+            byte[] material = key.getEncoded();
+            if (material == null || material.length < MIN_KEY_LENGTH) {
+                throw new IllegalArgumentException("Key material for algorithm "
+                        + key.getAlgorithm() + " is unavailable or shorter than "
+                        + MIN_KEY_LENGTH + " bytes");
+            }
+
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(material, MAC_ALGORITHM));
+            this.cipherKey = new SecretKeySpec(mac.doFinal(new byte[] { 1 }), 0, 16, "AES");
+            this.macKey = new SecretKeySpec(mac.doFinal(new byte[] { 2 }), MAC_ALGORITHM);
+            this.signingKey = new SecretKeySpec(mac.doFinal(new byte[] { 3 }), MAC_ALGORITHM);
+        }
+    }
+
+    /** The objects that are used by one operation at a time. */
+    private class State {
+        final Cipher cipher;
+        final Mac[] macs, signingMacs;
+        final SecureRandom random = new SecureRandom();
+        final byte[] iv = new byte[IV_SIZE];
+
+        State() throws GeneralSecurityException {
+            this.cipher = Cipher.getInstance(TRANSFORMATION);
+            this.macs = new Mac[keys.length];
+            this.signingMacs = new Mac[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                macs[i] = Mac.getInstance(MAC_ALGORITHM);
+                macs[i].init(keys[i].macKey);
+                signingMacs[i] = Mac.getInstance(MAC_ALGORITHM);
+                signingMacs[i].init(keys[i].signingKey);
+            }
+        }
+    }
+
+    private final KeyPair[] keys;
+    private final ConcurrentLinkedQueue<State> pool = new ConcurrentLinkedQueue<State>();
+    private final AtomicInteger pooled = new AtomicInteger();
+
+    /**
+     * Create a new engine.
+     * 
+     * @param key the key with which values are encrypted
+     * @param previousKeys keys with which values were encrypted before and which must still be
+     *            accepted when decrypting, in order of preference
+     * @throws GeneralSecurityException if the JVM does not support AES or HMAC-SHA256
+     * @throws IllegalArgumentException if any key does not provide enough key material
+     */
+    public CryptoEngine(SecretKey key, SecretKey... previousKeys) throws GeneralSecurityException {
+        this.keys = new KeyPair[1 + previousKeys.length];
+        this.keys[0] = new KeyPair(key);
+        for (int i = 0; i < previousKeys.length; i++)
+            this.keys[i + 1] = new KeyPair(previousKeys[i]);
+
+        // Fail now instead of on the first request if the transformation is not supported
+        release(borrow());
+    }
+
+    /** Get the number of previous keys that are accepted when decrypting. */
+    public int getPreviousKeyCount() {
+        return keys.length - 1;
+    }
+
+    /**
+     * Encrypt and authenticate part of a byte array with the current key.
+     * 
+     * @param input the array that holds the bytes to encrypt
+     * @param offset the offset of the first byte to encrypt
+     * @param length the number of bytes to encrypt
+     * @return the encrypted bytes
+     * @throws GeneralSecurityException if encryption fails
+     */
+    public byte[] encrypt(byte[] input, int offset, int length) throws GeneralSecurityException {
+        State state = borrow();
+        try {
+            Cipher cipher = state.cipher;
+            byte[] iv = state.iv;
+            state.random.nextBytes(iv);
+            cipher.init(Cipher.ENCRYPT_MODE, keys[0].cipherKey, new IvParameterSpec(iv));
+
+            byte[] output = new byte[1 + IV_SIZE + cipher.getOutputSize(length) + TAG_SIZE];
+            output[0] = VERSION;
+            System.arraycopy(iv, 0, output, 1, IV_SIZE);
+            int end = 1 + IV_SIZE + cipher.doFinal(input, offset, length, output, 1 + IV_SIZE);
+
+            Mac mac = state.macs[0];
+            mac.update(output, 0, end);
+            System.arraycopy(mac.doFinal(), 0, output, end, TAG_SIZE);
+            return output;
+        }
+        finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Verify and decrypt a byte array that was returned by {@link #encrypt(byte[], int, int)},
+     * trying the current key first and then each of the previous keys.
+     * 
+     * @param input the encrypted bytes
+     * @return the decrypted bytes, or null if the input was altered or was not encrypted with any
+     *         of the keys known to this engine
+     * @throws GeneralSecurityException if decryption fails for any other reason
+     */
+    public byte[] decrypt(byte[] input) throws GeneralSecurityException {
+        if (input == null || input.length < MIN_OUTPUT_SIZE || input[0] != VERSION
+                || (input.length - MIN_OUTPUT_SIZE) % IV_SIZE != 0)
+            return null;
+
+        State state = borrow();
+        try {
+            int end = input.length - TAG_SIZE;
+            for (int i = 0; i < keys.length; i++) {
+                Mac mac = state.macs[i];
+                mac.update(input, 0, end);
+                if (isTagValid(mac.doFinal(), input, end)) {
+                    Cipher cipher = state.cipher;
+                    cipher.init(Cipher.DECRYPT_MODE, keys[i].cipherKey,
+                            new IvParameterSpec(input, 1, IV_SIZE));
+                    return cipher.doFinal(input, 1 + IV_SIZE, end - 1 - IV_SIZE);
+                }
+            }
+
+            return null;
+        }
+        finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Sign a byte array with the current key. The output is the authentication tag followed by
+     * the unencrypted input. Unlike {@link #encrypt(byte[], int, int)}, signing the same input
+     * always gives the same output. Signing uses a different key than encryption, so signed
+     * values cannot be passed off as encrypted values or vice versa.
+     * 
+     * @param input the bytes to sign
+     * @return the tag and the input
+     * @throws GeneralSecurityException if signing fails
+     */
+    public byte[] sign(byte[] input) throws GeneralSecurityException {
+        byte[] output = new byte[TAG_SIZE + input.length];
+        State state = borrow();
+        try {
+            System.arraycopy(state.signingMacs[0].doFinal(input), 0, output, 0, TAG_SIZE);
+        }
+        finally {
+            release(state);
+        }
+        System.arraycopy(input, 0, output, TAG_SIZE, input.length);
+        return output;
+    }
+
+    /**
+     * Verify a byte array that was returned by {@link #sign(byte[])}, trying the current key first
+     * and then each of the previous keys.
+     * 
+     * @param input the signed bytes
+     * @return the bytes that were signed, or null if the input was altered or was not signed with
+     *         any of the keys known to this engine
+     * @throws GeneralSecurityException if verification fails for any other reason
+     */
+    public byte[] verify(byte[] input) throws GeneralSecurityException {
+        if (input == null || input.length < TAG_SIZE)
+            return null;
+
+        State state = borrow();
+        try {
+            for (Mac mac : state.signingMacs) {
+                mac.update(input, TAG_SIZE, input.length - TAG_SIZE);
+                if (isTagValid(mac.doFinal(), input, 0)) {
+                    byte[] output = new byte[input.length - TAG_SIZE];
+                    System.arraycopy(input, TAG_SIZE, output, 0, output.length);
+                    return output;
+                }
+            }
+
+            return null;
+        }
+        finally {
+            release(state);
+        }
+    }
+
+    /** Take an idle {@link State} from the pool, or create one if the pool is empty. */
+    private State borrow() throws GeneralSecurityException {
+        State state = pool.poll();
+        if (state == null)
+            return new State();
+
+        pooled.decrementAndGet();
+        return state;
+    }
+
+    /**
+     * Return a {@link State} to the pool, unless the pool is full. The {@link Mac}s are reset and
+     * the {@link Cipher} is initialized before every use, so a state can be reused even if the
+     * operation that borrowed it failed.
+     */
+    private void release(State state) {
+        for (int i = 0; i < keys.length; i++) {
+            state.macs[i].reset();
+            state.signingMacs[i].reset();
+        }
+        if (pooled.incrementAndGet() <= MAX_POOLED_STATES)
+            pool.offer(state);
+        else
+            pooled.decrementAndGet();
+    }
+
+    /**
+     * Compare the computed HMAC to the tag at the end of the input in time that does not depend on
+     * how many of the bytes match.
+     */
+    private static boolean isTagValid(byte[] hmac, byte[] input, int offset) {
+        int diff = 0;
+        for (int i = 0; i < TAG_SIZE; i++)
+            diff |= hmac[i] ^ input[offset + i];
+        return diff == 0;
+    }
+}
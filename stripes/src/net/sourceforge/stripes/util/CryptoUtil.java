@@ -14,8 +14,12 @@
  */
 package net.sourceforge.stripes.util;
 
+import java.io.UnsupportedEncodingException;
 import java.security.MessageDigest;
 import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.crypto.BadPaddingException;
 import javax.crypto.Cipher;
@@ -23,15 +27,17 @@ import javax.crypto.IllegalBlockSizeException;
 import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.DESedeKeySpec;
+import javax.crypto.spec.SecretKeySpec;
 
 import net.sourceforge.stripes.config.Configuration;
 import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
 
 /**
- * <p>Cryptographic utility that can encrypt and decrypt Strings using a key stored in
- * HttpSession.  Strings are encrypted by default using a 168bit DEDede (triple DES) key
- * and then Base 64 encoded in a way that is compatible with being inserte into web pages.</p>
+ * <p>Cryptographic utility that can encrypt and decrypt Strings and byte arrays using a key shared
+ * by the whole web application. Values are encrypted using 128bit AES and authenticated using
+ * HMAC-SHA256. Encrypted Strings are Base 64 encoded in a way that is compatible with being
+ * inserted into web pages and URLs.</p>
  *
  * <p>A single encryption key is used to encrypt values for all sessions in the web application.
  * The key can come from multiple sources. Without any configuration the key will be generated
@@ -43,54 +49,138 @@ import net.sourceforge.stripes.exception.StripesRuntimeException;
  * configured this way the same key will be used across all nodes in a cluster and across
  * restarts.</p>
  *
+ * <p>Keys can be rotated without breaking the pages that users already have open. When the key is
+ * changed, move the old key text to the configuration parameter
+ * <code>Stripes.PreviousEncryptionKeys</code>. Values are always encrypted with the current key,
+ * but values that were encrypted with any of the previous keys can still be decrypted. Multiple
+ * previous keys are separated by commas.</p>
+ *
  * <p>Finally a key can be specified by calling {@link #setSecretKey(javax.crypto.SecretKey)} and
  * providing your own {@link SecretKey} instance. This method allows the specification of any
- * key from any source.  In addition the provided key can be for any algorithm supported by
- * the JVM in which it is constructed.  CryptoUtil will then use the algorithm returned by
- * {@link javax.crypto.SecretKey#getAlgorithm()}.  If using this method, the key should be set
+ * key from any source, as long as it provides at least 16 bytes of encoded key material, from
+ * which the AES and HMAC keys are derived. Previous keys can be specified by calling
+ * {@link #setPreviousSecretKeys(SecretKey...)}. If using these methods, the keys should be set
  * before any requests are made, e.g. in a {@link javax.servlet.ServletContextListener}.</p>
  *
- * <p>Two additional measures are taken to improve security. Firstly a nonce value is prepended
- * to the input during encryption.  This is a value generated each time using a SecureRandom.
- * Doing this ensures that the same value is not encrypted the same way each time and leads to
- * increased unpredictability of the encrypted values.  Secondly a "magic number" is also
- * prepended to the input (after the nonce).  The magic number is verified at decryption time
- * to ensure that the value passed in was encrypted using the same key as was used for decryption.</p>
+ * <p>Values that Stripes generates for its own use, like the name of the source page and the
+ * list of fields present in a form, are passed through {@link #encryptToken(String)} and
+ * {@link #decryptToken(String)}. By default these methods simply encrypt and decrypt. If the
+ * configuration parameter <code>Stripes.DeterministicTokens</code> is set to true, they instead
+ * sign the value with an HMAC, so that the same value always yields the same token. Tokens are
+ * then cached in both directions, so rendering and verifying the same token again costs only a
+ * map lookup. <b>Note: deterministic tokens are tamper-proof but not secret; the value can be read
+ * by anyone who decodes the token.</b> Tokens in either form are accepted regardless of the
+ * setting, so it can be changed without breaking pages that users already have open.</p>
+ *
+ * <p>Encryption is randomized, so the same value is not encrypted the same way twice, and any
+ * change to an encrypted value is detected during decryption. Values that were altered or that
+ * were not encrypted with a known key decrypt to null. The {@link javax.crypto.Cipher} and
+ * {@link javax.crypto.Mac} instances that do the work are pooled and reused.</p>
+ *
+ * <p><b>Upgrading from Stripes 1.5:</b> earlier versions encrypted values with triple DES. Those
+ * values cannot be decrypted with the new format, so by default they decrypt to null and a
+ * warning is logged. Forms and links that were rendered before the upgrade then fail validation
+ * once. To accept them during a transition, set the configuration parameter
+ * <code>Stripes.LegacyDecryption</code> to true. Values that fail to decrypt are then tried once
+ * more with the old algorithm, using a key derived from <code>Stripes.EncryptionKey</code> the
+ * way earlier versions did, or the key passed to {@link #setLegacySecretKey(SecretKey)}. The old
+ * format is not authenticated, so turn this off once the old values have expired.</p>
  *
  * @author Tim Fennell
  * @since Stripes 1.2
  */
 public class CryptoUtil {
     private static final Log log = Log.getInstance(CryptoUtil.class);
-    private static final SecureRandom random = new SecureRandom();
 
-    /** The algorithm that is used to encrypt values. */
-    public static final String ALGORITHM = "DESede";
+    /** The algorithm of the secret keys generated by this class. */
+    public static final String ALGORITHM = "AES";
 
     /** Key used to look up the location of a secret key. */
     public static final String CONFIG_ENCRYPTION_KEY = "Stripes.EncryptionKey";
 
-    /** Minimum number of bytes to raise the key material to before generating a key. */
-    private static final int MIN_KEY_BYTES = 128;
+    /** Key used to look up the comma-separated keys that were used before the current key. */
+    public static final String CONFIG_PREVIOUS_ENCRYPTION_KEYS = "Stripes.PreviousEncryptionKeys";
+
+    /** Key used to look up whether framework-generated values are signed instead of encrypted. */
+    public static final String CONFIG_DETERMINISTIC_TOKENS = "Stripes.DeterministicTokens";
+
+    /** Key used to look up whether values encrypted by Stripes 1.5 are still accepted. */
+    public static final String CONFIG_LEGACY_DECRYPTION = "Stripes.LegacyDecryption";
+
+    /** The algorithm that was used to encrypt values before Stripes 1.6. */
+    private static final String LEGACY_ALGORITHM = "DESede";
+
+    /** Minimum number of bytes to raise the legacy key material to before generating a key. */
+    private static final int LEGACY_KEY_BYTES = 128;
 
-    /** The number of bytes that should be used to generate the nonce value. */
+    /** The number of bytes that were used to generate the legacy nonce value. */
     private static final int NONCE_SIZE = 2;
 
-    /** A seed number used when generating a hash code from a byte array. */
+    /** A seed number used when generating a legacy hash code from a byte array. */
     private static final int HASH_CODE_SEED = 5381;
 
-    /** The number of bytes required to hold the hash code (sizeof short) */
+    /** The number of bytes required to hold the legacy hash code (sizeof short) */
     private static final int HASH_CODE_SIZE = 2;
 
-    /** Short hand for the combined size of the nonce + magic number. */
+    /** Short hand for the combined size of the legacy nonce + magic number. */
     private static final int DISCARD_BYTES = NONCE_SIZE + HASH_CODE_SIZE;
 
-    /** The options used for Base64 Encoding. */
-    private static final int BASE64_OPTIONS = Base64.URL_SAFE | Base64.DONT_BREAK_LINES;
+    /** The options that were used for Base64 encoding legacy values. */
+    private static final int LEGACY_BASE64_OPTIONS = Base64.URL_SAFE | Base64.DONT_BREAK_LINES;
+
+    /** The first character of a signed token. It is not part of the Base 64 alphabet. */
+    private static final char TOKEN_PREFIX = '~';
+
+    /** The maximum number of tokens cached in each direction. */
+    private static final int TOKEN_CACHE_SIZE = 1024;
+
+    /** Number of bytes in the keys generated by this class. */
+    private static final int KEY_BYTES = 32;
+
+    /** The character set used to convert Strings to and from bytes. */
+    private static final String CHARSET = "UTF-8";
+
+    /** The URL-safe Base 64 alphabet. */
+    private static final char[] BASE64_ALPHABET =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    /** Maps characters to their positions in {@link #BASE64_ALPHABET}, or -1 if not present. */
+    private static final byte[] BASE64_DECODABET = new byte[128];
+    static {
+        Arrays.fill(BASE64_DECODABET, (byte) -1);
+        for (int i = 0; i < BASE64_ALPHABET.length; i++)
+            BASE64_DECODABET[BASE64_ALPHABET[i]] = (byte) i;
+    }
 
     /** Secret key to be used o encrypt and decrypt values. */
     private static SecretKey secretKey;
 
+    /** Keys that were used before the current key, or null if they have not been loaded. */
+    private static SecretKey[] previousKeys;
+
+    /** The engine that encrypts and decrypts with the current keys. */
+    private static volatile CryptoEngine engine;
+
+    /** Whether deterministic tokens are enabled, or null if the configuration was not read yet. */
+    private static volatile Boolean deterministicTokens;
+
+    /** Whether legacy values are accepted, or null if the configuration was not read yet. */
+    private static volatile Boolean legacyDecryption;
+
+    /** The key with which legacy values were encrypted, or null if it has not been derived. */
+    private static SecretKey legacySecretKey;
+
+    /** Used only by the deprecated {@link #nextNonce()}. */
+    private static final SecureRandom random = new SecureRandom();
+
+    /** Maps values to the signed tokens generated for them. */
+    private static final ConcurrentMap<String, String> signedTokens =
+            new ConcurrentHashMap<String, String>();
+
+    /** Maps signed tokens that have been verified to the values they contain. */
+    private static final ConcurrentMap<String, String> verifiedTokens =
+            new ConcurrentHashMap<String, String>();
+
     /**
      * Takes in a String, encrypts it and then base64 encodes the resulting byte[] so that it can be
      * transmitted and stored as a String. Can be decrypted by a subsequent call to
@@ -110,29 +200,9 @@ public class CryptoUtil {
             return input;
 
         try {
-            // First size the output
-            Cipher cipher = getCipher(Cipher.ENCRYPT_MODE);
-            byte[] inbytes = input.getBytes();
-            final int inputLength = inbytes.length;
-            int size = cipher.getOutputSize(DISCARD_BYTES + inputLength);
-            byte[] output = new byte[size];
-
-            // Then encrypt along with the nonce and the hash code
-            byte[] nonce = nextNonce();
-            byte[] hash = generateHashCode(nonce, inbytes);
-            int index = cipher.update(hash, 0, HASH_CODE_SIZE, output, 0);
-            index = cipher.update(nonce, 0, NONCE_SIZE, output, index);
-            if (inbytes.length == 0) {
-                cipher.doFinal(output, index);
-            }
-            else {
-                cipher.doFinal(inbytes, 0, inbytes.length, output, index);
-            }
-
-            // Then base64 encode the bytes
-            return Base64.encodeBytes(output, BASE64_OPTIONS);
+            return encodeBase64(encrypt(input.getBytes(CHARSET)));
         }
-        catch (Exception e) {
+        catch (UnsupportedEncodingException e) {
             throw new StripesRuntimeException("Could not encrypt value.", e);
         }
     }
@@ -155,55 +225,303 @@ public class CryptoUtil {
             return input;
 
         // First un-base64 the String
-        byte[] bytes = Base64.decode(input, BASE64_OPTIONS);
+        byte[] bytes = decodeBase64(input);
         if (bytes == null || bytes.length < 1) {
-            log.warn("Input is not Base64 encoded: ", input);
+            String legacy = isLegacyDecryption() ? decryptLegacy(input) : null;
+            if (legacy == null)
+                log.warn("Input is not Base64 encoded: ", input);
+            return legacy;
+        }
+
+        // Then verify and decrypt the bytes
+        byte[] output = decrypt(bytes);
+        if (output == null) {
+            String legacy = isLegacyDecryption() ? decryptLegacy(input) : null;
+            if (legacy == null)
+                log.warn("Input was not encrypted with the current encryption key: ", input);
+            return legacy;
+        }
+
+        try {
+            return new String(output, CHARSET);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new StripesRuntimeException("Could not decrypt value.", e);
+        }
+    }
+
+    /**
+     * Encrypts a byte array. Unlike {@link #encrypt(String)}, this method encrypts the input
+     * even in debug mode, and the output is not encoded in any way. Can be decrypted by a
+     * subsequent call to {@link #decrypt(byte[])}.
+     * 
+     * @param input the bytes to encrypt
+     * @return the encrypted bytes
+     */
+    public static byte[] encrypt(byte[] input) {
+        try {
+            return getEngine().encrypt(input, 0, input.length);
+        }
+        catch (Exception e) {
+            throw new StripesRuntimeException("Could not encrypt value.", e);
+        }
+    }
+
+    /**
+     * Decrypts a byte array that was generated by a call to {@link #encrypt(byte[])}. The
+     * current key is tried first, followed by each of the previous keys.
+     * 
+     * @param input the bytes to decrypt
+     * @return the decrypted bytes, or null if the input is null, was altered or was not
+     *         encrypted with a known key
+     */
+    public static byte[] decrypt(byte[] input) {
+        if (input == null)
             return null;
+
+        try {
+            return getEngine().decrypt(input);
+        }
+        catch (Exception e) {
+            throw new StripesRuntimeException("Could not decrypt value.", e);
+        }
+    }
+
+    /**
+     * Converts a value that Stripes generated for its own use into a tamper-proof String. If
+     * deterministic tokens are enabled, the value is signed and the resulting token is cached.
+     * Otherwise, this method is equivalent to {@link #encrypt(String)}. Can be decoded by a
+     * subsequent call to {@link #decryptToken(String)}.
+     *
+     * @param input the String to protect
+     * @return the token
+     */
+    public static String encryptToken(String input) {
+        if (input == null)
+            input = "";
+
+        Configuration configuration = StripesFilter.getConfiguration();
+        if (!isDeterministicTokens() || (configuration != null && configuration.isDebugMode()))
+            return encrypt(input);
+
+        String token = signedTokens.get(input);
+        if (token == null) {
+            try {
+                token = TOKEN_PREFIX + encodeBase64(getEngine().sign(input.getBytes(CHARSET)));
+            }
+            catch (Exception e) {
+                throw new StripesRuntimeException("Could not sign value.", e);
+            }
+            cacheToken(signedTokens, input, token);
+        }
+        return token;
+    }
+
+    /**
+     * Decodes a String that was generated by a call to {@link #encryptToken(String)}. Signed
+     * tokens are verified, or looked up in the cache of tokens that were verified before. Any
+     * other input is passed to {@link #decrypt(String)}.
+     *
+     * @param input the token to verify or decrypt
+     * @return the original value, or null if the input is null or is not a valid token
+     */
+    public static String decryptToken(String input) {
+        if (input == null || input.length() == 0 || input.charAt(0) != TOKEN_PREFIX)
+            return decrypt(input);
+
+        // encryption is disabled in debug mode
+        Configuration configuration = StripesFilter.getConfiguration();
+        if (configuration != null && configuration.isDebugMode())
+            return input;
+
+        String value = verifiedTokens.get(input);
+        if (value == null) {
+            byte[] bytes = decodeBase64(input.substring(1));
+            try {
+                bytes = getEngine().verify(bytes);
+                if (bytes == null) {
+                    log.warn("Input was not signed with the current encryption key: ", input);
+                    return null;
+                }
+                value = new String(bytes, CHARSET);
+            }
+            catch (Exception e) {
+                throw new StripesRuntimeException("Could not verify value.", e);
+            }
+            cacheToken(verifiedTokens, input, value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns true if {@link #encryptToken(String)} signs values instead of encrypting them. The
+     * setting is read from the configuration parameter {@value #CONFIG_DETERMINISTIC_TOKENS} the
+     * first time it is needed, unless it was set by calling
+     * {@link #setDeterministicTokens(boolean)}.
+     */
+    public static boolean isDeterministicTokens() {
+        Boolean enabled = CryptoUtil.deterministicTokens;
+        if (enabled == null) {
+            Configuration config = StripesFilter.getConfiguration();
+            if (config == null)
+                return false;
+
+            String value = config.getBootstrapPropertyResolver().getProperty(
+                    CONFIG_DETERMINISTIC_TOKENS);
+            enabled = Boolean.valueOf(value != null && Boolean.valueOf(value.trim()));
+            CryptoUtil.deterministicTokens = enabled;
+        }
+        return enabled;
+    }
+
+    /**
+     * Sets whether {@link #encryptToken(String)} signs values instead of encrypting them,
+     * overriding the configuration parameter {@value #CONFIG_DETERMINISTIC_TOKENS}.
+     *
+     * @param enabled true to sign values; false to encrypt them
+     */
+    public static void setDeterministicTokens(boolean enabled) {
+        CryptoUtil.deterministicTokens = enabled;
+    }
+
+    /**
+     * Returns true if values that were encrypted by Stripes 1.5 are still decrypted. The setting
+     * is read from the configuration parameter {@value #CONFIG_LEGACY_DECRYPTION} the first time
+     * it is needed, unless it was set by calling {@link #setLegacyDecryption(boolean)}.
+     */
+    public static boolean isLegacyDecryption() {
+        Boolean enabled = CryptoUtil.legacyDecryption;
+        if (enabled == null) {
+            Configuration config = StripesFilter.getConfiguration();
+            if (config == null)
+                return false;
+
+            String value = config.getBootstrapPropertyResolver().getProperty(
+                    CONFIG_LEGACY_DECRYPTION);
+            enabled = Boolean.valueOf(value != null && Boolean.valueOf(value.trim()));
+            CryptoUtil.legacyDecryption = enabled;
         }
+        return enabled;
+    }
+
+    /**
+     * Sets whether values that were encrypted by Stripes 1.5 are still decrypted, overriding the
+     * configuration parameter {@value #CONFIG_LEGACY_DECRYPTION}.
+     *
+     * @param enabled true to accept legacy values; false to reject them
+     */
+    public static void setLegacyDecryption(boolean enabled) {
+        CryptoUtil.legacyDecryption = enabled;
+    }
+
+    /**
+     * Returns the key with which Stripes 1.5 encrypted values. Unless it was set by calling
+     * {@link #setLegacySecretKey(SecretKey)}, it is derived from the configuration parameter
+     * {@value #CONFIG_ENCRYPTION_KEY} the way earlier versions derived it. If no key was
+     * configured, earlier versions used a random key that did not survive a restart, and null is
+     * returned.
+     *
+     * @return the legacy key, or null if there is none
+     */
+    protected static synchronized SecretKey getLegacySecretKey() {
+        if (CryptoUtil.legacySecretKey == null) {
+            byte[] material = getKeyMaterialFromConfig();
+            if (material == null)
+                return null;
+
+            try {
+                MessageDigest digest = MessageDigest.getInstance("SHA1");
+                int length = digest.getDigestLength();
+                byte[] hashed = new byte[LEGACY_KEY_BYTES];
+                for (int i = 0; i < hashed.length; i += length) {
+                    material = digest.digest(material);
+                    System.arraycopy(material, 0, hashed, i,
+                            Math.min(length, LEGACY_KEY_BYTES - i));
+                }
+
+                SecretKeyFactory factory = SecretKeyFactory.getInstance(LEGACY_ALGORITHM);
+                CryptoUtil.legacySecretKey = factory.generateSecret(new DESedeKeySpec(hashed));
+            }
+            catch (Exception e) {
+                throw new StripesRuntimeException("Could not generate the legacy secret key.", e);
+            }
+        }
+
+        return CryptoUtil.legacySecretKey;
+    }
+
+    /**
+     * Sets the key with which Stripes 1.5 encrypted values. Applications that passed their own key
+     * to {@link #setSecretKey(SecretKey)} before upgrading should pass the same key here.
+     *
+     * @param key the key that was used to encrypt legacy values
+     */
+    public static synchronized void setLegacySecretKey(SecretKey key) {
+        CryptoUtil.legacySecretKey = key;
+    }
+
+    /**
+     * Decrypts a value that was encrypted by Stripes 1.5, which encrypted the input with the
+     * legacy key after a two-byte hash code and a two-byte nonce.
+     *
+     * @param input the Base 64 encoded value
+     * @return the decrypted value, or null if it is not a valid legacy value
+     */
+    private static String decryptLegacy(String input) {
+        SecretKey key = getLegacySecretKey();
+        if (key == null)
+            return null;
+
+        byte[] bytes = Base64.decode(input, LEGACY_BASE64_OPTIONS);
+        if (bytes == null || bytes.length < 1)
+            return null;
 
-        // Then fetch a cipher and decrypt the bytes
-        Cipher cipher = getCipher(Cipher.DECRYPT_MODE);
         byte[] output;
         try {
+            Cipher cipher = Cipher.getInstance(key.getAlgorithm());
+            cipher.init(Cipher.DECRYPT_MODE, key);
             output = cipher.doFinal(bytes);
         }
         catch (IllegalBlockSizeException e) {
-            log.warn("Input was not encrypted with the current encryption key: ", input);
             return null;
         }
         catch (BadPaddingException e) {
-            log.warn("Input was not encrypted with the current encryption key: ", input);
             return null;
         }
+        catch (Exception e) {
+            throw new StripesRuntimeException("Could not decrypt legacy value.", e);
+        }
 
-        // Check the hash code so we don't eat garbage
-        if (!checkHashCode(output)) {
-            log.warn("Input was not encrypted with the current encryption key: ", input);
+        if (!checkHashCode(output))
             return null;
-        }
 
+        log.debug("Accepted a value encrypted by an earlier version of Stripes: ", input);
         return new String(output, DISCARD_BYTES, output.length - DISCARD_BYTES);
     }
 
     /**
-     * Gets the secret key that should be used to encrypt and decrypt values for the
-     * current request.  If a key does not already exist in Session, one is created and
-     * then deposited there for use later.
+     * Gets the engine that encrypts and decrypts values with the current and previous keys,
+     * creating it if necessary.
      *
-     * @return a SecretKey that can be used to manufacture Ciphers
+     * @return a CryptoEngine
      */
-    protected static Cipher getCipher(int mode) {
-        try {
-            SecretKey key = getSecretKey();
-
-            // Then build a cipher for the correct mode
-            Cipher cipher = Cipher.getInstance(key.getAlgorithm());
-            cipher.init(mode, key);
-            return cipher;
-        }
-        catch (Exception e) {
-            throw new StripesRuntimeException("Could not generate a Cipher.", e);
+    protected static CryptoEngine getEngine() {
+        CryptoEngine engine = CryptoUtil.engine;
+        if (engine == null) {
+            synchronized (CryptoUtil.class) {
+                engine = CryptoUtil.engine;
+                if (engine == null) {
+                    try {
+                        engine = new CryptoEngine(getSecretKey(), getPreviousSecretKeys());
+                    }
+                    catch (Exception e) {
+                        throw new StripesRuntimeException("Could not initialize encryption.", e);
+                    }
+                    CryptoUtil.engine = engine;
+                }
+            }
         }
+        return engine;
     }
 
     /**
@@ -216,39 +534,63 @@ public class CryptoUtil {
      * @return SecretKey the secret key used to encrypt and decrypt values
      */
     protected static synchronized SecretKey getSecretKey() {
-        try {
-            if (CryptoUtil.secretKey == null) {
-                // Check to see if a key location was specified in config
-                byte[] material = getKeyMaterialFromConfig();
-
-                // If there wasn't a key string in config, make one
-                if (material == null) {
-                    material = new byte[MIN_KEY_BYTES];
-                    new SecureRandom().nextBytes(material);
-                }
-                // Hash the key string given in config
-                else {
-                    MessageDigest digest = MessageDigest.getInstance("SHA1");
-                    int length = digest.getDigestLength();
-                    byte[] hashed = new byte[MIN_KEY_BYTES];
-                    for (int i = 0; i < hashed.length; i += length) {
-                        material = digest.digest(material);
-                        System.arraycopy(material, 0, hashed, i,
-                                Math.min(length, MIN_KEY_BYTES - i));
-                    }
-                    material = hashed;
-                }
+        if (CryptoUtil.secretKey == null) {
+            // Check to see if a key location was specified in config
+            String material = getKeyMaterialFromConfig(CONFIG_ENCRYPTION_KEY);
+
+            // If there wasn't a key string in config, make one
+            if (material == null) {
+                byte[] random = new byte[KEY_BYTES];
+                new SecureRandom().nextBytes(random);
+                CryptoUtil.secretKey = new SecretKeySpec(random, ALGORITHM);
+            }
+            else {
+                CryptoUtil.secretKey = generateSecretKey(material);
+            }
+        }
+
+        return CryptoUtil.secretKey;
+    }
 
-                // Now manufacture the actual Secret Key instance
-                SecretKeyFactory factory = SecretKeyFactory.getInstance(CryptoUtil.ALGORITHM);
-                CryptoUtil.secretKey = factory.generateSecret(new DESedeKeySpec(material));
+    /**
+     * Returns the keys that were used to encrypt values before the current key. The keys are
+     * generated from the configuration parameter {@value #CONFIG_PREVIOUS_ENCRYPTION_KEYS} the
+     * first time they are requested, unless they were set by calling
+     * {@link #setPreviousSecretKeys(SecretKey...)}.
+     *
+     * @return the previous keys, which may be empty but is never null
+     */
+    protected static synchronized SecretKey[] getPreviousSecretKeys() {
+        if (CryptoUtil.previousKeys == null) {
+            String material = getKeyMaterialFromConfig(CONFIG_PREVIOUS_ENCRYPTION_KEYS);
+            if (material == null) {
+                CryptoUtil.previousKeys = new SecretKey[0];
+            }
+            else {
+                String[] keys = material.split(",");
+                CryptoUtil.previousKeys = new SecretKey[keys.length];
+                for (int i = 0; i < keys.length; i++)
+                    CryptoUtil.previousKeys[i] = generateSecretKey(keys[i].trim());
             }
         }
+
+        return CryptoUtil.previousKeys;
+    }
+
+    /**
+     * Manufactures a secret key from text by hashing it with SHA-256.
+     *
+     * @param material the text from which the key is generated
+     * @return the secret key
+     */
+    protected static SecretKey generateSecretKey(String material) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return new SecretKeySpec(digest.digest(material.getBytes(CHARSET)), ALGORITHM);
+        }
         catch (Exception e) {
             throw new StripesRuntimeException("Could not generate a secret key.", e);
         }
-
-        return CryptoUtil.secretKey;
     }
 
     /**
@@ -256,15 +598,16 @@ public class CryptoUtil {
      * Configuration. If config is unavailable or there is no material configured null
      * will be returned.
      *
-     * @return a byte[] of key material, or null
+     * @param name the name of the configuration parameter
+     * @return the key material, or null
      */
-    protected static byte[] getKeyMaterialFromConfig() {
+    protected static String getKeyMaterialFromConfig(String name) {
         try {
             Configuration config = StripesFilter.getConfiguration();
             if (config != null) {
-                String key = config.getBootstrapPropertyResolver().getProperty(CONFIG_ENCRYPTION_KEY);
-                if (key != null) {
-                    return key.getBytes();
+                String key = config.getBootstrapPropertyResolver().getProperty(name);
+                if (key != null && key.trim().length() > 0) {
+                    return key;
                 }
             }
         }
@@ -276,26 +619,59 @@ public class CryptoUtil {
     }
 
     /**
-     * Sets the secret key that will be used by the CryptoUtil to perform encryption
-     * and decryption.  In general the use of the config property (Stripes.EncryptionKey)
-     * should be preferred, but if specific encryption methods are required, this method
-     * allows the caller to set a SecretKey suitable to any symmetric encryption algorithm
-     * available in the JVM.
+     * Attempts to load material from which to manufacture a secret key from the Stripes
+     * Configuration. If config is unavailable or there is no material configured null
+     * will be returned.
      *
-     * @param key the secret key to be used to encrypt and decrypt values going forward
+     * @return a byte[] of key material, or null
+     * @deprecated Use {@link #getKeyMaterialFromConfig(String)} instead.
      */
-    public static synchronized void setSecretKey(SecretKey key) {
-        CryptoUtil.secretKey = key;
+    @Deprecated
+    protected static byte[] getKeyMaterialFromConfig() {
+        String material = getKeyMaterialFromConfig(CONFIG_ENCRYPTION_KEY);
+        return material == null ? null : material.getBytes();
     }
 
-    /** Generates a nonce value using a secure random. */
+    /**
+     * Builds a cipher for the current secret key and the given mode. CryptoUtil no longer uses
+     * this method: values are encrypted and authenticated by a pooled engine instead.
+     *
+     * @param mode the cipher mode, e.g. {@link Cipher#ENCRYPT_MODE}
+     * @return a Cipher initialized with the current secret key
+     * @deprecated Use {@link #encrypt(byte[])} and {@link #decrypt(byte[])} instead.
+     */
+    @Deprecated
+    protected static Cipher getCipher(int mode) {
+        try {
+            SecretKey key = getSecretKey();
+            Cipher cipher = Cipher.getInstance(key.getAlgorithm());
+            cipher.init(mode, key);
+            return cipher;
+        }
+        catch (Exception e) {
+            throw new StripesRuntimeException("Could not generate a Cipher.", e);
+        }
+    }
+
+    /**
+     * Generates a nonce value using a secure random.
+     *
+     * @deprecated Values are now encrypted under a random IV, which makes the nonce unnecessary.
+     */
+    @Deprecated
     protected static byte[] nextNonce() {
         byte[] nonce = new byte[NONCE_SIZE];
         CryptoUtil.random.nextBytes(nonce);
         return nonce;
     }
 
-    /** Generates and returns a hash code from the given byte arrays */
+    /**
+     * Generates and returns a hash code from the given byte arrays.
+     *
+     * @deprecated Values are now authenticated with an HMAC. This is used only to check values
+     *             that were encrypted by earlier versions.
+     */
+    @Deprecated
     protected static byte[] generateHashCode(byte[]... byteses) {
         long hash = HASH_CODE_SEED;
         for (int i = 0; i < byteses.length; i++) {
@@ -320,7 +696,10 @@ public class CryptoUtil {
      * @param value byte array that contains the hash code and the bytes from which the hash code
      *            was generated
      * @return true if the hash code is valid; otherwise, false
+     * @deprecated Values are now authenticated with an HMAC. This is used only to check values
+     *             that were encrypted by earlier versions.
      */
+    @Deprecated
     protected static boolean checkHashCode(byte[] value) {
         // array must be at least as long as the hash code
         if (value.length < HASH_CODE_SIZE)
@@ -339,4 +718,103 @@ public class CryptoUtil {
         }
         return true;
     }
+
+    /**
+     * Sets the secret key that will be used by the CryptoUtil to perform encryption
+     * and decryption.  In general the use of the config property (Stripes.EncryptionKey)
+     * should be preferred, but if specific keys are required, this method allows the caller
+     * to set a SecretKey of any algorithm whose encoded form is at least 16 bytes long.
+     *
+     * @param key the secret key to be used to encrypt and decrypt values going forward
+     */
+    public static synchronized void setSecretKey(SecretKey key) {
+        CryptoUtil.secretKey = key;
+        resetEngine();
+    }
+
+    /**
+     * Sets the keys that were used before the current key. Values encrypted with any of these
+     * keys will still be decrypted, but new values are encrypted only with the current key.
+     *
+     * @param keys the previous keys, in order of preference
+     */
+    public static synchronized void setPreviousSecretKeys(SecretKey... keys) {
+        CryptoUtil.previousKeys = keys == null ? new SecretKey[0] : keys.clone();
+        resetEngine();
+    }
+
+    /** Discards the engine and any tokens that were signed or verified with the old keys. */
+    private static void resetEngine() {
+        CryptoUtil.engine = null;
+        signedTokens.clear();
+        verifiedTokens.clear();
+    }
+
+    /**
+     * Adds a token to one of the token caches. Tokens come from the client, so a full cache is
+     * cleared instead of being allowed to grow without bound.
+     */
+    private static void cacheToken(ConcurrentMap<String, String> cache, String key, String value) {
+        if (cache.size() >= TOKEN_CACHE_SIZE)
+            cache.clear();
+        cache.put(key, value);
+    }
+
+    /** Encodes bytes using the URL-safe Base 64 alphabet, without padding. */
+    protected static String encodeBase64(byte[] bytes) {
+        char[] chars = new char[(bytes.length * 4 + 2) / 3];
+        int i = 0, j = 0, n = bytes.length - bytes.length % 3;
+        while (i < n) {
+            int bits = (bytes[i++] & 0xff) << 16 | (bytes[i++] & 0xff) << 8 | (bytes[i++] & 0xff);
+            chars[j++] = BASE64_ALPHABET[bits >>> 18];
+            chars[j++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+            chars[j++] = BASE64_ALPHABET[(bits >>> 6) & 0x3f];
+            chars[j++] = BASE64_ALPHABET[bits & 0x3f];
+        }
+        if (i < bytes.length) {
+            int bits = (bytes[i++] & 0xff) << 16;
+            if (i < bytes.length)
+                bits |= (bytes[i] & 0xff) << 8;
+            chars[j++] = BASE64_ALPHABET[bits >>> 18];
+            chars[j++] = BASE64_ALPHABET[(bits >>> 12) & 0x3f];
+            if (j < chars.length)
+                chars[j] = BASE64_ALPHABET[(bits >>> 6) & 0x3f];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Decodes a String that was encoded by {@link #encodeBase64(byte[])}. Returns null if the
+     * String contains characters outside the URL-safe alphabet or has an impossible length.
+     */
+    protected static byte[] decodeBase64(String string) {
+        int length = string.length();
+        if (length % 4 == 1)
+            return null;
+
+        byte[] bytes = new byte[length * 3 / 4];
+        int bits = 0, count = 0, j = 0;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            int value = c < BASE64_DECODABET.length ? BASE64_DECODABET[c] : -1;
+            if (value < 0)
+                return null;
+
+            bits = bits << 6 | value;
+            if (++count == 4) {
+                bytes[j++] = (byte) (bits >>> 16);
+                bytes[j++] = (byte) (bits >>> 8);
+                bytes[j++] = (byte) bits;
+                bits = count = 0;
+            }
+        }
+        if (count == 2) {
+            bytes[j] = (byte) (bits >>> 4);
+        }
+        else if (count == 3) {
+            bytes[j++] = (byte) (bits >>> 10);
+            bytes[j] = (byte) (bits >>> 2);
+        }
+        return bytes;
+    }
 }
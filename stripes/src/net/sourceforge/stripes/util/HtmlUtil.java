@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.util;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -28,6 +30,26 @@ public class HtmlUtil {
     private static final String FIELD_DELIMITER_STRING = "||";
     private static final Pattern FIELD_DELIMITER_PATTERN = Pattern.compile("\\|\\|");
 
+    /*
+     * Replacements for special characters, indexed by character. Single ticks used to be replaced
+     * with &apos; as well, but it turns out that it's not strictly necessary since Stripes uses
+     * double-quotes around all attributes, and stupid IE6 will render &apos; verbatim instead of
+     * as a single quote.
+     */
+
+    /** Replacements used by {@link #encode(String)} and for attribute values. */
+    private static final String[] ATTRIBUTE_ESCAPES = new String['>' + 1];
+
+    /** Replacements used for text nodes, where quotes do not need to be escaped. */
+    private static final String[] TEXT_ESCAPES = new String['>' + 1];
+
+    static {
+        ATTRIBUTE_ESCAPES['<'] = TEXT_ESCAPES['<'] = "&lt;";
+        ATTRIBUTE_ESCAPES['>'] = TEXT_ESCAPES['>'] = "&gt;";
+        ATTRIBUTE_ESCAPES['&'] = TEXT_ESCAPES['&'] = "&amp;";
+        ATTRIBUTE_ESCAPES['"'] = "&quot;";
+    }
+
     /**
      * Replaces special HTML characters from the set {@literal [<, >, ", ', &]} with their HTML
      * escape codes.  Note that because the escape codes are multi-character that the returned
@@ -40,24 +62,80 @@ public class HtmlUtil {
         // If the input is null, then the output is null
         if (fragment == null) return null;
 
+        // If nothing needs to be escaped, then the fragment is returned as is
+        int index = indexOfEscape(fragment, 0, ATTRIBUTE_ESCAPES);
+        if (index < 0) return fragment;
+
         StringBuilder builder = new StringBuilder(fragment.length() + 10); // a little wiggle room
-        char[] characters = fragment.toCharArray();
-
-        // This loop used to also look for and replace single ticks with &apos; but it
-        // turns out that it's not strictly necessary since Stripes uses double-quotes
-        // around all form fields, and stupid IE6 will render &apos; verbatim instead
-        // of as a single quote.
-        for (int i=0; i<characters.length; ++i) {
-            switch (characters[i]) {
-                case '<'  : builder.append("&lt;"); break;
-                case '>'  : builder.append("&gt;"); break;
-                case '"'  : builder.append("&quot;"); break;
-                case '&'  : builder.append("&amp;"); break;
-                default: builder.append(characters[i]);
-            }
+        int start = 0;
+        do {
+            builder.append(fragment, start, index).append(ATTRIBUTE_ESCAPES[fragment.charAt(index)]);
+            start = index + 1;
+            index = indexOfEscape(fragment, start, ATTRIBUTE_ESCAPES);
+        } while (index >= 0);
+
+        return builder.append(fragment, start, fragment.length()).toString();
+    }
+
+    /**
+     * Writes a value that is to be placed in a double-quoted attribute, replacing the same special
+     * HTML characters as {@link #encode(String)}. Runs of characters that do not need to be escaped
+     * are written directly from the value, so nothing is copied or allocated. Nothing is written
+     * if the value is null.
+     *
+     * @param value a value that might have HTML special characters in it
+     * @param out the writer (usually a {@link javax.servlet.jsp.JspWriter}) to write to
+     * @throws IOException if the writer throws one
+     */
+    public static void encodeAttribute(String value, Writer out) throws IOException {
+        write(value, out, ATTRIBUTE_ESCAPES);
+    }
+
+    /**
+     * Writes a value that is to be placed in the text of an element, replacing {@literal <, >}
+     * and {@literal &} with their HTML escape codes. Quotes are not special in text and are
+     * written as they are. Nothing is written if the value is null.
+     *
+     * @param value a value that might have HTML special characters in it
+     * @param out the writer (usually a {@link javax.servlet.jsp.JspWriter}) to write to
+     * @throws IOException if the writer throws one
+     */
+    public static void encodeText(String value, Writer out) throws IOException {
+        write(value, out, TEXT_ESCAPES);
+    }
+
+    /**
+     * Write a value, replacing every character that has a replacement in the given table and
+     * writing the runs of characters in between straight from the value.
+     */
+    private static void write(String value, Writer out, String[] escapes) throws IOException {
+        if (value == null) return;
+
+        int start = 0, index;
+        while ((index = indexOfEscape(value, start, escapes)) >= 0) {
+            if (index > start)
+                out.write(value, start, index - start);
+            out.write(escapes[value.charAt(index)]);
+            start = index + 1;
         }
 
-        return builder.toString();
+        if (start == 0)
+            out.write(value);
+        else if (start < value.length())
+            out.write(value, start, value.length() - start);
+    }
+
+    /**
+     * Get the index of the first character at or after {@code start} that has a replacement in the
+     * given table, or -1 if there is none.
+     */
+    private static int indexOfEscape(String value, int start, String[] escapes) {
+        for (int i = start, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            if (c < escapes.length && escapes[c] != null)
+                return i;
+        }
+        return -1;
     }
 
     /**
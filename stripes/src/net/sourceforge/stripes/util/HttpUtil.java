@@ -79,6 +79,74 @@ public class HttpUtil {
         return path == null ? "" : path;
     }
 
+    /**
+     * <p>
+     * Check the conditional GET headers of a request to determine whether the client's cached copy
+     * of a document is still current. Only GET and HEAD requests are considered. If the request
+     * has an If-None-Match header, then the client's copy is current if the header is {@code *} or
+     * lists the given entity tag. Otherwise, if the request has an If-Modified-Since header, then
+     * the client's copy is current if the document was not modified after that time.
+     * </p>
+     * <p>
+     * Entity tags are compared using the weak comparison function, which is the one RFC 2616
+     * requires for If-None-Match on GET and HEAD requests. Modification times are compared to the
+     * second, since that is the precision of HTTP dates.
+     * </p>
+     * 
+     * @param request the current request
+     * @param eTag the quoted entity tag of the document or null if it is not known
+     * @param lastModified the time the document was last modified or -1 if it is not known
+     * @return true if the request may be answered with 304 Not Modified
+     */
+    public static boolean isNotModified(HttpServletRequest request, String eTag, long lastModified) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method))
+            return false;
+
+        String ifNoneMatch = request.getHeader("If-None-Match");
+        if (ifNoneMatch != null) {
+            if (eTag == null)
+                return false;
+            String opaque = eTag.startsWith("W/") ? eTag.substring(2) : eTag;
+            for (String tag : ifNoneMatch.split(",")) {
+                tag = tag.trim();
+                if (tag.startsWith("W/"))
+                    tag = tag.substring(2);
+                if ("*".equals(tag) || opaque.equals(tag))
+                    return true;
+            }
+            return false;
+        }
+
+        if (lastModified >= 0) {
+            long ifModifiedSince;
+            try {
+                ifModifiedSince = request.getDateHeader("If-Modified-Since");
+            }
+            catch (IllegalArgumentException e) {
+                return false;
+            }
+            return ifModifiedSince >= 0 && lastModified / 1000 <= ifModifiedSince / 1000;
+        }
+
+        return false;
+    }
+
+    /**
+     * Quote an entity tag for use in an ETag header, if it is not already quoted. Weak entity tags
+     * that start with {@code W/} are left alone as well. Entity tags cannot contain quotes, so any
+     * quotes inside an unquoted tag are removed.
+     * 
+     * @param eTag the entity tag
+     * @return the quoted entity tag, or null if {@code eTag} is null
+     */
+    public static String quoteETag(String eTag) {
+        if (eTag == null || eTag.startsWith("\"") || eTag.startsWith("W/\""))
+            return eTag;
+        else
+            return '"' + eTag.replace("\"", "") + '"';
+    }
+
     /** No instances */
     private HttpUtil() {
     }
@@ -0,0 +1,110 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+
+/**
+ * An immutable description of a single property of a class, as determined by
+ * {@link ReflectUtil#getPropertyMetadata(Class, String)}. A property is either a JavaBean
+ * property, with a getter and/or a setter, or a public instance field. The getter, setter and
+ * types are resolved once, when the class is first examined, so reading them never requires
+ * synchronization.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public final class PropertyMetadata {
+    private final String name;
+    private final PropertyDescriptor descriptor;
+    private final Method readMethod, writeMethod;
+    private final Field field;
+    private final Class<?> type;
+    private final Type genericType;
+
+    /** Create metadata for a JavaBean property. */
+    PropertyMetadata(PropertyDescriptor descriptor) {
+        this.name = descriptor.getName();
+        this.descriptor = descriptor;
+        this.readMethod = descriptor.getReadMethod();
+        this.writeMethod = descriptor.getWriteMethod();
+        this.field = null;
+        this.type = descriptor.getPropertyType();
+        if (readMethod != null)
+            this.genericType = readMethod.getGenericReturnType();
+        else if (writeMethod != null)
+            this.genericType = writeMethod.getGenericParameterTypes()[0];
+        else
+            this.genericType = type;
+    }
+
+    /** Create metadata for a public field. */
+    PropertyMetadata(Field field) {
+        this.name = field.getName();
+        this.descriptor = null;
+        this.readMethod = null;
+        this.writeMethod = null;
+        this.field = field;
+        this.type = field.getType();
+        this.genericType = field.getGenericType();
+    }
+
+    /** Get the name of the property. */
+    public String getName() {
+        return name;
+    }
+
+    /** Get the property descriptor, or null if the property is a public field. */
+    public PropertyDescriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /** Get the getter, with any bridge method resolved, or null if there is none. */
+    public Method getReadMethod() {
+        return readMethod;
+    }
+
+    /** Get the setter, with any bridge method resolved, or null if there is none. */
+    public Method getWriteMethod() {
+        return writeMethod;
+    }
+
+    /** Get the public field, or null if the property is a JavaBean property. */
+    public Field getField() {
+        return field;
+    }
+
+    /** Get the type of the property. */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Get the generic type of the property. This is the generic return type of the getter if
+     * there is one, otherwise the generic parameter type of the setter or the generic type of the
+     * field.
+     */
+    public Type getGenericType() {
+        return genericType;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{name=" + name + ", type=" + genericType + "}";
+    }
+}
@@ -32,7 +32,9 @@ import java.util.LinkedList;
 import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.lang.reflect.Field;
@@ -54,9 +56,40 @@ import java.beans.IntrospectionException;
 public class ReflectUtil {
     private static final Log log = Log.getInstance(ReflectUtil.class);
 
-    /** A cache of property descriptors by class and property name */
-    private static Map<Class<?>, Map<String, PropertyDescriptor>> propertyDescriptors =
-            new ConcurrentHashMap<Class<?>, Map<String, PropertyDescriptor>>();
+    /**
+     * An immutable snapshot of the properties of a class. A snapshot is built once per class and
+     * published through {@link ReflectUtil#classMetadata}, after which it is read without locking.
+     */
+    private static final class ClassMetadata {
+        final PropertyDescriptor[] descriptors;
+        final Map<String, PropertyDescriptor> descriptorsByName;
+        final Map<String, PropertyMetadata> properties;
+
+        ClassMetadata(PropertyDescriptor[] descriptors, Field[] fields) {
+            Map<String, PropertyDescriptor> byName = new LinkedHashMap<String, PropertyDescriptor>();
+            Map<String, PropertyMetadata> properties = new HashMap<String, PropertyMetadata>();
+            for (PropertyDescriptor pd : descriptors) {
+                byName.put(pd.getName(), pd);
+                properties.put(pd.getName(), new PropertyMetadata(pd));
+            }
+
+            // Public instance fields are used only where there is no JavaBean property
+            for (Field field : fields) {
+                if (!Modifier.isStatic(field.getModifiers())
+                        && !properties.containsKey(field.getName())) {
+                    properties.put(field.getName(), new PropertyMetadata(field));
+                }
+            }
+
+            this.descriptorsByName = Collections.unmodifiableMap(byName);
+            this.descriptors = byName.values().toArray(new PropertyDescriptor[byName.size()]);
+            this.properties = Collections.unmodifiableMap(properties);
+        }
+    }
+
+    /** A cache of property metadata by class */
+    private static final ConcurrentMap<Class<?>, ClassMetadata> classMetadata =
+            new ConcurrentHashMap<Class<?>, ClassMetadata>();
 
     /** Static helper class, shouldn't be constructed. */
     private ReflectUtil() {}
@@ -250,9 +283,34 @@ public class ReflectUtil {
      * @return the PropertyDescriptor or null if none is found with a matching name
      */
     public static PropertyDescriptor getPropertyDescriptor(Class<?> clazz, String property) {
-        if (!propertyDescriptors.containsKey(clazz))
-            getPropertyDescriptors(clazz);
-        return propertyDescriptors.get(clazz).get(property);
+        return getClassMetadata(clazz).descriptorsByName.get(property);
+    }
+
+    /**
+     * Fetches the metadata for the named property of the supplied class. The property may be
+     * either a JavaBean property, as described by {@link #getPropertyDescriptor(Class, String)},
+     * or a public instance field. JavaBean properties take precedence over fields with the same
+     * name. The metadata is cached along with the class's property descriptors.
+     * 
+     * @param clazz the class whose properties to examine
+     * @param property the name of the property to look for
+     * @return the metadata, or null if the class has no property or public field with that name
+     * @since Stripes 1.6
+     */
+    public static PropertyMetadata getPropertyMetadata(Class<?> clazz, String property) {
+        return getClassMetadata(clazz).properties.get(property);
+    }
+
+    /**
+     * Clears the cache of property information that is maintained by this class. Since the cache
+     * holds references to classes, it should be flushed when the classes it holds are to be
+     * unloaded, for example when a web application that shares a class loader with Stripes is
+     * stopped. The cache is rebuilt as classes are examined again.
+     * 
+     * @since Stripes 1.6
+     */
+    public static void flushCaches() {
+        classMetadata.clear();
     }
 
     /**
@@ -420,16 +478,37 @@ public class ReflectUtil {
      *         {@link BeanInfo#getPropertyDescriptors()}.
      */
     public static PropertyDescriptor[] getPropertyDescriptors(Class<?> clazz) {
-        // Look in the cache first
-        if (propertyDescriptors.containsKey(clazz)) {
-            Collection<PropertyDescriptor> pds = propertyDescriptors.get(clazz).values();
-            return pds.toArray(new PropertyDescriptor[pds.size()]);
+        return getClassMetadata(clazz).descriptors.clone();
+    }
+
+    /**
+     * Get the cached snapshot of the properties of a class, building and caching it first if
+     * necessary. If two threads examine the same class at the same time, both will use whichever
+     * snapshot is cached first.
+     */
+    private static ClassMetadata getClassMetadata(Class<?> clazz) {
+        ClassMetadata metadata = classMetadata.get(clazz);
+        if (metadata == null) {
+            metadata = new ClassMetadata(introspect(clazz), clazz.getFields());
+            ClassMetadata existing = classMetadata.putIfAbsent(clazz, metadata);
+            if (existing != null)
+                metadata = existing;
         }
+        return metadata;
+    }
 
-        // A subclass that is aware of bridge methods
+    /**
+     * Introspect a bean class to get its property descriptors, working around the JVM bug that
+     * causes bridge methods to be returned for some property getters and setters.
+     */
+    private static PropertyDescriptor[] introspect(Class<?> clazz) {
+        /*
+         * A subclass that is aware of bridge methods. The fields are volatile instead of the
+         * accessors being synchronized so that reading a descriptor never acquires a monitor.
+         */
         class BridgedPropertyDescriptor extends PropertyDescriptor {
-            private Method readMethod, writeMethod;
-            private Class<?> propertyType;
+            private volatile Method readMethod, writeMethod;
+            private final Class<?> propertyType;
 
             public BridgedPropertyDescriptor(PropertyDescriptor pd) throws IntrospectionException {
                 super(pd.getName(), pd.getReadMethod(), pd.getWriteMethod());
@@ -439,27 +518,27 @@ public class ReflectUtil {
             }
 
             @Override
-            public synchronized Class<?> getPropertyType() {
+            public Class<?> getPropertyType() {
                 return propertyType;
             }
 
             @Override
-            public synchronized Method getReadMethod() {
+            public Method getReadMethod() {
                 return readMethod;
             }
 
             @Override
-            public synchronized Method getWriteMethod() {
+            public Method getWriteMethod() {
                 return writeMethod;
             }
 
             @Override
-            public synchronized void setReadMethod(Method readMethod) {
+            public void setReadMethod(Method readMethod) {
                 this.readMethod = readMethod;
             }
 
             @Override
-            public synchronized void setWriteMethod(Method writeMethod) {
+            public void setWriteMethod(Method writeMethod) {
                 this.writeMethod = writeMethod;
             }
         }
@@ -470,9 +549,6 @@ public class ReflectUtil {
             PropertyDescriptor[] pds = Introspector.getBeanInfo(clazz).getPropertyDescriptors();
             pds = Arrays.asList(pds).toArray(new PropertyDescriptor[pds.length]);
 
-            // Make a new local cache entry
-            Map<String, PropertyDescriptor> map = new LinkedHashMap<String, PropertyDescriptor>();
-
             // Check each descriptor for bridge methods and handle accordingly
             for (int i = 0; i < pds.length; i++) {
                 PropertyDescriptor pd = pds[i];
@@ -496,12 +572,8 @@ public class ReflectUtil {
                     pd = new BridgedPropertyDescriptor(pd);
                     pds[i] = pd;
                 }
-                map.put(pd.getName(), pd);
             }
 
-            // Put local cache entry
-            propertyDescriptors.put(clazz, map);
-
             return pds;
         }
         catch (IntrospectionException ie) {
@@ -15,10 +15,27 @@
 package net.sourceforge.stripes.util;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import net.sourceforge.stripes.vfs.VFS;
 
@@ -52,6 +69,16 @@ import net.sourceforge.stripes.vfs.VFS;
  *Collection&lt;ActionBean&gt; beans = resolver.getClasses();
  *</pre> 
  *
+ * <p>Tests that implement {@link ClassFileTest}, including {@link IsA} and
+ * {@link AnnotatedWith}, are first applied to the class files themselves, which are read and
+ * parsed without loading the classes. When several packages are searched at once, they are
+ * scanned in parallel. Only the classes that pass are loaded and
+ * offered to {@link Test#matches(Class)}. Other tests are offered every class that is found.</p>
+ *
+ * <p>When searching for implementations of a type in a package that is covered by a
+ * {@link ClassIndex} generated at build time, the classes named in the index are loaded and
+ * tested instead of scanning the package.</p>
+ *
  * @author Tim Fennell
  */
 public class ResolverUtil<T> {
@@ -70,11 +97,28 @@ public class ResolverUtil<T> {
         boolean matches(Class<?> type);
     }
 
+    /**
+     * A Test that can reject classes by looking at their class files before they are loaded.
+     * Classes that pass {@link #matches(ClassFile, ResolverUtil)} are loaded and then must
+     * also pass {@link #matches(Class)}.
+     */
+    public static interface ClassFileTest extends Test {
+        /**
+         * Will be called repeatedly, possibly from several threads at once, with the class
+         * files of candidate classes. Must return true if the class might be included in the
+         * results. When in doubt, return true.
+         *
+         * @param classFile the class file of the candidate class
+         * @param resolver the resolver, which can be used to read the class files of supertypes
+         */
+        boolean matches(ClassFile classFile, ResolverUtil<?> resolver);
+    }
+
     /**
      * A Test that checks to see if each class is assignable to the provided class. Note
      * that this test will match the parent type itself if it is presented for matching.
      */
-    public static class IsA implements Test {
+    public static class IsA implements ClassFileTest {
         private Class<?> parent;
 
         /** Constructs an IsA test using the supplied Class as the parent class/interface. */
@@ -85,6 +129,35 @@ public class ResolverUtil<T> {
             return type != null && parent.isAssignableFrom(type);
         }
 
+        /**
+         * Returns true if the class or any of its supertypes is the parent type, or if a
+         * supertype's class file cannot be read.
+         */
+        public boolean matches(ClassFile classFile, ResolverUtil<?> resolver) {
+            String name = parent.getName();
+            if (Object.class.equals(parent) || name.equals(classFile.getName()))
+                return true;
+
+            List<String> supertypes = new ArrayList<String>();
+            if (classFile.getSuperclassName() != null)
+                supertypes.add(classFile.getSuperclassName());
+            if (parent.isInterface())
+                Collections.addAll(supertypes, classFile.getInterfaceNames());
+
+            for (String supertype : supertypes) {
+                if (name.equals(supertype))
+                    return true;
+                if (Object.class.getName().equals(supertype))
+                    continue;
+
+                ClassFile superClassFile = resolver.getClassFile(supertype);
+                if (superClassFile == null || matches(superClassFile, resolver))
+                    return true;
+            }
+
+            return false;
+        }
+
         @Override public String toString() {
             return "is assignable to " + parent.getSimpleName();
         }
@@ -94,7 +167,7 @@ public class ResolverUtil<T> {
      * A Test that checks to see if each class is annotated with a specific annotation. If it
      * is, then the test returns true, otherwise false.
      */
-    public static class AnnotatedWith implements Test {
+    public static class AnnotatedWith implements ClassFileTest {
         private Class<? extends Annotation> annotation;
 
         /** Constructs an AnnotatedWith test for the specified annotation type. */
@@ -105,6 +178,26 @@ public class ResolverUtil<T> {
             return type != null && type.isAnnotationPresent(annotation);
         }
 
+        /**
+         * Returns true if the class is annotated with the annotation. If the annotation is
+         * {@link Inherited}, the superclasses are checked too.
+         */
+        public boolean matches(ClassFile classFile, ResolverUtil<?> resolver) {
+            String name = annotation.getName();
+            boolean inherited = annotation.isAnnotationPresent(Inherited.class);
+            while (!classFile.isAnnotationPresent(name)) {
+                String superclass = classFile.getSuperclassName();
+                if (!inherited || classFile.isInterface() || superclass == null
+                        || Object.class.getName().equals(superclass))
+                    return false;
+
+                classFile = resolver.getClassFile(superclass);
+                if (classFile == null)
+                    return true;
+            }
+            return true;
+        }
+
         @Override public String toString() {
             return "annotated with @" + annotation.getSimpleName();
         }
@@ -119,6 +212,28 @@ public class ResolverUtil<T> {
      */
     private ClassLoader classloader;
 
+    /** The index of classes generated at build time, loaded on first use. */
+    private ClassIndex classIndex;
+
+    /** Class files that have been read, keyed by class name. */
+    private final ConcurrentMap<String, ClassFile> classFiles = new ConcurrentHashMap<String, ClassFile>();
+
+    /** Names of classes whose class files could not be read. */
+    private final Set<String> unreadableClassFiles = Collections.synchronizedSet(new HashSet<String>());
+
+    /** How long the threads that scan packages are kept when they are idle. */
+    private static final long EXECUTOR_KEEP_ALIVE_SECONDS = 5;
+
+    /** The ExecutorService used to scan packages, created on first use. */
+    private static ExecutorService executor;
+
+    /** The test for which the packages in {@link #scans} are being scanned. */
+    private Test scanTest;
+
+    /** Scans started in the background by {@link #find(Test, String...)}, keyed by package. */
+    private final Map<String, Future<List<String>>> scans =
+            new HashMap<String, Future<List<String>>>();
+
     /**
      * Provides access to the classes discovered so far. If no calls have been made to
      * any of the {@code find()} methods, this set will be empty.
@@ -147,6 +262,26 @@ public class ResolverUtil<T> {
      */
     public void setClassLoader(ClassLoader classloader) { this.classloader = classloader; }
 
+    /**
+     * Returns the index of classes that is consulted before scanning packages. If none has
+     * been set, the index is read from the ClassLoader that will be used for scanning.
+     *
+     * @return the index of classes, which may be empty
+     */
+    public ClassIndex getClassIndex() {
+        if (classIndex == null)
+            classIndex = ClassIndex.getInstance(getClassLoader());
+        return classIndex;
+    }
+
+    /**
+     * Sets the index of classes that is consulted before scanning packages. To always scan,
+     * set an empty index.
+     *
+     * @param classIndex the index of classes
+     */
+    public void setClassIndex(ClassIndex classIndex) { this.classIndex = classIndex; }
+
     /**
      * Attempts to discover classes that are assignable to the type provided. In the case
      * that an interface is provided this method will collect implementations. In the case
@@ -159,12 +294,7 @@ public class ResolverUtil<T> {
     public ResolverUtil<T> findImplementations(Class<?> parent, String... packageNames) {
         if (packageNames == null) return this;
 
-        Test test = new IsA(parent);
-        for (String pkg : packageNames) {
-            find(test, pkg);
-        }
-        
-        return this;
+        return find(new IsA(parent), packageNames);
     }
 
     /**
@@ -177,39 +307,267 @@ public class ResolverUtil<T> {
     public ResolverUtil<T> findAnnotated(Class<? extends Annotation> annotation, String... packageNames) {
         if (packageNames == null) return this;
 
-        Test test = new AnnotatedWith(annotation);
-        for (String pkg : packageNames) {
-            find(test, pkg);
-        }
-        
-        return this;
+        return find(new AnnotatedWith(annotation), packageNames);
     }
 
     /**
      * Scans for classes starting at the package provided and descending into subpackages.
      * Each class is offered up to the Test as it is discovered, and if the Test returns
      * true the class is retained.  Accumulated classes can be fetched by calling
-     * {@link #getClasses()}.
+     * {@link #getClasses()}. If the package is covered by the {@link #getClassIndex() class index}
+     * for an {@link IsA} test, the classes named in the index are tested instead.
      *
      * @param test an instance of {@link Test} that will be used to filter classes
      * @param packageName the name of the package from which to start scanning for
      *        classes, e.g. {@code net.sourceforge.stripes}
      */
     public ResolverUtil<T> find(Test test, String packageName) {
-        String path = getPackagePath(packageName);
+        VFS.beginScan();
+        try {
+            return scan(test, packageName);
+        }
+        finally {
+            VFS.endScan();
+        }
+    }
+
+    /** Does the work of {@link #find(Test, String)} while the {@link VFS} scan is open. */
+    private ResolverUtil<T> scan(Test test, String packageName) {
+        List<String> classNames = getIndexedClassNames(test, packageName);
+        if (classNames != null) {
+            log.debug("Using class index for package ", packageName);
+            for (String className : classNames) {
+                addIfMatching(test, className.replace('.', '/') + ".class");
+            }
+            return this;
+        }
+
+        List<String> paths = null;
+        Future<List<String>> scan = (test == scanTest) ? scans.remove(packageName) : null;
+        if (scan != null) {
+            try {
+                paths = scan.get();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("Interrupted while scanning for classes that ", test);
+                return this;
+            }
+            catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException)
+                    throw (RuntimeException) cause;
+                else if (cause instanceof Error)
+                    throw (Error) cause;
+                else
+                    throw new IllegalStateException(cause);
+            }
+        }
+        else {
+            paths = scanPackage(test, packageName);
+        }
+
+        for (String path : paths) {
+            addIfMatching(test, path);
+        }
+
+        return this;
+    }
+
+    /**
+     * Scans for classes in several packages and their subpackages by calling
+     * {@link #find(Test, String)} for each package in turn. The packages are first scanned in
+     * the background, one task per package, and if the test is a {@link ClassFileTest} then
+     * those tasks also read and test the class files. The classes that pass are then loaded and
+     * offered to the Test one at a time, in the order in which they were found. The listings that
+     * {@link VFS} caches during the scan are discarded when it ends.
+     *
+     * @param test an instance of {@link Test} that will be used to filter classes
+     * @param packageNames the names of the packages from which to start scanning for classes
+     */
+    public ResolverUtil<T> find(final Test test, String... packageNames) {
+        VFS.beginScan();
+        try {
+            if (packageNames.length > 1) {
+                final ClassLoader contextClassLoader =
+                        Thread.currentThread().getContextClassLoader();
+                ExecutorService executor = getExecutor();
+                scanTest = test;
+                for (final String packageName : packageNames) {
+                    if (scans.containsKey(packageName)
+                            || getIndexedClassNames(test, packageName) != null)
+                        continue;
+
+                    scans.put(packageName, executor.submit(new Callable<List<String>>() {
+                        public List<String> call() {
+                            Thread thread = Thread.currentThread();
+                            ClassLoader previous = thread.getContextClassLoader();
+                            thread.setContextClassLoader(contextClassLoader);
+                            try {
+                                return scanPackage(test, packageName);
+                            }
+                            finally {
+                                thread.setContextClassLoader(previous);
+                            }
+                        }
+                    }));
+                }
+            }
+
+            for (String packageName : packageNames) {
+                find(test, packageName);
+            }
+        }
+        finally {
+            // Discard scans that an overridden find(Test, String) did not use
+            for (Future<List<String>> scan : scans.values()) {
+                scan.cancel(true);
+            }
+            scans.clear();
+            scanTest = null;
+            VFS.endScan();
+        }
+
+        return this;
+    }
+
+    /**
+     * Get the names of the classes listed for a package in the {@link #getClassIndex() class
+     * index}, if the test is an {@link IsA} test and the index covers the package.
+     *
+     * @return the class names, or null if the package must be scanned
+     */
+    private List<String> getIndexedClassNames(Test test, String packageName) {
+        if (test instanceof IsA && packageName != null)
+            return getClassIndex().getClassNames(packageName, ((IsA) test).parent);
+        else
+            return null;
+    }
+
+    /**
+     * List the class files in a package and its subpackages that may contain classes that match
+     * a test. If the test is a {@link ClassFileTest} it is applied to the class files; otherwise
+     * all class files are returned.
+     *
+     * @param test the test used to filter the class files
+     * @param packageName the name of the package from which to start scanning
+     * @return the paths of the class files
+     */
+    protected List<String> scanPackage(Test test, String packageName) {
+        List<String> paths = listClassFiles(packageName);
+        if (test instanceof ClassFileTest) {
+            Iterator<String> iterator = paths.iterator();
+            while (iterator.hasNext()) {
+                if (!isClassFileMatching((ClassFileTest) test, iterator.next()))
+                    iterator.remove();
+            }
+        }
+        return paths;
+    }
+
+    /**
+     * Get the ExecutorService shared by all ResolverUtils to scan packages, creating it the
+     * first time it is needed. It runs up to one daemon thread per processor, which end when
+     * they have been idle for a few seconds; when all of them are busy, the calling thread runs
+     * the task itself.
+     */
+    private static synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = new ThreadPoolExecutor(0, Runtime.getRuntime().availableProcessors(),
+                    EXECUTOR_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new ThreadFactory() {
+                        public Thread newThread(Runnable runnable) {
+                            Thread thread = new Thread(runnable, "Stripes ResolverUtil");
+                            thread.setDaemon(true);
+                            thread.setContextClassLoader(null);
+                            return thread;
+                        }
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return executor;
+    }
 
+    /**
+     * List the paths of the class files in a package and its subpackages.
+     *
+     * @param packageName the name of the package from which to start scanning
+     * @return the paths of the class files, or an empty list if the package cannot be read
+     */
+    protected List<String> listClassFiles(String packageName) {
+        List<String> classFiles = new ArrayList<String>();
         try {
-            List<String> children = VFS.getInstance().list(path);
-            for (String child : children) {
+            for (String child : VFS.getInstance().list(getPackagePath(packageName))) {
                 if (child.endsWith(".class"))
-                    addIfMatching(test, child);
+                    classFiles.add(child);
             }
         }
         catch (IOException ioe) {
             log.warn("Could not read package: ", packageName, " -- ", ioe);
         }
+        return classFiles;
+    }
 
-        return this;
+    /**
+     * Get the parsed class file for a class without loading the class. Class files are read
+     * using the ClassLoader from {@link #getClassLoader()} and are cached for the lifetime of
+     * this ResolverUtil, so supertypes that are shared by many classes are only read once.
+     *
+     * @param className the binary name of the class
+     * @return the class file, or null if it cannot be found or read
+     */
+    public ClassFile getClassFile(String className) {
+        ClassFile classFile = classFiles.get(className);
+        if (classFile == null && !unreadableClassFiles.contains(className)) {
+            classFile = readClassFile(className.replace('.', '/') + ".class");
+            if (classFile == null)
+                unreadableClassFiles.add(className);
+        }
+        return classFile;
+    }
+
+    /** Read and cache a class file given its path, returning null if it cannot be read. */
+    private ClassFile readClassFile(String path) {
+        InputStream in = getClassLoader().getResourceAsStream(path);
+        if (in == null)
+            return null;
+
+        try {
+            ClassFile classFile = ClassFile.read(in);
+            classFiles.putIfAbsent(classFile.getName(), classFile);
+            return classFile;
+        }
+        catch (IOException e) {
+            log.debug("Could not read class file ", path, " -- ", e);
+            return null;
+        }
+        finally {
+            try {
+                in.close();
+            }
+            catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Apply a {@link ClassFileTest} to the class file at the given path. If the class file
+     * cannot be read, the class is assumed to match so that {@link #addIfMatching(Test, String)}
+     * can load it and report the problem.
+     *
+     * @param test the test to apply
+     * @param path the path of a class file, as returned by {@link VFS#list(String)}
+     * @return false if the class definitely does not match
+     */
+    protected boolean isClassFileMatching(ClassFileTest test, String path) {
+        ClassFile classFile = readClassFile(path);
+        try {
+            return classFile == null || test.matches(classFile, this);
+        }
+        catch (RuntimeException e) {
+            log.debug("Could not test class file ", path, " -- ", e);
+            return true;
+        }
     }
 
     /**
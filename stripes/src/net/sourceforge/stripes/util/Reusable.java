@@ -0,0 +1,53 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>
+ * Marks a {@link net.sourceforge.stripes.validation.TypeConverter} or
+ * {@link net.sourceforge.stripes.format.Formatter} whose instances may be reused once they have
+ * been configured. By default, the converter and formatter factories create a new instance
+ * every time one is requested. When a class carries this annotation, the factories instead cache
+ * the instances they create, keyed by class, locale and (for formatters) format type and format
+ * pattern.
+ * </p>
+ * <p>
+ * A reusable class must keep no state between calls other than the configuration it was given
+ * when it was created. If it is also safe for concurrent use by multiple threads, it should set
+ * {@link #threadSafe()} to true and a single instance will be shared by all threads. Otherwise,
+ * each thread gets its own instance. That suits classes that hold {@link java.text.Format}
+ * objects, which are not thread-safe.
+ * </p>
+ * <p>
+ * The annotation is not inherited. A subclass of a reusable class is reusable only if it is
+ * annotated too.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface Reusable {
+    /** True if a single instance may be used concurrently by multiple threads. */
+    boolean threadSafe() default false;
+}
@@ -0,0 +1,118 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>
+ * Caches instances of {@link Reusable} classes for the converter and formatter factories. Each
+ * instance is cached under a key that identifies the configuration the instance was given. Instances
+ * of thread-safe classes are shared by all threads. Instances of other classes are confined to the
+ * thread that created them.
+ * </p>
+ * <p>
+ * The instances confined to each thread are also registered with the cache itself, so that
+ * {@link #clear()} can release them from any thread. The owner of the cache must call
+ * {@link #clear()} when it is destroyed. Otherwise the instances, and through them the class
+ * loader of the web application, would stay reachable from the container's threads after the
+ * application is undeployed.
+ * </p>
+ * 
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class ReusableInstanceCache<T> {
+    /** The default maximum number of instances cached for each thread, and shared. */
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private final Map<Object, T> sharedInstances = new ConcurrentHashMap<Object, T>();
+    private final ThreadLocal<Map<Object, T>> threadInstances = new ThreadLocal<Map<Object, T>>();
+    private final Map<Thread, Map<Object, T>> allThreadInstances = new WeakHashMap<Thread, Map<Object, T>>();
+    private final int maxSize;
+
+    /** Create a cache that holds up to {@value #DEFAULT_MAX_SIZE} instances in each scope. */
+    public ReusableInstanceCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Create a cache that holds up to {@code maxSize} shared instances and {@code maxSize}
+     * instances for each thread. Keys usually include a locale, which is chosen by the client, so
+     * the cache must be bounded. When a cache is full, it is emptied and starts filling again.
+     * 
+     * @param maxSize the maximum number of instances in each scope
+     */
+    public ReusableInstanceCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get a cached instance.
+     * 
+     * @param key the key that identifies the class and configuration of the instance
+     * @param threadSafe true to look for an instance shared by all threads, false to look for an
+     *            instance confined to the current thread
+     * @return the cached instance, or null if there is none
+     */
+    public T get(Object key, boolean threadSafe) {
+        return threadSafe ? sharedInstances.get(key) : getThreadInstances().get(key);
+    }
+
+    /**
+     * Cache an instance.
+     * 
+     * @param key the key that identifies the class and configuration of the instance
+     * @param instance the instance
+     * @param threadSafe true to share the instance with all threads, false to confine it to the
+     *            current thread
+     */
+    public void put(Object key, T instance, boolean threadSafe) {
+        Map<Object, T> instances = threadSafe ? sharedInstances : getThreadInstances();
+        if (instances.size() >= maxSize)
+            instances.clear();
+        instances.put(key, instance);
+    }
+
+    /** Remove the shared instances and the instances confined to every thread. */
+    public void clear() {
+        sharedInstances.clear();
+        synchronized (allThreadInstances) {
+            for (Map<Object, T> instances : allThreadInstances.values()) {
+                instances.clear();
+            }
+        }
+        threadInstances.remove();
+    }
+
+    /**
+     * Get the instances confined to the current thread, creating and registering the map on the
+     * first call from a thread. The map is concurrent because {@link #clear()} may empty it from
+     * another thread.
+     */
+    private Map<Object, T> getThreadInstances() {
+        Map<Object, T> instances = threadInstances.get();
+        if (instances == null) {
+            instances = new ConcurrentHashMap<Object, T>();
+            threadInstances.set(instances);
+            synchronized (allThreadInstances) {
+                allThreadInstances.put(Thread.currentThread(), instances);
+            }
+        }
+        return instances;
+    }
+}
@@ -0,0 +1,53 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+/**
+ * Reads and writes a single property of a particular bean class. Instances are created by a
+ * {@link PropertyAccessorFactory}, which does the work of locating the getter, setter or field
+ * for the property once so that each subsequent access is a direct call.
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface BeanPropertyAccessor {
+    /** Returns true if the property can be read. */
+    public boolean isReadable();
+
+    /** Returns true if the property can be written. */
+    public boolean isWritable();
+
+    /**
+     * Gets the value of the property from a bean.
+     *
+     * @param bean the bean, which must be an instance of the class for which this accessor was
+     *            created
+     * @return the value of the property, may be null
+     * @throws Exception if the value cannot be read, including any exception thrown by the
+     *             getter
+     */
+    public Object getValue(Object bean) throws Exception;
+
+    /**
+     * Sets the value of the property on a bean.
+     *
+     * @param bean the bean, which must be an instance of the class for which this accessor was
+     *            created
+     * @param value the value to set, may be null
+     * @throws Exception if the value cannot be written, including any exception thrown by the
+     *             setter
+     */
+    public void setValue(Object bean, Object value) throws Exception;
+}
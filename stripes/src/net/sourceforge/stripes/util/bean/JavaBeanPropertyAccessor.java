@@ -14,22 +14,43 @@
  */
 package net.sourceforge.stripes.util.bean;
 
-import net.sourceforge.stripes.util.ReflectUtil;
-
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-
 /**
  * Implementation of {@link PropertyAccessor} for reading JavaBean properties from
  * JavaBeans.  Will attempt property access first using the standard PropertyDescriptor,
  * but if no PropertyDescriptor is present then falls back to attempting Field access for
- * public fields.
+ * public fields. The getters, setters and fields themselves are located and invoked through
+ * the {@link BeanPropertyAccessor}s supplied by the current {@link PropertyAccessorFactory}.
  *
  * @author Tim Fennell
  * @since Stripes 1.4
  */
 public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
+    private static volatile PropertyAccessorFactory accessorFactory = new ReflectivePropertyAccessorFactory();
+
+    /**
+     * Get the factory that supplies accessors for JavaBean properties. The default is an
+     * instance of {@link ReflectivePropertyAccessorFactory}.
+     *
+     * @since Stripes 1.6
+     */
+    public static PropertyAccessorFactory getAccessorFactory() {
+        return accessorFactory;
+    }
+
+    /**
+     * Set the factory that supplies accessors for JavaBean properties. This affects every
+     * property expression evaluated from then on, so it should be called during application
+     * startup.
+     *
+     * @param accessorFactory the factory, which must not be null
+     * @since Stripes 1.6
+     */
+    public static void setAccessorFactory(PropertyAccessorFactory accessorFactory) {
+        if (accessorFactory == null)
+            throw new IllegalArgumentException("The property accessor factory must not be null");
+        JavaBeanPropertyAccessor.accessorFactory = accessorFactory;
+    }
+
     /**
      * Fetches the specified property value from the bean if it exists.
      * @param evaluation the current node evaluation
@@ -41,29 +62,15 @@ public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
     public Object getValue(NodeEvaluation evaluation, Object bean)
             throws NoSuchPropertyException, EvaluationException {
         String property = evaluation.getNode().getStringValue();
-        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(bean.getClass(), property);
+        BeanPropertyAccessor accessor = getAccessor(bean, property);
 
         try {
-            if (pd != null) {
-                Method m = pd.getReadMethod();
-                if (m != null) {
-                    m = ReflectUtil.findAccessibleMethod(m);
-                    return m.invoke(bean);
-                }
-                else {
-                    throw new EvaluationException("Could not read write-only property '" +
-                        property + "' on bean of type " + bean.getClass().getName());
-                }
+            if (accessor.isReadable()) {
+                return accessor.getValue(bean);
             }
             else {
-                Field field = ReflectUtil.getField(bean.getClass(), property);
-                if (field != null) {
-                    return field.get(bean);
-                }
-                else {
-                    throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
-                    " does not contain a property called '" + property + "'.");
-                }
+                throw new EvaluationException("Could not read write-only property '" +
+                    property + "' on bean of type " + bean.getClass().getName());
             }
         }
         catch (EvaluationException ee) { throw ee; }
@@ -83,29 +90,15 @@ public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
      */
     public void setValue(NodeEvaluation evaluation, Object bean, Object value) {
         String property = evaluation.getNode().getStringValue();
-        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(bean.getClass(), property);
+        BeanPropertyAccessor accessor = getAccessor(bean, property);
 
         try {
-            if (pd != null) {
-                Method m = pd.getWriteMethod();
-                if (m != null) {
-                    m = ReflectUtil.findAccessibleMethod(m);
-                    m.invoke(bean, value);
-                }
-                else {
-                    throw new EvaluationException("Could not write read-only property '" +
-                            property + "' on bean of type " + bean.getClass().getName());
-                }
+            if (accessor.isWritable()) {
+                accessor.setValue(bean, value);
             }
             else {
-                Field field = ReflectUtil.getField(bean.getClass(), property);
-                if (field != null) {
-                    field.set(bean, value);
-                }
-                else {
-                    throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
-                            " does not contain a property called '" + property + "'.");
-                }
+                throw new EvaluationException("Could not write read-only property '" +
+                        property + "' on bean of type " + bean.getClass().getName());
             }
         }
         catch (EvaluationException ee) { throw ee; }
@@ -114,4 +107,18 @@ public class JavaBeanPropertyAccessor implements PropertyAccessor<Object> {
                     "' on bean of type " + bean.getClass().getName() + " due to an exception.", e);
         }
     }
+
+    /**
+     * Gets the accessor for a property of the bean from the current factory.
+     * @throws NoSuchPropertyException if there is no property with the supplied name
+     */
+    private BeanPropertyAccessor getAccessor(Object bean, String property)
+            throws NoSuchPropertyException {
+        BeanPropertyAccessor accessor = accessorFactory.getAccessor(bean.getClass(), property);
+        if (accessor == null) {
+            throw new NoSuchPropertyException("Bean class " + bean.getClass().getName() +
+                    " does not contain a property called '" + property + "'.");
+        }
+        return accessor;
+    }
 }
@@ -0,0 +1,43 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+/**
+ * <p>
+ * Creates the {@link BeanPropertyAccessor}s that {@link JavaBeanPropertyAccessor} uses to read
+ * and write JavaBean properties. Implementations are expected to cache accessors by class and
+ * property name, since they are requested every time a property expression is evaluated.
+ * </p>
+ * <p>
+ * The default implementation is {@link ReflectivePropertyAccessorFactory}. A different
+ * implementation, for example one that generates bytecode for each property, can be installed
+ * by calling {@link JavaBeanPropertyAccessor#setAccessorFactory(PropertyAccessorFactory)}.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public interface PropertyAccessorFactory {
+    /**
+     * Get an accessor for the named property of a class. The property is located first using
+     * the class's PropertyDescriptors and then, if there is no such descriptor, by looking for a
+     * public field with the same name.
+     *
+     * @param beanClass the class that declares or inherits the property
+     * @param property the name of the property
+     * @return an accessor for the property, or null if the class has no such property
+     */
+    public BeanPropertyAccessor getAccessor(Class<?> beanClass, String property);
+}
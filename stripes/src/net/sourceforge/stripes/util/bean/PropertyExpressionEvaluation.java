@@ -15,11 +15,10 @@
 package net.sourceforge.stripes.util.bean;
 
 import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.util.PropertyMetadata;
 import net.sourceforge.stripes.util.ReflectUtil;
 
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.Array;
-import java.lang.reflect.Field;
 import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
@@ -45,7 +44,9 @@ import java.util.Map;
 public class PropertyExpressionEvaluation {
     private PropertyExpression expression;
     private Object bean;
+    private Class<?> beanType;
     private NodeEvaluation root, leaf;
+    private boolean instanceDependent;
 
     /**
      * Constructs a new PropertyExpressionEvaluation for the expression and bean supplied.
@@ -59,24 +60,73 @@ public class PropertyExpressionEvaluation {
     public PropertyExpressionEvaluation(PropertyExpression expression, Object bean) {
         this.expression = expression;
         this.bean = bean;
+        this.beanType = bean.getClass();
 
         for (Node node = expression.getRootNode(); node != null; node = node.getNext()) {
-            NodeEvaluation evaluation = new NodeEvaluation(this, node);
-            if (this.root == null) {
-                this.root = evaluation;
-                this.leaf = evaluation;
-            }
-            else {
-                this.leaf.setNext(evaluation);
-                evaluation.setPrevious(this.leaf);
-                this.leaf = evaluation;
-            }
+            addNodeEvaluation(new NodeEvaluation(this, node));
         }
 
         fillInTypeInformation();
         validateTypeInformation();
     }
 
+    /**
+     * <p>Constructs a new PropertyExpressionEvaluation that evaluates the same expression as the
+     * template against a different bean of the same class. The type information that was
+     * determined for the template is copied instead of being looked up again, which makes this
+     * much cheaper than evaluating the expression from scratch. Only templates whose type
+     * information does not depend on the values held by their bean may be copied.
+     * </p>
+     * <p>
+     * If {@code bean} is null then the new evaluation holds only the type information and can
+     * be used solely as a template for other evaluations. Such a template can be cached without
+     * keeping a reference to the bean from which its type information was determined.
+     * </p>
+     *
+     * @param template an evaluation of the expression against another bean of the same class
+     * @param bean the bean against which to evaluate the expression, or null
+     * @throws IllegalArgumentException if the template is {@link #isInstanceDependent() instance
+     *             dependent} or if its bean is not of the same class as {@code bean}
+     * @since Stripes 1.6
+     */
+    public PropertyExpressionEvaluation(PropertyExpressionEvaluation template, Object bean) {
+        if (template.isInstanceDependent()) {
+            throw new IllegalArgumentException("The type information of the expression \""
+                    + template.getExpression().getSource() + "\" depends on the values held by "
+                    + "the bean and cannot be reused");
+        }
+        if (bean != null && bean.getClass() != template.beanType) {
+            throw new IllegalArgumentException("Cannot evaluate an expression against a bean of "
+                    + "type " + bean.getClass().getName() + " using type information for type "
+                    + template.beanType.getName());
+        }
+
+        this.expression = template.getExpression();
+        this.bean = bean;
+        this.beanType = template.beanType;
+
+        for (NodeEvaluation node = template.getRootNode(); node != null; node = node.getNext()) {
+            NodeEvaluation evaluation = new NodeEvaluation(this, node.getNode());
+            evaluation.setType(node.getType());
+            evaluation.setValueType(node.getValueType());
+            evaluation.setKeyType(node.getKeyType());
+            addNodeEvaluation(evaluation);
+        }
+    }
+
+    /** Appends a node evaluation to the end of the chain. */
+    private void addNodeEvaluation(NodeEvaluation evaluation) {
+        if (this.root == null) {
+            this.root = evaluation;
+            this.leaf = evaluation;
+        }
+        else {
+            this.leaf.setNext(evaluation);
+            evaluation.setPrevious(this.leaf);
+            this.leaf = evaluation;
+        }
+    }
+
     /**
      * Fetches the bean which was supplied as the starting point for evaluation in the
      * constructor to this evaluation.
@@ -101,13 +151,26 @@ public class PropertyExpressionEvaluation {
         return expression;
     }
 
+    /**
+     * Indicates whether type information for any node in the expression had to be determined by
+     * examining the values held by the bean, rather than from the declared types of its
+     * properties. The type information of such an evaluation applies only to the bean it was
+     * constructed with.
+     *
+     * @return true if any type information was determined from values; false otherwise
+     * @since Stripes 1.6
+     */
+    public boolean isInstanceDependent() {
+        return instanceDependent;
+    }
+
     /**
      * Examines the expression in context of the root bean provided to determine type
      * information for each node.  Does this by traversing a node at a time and examining
      * the various sources of type information available.
      */
     void fillInTypeInformation() {
-        Type type = this.bean.getClass();
+        Type type = this.beanType;
 
         for (NodeEvaluation current = this.root; current != null; current = current.getNext()) {
             // Firstly if the current type is a wildcard type of a type variable try and
@@ -187,6 +250,7 @@ public class PropertyExpressionEvaluation {
 
             // If we haven't gotten type information by now, try filling in with instance info
             if (type == null) {
+                this.instanceDependent = true;
                 type = getTypeViaInstances(current);
                 if (type == null) {
                     // FIXME: What do we do now?
@@ -221,24 +285,8 @@ public class PropertyExpressionEvaluation {
      * @return the Type if it can be determined, or null otherwise
      */
     protected Type getBeanPropertyType(Class<?> beanClass, String property) {
-        PropertyDescriptor pd = ReflectUtil.getPropertyDescriptor(beanClass, property);
-        if (pd != null) {
-            if (pd.getReadMethod() != null) {
-                return pd.getReadMethod().getGenericReturnType();
-            }
-            else {
-                return pd.getWriteMethod().getGenericParameterTypes()[0];
-            }
-        }
-        else {
-            Field field = ReflectUtil.getField(beanClass, property);
-            if (field == null) {
-                return null;
-            }
-            else  {
-                return field.getGenericType();
-            }
-        }
+        PropertyMetadata metadata = ReflectUtil.getPropertyMetadata(beanClass, property);
+        return metadata == null ? null : metadata.getGenericType();
     }
 
     /**
@@ -426,7 +474,7 @@ public class PropertyExpressionEvaluation {
         List<HashMap<TypeVariable<?>, Type>> typemap2 = new ArrayList<HashMap<TypeVariable<?>, Type>>();
 
         // Scan the evaluation chain for the first class or any parameterized types.
-        Class<?> lastBean = this.bean.getClass();
+        Class<?> lastBean = this.beanType;
         for (NodeEvaluation n = evaluation.getPrevious(); n != null; n = n.getPrevious()) {
             Type type = n.getValueType();
 
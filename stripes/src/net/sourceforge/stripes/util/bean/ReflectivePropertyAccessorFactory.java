@@ -0,0 +1,171 @@
+/* Copyright 2026 The Stripes Framework Contributors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package net.sourceforge.stripes.util.bean;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.sourceforge.stripes.util.Log;
+import net.sourceforge.stripes.util.PropertyMetadata;
+import net.sourceforge.stripes.util.ReflectUtil;
+
+/**
+ * <p>
+ * The default {@link PropertyAccessorFactory}. It uses reflection to access properties, but it
+ * resolves the accessible getter, setter or field for each property only once and caches the
+ * resulting accessor by class and property name. Access checks are suppressed on the resolved
+ * members when the security manager allows it, which makes each invocation cheaper.
+ * </p>
+ * <p>
+ * Properties that do not exist are not cached, because property names usually come from request
+ * parameters and the number of distinct names is therefore unbounded.
+ * </p>
+ *
+ * @author agent
+ * @since Stripes 1.6
+ */
+public class ReflectivePropertyAccessorFactory implements PropertyAccessorFactory {
+    private static final Log log = Log.getInstance(ReflectivePropertyAccessorFactory.class);
+
+    /** Accesses a property through its getter and setter methods. */
+    protected static class MethodAccessor implements BeanPropertyAccessor {
+        private final Method readMethod, writeMethod;
+
+        public MethodAccessor(Method readMethod, Method writeMethod) {
+            this.readMethod = readMethod;
+            this.writeMethod = writeMethod;
+        }
+
+        public boolean isReadable() { return readMethod != null; }
+        public boolean isWritable() { return writeMethod != null; }
+        public Object getValue(Object bean) throws Exception { return readMethod.invoke(bean); }
+        public void setValue(Object bean, Object value) throws Exception {
+            writeMethod.invoke(bean, value);
+        }
+    }
+
+    /** Accesses a property through a public field. */
+    protected static class FieldAccessor implements BeanPropertyAccessor {
+        private final Field field;
+
+        public FieldAccessor(Field field) {
+            this.field = field;
+        }
+
+        public boolean isReadable() { return true; }
+        public boolean isWritable() { return true; }
+        public Object getValue(Object bean) throws Exception { return field.get(bean); }
+        public void setValue(Object bean, Object value) throws Exception { field.set(bean, value); }
+    }
+
+    /** Maps classes to the accessors for their properties */
+    private final ConcurrentMap<Class<?>, Map<String, BeanPropertyAccessor>> accessors = new ConcurrentHashMap<Class<?>, Map<String, BeanPropertyAccessor>>();
+
+    public BeanPropertyAccessor getAccessor(Class<?> beanClass, String property) {
+        Map<String, BeanPropertyAccessor> map = accessors.get(beanClass);
+        if (map == null) {
+            map = new ConcurrentHashMap<String, BeanPropertyAccessor>();
+            Map<String, BeanPropertyAccessor> existing = accessors.putIfAbsent(beanClass, map);
+            if (existing != null)
+                map = existing;
+        }
+
+        BeanPropertyAccessor accessor = map.get(property);
+        if (accessor == null) {
+            accessor = createAccessor(beanClass, property);
+            if (accessor != null)
+                map.put(property, accessor);
+        }
+
+        return accessor;
+    }
+
+    /**
+     * Discard all cached accessors. Since the cache holds references to classes, it should be
+     * cleared when the classes it holds are to be unloaded.
+     */
+    public void flushCache() {
+        accessors.clear();
+    }
+
+    /**
+     * Create an accessor for a property of a class. Called the first time an accessor is
+     * requested for the property.
+     *
+     * @param beanClass the class that declares or inherits the property
+     * @param property the name of the property
+     * @return an accessor for the property, or null if the class has no such property
+     */
+    protected BeanPropertyAccessor createAccessor(Class<?> beanClass, String property) {
+        PropertyMetadata metadata = ReflectUtil.getPropertyMetadata(beanClass, property);
+        if (metadata == null)
+            return null;
+
+        if (metadata.getField() != null)
+            return new FieldAccessor(makeAccessible(metadata.getField()));
+
+        Method readMethod = metadata.getReadMethod();
+        if (readMethod != null)
+            readMethod = makeAccessible(ReflectUtil.findAccessibleMethod(readMethod));
+
+        Method writeMethod = metadata.getWriteMethod();
+        if (writeMethod != null)
+            writeMethod = makeAccessible(ReflectUtil.findAccessibleMethod(writeMethod));
+
+        return new MethodAccessor(readMethod, writeMethod);
+    }
+
+    /**
+     * Suppress Java language access checks on a copy of a method or field, if the security
+     * manager allows it. The member passed in may be shared, for example through the property
+     * descriptors cached by {@link ReflectUtil}, so it is never modified itself. The copy is
+     * returned whether or not access checks could be suppressed; if no copy can be made, the
+     * member is returned unchanged.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T extends AccessibleObject> T makeAccessible(T member) {
+        try {
+            T copy;
+            if (member instanceof Field) {
+                Field field = (Field) member;
+                copy = (T) field.getDeclaringClass().getDeclaredField(field.getName());
+            }
+            else if (member instanceof Method) {
+                Method method = (Method) member;
+                copy = (T) method.getDeclaringClass().getDeclaredMethod(method.getName(),
+                        method.getParameterTypes());
+            }
+            else {
+                return member;
+            }
+
+            try {
+                copy.setAccessible(true);
+            }
+            catch (SecurityException e) {
+                log.debug("Could not suppress access checks for ", copy, ": ", e.getMessage());
+            }
+            return copy;
+        }
+        catch (Exception e) {
+            log.debug("Could not copy ", member, ": ", e.getMessage());
+            return member;
+        }
+    }
+}
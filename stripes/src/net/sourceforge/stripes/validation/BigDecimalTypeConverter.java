@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.math.BigDecimal;
 import java.util.Collection;
 import java.text.NumberFormat;
@@ -28,6 +30,7 @@ import java.text.DecimalFormat;
  * @author Tim Fennell
  * @since Stripes 1.1.2
  */
+@Reusable
 public class BigDecimalTypeConverter extends NumberTypeConverterSupport
                                      implements TypeConverter<BigDecimal> {
 
@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.util.Collection;
@@ -29,6 +31,7 @@ import java.text.DecimalFormat;
  * @author Tim Fennell
  * @since Stripes 1.1.2
  */
+@Reusable
 public class BigIntegerTypeConverter extends NumberTypeConverterSupport
         implements TypeConverter<BigInteger> {
 
@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Locale;
@@ -36,6 +38,7 @@ import java.util.Locale;
  *
  * @author Tim Fennell
  */
+@Reusable(threadSafe = true)
 public class BooleanTypeConverter implements TypeConverter<Boolean> {
     private static final Collection<String> truths = new HashSet<String>();
 
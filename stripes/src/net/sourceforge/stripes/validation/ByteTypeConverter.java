@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.text.NumberFormat;
 
@@ -24,6 +26,7 @@ import java.text.NumberFormat;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class ByteTypeConverter extends NumberTypeConverterSupport implements TypeConverter<Byte> {
 
     /**
@@ -13,6 +13,8 @@
  * limitations under the License.
  */package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.util.Locale;
 
@@ -39,6 +41,7 @@ import java.util.Locale;
  * @author Aaron Porter
  * @since Stripes 1.5
  */
+@Reusable(threadSafe = true)
 public class CreditCardTypeConverter implements TypeConverter<String> {
      // Recognized card types
      public enum Type {
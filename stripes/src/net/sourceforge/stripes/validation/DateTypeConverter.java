@@ -15,9 +15,10 @@
 package net.sourceforge.stripes.validation;
 
 import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.util.Reusable;
 
 import java.text.DateFormat;
-import java.text.ParseException;
+import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.Collection;
@@ -80,9 +81,11 @@ import java.util.regex.Pattern;
  * subclasses can override getDateFormats() to change how the DateFormat objects get constructed.
  * </p>
  */
+@Reusable
 public class DateTypeConverter implements TypeConverter<Date> {
     private Locale locale;
     private DateFormat[] formats;
+    private Pattern preProcessPattern;
 
     /**
      * Used by Stripes to set the input locale.  Once the locale is set a number of DateFormat
@@ -186,15 +189,19 @@ public class DateTypeConverter implements TypeConverter<Date> {
         // Step 1: pre-process the input to make it more palatable
         String parseable = preProcessInput(input);
 
-        // Step 2: try really hard to parse the input
+        // Step 2: try really hard to parse the input. This is equivalent to calling
+        // DateFormat.parse(String) but avoids creating an exception for every format that fails.
         Date date = null;
+        ParsePosition position = new ParsePosition(0);
 
         for (DateFormat format : this.formats) {
-            try {
-                date = format.parse(parseable);
+            position.setIndex(0);
+            position.setErrorIndex(-1);
+            Date parsed = format.parse(parseable, position);
+            if (position.getIndex() != 0) {
+                date = parsed;
                 break;
             }
-            catch (ParseException pe) { /* Do nothing, we'll get lots of these. */ }
         }
 
         // Step 3: If we successfully parsed, return a date, otherwise send back an error
@@ -211,7 +218,8 @@ public class DateTypeConverter implements TypeConverter<Date> {
      * Returns the regular expression pattern used in the pre-process method. Looks for a pattern in
      * the resource bundle under the key 'stripes.dateTypeConverter.preProcessPattern'. If no value
      * is found, the pattern <code>(?&lt;!GMT)[\\s,-/\\.]+</code> is used by default. The pattern is
-     * used by preProcessInput() to replace all matches by single spaces.
+     * used by preProcessInput() to replace all matches by single spaces. This method is called
+     * only once for each converter instance and the result is reused for all conversions.
      */
     protected Pattern getPreProcessPattern() {
         try {
@@ -230,7 +238,10 @@ public class DateTypeConverter implements TypeConverter<Date> {
      * is in a format like "12/25" which would otherwise fail to parse.
      */
     protected String preProcessInput(String input) {
-        input = getPreProcessPattern().matcher(input.trim()).replaceAll(" ");
+        if (preProcessPattern == null)
+            preProcessPattern = getPreProcessPattern();
+
+        input = preProcessPattern.matcher(input.trim()).replaceAll(" ");
         input = checkAndAppendYear(input);
         return input;
     }
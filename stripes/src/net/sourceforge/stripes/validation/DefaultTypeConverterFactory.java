@@ -16,12 +16,17 @@ package net.sourceforge.stripes.validation;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 
 import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.config.DestroyableComponent;
 import net.sourceforge.stripes.util.Log;
+import net.sourceforge.stripes.util.Reusable;
+import net.sourceforge.stripes.util.ReusableInstanceCache;
 import net.sourceforge.stripes.util.TypeHandlerCache;
 
 /**
@@ -31,7 +36,7 @@ import net.sourceforge.stripes.util.TypeHandlerCache;
  *
  * @author Tim Fennell
  */
-public class DefaultTypeConverterFactory implements TypeConverterFactory {
+public class DefaultTypeConverterFactory implements TypeConverterFactory, DestroyableComponent {
     private static final Log log = Log.getInstance(DefaultTypeConverterFactory.class);
 
     /** Caches {@link TypeConverter} to {@link Class} mappings. */
@@ -40,6 +45,9 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
     /** Stores a reference to the Configuration passed in at initialization time. */
     private Configuration configuration;
 
+    /** Caches instances of {@link Reusable} type converters. */
+    private final ReusableInstanceCache<TypeConverter<?>> instances = new ReusableInstanceCache<TypeConverter<?>>();
+
     /**
      * Places all the known convertible types and type converters into an instance level Map.
      */
@@ -130,7 +138,9 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
     }
 
     /**
-     * Gets an instance of the TypeConverter class specified.
+     * Gets an instance of the TypeConverter class specified. If the class is annotated with
+     * {@link Reusable} then an instance that was created earlier for the same locale is returned
+     * when there is one; otherwise a new instance is created.
      *
      * @param clazz the TypeConverter type that is desired
      * @return an instance of the TypeConverter specified
@@ -138,8 +148,37 @@ public class DefaultTypeConverterFactory implements TypeConverterFactory {
      */
     @SuppressWarnings("unchecked")
     public TypeConverter getInstance(Class<? extends TypeConverter> clazz, Locale locale) throws Exception {
-        TypeConverter converter = getConfiguration().getObjectFactory().newInstance(clazz);
+        Class<? extends TypeConverter<?>> type = (Class<? extends TypeConverter<?>>) clazz;
+        Reusable reusable = type.getAnnotation(Reusable.class);
+        if (reusable == null)
+            return createInstance(type, locale);
+
+        List<Object> key = Arrays.<Object> asList(type, locale);
+        TypeConverter<?> converter = instances.get(key, reusable.threadSafe());
+        if (converter == null) {
+            converter = createInstance(type, locale);
+            instances.put(key, converter, reusable.threadSafe());
+        }
+        return converter;
+    }
+
+    /**
+     * Creates a new instance of the TypeConverter class specified and sets its locale.
+     *
+     * @param clazz the TypeConverter type that is desired
+     * @return a new instance of the TypeConverter specified
+     * @throws Exception if there is a problem instantiating the TypeConverter
+     * @since Stripes 1.6
+     */
+    protected TypeConverter<?> createInstance(Class<? extends TypeConverter<?>> clazz, Locale locale)
+            throws Exception {
+        TypeConverter<?> converter = getConfiguration().getObjectFactory().newInstance(clazz);
         converter.setLocale(locale);
         return converter;
     }
+
+    /** Releases the cached instances of {@link Reusable} type converters. */
+    public void destroy() {
+        instances.clear();
+    }
 }
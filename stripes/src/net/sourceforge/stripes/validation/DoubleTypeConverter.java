@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 
 /**
@@ -21,6 +23,7 @@ import java.util.Collection;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class DoubleTypeConverter extends NumberTypeConverterSupport implements TypeConverter<Double> {
 
     /**
@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import java.util.Collection;
@@ -41,6 +43,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.2
  */
+@Reusable(threadSafe = true)
 public class EmailTypeConverter implements TypeConverter<String> {
     /** Accepts the Locale provided, but does nothing with it since emails are Locale-less. */
     public void setLocale(Locale locale) { /** Doesn't matter for email. */}
@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.util.Locale;
 
@@ -23,6 +25,7 @@ import java.util.Locale;
  *
  * @author Tim Fennell
  */
+@Reusable(threadSafe = true)
 @SuppressWarnings("unchecked")
 public class EnumeratedTypeConverter implements TypeConverter<Enum> {
 
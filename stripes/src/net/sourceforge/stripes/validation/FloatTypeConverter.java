@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 
 /**
@@ -24,6 +26,7 @@ import java.util.Collection;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class FloatTypeConverter extends NumberTypeConverterSupport implements TypeConverter<Float> {
     /** The minimum value that can assigned to a float or Float. */
     public static final float MIN_VALUE = -Float.MAX_VALUE;
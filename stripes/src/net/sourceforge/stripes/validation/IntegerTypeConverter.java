@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.text.NumberFormat;
 
@@ -22,6 +24,7 @@ import java.text.NumberFormat;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class IntegerTypeConverter extends NumberTypeConverterSupport implements TypeConverter<Integer> {
     /**
      *
@@ -16,6 +16,7 @@ package net.sourceforge.stripes.validation;
 
 import net.sourceforge.stripes.controller.StripesFilter;
 import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.util.Reusable;
 
 import java.util.Collection;
 import java.util.LinkedList;
@@ -66,6 +67,7 @@ import java.util.Locale;
  * @author Tim Fennell
  * @since Stripes 1.2.2
  */
+@Reusable(threadSafe = true)
 public class OneToManyTypeConverter implements TypeConverter<Object> {
     private Locale locale;
 
@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Collection;
 import java.text.NumberFormat;
 import java.math.BigDecimal;
@@ -28,6 +30,7 @@ import java.util.regex.Pattern;
  *
  * @author Tim Fennell
  */
+@Reusable
 public class PercentageTypeConverter extends NumberTypeConverterSupport
                                      implements TypeConverter<Number> {
 
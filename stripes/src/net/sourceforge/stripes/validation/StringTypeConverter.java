@@ -14,6 +14,8 @@
  */
 package net.sourceforge.stripes.validation;
 
+import net.sourceforge.stripes.util.Reusable;
+
 import java.util.Locale;
 import java.util.Collection;
 
@@ -24,6 +26,7 @@ import java.util.Collection;
  * @author Tim Fennell
  * @since Stripes 1.4
  */
+@Reusable(threadSafe = true)
 public class StringTypeConverter implements TypeConverter<String> {
     /** Does Nothing */
     public void setLocale(Locale locale) { }
@@ -19,7 +19,10 @@ import java.util.Locale;
 
 /**
  * Interface for all type converters in the validation system that provide facilities for
- * converting from String to a specific object type.
+ * converting from String to a specific object type. Type converters annotated with
+ * {@link net.sourceforge.stripes.util.Reusable} may be cached by the {@link TypeConverterFactory}
+ * and used for many conversions, possibly on many threads if the annotation declares them
+ * thread-safe.
  *
  * @author Tim Fennell
  */
@@ -24,15 +24,29 @@ import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Enumeration;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import net.sourceforge.stripes.util.Log;
 import net.sourceforge.stripes.util.StringUtil;
 
 /**
+ * <p>
  * A default implementation of {@link VFS} that works for most application servers.
+ * </p>
+ * <p>
+ * During a scan for classes, the names of the entries in each JAR file are read once and cached,
+ * sorted, so that listing another package in the same JAR does not read the JAR again. The
+ * cache is discarded when the scan ends, see {@link VFS#beginScan()}. JAR files on the local file
+ * system are read with {@link ZipFile}, which reads only the central directory at the end of
+ * the file instead of every entry.
+ * </p>
  * 
  * @author Ben Gunter
  */
@@ -42,11 +56,19 @@ public class DefaultVFS extends VFS {
     /** The magic header that indicates a JAR (ZIP) file. */
     private static final byte[] JAR_MAGIC = { 'P', 'K', 3, 4 };
 
+    /** The sorted names of the file entries in JAR files, keyed by the URL of the JAR. */
+    private final Map<String, String[]> jarEntries = new ConcurrentHashMap<String, String[]>();
+
     @Override
     public boolean isValid() {
         return true;
     }
 
+    @Override
+    protected void clearCache() {
+        jarEntries.clear();
+    }
+
     @Override
     public List<String> list(URL url, String path) throws IOException {
         InputStream is = null;
@@ -57,9 +79,8 @@ public class DefaultVFS extends VFS {
             // file is found, then we'll list child resources by reading the JAR.
             URL jarUrl = findJarForResource(url);
             if (jarUrl != null) {
-                is = jarUrl.openStream();
                 log.debug("Listing ", url);
-                resources = listResources(new JarInputStream(is), path);
+                resources = listResources(getJarEntries(jarUrl), path);
             }
             else {
                 List<String> children = new ArrayList<String>();
@@ -183,6 +204,109 @@ public class DefaultVFS extends VFS {
         return resources;
     }
 
+    /**
+     * List the names in a sorted array of JAR entry names that begin with the specified
+     * {@code path}. Entries will match with or without a leading slash.
+     * 
+     * @param entries The sorted names of the file entries in a JAR, without leading slashes
+     * @param path The leading path to match
+     * @return The names of all the matching entries
+     */
+    protected List<String> listResources(String[] entries, String path) {
+        // Include the trailing slash but not the leading slash when matching names
+        if (path.startsWith("/"))
+            path = path.substring(1);
+        if (!path.endsWith("/"))
+            path = path + "/";
+
+        // Matching names are contiguous in the sorted array, starting where the path would be
+        List<String> resources = new ArrayList<String>();
+        int index = Arrays.binarySearch(entries, path);
+        for (int i = index < 0 ? -index - 1 : index; i < entries.length; i++) {
+            if (!entries[i].startsWith(path))
+                break;
+
+            log.trace("Found resource: ", entries[i]);
+            resources.add(entries[i]);
+        }
+        return resources;
+    }
+
+    /**
+     * Get the sorted names of the file entries in a JAR, without leading slashes. During a scan
+     * for classes, the names are read only the first time a JAR is listed and are cached until
+     * {@link #clearCache()} is called at the end of the scan.
+     * 
+     * @param jarUrl The URL of the JAR file
+     * @return The sorted names of the entries
+     * @throws IOException If I/O errors occur
+     */
+    protected String[] getJarEntries(URL jarUrl) throws IOException {
+        String key = jarUrl.toExternalForm();
+        String[] entries = jarEntries.get(key);
+        if (entries != null)
+            return entries;
+
+        List<String> names = new ArrayList<String>();
+        File file = getFile(jarUrl);
+        if (file != null) {
+            log.trace("Reading central directory of JAR ", file.getAbsolutePath());
+            ZipFile zip = new ZipFile(file);
+            try {
+                for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();) {
+                    ZipEntry entry = e.nextElement();
+                    if (!entry.isDirectory())
+                        names.add(entry.getName());
+                }
+            }
+            finally {
+                zip.close();
+            }
+        }
+        else {
+            log.trace("Reading JAR stream ", jarUrl);
+            InputStream is = jarUrl.openStream();
+            try {
+                JarInputStream jar = new JarInputStream(is);
+                for (JarEntry entry; (entry = jar.getNextJarEntry()) != null;) {
+                    if (!entry.isDirectory())
+                        names.add(entry.getName());
+                }
+            }
+            finally {
+                is.close();
+            }
+        }
+
+        // Trim leading slashes and sort so entries under a path can be found by binary search
+        entries = new String[names.size()];
+        for (int i = 0; i < entries.length; i++) {
+            String name = names.get(i);
+            entries[i] = name.startsWith("/") ? name.substring(1) : name;
+        }
+        Arrays.sort(entries);
+
+        if (isScanning())
+            jarEntries.put(key, entries);
+        return entries;
+    }
+
+    /**
+     * Get the local file referenced by a {@code file:} URL.
+     * 
+     * @param url The URL
+     * @return The file, or null if the URL does not reference an existing local file
+     */
+    protected File getFile(URL url) {
+        if (!"file".equals(url.getProtocol()))
+            return null;
+
+        File file = new File(url.getFile());
+        if (!file.exists())
+            file = new File(StringUtil.urlDecode(url.getFile()));
+        return file.isFile() ? file : null;
+    }
+
     /**
      * Attempts to deconstruct the given URL to find a JAR file containing the resource referenced
      * by the URL. That is, assuming the URL references a JAR entry, this method will return a URL
@@ -44,6 +44,9 @@ public abstract class VFS {
     /** Singleton instance. */
     private static VFS instance;
 
+    /** The number of scans for classes in progress. */
+    private static int scans;
+
     /**
      * Get the singleton {@link VFS} instance. If no {@link VFS} implementation can be found for the
      * current environment, then this method returns null.
@@ -94,6 +97,29 @@ public abstract class VFS {
             USER_IMPLEMENTATIONS.add(clazz);
     }
 
+    /**
+     * Mark the start of a scan for classes, during which implementations may cache what they
+     * read to list resources. Every call must be followed by a call to {@link #endScan()}. Scans
+     * may be nested or run concurrently.
+     */
+    public static synchronized void beginScan() {
+        ++scans;
+    }
+
+    /**
+     * Mark the end of a scan for classes started by {@link #beginScan()}. When no scans remain,
+     * the listings cached by the singleton {@link VFS} instance are discarded.
+     */
+    public static synchronized void endScan() {
+        if (--scans == 0 && instance != null)
+            instance.clearCache();
+    }
+
+    /** Returns true if a scan for classes is in progress. */
+    protected static synchronized boolean isScanning() {
+        return scans > 0;
+    }
+
     /** Get a class by name. If the class is not found then return null. */
     protected static Class<?> getClass(String className) {
         try {
@@ -174,6 +200,13 @@ public abstract class VFS {
     /** Return true if the {@link VFS} implementation is valid for the current environment. */
     public abstract boolean isValid();
 
+    /**
+     * Discard any cached information about the resources that have been listed. Called when the
+     * last scan for classes ends. The default implementation does nothing.
+     */
+    protected void clearCache() {
+    }
+
     /**
      * Recursively list the full resource path of all the resources that are children of the
      * resource identified by a URL.
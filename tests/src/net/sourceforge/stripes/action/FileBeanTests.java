@@ -6,6 +6,9 @@ import org.testng.annotations.AfterMethod;
 import org.testng.Assert;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.Charset;
 
 /**
@@ -102,6 +105,18 @@ public class FileBeanTests {
         assertContents(this.to);
     }
 
+    @Test(groups = "fast")
+    public void testChannel() throws Exception {
+        FileBean bean = new FileBean(from, "text/plain", "somefile.txt");
+
+        ReadableByteChannel in = bean.getChannel();
+        Assert.assertTrue(in instanceof FileChannel);
+        copyReaderOut(Channels.newReader(in, Charset.defaultCharset().name()));
+
+        Assert.assertTrue(this.to.exists());
+        assertContents(this.to);
+    }
+
     @Test(groups = "fast")
     public void testReaderWithCharset1() throws Exception {
         String charset = Charset.defaultCharset().name();
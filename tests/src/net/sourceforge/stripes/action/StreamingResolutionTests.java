@@ -0,0 +1,171 @@
+package net.sourceforge.stripes.action;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.Pipe;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for streaming files and channels with {@link StreamingResolution}.
+ *
+ * @author agent
+ */
+public class StreamingResolutionTests {
+    private byte[] data;
+    private File file;
+
+    @BeforeClass(alwaysRun = true)
+    public void createFile() throws Exception {
+        data = new byte[200000];
+        for (int i = 0; i < data.length; i++)
+            data[i] = (byte) (i % 251);
+
+        file = File.createTempFile("stripes-streaming", ".bin");
+        FileOutputStream out = new FileOutputStream(file);
+        out.write(data);
+        out.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteFile() {
+        file.delete();
+    }
+
+    private MockHttpServletResponse execute(StreamingResolution resolution, String range)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("/context", "/whatever");
+        if (range != null)
+            request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        resolution.execute(request, response);
+        return response;
+    }
+
+    private byte[] slice(int from, int to) {
+        byte[] slice = new byte[to - from];
+        System.arraycopy(data, from, slice, 0, slice.length);
+        return slice;
+    }
+
+    @Test(groups = "fast")
+    public void testFile() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution("application/octet-stream",
+                file), null);
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), data));
+        Assert.assertEquals(response.getHeaderMap().get("Content-Length").get(0), "200000");
+        Assert.assertNotNull(response.getHeaderMap().get("Last-Modified"));
+    }
+
+    @Test(groups = "fast")
+    public void testFileRange() throws Exception {
+        StreamingResolution resolution = new StreamingResolution("application/octet-stream", file)
+                .setRangeSupport(true);
+        MockHttpServletResponse response = execute(resolution, "bytes=100000-170000");
+        Assert.assertEquals(response.getStatus(), HttpServletResponse.SC_PARTIAL_CONTENT);
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), slice(100000, 170001)));
+    }
+
+    @Test(groups = "fast")
+    public void testFileChannelPosition() throws Exception {
+        FileChannel channel = new FileInputStream(file).getChannel();
+        channel.position(1000);
+        MockHttpServletResponse response = execute(new StreamingResolution(
+                "application/octet-stream", channel).setRangeSupport(true), "bytes=-10");
+        Assert.assertFalse(channel.isOpen());
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), slice(199990, 200000)));
+    }
+
+    @Test(groups = "fast")
+    public void testFileInputStreamRange() throws Exception {
+        StreamingResolution resolution = new StreamingResolution("application/octet-stream",
+                new FileInputStream(file)).setLength(data.length).setRangeSupport(true);
+        MockHttpServletResponse response = execute(resolution, "bytes=5-9");
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), slice(5, 10)));
+    }
+
+    @Test(groups = "fast")
+    public void testChannelMultipleRanges() throws Exception {
+        StreamingResolution resolution = new StreamingResolution("application/octet-stream",
+                Channels.newChannel(new ByteArrayInputStream(data))).setLength(data.length)
+                .setRangeSupport(true);
+        MockHttpServletResponse response = execute(resolution, "bytes=0-9,150000-150009");
+
+        String output = new String(response.getOutputBytes(), "ISO-8859-1");
+        Assert.assertTrue(output.contains(new String(slice(0, 10), "ISO-8859-1")));
+        Assert.assertTrue(output.contains(new String(slice(150000, 150010), "ISO-8859-1")));
+        Assert.assertTrue(output.contains("Content-Range: bytes 150000-150009/200000"));
+    }
+
+    @Test(groups = "fast")
+    public void testChannel() throws Exception {
+        MockHttpServletResponse response = execute(new StreamingResolution(
+                "application/octet-stream", Channels.newChannel(new ByteArrayInputStream(data))),
+                null);
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), data));
+    }
+
+    @Test(groups = "fast", timeOut = 30000)
+    public void testNonBlockingChannel() throws Exception {
+        final Pipe pipe = Pipe.open();
+        pipe.source().configureBlocking(false);
+        Thread writer = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    // Write slowly so that the reader finds the pipe empty
+                    for (int i = 0; i < data.length; i += 50000) {
+                        Thread.sleep(50);
+                        pipe.sink().write(ByteBuffer.wrap(data, i, Math.min(50000, data.length - i)));
+                    }
+                    pipe.sink().close();
+                }
+                catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        writer.start();
+
+        MockHttpServletResponse response = execute(new StreamingResolution(
+                "application/octet-stream", pipe.source()), null);
+        writer.join();
+        Assert.assertTrue(Arrays.equals(response.getOutputBytes(), data));
+    }
+
+    @Test(groups = "fast", timeOut = 30000, expectedExceptions = IOException.class)
+    public void testChannelThatCannotBeWaitedOn() throws Exception {
+        ReadableByteChannel channel = new ReadableByteChannel() {
+            private boolean open = true;
+
+            public int read(ByteBuffer dst) {
+                return 0;
+            }
+
+            public boolean isOpen() {
+                return open;
+            }
+
+            public void close() {
+                open = false;
+            }
+        };
+        execute(new StreamingResolution("application/octet-stream", channel), null);
+    }
+}
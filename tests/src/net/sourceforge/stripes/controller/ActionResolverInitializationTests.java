@@ -0,0 +1,177 @@
+package net.sourceforge.stripes.controller;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the lazy and parallel initialization modes of {@link AnnotatedClassActionResolver}.
+ *
+ * @author agent
+ */
+public class ActionResolverInitializationTests {
+    /** Fails to warm up {@link BasicResolverTests}. */
+    public static class FailingResolver extends NameBasedActionResolver {
+        @Override
+        protected void warmUp(Class<? extends ActionBean> clazz) {
+            if (clazz == BasicResolverTests.class)
+                throw new IllegalStateException("Failed on purpose");
+            super.warmUp(clazz);
+        }
+    }
+
+    /** Fails to build the event mappings of {@link BasicResolverTests} the first time. */
+    public static class FailOnceResolver extends NameBasedActionResolver {
+        static volatile boolean failNext = true;
+
+        @Override
+        protected void processMethods(Class<?> clazz, Map<String, Method> classMappings) {
+            if (clazz == BasicResolverTests.class && failNext) {
+                failNext = false;
+                throw new IllegalStateException("Failed on purpose");
+            }
+            super.processMethods(clazz, classMappings);
+        }
+    }
+
+    /** Takes a long time to warm up each ActionBean unless interrupted. */
+    public static class SlowResolver extends NameBasedActionResolver {
+        @Override
+        protected void warmUp(Class<? extends ActionBean> clazz) {
+            try {
+                Thread.sleep(60000);
+            }
+            catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private MockServletContext createServletContext(String initialization) {
+        return createServletContext(initialization, null);
+    }
+
+    private MockServletContext createServletContext(String initialization,
+            Class<? extends ActionResolver> resolverClass) {
+        Map<String, String> params = StripesTestFixture.getDefaultFilterParams();
+        params.put(AnnotatedClassActionResolver.INITIALIZATION, initialization);
+        if (resolverClass != null)
+            params.put("ActionResolver.Class", resolverClass.getName());
+        return new MockServletContext("test")
+                .addFilter(StripesFilter.class, "StripesFilter", params)
+                .setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    private AnnotatedClassActionResolver getResolver(MockServletContext ctx) {
+        StripesFilter filter = (StripesFilter) ctx.getAttribute(StripesFilter.class.getName());
+        return (AnnotatedClassActionResolver) filter.getInstanceConfiguration().getActionResolver();
+    }
+
+    private void assertResolves(MockServletContext ctx) throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(ctx, BasicResolverTests.class);
+        trip.execute("two");
+        Assert.assertEquals(trip.getActionBean(BasicResolverTests.class).getNumber(), 2);
+
+        trip = new MockRoundtrip(ctx, BasicResolverTests.class);
+        trip.execute();
+        Assert.assertEquals(trip.getActionBean(BasicResolverTests.class).getNumber(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testLazy() throws Exception {
+        MockServletContext ctx = createServletContext("lazy");
+        try {
+            AnnotatedClassActionResolver resolver = getResolver(ctx);
+            Assert.assertTrue(resolver.isReady());
+            Assert.assertEquals(resolver.getActionBeanType("/BasicResolverTests.action"),
+                    BasicResolverTests.class);
+            assertResolves(ctx);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testLazyFailureClearedAfterRetry() throws Exception {
+        FailOnceResolver.failNext = true;
+        MockServletContext ctx = createServletContext("lazy", FailOnceResolver.class);
+        try {
+            AnnotatedClassActionResolver resolver = getResolver(ctx);
+            try {
+                resolver.getHandler(BasicResolverTests.class, "one");
+                Assert.fail("Expected the first attempt to fail");
+            }
+            catch (IllegalStateException e) {
+                // expected
+            }
+            Assert.assertFalse(resolver.isReady());
+            Assert.assertEquals(resolver.getFailures().size(), 1);
+
+            Assert.assertNotNull(resolver.getHandler(BasicResolverTests.class, "one"));
+            Assert.assertTrue(resolver.getFailures().isEmpty());
+            Assert.assertTrue(resolver.isReady());
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testParallel() throws Exception {
+        MockServletContext ctx = createServletContext("Parallel");
+        try {
+            AnnotatedClassActionResolver resolver = getResolver(ctx);
+            Assert.assertTrue(resolver.awaitReady(30, TimeUnit.SECONDS));
+            Assert.assertTrue(resolver.isReady());
+            Assert.assertNotNull(resolver.getHandler(BasicResolverTests.class, "one"));
+            assertResolves(ctx);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testParallelFailureIsReported() throws Exception {
+        MockServletContext ctx = createServletContext("parallel", FailingResolver.class);
+        try {
+            AnnotatedClassActionResolver resolver = getResolver(ctx);
+            try {
+                resolver.awaitReady(30, TimeUnit.SECONDS);
+                Assert.fail("Expected the warm-up failure to be reported");
+            }
+            catch (StripesRuntimeException e) {
+                Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+            Assert.assertFalse(resolver.isReady());
+            Assert.assertEquals(resolver.getFailures().keySet().iterator().next(),
+                    BasicResolverTests.class);
+            Assert.assertEquals(resolver.getFailures().size(), 1);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testDestroyStopsWarmUp() throws Exception {
+        MockServletContext ctx = createServletContext("parallel", SlowResolver.class);
+        AnnotatedClassActionResolver resolver = getResolver(ctx);
+        Assert.assertFalse(resolver.isReady());
+
+        long start = System.currentTimeMillis();
+        ctx.close();
+        Assert.assertTrue(System.currentTimeMillis() - start < 30000);
+        Assert.assertTrue(resolver.awaitReady(1, TimeUnit.SECONDS));
+    }
+}
@@ -3,11 +3,14 @@ package net.sourceforge.stripes.controller;
 import net.sourceforge.stripes.FilterEnabledTestBase;
 import net.sourceforge.stripes.StripesTestFixture;
 import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.config.Configuration;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
 import net.sourceforge.stripes.mock.MockRoundtrip;
 import net.sourceforge.stripes.mock.MockServletContext;
 import net.sourceforge.stripes.test.TestActionBean;
 import net.sourceforge.stripes.test.TestBean;
 import net.sourceforge.stripes.test.TestEnum;
+import net.sourceforge.stripes.util.bean.PropertyExpressionEvaluation;
 import org.testng.Assert;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
@@ -40,6 +43,58 @@ public class BasicBindingTests extends FilterEnabledTestBase {
         Assert.assertEquals(bean.getSingleLong(), new Long(12345L));
     }
 
+    @Test(groups="fast")
+    public void bindWithCachedBindingPlans() throws Exception {
+        // The second and third roundtrips bind using the plans cached by the first
+        for (int i = 0; i < 3; i++) {
+            MockRoundtrip trip = getRoundtrip();
+            trip.addParameter("singleLong", String.valueOf(i));
+            trip.addParameter("listOfBeans[" + i + "].intProperty", String.valueOf(i));
+            trip.addParameter("mapOfLongs['key" + i + "']", String.valueOf(i));
+            trip.addParameter("context.eventName", "hacked");
+            trip.execute();
+
+            TestActionBean bean = trip.getActionBean(TestActionBean.class);
+            Assert.assertEquals(bean.getSingleLong(), new Long(i));
+            Assert.assertEquals(bean.getListOfBeans().get(i).getIntProperty(), i);
+            Assert.assertEquals(bean.getMapOfLongs().get("key" + i), new Long(i));
+            Assert.assertFalse("hacked".equals(bean.getContext().getEventName()));
+        }
+    }
+
+    @Test(groups="fast")
+    public void bindingAllowedIsCheckedOnEveryRequest() throws Exception {
+        final boolean[] allow = { true };
+        DefaultActionBeanPropertyBinder binder = new DefaultActionBeanPropertyBinder() {
+            @Override
+            protected boolean isBindingAllowed(PropertyExpressionEvaluation eval) {
+                return allow[0] && super.isBindingAllowed(eval);
+            }
+        };
+
+        Configuration configuration = StripesTestFixture.getDefaultConfiguration();
+        binder.init(configuration);
+        StripesFilter.setCurrentConfiguration(configuration);
+        try {
+            // The first bind caches the plan; the override must still veto the second
+            for (boolean allowed : new boolean[] { true, false }) {
+                allow[0] = allowed;
+                MockHttpServletRequest request = new MockHttpServletRequest("", "/test");
+                request.getParameterMap().put("singleString", new String[] { "testValue" });
+                ActionBeanContext context = new ActionBeanContext();
+                context.setRequest(new StripesRequestWrapper(request));
+                TestActionBean bean = new TestActionBean();
+                bean.setContext(context);
+
+                binder.bind(bean, context, false);
+                Assert.assertEquals(bean.getSingleString(), allowed ? "testValue" : null);
+            }
+        }
+        finally {
+            StripesFilter.setCurrentConfiguration(null);
+        }
+    }
+
     @Test(groups="fast")
     public void bindSetsOfStrings() throws Exception {
         MockRoundtrip trip = getRoundtrip();
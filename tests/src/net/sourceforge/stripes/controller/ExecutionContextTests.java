@@ -1,5 +1,7 @@
 package net.sourceforge.stripes.controller;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
@@ -42,4 +44,65 @@ public class ExecutionContextTests {
         Assert.assertNull(ExecutionContext.currentContext(),
                 "The current context was not cleared at the end of the lifecycle.");
     }
+
+    @Test
+    public void testInterceptorStackOrder() throws Exception {
+        final List<String> calls = new ArrayList<String>();
+        List<Interceptor> interceptors = new ArrayList<Interceptor>();
+        for (final String name : new String[] { "first", "second" }) {
+            interceptors.add(new Interceptor() {
+                public Resolution intercept(ExecutionContext context) throws Exception {
+                    calls.add("before " + name);
+                    Resolution resolution = context.proceed();
+                    calls.add("after " + name);
+                    return resolution;
+                }
+            });
+        }
+
+        InterceptorStack stack = InterceptorStack.compile(interceptors);
+        Assert.assertEquals(stack, interceptors);
+        Assert.assertSame(InterceptorStack.compile(stack), stack);
+        Assert.assertSame(InterceptorStack.compile(new ArrayList<Interceptor>()), InterceptorStack.EMPTY);
+
+        // Run the same stack twice to make sure the context starts from the top each time
+        ExecutionContext ctx = new ExecutionContext();
+        ctx.setLifecycleStage(LifecycleStage.BindingAndValidation);
+        ctx.setInterceptors(stack);
+        for (int i = 0; i < 2; i++) {
+            calls.clear();
+            ctx.wrap(new Interceptor() {
+                public Resolution intercept(ExecutionContext context) throws Exception {
+                    calls.add("target");
+                    return null;
+                }
+            });
+
+            Assert.assertEquals(calls, Arrays.asList("before first", "before second",
+                    "target", "after second", "after first"));
+        }
+    }
+
+    @Test
+    public void testModifyInterceptorStack() throws Exception {
+        Interceptor first = new BeforeAfterMethodInterceptor();
+        Interceptor second = new BeforeAfterMethodInterceptor();
+        InterceptorStack stack = InterceptorStack.compile(Arrays.asList(first));
+
+        Interceptor[] before = stack.getInterceptorArray();
+        stack.add(second);
+        Assert.assertEquals(stack, Arrays.asList(first, second));
+        Assert.assertEquals(before.length, 1, "The old array must not be modified");
+
+        stack.remove(first);
+        Assert.assertEquals(stack, Arrays.asList(second));
+
+        try {
+            InterceptorStack.EMPTY.add(first);
+            Assert.fail("The shared empty stack must not be modifiable");
+        }
+        catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
 }
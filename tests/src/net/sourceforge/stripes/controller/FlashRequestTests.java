@@ -0,0 +1,67 @@
+package net.sourceforge.stripes.controller;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that {@link FlashRequest} captures the state of the prototype request.
+ * 
+ * @author agent
+ */
+public class FlashRequestTests {
+    private MockHttpServletRequest createPrototype() {
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/page.jsp");
+        request.addHeader("If-Modified-Since", "Sun, 06 Nov 1994 08:49:37 GMT");
+        request.addHeader("X-Count", 42);
+        request.addLocale(Locale.FRENCH);
+        request.getParameterMap().put("param", new String[] { "a", "b" });
+        request.setAttribute("flashed", "value");
+        request.setAttribute("large", new byte[1024]);
+        return request;
+    }
+
+    @Test(groups = "fast")
+    public void testCopiesEverything() {
+        FlashRequest flash = new FlashRequest(createPrototype());
+        Assert.assertEquals(flash.getContextPath(), "/test");
+        Assert.assertEquals(flash.getServletPath(), "/page.jsp");
+        Assert.assertEquals(flash.getHeader("if-modified-since"), "Sun, 06 Nov 1994 08:49:37 GMT");
+        Assert.assertEquals(flash.getDateHeader("If-Modified-Since"), 784111777000L);
+        Assert.assertEquals(flash.getIntHeader("X-Count"), 42);
+        Assert.assertEquals(flash.getDateHeader("X-Count"), 0L);
+        Assert.assertEquals(flash.getDateHeader("Missing"), 0L);
+        Assert.assertNull(flash.getHeader("Missing"));
+        Assert.assertFalse(flash.getHeaders("Missing").hasMoreElements());
+        Assert.assertEquals(Collections.list(flash.getHeaderNames()).size(), 2);
+        Assert.assertEquals(Collections.list(flash.getLocales()), Arrays.asList(Locale.FRENCH));
+        Assert.assertEquals(flash.getParameterValues("param"), new String[] { "a", "b" });
+        Assert.assertEquals(flash.getParameter("param"), "a");
+        Assert.assertEquals(flash.getAttribute("flashed"), "value");
+        Assert.assertNotNull(flash.getAttribute("large"));
+    }
+
+    @Test(groups = "fast")
+    public void testRetainsOnlyNamedAttributes() {
+        FlashRequest flash = new FlashRequest(createPrototype(), Arrays.asList("flashed",
+                "missing"));
+        Assert.assertEquals(flash.getAttribute("flashed"), "value");
+        Assert.assertNull(flash.getAttribute("large"));
+        Assert.assertEquals(Collections.list(flash.getAttributeNames()), Arrays.asList("flashed"));
+        Assert.assertEquals(flash.getParameter("param"), "a");
+
+        flash.setAttribute("added", "later");
+        Assert.assertEquals(flash.getAttribute("added"), "later");
+        flash.removeAttribute("added");
+        Assert.assertNull(flash.getAttribute("added"));
+
+        flash = new FlashRequest(createPrototype(), Collections.<String> emptySet());
+        Assert.assertFalse(flash.getAttributeNames().hasMoreElements());
+        flash.removeAttribute("flashed");
+    }
+}
@@ -0,0 +1,343 @@
+package net.sourceforge.stripes.controller;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Collection;
+import java.util.Map;
+import java.util.regex.Matcher;
+
+import javax.servlet.http.Cookie;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.config.RuntimeConfiguration;
+import net.sourceforge.stripes.exception.StripesRuntimeException;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockHttpSession;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests that flash scopes survive a redirect with each of the bundled {@link FlashScopeStore}s.
+ * 
+ * @author agent
+ */
+public class FlashScopeStoreTests {
+    /** Create a servlet context whose StripesFilter uses the given flash scope store. */
+    private MockServletContext createServletContext(Class<? extends FlashScopeStore> storeClass,
+            String... params) {
+        Map<String, String> filterParams = StripesTestFixture.getDefaultFilterParams();
+        filterParams.put(RuntimeConfiguration.FLASH_SCOPE_STORE, storeClass.getName());
+        for (int i = 0; i < params.length; i += 2)
+            filterParams.put(params[i], params[i + 1]);
+
+        return new MockServletContext("test").addFilter(StripesFilter.class, "StripesFilter",
+                filterParams).setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    /**
+     * Put a value in flash scope and redirect, then consume the flash scope in a second request
+     * that carries the cookies from the first response.
+     * 
+     * @return the second request
+     */
+    private MockRoundtrip roundtrip(MockServletContext ctx, MockHttpSession session)
+            throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(ctx, FlashScopeTests.class, session);
+        trip.addParameter("foo", "foo123");
+        trip.execute();
+
+        Matcher matcher = FlashScopeTests.FLASH_ID_REGEX.matcher(trip.getDestination());
+        Assert.assertTrue(matcher.matches());
+        String id = matcher.group(1);
+
+        MockRoundtrip trip2 = new MockRoundtrip(ctx, FlashScopeTests.class, session);
+        trip2.addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, id);
+        trip2.getRequest().setCookies(trip.getResponse().getCookies());
+        trip2.execute("DoNothing");
+        return trip2;
+    }
+
+    /** Assert that the first roundtrip created no flash scope container in the session. */
+    private void assertNoSessionContainer(MockHttpSession session) {
+        Assert.assertNull(session.getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION),
+                "Flash scope should not have been stored in the session");
+    }
+
+    @Test(groups = "fast")
+    public void testSessionStore() throws Exception {
+        MockServletContext ctx = createServletContext(SessionFlashScopeStore.class);
+        try {
+            MockHttpSession session = new MockHttpSession(ctx);
+            MockRoundtrip trip = roundtrip(ctx, session);
+            Assert.assertEquals(trip.getRequest().getAttribute("foo"), "foo123");
+            Assert.assertNotNull(session.getAttribute(StripesConstants.REQ_ATTR_FLASH_SCOPE_LOCATION));
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testMemoryStore() throws Exception {
+        MockServletContext ctx = createServletContext(MemoryFlashScopeStore.class);
+        try {
+            MockHttpSession session = new MockHttpSession(ctx);
+            MockRoundtrip trip = roundtrip(ctx, session);
+            Assert.assertEquals(trip.getRequest().getAttribute("foo"), "foo123");
+            assertNoSessionContainer(session);
+            Assert.assertEquals(FlashScope.getAllFlashScopes(trip.getRequest()).size(), 0);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testCookieStore() throws Exception {
+        MockServletContext ctx = createServletContext(CookieFlashScopeStore.class);
+        try {
+            MockHttpSession session = new MockHttpSession(ctx);
+            MockRoundtrip trip = roundtrip(ctx, session);
+            Assert.assertEquals(trip.getRequest().getAttribute("foo"), "foo123");
+            assertNoSessionContainer(session);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testCookieStoreRejectsAlteredCookie() throws Exception {
+        MockServletContext ctx = createServletContext(CookieFlashScopeStore.class);
+        try {
+            MockRoundtrip trip = new MockRoundtrip(ctx, FlashScopeTests.class);
+            trip.addParameter("foo", "foo123");
+            trip.execute();
+
+            Cookie[] cookies = trip.getResponse().getCookies();
+            Assert.assertEquals(cookies.length, 1);
+            Cookie cookie = cookies[0];
+            Assert.assertTrue(cookie.getName().startsWith(CookieFlashScopeStore.COOKIE_NAME_PREFIX));
+            String key = cookie.getName().substring(
+                    CookieFlashScopeStore.COOKIE_NAME_PREFIX.length());
+
+            String value = cookie.getValue();
+            char c = value.charAt(value.length() / 2);
+            value = value.substring(0, value.length() / 2) + (c == 'A' ? 'B' : 'A')
+                    + value.substring(value.length() / 2 + 1);
+
+            MockHttpServletRequest request = new MockHttpServletRequest("/test", "/foo");
+            request.setCookies(new Cookie[] { new Cookie(cookie.getName(), value) });
+            Assert.assertNull(new CookieFlashScopeStore().remove(request, null, key));
+
+            request.setCookies(cookies);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            FlashScope scope = new CookieFlashScopeStore().remove(request, response, key);
+            Assert.assertNotNull(scope);
+            Assert.assertEquals(scope.get("foo"), "foo123");
+
+            // The cookie must be deleted once the flash scope is consumed
+            Assert.assertEquals(response.getCookies().length, 1);
+            Assert.assertEquals(response.getCookies()[0].getName(), cookie.getName());
+            Assert.assertEquals(response.getCookies()[0].getMaxAge(), 0);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testFileStore() throws Exception {
+        File dir = File.createTempFile("flash", "test");
+        dir.delete();
+        MockServletContext ctx = createServletContext(FileFlashScopeStore.class,
+                FileFlashScopeStore.DIRECTORY, dir.getAbsolutePath());
+        try {
+            MockHttpSession session = new MockHttpSession(ctx);
+            MockRoundtrip trip = roundtrip(ctx, session);
+            Assert.assertEquals(trip.getRequest().getAttribute("foo"), "foo123");
+            assertNoSessionContainer(session);
+            Assert.assertEquals(dir.listFiles().length, 0,
+                    "The flash scope file should have been deleted when it was consumed");
+        }
+        finally {
+            ctx.close();
+            deleteDirectory(dir);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testFileStoreRejectsAlteredFile() throws Exception {
+        File dir = File.createTempFile("flash", "test");
+        dir.delete();
+        MockServletContext ctx = createServletContext(FileFlashScopeStore.class,
+                FileFlashScopeStore.DIRECTORY, dir.getAbsolutePath());
+        try {
+            MockRoundtrip trip = new MockRoundtrip(ctx, FlashScopeTests.class);
+            trip.addParameter("foo", "foo123");
+            trip.execute();
+
+            File[] files = dir.listFiles();
+            Assert.assertEquals(files.length, 1);
+            FileOutputStream out = new FileOutputStream(files[0], true);
+            out.write(0);
+            out.close();
+            files[0].setLastModified(System.currentTimeMillis() + 60000);
+
+            Matcher matcher = FlashScopeTests.FLASH_ID_REGEX.matcher(trip.getDestination());
+            Assert.assertTrue(matcher.matches());
+            MockRoundtrip trip2 = new MockRoundtrip(ctx, FlashScopeTests.class);
+            trip2.addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, matcher.group(1));
+            trip2.getRequest().setCookies(trip.getResponse().getCookies());
+            trip2.execute("DoNothing");
+            Assert.assertNull(trip2.getRequest().getAttribute("foo"));
+        }
+        finally {
+            ctx.close();
+            deleteDirectory(dir);
+        }
+    }
+
+    @Test(groups = "fast", expectedExceptions = StripesRuntimeException.class)
+    public void testFileStoreRequiresDirectory() throws Exception {
+        new FileFlashScopeStore().init(StripesTestFixture.getDefaultConfiguration());
+    }
+
+    /** Delete a directory created by one of the file store tests. */
+    private void deleteDirectory(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files)
+                file.delete();
+        }
+        dir.delete();
+    }
+
+    @Test(groups = "fast")
+    public void testMemoryStoreRequiresBindingCookie() throws Exception {
+        MockServletContext ctx = createServletContext(MemoryFlashScopeStore.class);
+        try {
+            MockRoundtrip trip = new MockRoundtrip(ctx, FlashScopeTests.class);
+            trip.addParameter("foo", "foo123");
+            trip.execute();
+
+            Matcher matcher = FlashScopeTests.FLASH_ID_REGEX.matcher(trip.getDestination());
+            Assert.assertTrue(matcher.matches());
+
+            // A client that only knows the key cannot consume the flash scope
+            MockRoundtrip other = new MockRoundtrip(ctx, FlashScopeTests.class);
+            other.addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, matcher.group(1));
+            other.execute("DoNothing");
+            Assert.assertNull(other.getRequest().getAttribute("foo"));
+
+            // ... and the flash scope is still there for the client that received it
+            MockRoundtrip owner = new MockRoundtrip(ctx, FlashScopeTests.class);
+            owner.addParameter(StripesConstants.URL_KEY_FLASH_SCOPE_ID, matcher.group(1));
+            owner.getRequest().setCookies(trip.getResponse().getCookies());
+            owner.execute("DoNothing");
+            Assert.assertEquals(owner.getRequest().getAttribute("foo"), "foo123");
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    /**
+     * Create a flash scope for each of two clients, then check that each client sees only its own
+     * flash scope.
+     */
+    private void assertClientsSeeOwnFlashScopes(MockServletContext ctx) throws Exception {
+        MockRoundtrip[] trips = new MockRoundtrip[2];
+        String[] keys = new String[trips.length];
+        for (int i = 0; i < trips.length; i++) {
+            trips[i] = new MockRoundtrip(ctx, FlashScopeTests.class);
+            trips[i].addParameter("foo", "foo" + i);
+            trips[i].execute();
+
+            Matcher matcher = FlashScopeTests.FLASH_ID_REGEX.matcher(trips[i].getDestination());
+            Assert.assertTrue(matcher.matches());
+            keys[i] = matcher.group(1);
+        }
+
+        for (int i = 0; i < trips.length; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("/test", "/foo");
+            request.setCookies(trips[i].getResponse().getCookies());
+            Collection<FlashScope> scopes = FlashScope.getAllFlashScopes(request);
+            Assert.assertEquals(scopes.size(), 1);
+            Assert.assertEquals(scopes.iterator().next().key(), keys[i]);
+        }
+
+        // A client without cookies sees none
+        Assert.assertTrue(FlashScope.getAllFlashScopes(
+                new MockHttpServletRequest("/test", "/foo")).isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testMemoryStoreGetAllIsPerClient() throws Exception {
+        MockServletContext ctx = createServletContext(MemoryFlashScopeStore.class);
+        try {
+            assertClientsSeeOwnFlashScopes(ctx);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testFileStoreGetAllIsPerClient() throws Exception {
+        File dir = File.createTempFile("flash", "test");
+        dir.delete();
+        MockServletContext ctx = createServletContext(FileFlashScopeStore.class,
+                FileFlashScopeStore.DIRECTORY, dir.getAbsolutePath());
+        try {
+            assertClientsSeeOwnFlashScopes(ctx);
+        }
+        finally {
+            ctx.close();
+            deleteDirectory(dir);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testSessionStoreRejectsInvalidatedSession() throws Exception {
+        MockServletContext ctx = new MockServletContext("test");
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/foo");
+        request.setSession(new MockHttpSession(ctx) {
+            @Override
+            public Object getAttribute(String name) {
+                throw new IllegalStateException("Session has been invalidated");
+            }
+        });
+        Assert.assertFalse(new SessionFlashScopeStore().add(request,
+                new FlashScope(request, "1")));
+    }
+
+    @Test(groups = "fast")
+    public void testMemoryStoreRemovesExpired() throws Exception {
+        MemoryFlashScopeStore store = new MemoryFlashScopeStore();
+        store.setReapInterval(0);
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/foo");
+
+        FlashScope expired = new FlashScope(request, "1");
+        expired.setTimeout(-1);
+        FlashScope live = new FlashScope(request, "2");
+        Assert.assertTrue(store.add(request, expired));
+        Assert.assertTrue(store.add(request, live));
+        Assert.assertFalse(store.add(request, new FlashScope(request, "2")));
+
+        store.removeExpired(request);
+        expired.setTimeout(FlashScope.DEFAULT_TIMEOUT_IN_SECONDS);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        store.save(request, response, expired);
+        store.save(request, response, live);
+        request.setCookies(response.getCookies());
+        Assert.assertEquals(store.getAll(request).size(), 1);
+        Assert.assertSame(store.remove(request, null, "2"), live);
+        Assert.assertNull(store.remove(request, null, "2"));
+    }
+}
@@ -31,7 +31,7 @@ import java.util.regex.Matcher;
 @UrlBinding("/FlashScopeTests.action")
 public class FlashScopeTests implements ActionBean {
     static final Pattern FLASH_ID_REGEX =
-            Pattern.compile(".*" + StripesConstants.URL_KEY_FLASH_SCOPE_ID + "=(-?\\d+).*");
+            Pattern.compile(".*" + StripesConstants.URL_KEY_FLASH_SCOPE_ID + "=([0-9a-f]+).*");
 
     private ActionBeanContext context;
     public ActionBeanContext getContext() { return context; }
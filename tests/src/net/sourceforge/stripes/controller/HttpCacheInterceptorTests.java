@@ -0,0 +1,138 @@
+package net.sourceforge.stripes.controller;
+
+import java.io.StringReader;
+
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.FilterEnabledTestBase;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.HttpCache;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.StreamingResolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the conditional GET support in {@link HttpCacheInterceptor} and
+ * {@link StreamingResolution}.
+ *
+ * @author agent
+ */
+@UrlBinding("/test/HttpCache.action")
+public class HttpCacheInterceptorTests extends FilterEnabledTestBase implements ActionBean {
+    private static final long MODIFIED = 1262304000000L; // 2010-01-01 00:00:00 GMT
+
+    private ActionBeanContext context;
+    private boolean handled;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    public String getVersion() { return "v1"; }
+    public long getModified() { return MODIFIED; }
+
+    @DefaultHandler
+    @HttpCache(eTag = "getVersion", lastModified = "getModified")
+    public Resolution view() {
+        handled = true;
+        return new StreamingResolution("text/plain", "hello");
+    }
+
+    public Resolution download() {
+        handled = true;
+        return new StreamingResolution("text/plain", new StringReader("hello"))
+                .setLastModified(MODIFIED);
+    }
+
+    private MockRoundtrip get() throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(getMockServletContext(),
+                HttpCacheInterceptorTests.class);
+        trip.getRequest().setMethod("GET");
+        return trip;
+    }
+
+    private boolean handled(MockRoundtrip trip) {
+        return trip.getActionBean(HttpCacheInterceptorTests.class).handled;
+    }
+
+    @Test(groups = "fast")
+    public void testUnconditionalGet() throws Exception {
+        MockRoundtrip trip = get();
+        trip.execute();
+
+        Assert.assertTrue(handled(trip));
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_OK);
+        Assert.assertEquals(trip.getOutputString(), "hello");
+        Assert.assertEquals(trip.getResponse().getHeaderMap().get("ETag").get(0), "\"v1\"");
+        Assert.assertEquals(trip.getResponse().getHeaderMap().get("Last-Modified").get(0), MODIFIED);
+    }
+
+    @Test(groups = "fast")
+    public void testIfNoneMatch() throws Exception {
+        MockRoundtrip trip = get();
+        trip.getRequest().addHeader("If-None-Match", "\"v0\", W/\"v1\"");
+        trip.execute();
+
+        Assert.assertFalse(handled(trip));
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(trip.getOutputString(), "");
+        Assert.assertEquals(trip.getResponse().getHeaderMap().get("ETag").get(0), "\"v1\"");
+    }
+
+    @Test(groups = "fast")
+    public void testIfNoneMatchTakesPrecedence() throws Exception {
+        MockRoundtrip trip = get();
+        trip.getRequest().addHeader("If-None-Match", "\"v0\"");
+        trip.getRequest().addHeader("If-Modified-Since", MODIFIED);
+        trip.execute();
+
+        Assert.assertTrue(handled(trip));
+        Assert.assertEquals(trip.getOutputString(), "hello");
+    }
+
+    @Test(groups = "fast")
+    public void testIfModifiedSince() throws Exception {
+        MockRoundtrip trip = get();
+        trip.getRequest().addHeader("If-Modified-Since", MODIFIED + 999);
+        trip.execute();
+        Assert.assertFalse(handled(trip));
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+
+        trip = get();
+        trip.getRequest().addHeader("If-Modified-Since", MODIFIED - 1000);
+        trip.execute();
+        Assert.assertTrue(handled(trip));
+        Assert.assertEquals(trip.getOutputString(), "hello");
+    }
+
+    @Test(groups = "fast")
+    public void testPostIsNotConditional() throws Exception {
+        MockRoundtrip trip = get();
+        trip.getRequest().setMethod("POST");
+        trip.getRequest().addHeader("If-None-Match", "*");
+        trip.execute();
+
+        Assert.assertTrue(handled(trip));
+        Assert.assertEquals(trip.getOutputString(), "hello");
+    }
+
+    @Test(groups = "fast")
+    public void testStreamingResolutionLastModified() throws Exception {
+        MockRoundtrip trip = get();
+        trip.getRequest().addHeader("If-Modified-Since", MODIFIED);
+        trip.execute("download");
+        Assert.assertTrue(handled(trip));
+        Assert.assertEquals(trip.getResponse().getStatus(), HttpServletResponse.SC_NOT_MODIFIED);
+        Assert.assertEquals(trip.getOutputString(), "");
+
+        trip = get();
+        trip.getRequest().addHeader("If-Modified-Since", MODIFIED - 1000);
+        trip.execute("download");
+        Assert.assertEquals(trip.getOutputString(), "hello");
+    }
+}
@@ -322,4 +322,26 @@ public class UrlBindingFactoryTests {
             log.debug("Got expected URL binding conflict");
         }
     }
+
+    @Test(groups = "fast")
+    public void testDynamicPathCache() {
+        UrlBindingFactory factory = new UrlBindingFactory();
+        factory.addBinding(FooActionBean1.class, UrlBindingFactory.parseUrlBinding(FooActionBean1.class));
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/1").getBeanType(), FooActionBean1.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/1").getBeanType(), FooActionBean1.class);
+
+        // Adding a binding with a longer prefix must invalidate the cached match
+        factory.addBinding(FooActionBean8.class, UrlBindingFactory.parseUrlBinding(FooActionBean8.class));
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/1").getBeanType(), FooActionBean8.class);
+
+        // And so must removing it
+        factory.removeBinding(FooActionBean8.class);
+        Assert.assertSame(factory.getBindingPrototype("/foo/goo/1").getBeanType(), FooActionBean1.class);
+
+        // Overflowing the cache must not change the results
+        factory.setDynamicPathCacheSize(2);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertSame(factory.getBindingPrototype("/foo/" + i).getBeanType(), FooActionBean1.class);
+        }
+    }
 }
@@ -0,0 +1,80 @@
+package net.sourceforge.stripes.controller;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link UrlPrefixTree}.
+ * 
+ * @author agent
+ */
+public class UrlPrefixTreeTests {
+    @Test(groups = "fast")
+    public void testLongestPrefixMatch() {
+        UrlPrefixTree<String> tree = new UrlPrefixTree<String>();
+        tree.put("/foo/", "foo");
+        tree.put("/foo/bar/", "bar");
+        tree.put("/foo/baz", "baz");
+        tree.put("/fob/", "fob");
+
+        Assert.assertNull(tree.getLongestPrefixMatch("/"));
+        Assert.assertNull(tree.getLongestPrefixMatch("/foo"));
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/"), "foo");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/1"), "foo");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/bar"), "foo");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/bar/1"), "bar");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/bazooka"), "baz");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/fob/1"), "fob");
+
+        Assert.assertEquals(tree.get("/foo/"), "foo");
+        Assert.assertNull(tree.get("/foo/b"));
+        Assert.assertNull(tree.get("/foo/bar/1"));
+    }
+
+    @Test(groups = "fast")
+    public void testRemove() {
+        UrlPrefixTree<String> tree = new UrlPrefixTree<String>();
+        tree.put("/foo/", "foo");
+        tree.put("/foo/bar/", "bar");
+        tree.put("/foo/baz", "baz");
+
+        tree.remove("/foo/");
+        Assert.assertNull(tree.get("/foo/"));
+        Assert.assertNull(tree.getLongestPrefixMatch("/foo/1"));
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/bar/1"), "bar");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/baz/1"), "baz");
+
+        tree.remove("/foo/bar/");
+        Assert.assertNull(tree.getLongestPrefixMatch("/foo/bar/1"));
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/baz/1"), "baz");
+
+        tree.put("/foo/", "foo");
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/bar/1"), "foo");
+
+        tree.clear();
+        Assert.assertNull(tree.getLongestPrefixMatch("/foo/baz/1"));
+    }
+
+    @Test(groups = "fast")
+    public void testRemovePrunesEmptyNodes() {
+        UrlPrefixTree<String> tree = new UrlPrefixTree<String>();
+        tree.put("/foo/bar", "bar");
+        tree.put("/foo/baz", "baz");
+        tree.put("/foo/baz/qux", "qux");
+        Assert.assertEquals(tree.getNodeCount(), 4);
+
+        // "/foo/ba" is left with one child, so it is merged into "z"
+        tree.remove("/foo/bar");
+        Assert.assertEquals(tree.getNodeCount(), 2);
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/baz/qux/1"), "qux");
+
+        // Removing the leaf leaves "/foo/baz" with its value, so nothing else is pruned
+        tree.remove("/foo/baz/qux");
+        Assert.assertEquals(tree.getNodeCount(), 1);
+        Assert.assertEquals(tree.getLongestPrefixMatch("/foo/baz/qux/1"), "baz");
+
+        tree.remove("/foo/baz");
+        Assert.assertEquals(tree.getNodeCount(), 0);
+        Assert.assertNull(tree.getLongestPrefixMatch("/foo/baz"));
+    }
+}
@@ -0,0 +1,233 @@
+package net.sourceforge.stripes.controller.cache;
+
+import java.util.Map;
+
+import javax.servlet.http.HttpServletResponse;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.CacheResponse;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.StreamingResolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ResponseCacheInterceptor} and {@link ResponseCache}.
+ *
+ * @author agent
+ */
+@UrlBinding("/test/ResponseCache.action")
+public class ResponseCacheInterceptorTests implements ActionBean {
+    private static int invocations;
+
+    private ActionBeanContext context;
+    private String id;
+    private String page;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+    public String getPage() { return page; }
+    public void setPage(String page) { this.page = page; }
+
+    @DefaultHandler
+    @CacheResponse(ttl = 600)
+    public Resolution view() {
+        ++invocations;
+        return new StreamingResolution("text/plain", "view " + id);
+    }
+
+    @CacheResponse(parameters = "page")
+    public Resolution list() {
+        ++invocations;
+        return new StreamingResolution("text/plain", "page " + page);
+    }
+
+    @CacheResponse
+    public Resolution missing() {
+        ++invocations;
+        return new StreamingResolution("text/plain") {
+            @Override
+            protected void stream(HttpServletResponse response) throws Exception {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+                response.getWriter().write("not found");
+            }
+        };
+    }
+
+    @CacheResponse
+    public Resolution tagged() {
+        ++invocations;
+        return new StreamingResolution("text/plain") {
+            @Override
+            protected void stream(HttpServletResponse response) throws Exception {
+                response.setHeader("ETag", "\"v1\"");
+                response.addHeader("X-Test", "a");
+                response.addHeader("X-Test", "b");
+                response.getWriter().write("tagged");
+            }
+        };
+    }
+
+    private MockServletContext createServletContext() {
+        Map<String, String> params = StripesTestFixture.getDefaultFilterParams();
+        params.put("Interceptor.Classes", ResponseCacheInterceptor.class.getName());
+        return new MockServletContext("test")
+                .addFilter(StripesFilter.class, "StripesFilter", params)
+                .setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    private ResponseCacheInterceptor getInterceptor(MockServletContext context) {
+        StripesFilter filter = (StripesFilter) context.getAttribute(StripesFilter.class.getName());
+        for (Interceptor interceptor : filter.getInstanceConfiguration().getInterceptors(
+                LifecycleStage.HandlerResolution)) {
+            if (interceptor instanceof ResponseCacheInterceptor)
+                return (ResponseCacheInterceptor) interceptor;
+        }
+        return null;
+    }
+
+    private String execute(MockServletContext ctx, String method, String event, String... params)
+            throws Exception {
+        MockRoundtrip trip = new MockRoundtrip(ctx, ResponseCacheInterceptorTests.class);
+        trip.getRequest().setMethod(method);
+        for (int i = 0; i < params.length; i += 2)
+            trip.setParameter(params[i], params[i + 1]);
+        trip.execute(event);
+        return trip.getOutputString();
+    }
+
+    @Test(groups = "fast")
+    public void testServesCachedResponse() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            ResponseCache cache = getInterceptor(ctx).getCache();
+            invocations = 0;
+
+            Assert.assertEquals(execute(ctx, "GET", "view", "id", "1"), "view 1");
+            Assert.assertEquals(execute(ctx, "GET", "view", "id", "1"), "view 1");
+            Assert.assertEquals(invocations, 1);
+            Assert.assertEquals(cache.getHitCount(), 1);
+            Assert.assertEquals(cache.getMissCount(), 1);
+
+            Assert.assertEquals(execute(ctx, "GET", "view", "id", "2"), "view 2");
+            Assert.assertEquals(invocations, 2);
+            Assert.assertEquals(cache.getEntryCount(), 2);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testHeadersAreCachedAndConditionalRequestsChecked() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            invocations = 0;
+            Assert.assertEquals(execute(ctx, "GET", "tagged"), "tagged");
+
+            MockRoundtrip trip = new MockRoundtrip(ctx, ResponseCacheInterceptorTests.class);
+            trip.getRequest().setMethod("GET");
+            trip.execute("tagged");
+            Assert.assertEquals(invocations, 1);
+            Assert.assertEquals(trip.getOutputString(), "tagged");
+            Assert.assertEquals(trip.getResponse().getHeaderMap().get("ETag").get(0), "\"v1\"");
+            Assert.assertEquals(trip.getResponse().getHeaderMap().get("X-Test").size(), 2);
+
+            trip = new MockRoundtrip(ctx, ResponseCacheInterceptorTests.class);
+            trip.getRequest().setMethod("GET");
+            trip.getRequest().addHeader("If-None-Match", "\"v1\"");
+            trip.execute("tagged");
+            Assert.assertEquals(invocations, 1);
+            Assert.assertEquals(trip.getResponse().getStatus(),
+                    HttpServletResponse.SC_NOT_MODIFIED);
+            Assert.assertEquals(trip.getOutputString(), "");
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testOnlyGetIsCached() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            invocations = 0;
+            Assert.assertEquals(execute(ctx, "POST", "view", "id", "1"), "view 1");
+            Assert.assertEquals(execute(ctx, "POST", "view", "id", "1"), "view 1");
+            Assert.assertEquals(invocations, 2);
+            Assert.assertEquals(getInterceptor(ctx).getCache().getEntryCount(), 0);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testKeyParameters() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            invocations = 0;
+            Assert.assertEquals(execute(ctx, "GET", "list", "page", "1", "id", "a"), "page 1");
+            Assert.assertEquals(execute(ctx, "GET", "list", "page", "1", "id", "b"), "page 1");
+            Assert.assertEquals(invocations, 1);
+            Assert.assertEquals(execute(ctx, "GET", "list", "page", "2", "id", "a"), "page 2");
+            Assert.assertEquals(invocations, 2);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testErrorStatusIsNotCached() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            invocations = 0;
+            execute(ctx, "GET", "missing");
+            execute(ctx, "GET", "missing");
+            Assert.assertEquals(invocations, 2);
+            Assert.assertEquals(getInterceptor(ctx).getCache().getEntryCount(), 0);
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testEvictionAndExpiration() throws Exception {
+        CachedResponse small = new CachedResponse("text/plain", null, new byte[100], Long.MAX_VALUE);
+        ResponseCache cache = new ResponseCache(3 * (128 + 2 + 100));
+        cache.put("a", small);
+        cache.put("b", small);
+        cache.put("c", small);
+        Assert.assertEquals(cache.getEntryCount(), 3);
+
+        // Touch "a" so that "b" is the least recently used
+        Assert.assertNotNull(cache.get("a"));
+        cache.put("d", small);
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+        Assert.assertNull(cache.get("b"));
+        Assert.assertNotNull(cache.get("a"));
+
+        cache.put("e", new CachedResponse("text/plain", null, new byte[100], 0));
+        Assert.assertNull(cache.get("e"));
+        Assert.assertEquals(cache.getExpirationCount(), 1);
+        Assert.assertTrue(cache.getSize() <= cache.getMaxSize());
+
+        Assert.assertFalse(cache.put("big", new CachedResponse(null, null, new byte[1000],
+                Long.MAX_VALUE)));
+    }
+}
@@ -0,0 +1,164 @@
+package net.sourceforge.stripes.controller.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import net.sourceforge.stripes.StripesTestFixture;
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.ActionBeanContext;
+import net.sourceforge.stripes.action.DefaultHandler;
+import net.sourceforge.stripes.action.ForwardResolution;
+import net.sourceforge.stripes.action.Resolution;
+import net.sourceforge.stripes.action.UrlBinding;
+import net.sourceforge.stripes.controller.DispatcherServlet;
+import net.sourceforge.stripes.controller.Interceptor;
+import net.sourceforge.stripes.controller.LifecycleStage;
+import net.sourceforge.stripes.controller.StripesFilter;
+import net.sourceforge.stripes.mock.MockRoundtrip;
+import net.sourceforge.stripes.mock.MockServletContext;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link MetricsInterceptor}, its default registry and reporter, and
+ * {@link LatencyHistogram}.
+ *
+ * @author agent
+ */
+@UrlBinding("/test/Metrics.action")
+public class MetricsInterceptorTests implements ActionBean {
+    private ActionBeanContext context;
+
+    public ActionBeanContext getContext() { return context; }
+    public void setContext(ActionBeanContext context) { this.context = context; }
+
+    @DefaultHandler
+    public Resolution view() {
+        return new ForwardResolution("/view.jsp");
+    }
+
+    public Resolution save() {
+        return new ForwardResolution("/save.jsp");
+    }
+
+    private MockServletContext createServletContext() {
+        Map<String, String> params = StripesTestFixture.getDefaultFilterParams();
+        params.put("Interceptor.Classes", MetricsInterceptor.class.getName());
+        params.put(JmxMetricsReporter.OBJECT_NAME, "net.sourceforge.stripes:type=Metrics,name="
+                + getClass().getSimpleName());
+        return new MockServletContext("test")
+                .addFilter(StripesFilter.class, "StripesFilter", params)
+                .setServlet(DispatcherServlet.class, "StripesDispatcher", null);
+    }
+
+    private MetricsInterceptor getInterceptor(MockServletContext context) {
+        StripesFilter filter = (StripesFilter) context.getAttribute(StripesFilter.class.getName());
+        for (Interceptor interceptor : filter.getInstanceConfiguration().getInterceptors(
+                LifecycleStage.EventHandling)) {
+            if (interceptor instanceof MetricsInterceptor)
+                return (MetricsInterceptor) interceptor;
+        }
+        return null;
+    }
+
+    @Test(groups = "fast")
+    public void testRecordsEachStage() throws Exception {
+        MockServletContext ctx = createServletContext();
+        try {
+            MetricsInterceptor interceptor = getInterceptor(ctx);
+            Assert.assertNotNull(interceptor);
+
+            new MockRoundtrip(ctx, getClass()).execute();
+            new MockRoundtrip(ctx, getClass()).execute("save");
+            new MockRoundtrip(ctx, getClass()).execute("save");
+
+            Map<MetricKey, HistogramSnapshot> snapshots = interceptor.getRegistry().getSnapshots();
+            Assert.assertEquals(snapshots.get(
+                    new MetricKey(getClass(), "view", LifecycleStage.EventHandling)).getCount(), 1);
+            Assert.assertEquals(snapshots.get(
+                    new MetricKey(getClass(), "save", LifecycleStage.EventHandling)).getCount(), 2);
+            Assert.assertEquals(snapshots.get(
+                    new MetricKey(getClass(), "save", LifecycleStage.BindingAndValidation))
+                    .getCount(), 2);
+            Assert.assertEquals(snapshots.get(
+                    new MetricKey(getClass(), null, LifecycleStage.ActionBeanResolution))
+                    .getCount(), 3);
+
+            interceptor.getRegistry().reset();
+            Assert.assertTrue(interceptor.getRegistry().getSnapshots().isEmpty());
+        }
+        finally {
+            ctx.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testJmxReporter() throws Exception {
+        MockServletContext ctx = createServletContext();
+        ObjectName name;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            MetricsInterceptor interceptor = getInterceptor(ctx);
+            name = ((JmxMetricsReporter) interceptor.getReporter()).getObjectName();
+            Assert.assertTrue(server.isRegistered(name));
+
+            new MockRoundtrip(ctx, getClass()).execute("save");
+            String attribute = new MetricKey(getClass(), "save", LifecycleStage.EventHandling)
+                    .toString();
+            CompositeData data = (CompositeData) server.getAttribute(name, attribute);
+            Assert.assertEquals(data.get("count"), 1L);
+
+            server.invoke(name, "reset", null, null);
+            Assert.assertTrue(interceptor.getRegistry().getSnapshots().isEmpty());
+        }
+        finally {
+            ctx.close();
+        }
+
+        Assert.assertFalse(server.isRegistered(name));
+    }
+
+    @Test(groups = "fast")
+    public void testBuckets() {
+        for (int i = 0; i < LatencyHistogram.BUCKET_COUNT; i++) {
+            long lower = LatencyHistogram.getBucketLowerBound(i);
+            long upper = LatencyHistogram.getBucketUpperBound(i);
+            Assert.assertTrue(upper > lower);
+            Assert.assertEquals(LatencyHistogram.getBucketIndex(lower), i);
+            Assert.assertEquals(LatencyHistogram.getBucketIndex(upper - 1), i);
+            if (i + 1 < LatencyHistogram.BUCKET_COUNT)
+                Assert.assertEquals(LatencyHistogram.getBucketLowerBound(i + 1), upper);
+        }
+        Assert.assertEquals(LatencyHistogram.getBucketIndex(Long.MAX_VALUE),
+                LatencyHistogram.BUCKET_COUNT - 1);
+    }
+
+    @Test(groups = "fast")
+    public void testPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        HistogramSnapshot snapshot = histogram.getSnapshot();
+        Assert.assertEquals(snapshot.getCount(), 1000);
+        Assert.assertEquals(snapshot.getMaxNanos(), 1000000);
+        Assert.assertEquals(snapshot.getMeanNanos(), 500500.0);
+
+        // Relative error is bounded by the width of the sub-buckets
+        long p50 = snapshot.getPercentileMicros(50);
+        Assert.assertTrue(Math.abs(p50 - 500) <= 500 / LatencyHistogram.SUB_BUCKETS, "p50=" + p50);
+        long p99 = snapshot.getPercentileMicros(99);
+        Assert.assertTrue(Math.abs(p99 - 990) <= 990 / LatencyHistogram.SUB_BUCKETS, "p99=" + p99);
+        Assert.assertEquals(snapshot.getPercentileMicros(100), 1000);
+
+        histogram.reset();
+        Assert.assertEquals(histogram.getSnapshot().getCount(), 0);
+        Assert.assertEquals(histogram.getSnapshot().getPercentileMicros(50), 0);
+    }
+}
@@ -0,0 +1,249 @@
+package net.sourceforge.stripes.controller.multipart;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+import javax.servlet.ServletInputStream;
+
+import net.sourceforge.stripes.action.FileBean;
+import net.sourceforge.stripes.controller.FileUploadLimitExceededException;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link StreamingMultipartWrapper}.
+ *
+ * @author agent
+ */
+public class StreamingMultipartWrapperTests {
+    private static final String BOUNDARY = "----StripesBoundary7MA4YWxkTrZu0gW";
+
+    private File tempDir;
+
+    @BeforeMethod(alwaysRun = true)
+    public void createTempDir() throws IOException {
+        tempDir = File.createTempFile("stripes-multipart", "");
+        tempDir.delete();
+        tempDir.mkdirs();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void deleteTempDir() {
+        for (File file : tempDir.listFiles())
+            file.delete();
+        tempDir.delete();
+    }
+
+    /** A request whose body is read in chunks of the given size. */
+    private MockHttpServletRequest createRequest(final byte[] body, final int chunkSize) {
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/Upload.action") {
+            @Override
+            public String getContentType() {
+                return "multipart/form-data; boundary=\"" + BOUNDARY + "\"";
+            }
+
+            @Override
+            public int getContentLength() {
+                return body.length;
+            }
+
+            @Override
+            public ServletInputStream getInputStream() {
+                final InputStream in = new ByteArrayInputStream(body);
+                return new ServletInputStream() {
+                    @Override
+                    public int read() throws IOException {
+                        return in.read();
+                    }
+
+                    @Override
+                    public int read(byte[] b, int off, int len) throws IOException {
+                        return in.read(b, off, Math.min(len, chunkSize));
+                    }
+                };
+            }
+        };
+        return request;
+    }
+
+    /** Build a multipart body from alternating field names and values. */
+    private byte[] createBody(Object... parts) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write("preamble\r\n".getBytes("UTF-8"));
+        for (int i = 0; i < parts.length; i += 2) {
+            out.write(("--" + BOUNDARY + "\r\n").getBytes("UTF-8"));
+            if (parts[i + 1] instanceof byte[]) {
+                String[] name = ((String) parts[i]).split("\\|", -1);
+                out.write(("Content-Disposition: form-data; name=\"" + name[0] + "\"; filename=\""
+                        + name[1] + "\"\r\nContent-Type: application/octet-stream\r\n\r\n")
+                        .getBytes("UTF-8"));
+                out.write((byte[]) parts[i + 1]);
+            }
+            else {
+                out.write(("Content-Disposition: form-data; name=\"" + parts[i] + "\"\r\n\r\n")
+                        .getBytes("UTF-8"));
+                out.write(((String) parts[i + 1]).getBytes("UTF-8"));
+            }
+            out.write("\r\n".getBytes("UTF-8"));
+        }
+        out.write(("--" + BOUNDARY + "--\r\n").getBytes("UTF-8"));
+        return out.toByteArray();
+    }
+
+    /** Create some data that contains line breaks and things that look like boundaries. */
+    private byte[] createData(int size) throws IOException {
+        byte[] pattern = ("\r\n--" + BOUNDARY.substring(0, 10) + "\r\n-").getBytes("UTF-8");
+        byte[] data = new byte[size];
+        for (int i = 0; i < size; i++)
+            data[i] = i % 3 == 0 ? pattern[i % pattern.length] : (byte) i;
+        return data;
+    }
+
+    private byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1000];
+        for (int count; (count = in.read(buffer)) > 0;)
+            out.write(buffer, 0, count);
+        in.close();
+        return out.toByteArray();
+    }
+
+    private byte[] readFully(ReadableByteChannel in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        while (in.read(buffer) >= 0) {
+            out.write(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+        in.close();
+        return out.toByteArray();
+    }
+
+    private StreamingMultipartWrapper parse(byte[] body, int chunkSize, long maxPostSize)
+            throws Exception {
+        StreamingMultipartWrapper wrapper = new StreamingMultipartWrapper();
+        wrapper.setMemoryThreshold(1024);
+        wrapper.build(createRequest(body, chunkSize), tempDir, maxPostSize);
+        return wrapper;
+    }
+
+    @Test(groups = "fast")
+    public void testFieldsAndSmallFile() throws Exception {
+        byte[] data = createData(1000);
+        StreamingMultipartWrapper wrapper = parse(createBody("name", "J\u00f6rg", "tag", "a", "tag",
+                "", "file|C:\\Documents\\small.bin", data), 8192, 0);
+
+        Assert.assertEquals(wrapper.getParameterValues("name"), new String[] { "J\u00f6rg" });
+        Assert.assertEquals(wrapper.getParameterValues("tag"), new String[] { "a", "" });
+        Assert.assertNull(wrapper.getParameterValues("file"));
+
+        FileBean file = wrapper.getFileParameterValue("file");
+        Assert.assertEquals(file.getFileName(), "small.bin");
+        Assert.assertEquals(file.getContentType(), "application/octet-stream");
+        Assert.assertEquals(file.getSize(), data.length);
+        Assert.assertTrue(Arrays.equals(readFully(file.getInputStream()), data));
+        Assert.assertTrue(Arrays.equals(readFully(file.getChannel()), data));
+
+        // Small files must not touch the disk
+        Assert.assertEquals(tempDir.listFiles().length, 0);
+
+        File target = new File(tempDir, "saved.bin");
+        file.save(target);
+        Assert.assertTrue(Arrays.equals(readFully(new FileInputStream(target)), data));
+    }
+
+    @Test(groups = "fast")
+    public void testLargeFileIsSpooled() throws Exception {
+        byte[] data = createData(100000);
+        StreamingMultipartWrapper wrapper = parse(createBody("file|large.bin", data, "after",
+                "value"), 7, 0);
+
+        Assert.assertEquals(wrapper.getParameterValues("after"), new String[] { "value" });
+        Assert.assertEquals(tempDir.listFiles().length, 1);
+
+        FileBean file = wrapper.getFileParameterValue("file");
+        Assert.assertEquals(file.getSize(), data.length);
+        Assert.assertTrue(Arrays.equals(readFully(file.getInputStream()), data));
+        Assert.assertTrue(Arrays.equals(readFully(file.getChannel()), data));
+
+        File target = new File(tempDir, "saved.bin");
+        file.save(target);
+        Assert.assertEquals(tempDir.listFiles().length, 1);
+        Assert.assertTrue(Arrays.equals(readFully(new FileInputStream(target)), data));
+    }
+
+    @Test(groups = "fast")
+    public void testEmptyFileField() throws Exception {
+        StreamingMultipartWrapper wrapper = parse(createBody("file|", new byte[0]), 8192, 0);
+        Assert.assertNull(wrapper.getFileParameterValue("file"));
+        Assert.assertEquals(wrapper.getFileParameterNames().nextElement(), "file");
+    }
+
+    @Test(groups = "fast")
+    public void testMaxPostSize() throws Exception {
+        byte[] body = createBody("file|large.bin", createData(100000));
+        try {
+            parse(body, 8192, 10000);
+            Assert.fail("Expected FileUploadLimitExceededException");
+        }
+        catch (FileUploadLimitExceededException e) {
+            Assert.assertEquals(e.getMaximum(), 10000);
+        }
+        Assert.assertEquals(tempDir.listFiles().length, 0);
+    }
+
+    @Test(groups = "fast")
+    public void testMaxFieldSize() throws Exception {
+        char[] text = new char[2000];
+        Arrays.fill(text, 'x');
+        byte[] body = createBody("small", "value", "large", new String(text));
+
+        StreamingMultipartWrapper wrapper = new StreamingMultipartWrapper();
+        wrapper.setMaxFieldSize(1000);
+        try {
+            wrapper.build(createRequest(body, 8192), tempDir, 0);
+            Assert.fail("Expected FileUploadLimitExceededException");
+        }
+        catch (FileUploadLimitExceededException e) {
+            Assert.assertEquals(e.getMaximum(), 1000);
+        }
+
+        // The same field fits under the default limit
+        wrapper = new StreamingMultipartWrapper();
+        wrapper.build(createRequest(body, 8192), tempDir, 0);
+        Assert.assertEquals(wrapper.getParameterValues("large"), new String[] { new String(text) });
+    }
+
+    @Test(groups = "fast", expectedExceptions = IOException.class)
+    public void testTruncatedBody() throws Exception {
+        byte[] body = createBody("file|large.bin", createData(5000));
+        byte[] truncated = new byte[body.length - 20];
+        System.arraycopy(body, 0, truncated, 0, truncated.length);
+        try {
+            parse(truncated, 8192, 0);
+        }
+        finally {
+            Assert.assertEquals(tempDir.listFiles().length, 0);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testParseParameters() {
+        Assert.assertEquals(StreamingMultipartWrapper.getBoundary(
+                "multipart/form-data; charset=UTF-8; boundary=abc"), "abc");
+        Assert.assertEquals(StreamingMultipartWrapper.parseParameters(
+                "form-data; name=\"a;b\"; filename=\"x\\\"y.txt\"").get("filename"), "x\"y.txt");
+        Assert.assertNull(StreamingMultipartWrapper.getBoundary("multipart/form-data"));
+    }
+}
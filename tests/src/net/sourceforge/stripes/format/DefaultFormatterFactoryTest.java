@@ -44,6 +44,23 @@ public class DefaultFormatterFactoryTest {
         Assert.assertEquals(CFormatter.class, formatter.getClass());
     }
 
+    @Test(groups = "fast")
+    public void testReusableFormatters() throws Exception {
+        DefaultFormatterFactory factory = new DefaultFormatterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        Formatter<?> formatter = factory.getFormatter(Integer.class, Locale.US, "currency", null);
+        Assert.assertSame(factory.getFormatter(Integer.class, Locale.US, "currency", null), formatter);
+        Assert.assertNotSame(factory.getFormatter(Integer.class, Locale.US, "percentage", null), formatter);
+        Assert.assertNotSame(factory.getFormatter(Integer.class, Locale.US, null, "0.00"), formatter);
+        Assert.assertNotSame(factory.getFormatter(Integer.class, Locale.UK, "currency", null), formatter);
+
+        // Formatters that are not annotated are never reused
+        factory.add(A.class, AFormatter.class);
+        Assert.assertNotSame(factory.getFormatter(A.class, Locale.US, null, null),
+                factory.getFormatter(A.class, Locale.US, null, null));
+    }
+
     @Test(groups = "fast")
     public void testFormatterInterface() throws Exception {
         DefaultFormatterFactory factory = new DefaultFormatterFactory();
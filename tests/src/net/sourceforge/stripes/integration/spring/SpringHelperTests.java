@@ -294,6 +294,67 @@ public class SpringHelperTests {
         Assert.assertNotNull(target.number4);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+
+    @Test(groups="fast")
+    public void testPrototypeAndSingletonScopes() {
+        MultipleInjectionTarget2 first = new MultipleInjectionTarget2();
+        MultipleInjectionTarget2 second = new MultipleInjectionTarget2();
+        SpringHelper.injectBeans(first, ctx);
+        SpringHelper.injectBeans(second, ctx);
+
+        // Singletons are the same instance every time, prototypes are not
+        Assert.assertSame(first.someBeanOrOther, second.someBeanOrOther);
+        Assert.assertSame(first.testActionBean, second.testActionBean);
+        Assert.assertSame(first.number4, second.number4);
+        Assert.assertNotSame(first.number3, second.number3);
+        Assert.assertNotSame(first.number3, first.number4);
+    }
+
+    @Test(groups="fast")
+    public void testInjectionWithDifferentContext() {
+        MultipleInjectionTarget2 first = new MultipleInjectionTarget2();
+        SpringHelper.injectBeans(first, ctx);
+
+        StaticApplicationContext other = new StaticWebApplicationContext();
+        other.registerSingleton("test/TestBean", TestBean.class);
+        other.registerSingleton("testActionBean", TestActionBean.class);
+        other.registerPrototype("test/testActionBean", TestActionBean.class);
+
+        MultipleInjectionTarget2 second = new MultipleInjectionTarget2();
+        SpringHelper.injectBeans(second, other);
+        Assert.assertNotSame(first.someBeanOrOther, second.someBeanOrOther);
+        Assert.assertNotSame(first.testActionBean, second.testActionBean);
+        Assert.assertSame(second.testActionBean, other.getBean("testActionBean"));
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+
+    public static class CountingBean {
+        static int created;
+        public CountingBean() { created++; }
+    }
+
+    private static class CountingTarget {
+        @SpringBean("counting") CountingBean byName;
+        @SpringBean CountingBean counting2;
+    }
+
+    @Test(groups="fast")
+    public void testPrototypesCreatedOnlyWhenInjected() {
+        StaticApplicationContext other = new StaticWebApplicationContext();
+        other.registerPrototype("counting", CountingBean.class);
+
+        CountingBean.created = 0;
+        CountingTarget target = new CountingTarget();
+        SpringHelper.injectBeans(target, other);
+        Assert.assertEquals(CountingBean.created, 2);
+        Assert.assertNotSame(target.byName, target.counting2);
+
+        SpringHelper.injectBeans(new CountingTarget(), other);
+        Assert.assertEquals(CountingBean.created, 4);
+    }
+
     // /////////////////////////////////////////////////////////////////////////
     public static class PostProcessorTarget {
         private TestBean bean;
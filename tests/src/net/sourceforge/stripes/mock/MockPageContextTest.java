@@ -0,0 +1,73 @@
+package net.sourceforge.stripes.mock;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+
+import javax.servlet.jsp.PageContext;
+
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link MockPageContext} and {@link MockJspWriter}.
+ *
+ * @author agent
+ */
+public class MockPageContextTest {
+    private MockPageContext createPageContext(boolean withSession) {
+        MockServletContext context = new MockServletContext("test");
+        MockHttpServletRequest request = new MockHttpServletRequest("/test", "/page.jsp");
+        if (withSession)
+            request.setSession(new MockHttpSession(context));
+        return new MockPageContext(context, request, new MockHttpServletResponse());
+    }
+
+    @Test(groups = "fast")
+    public void testAttributeScopes() {
+        MockPageContext pageContext = createPageContext(true);
+        pageContext.setAttribute("a", "page");
+        pageContext.setAttribute("b", "request", PageContext.REQUEST_SCOPE);
+        pageContext.setAttribute("c", "session", PageContext.SESSION_SCOPE);
+        pageContext.setAttribute("d", "application", PageContext.APPLICATION_SCOPE);
+
+        assertEquals(pageContext.getAttribute("a"), "page");
+        assertEquals(pageContext.getRequest().getAttribute("b"), "request");
+        assertEquals(pageContext.getSession().getAttribute("c"), "session");
+        assertEquals(pageContext.getServletContext().getAttribute("d"), "application");
+
+        assertEquals(pageContext.getAttributesScope("a"), PageContext.PAGE_SCOPE);
+        assertEquals(pageContext.getAttributesScope("b"), PageContext.REQUEST_SCOPE);
+        assertEquals(pageContext.getAttributesScope("c"), PageContext.SESSION_SCOPE);
+        assertEquals(pageContext.getAttributesScope("d"), PageContext.APPLICATION_SCOPE);
+        assertEquals(pageContext.getAttributesScope("e"), 0);
+
+        // Narrower scopes hide wider ones
+        pageContext.setAttribute("b", "page");
+        assertEquals(pageContext.findAttribute("b"), "page");
+        pageContext.removeAttribute("b", PageContext.PAGE_SCOPE);
+        assertEquals(pageContext.findAttribute("b"), "request");
+
+        pageContext.removeAttribute("b");
+        assertNull(pageContext.findAttribute("b"));
+    }
+
+    @Test(groups = "fast")
+    public void testNoSession() {
+        MockPageContext pageContext = createPageContext(false);
+        assertNull(pageContext.getSession());
+        assertNull(pageContext.getAttribute("a", PageContext.SESSION_SCOPE));
+        pageContext.removeAttribute("a");
+    }
+
+    @Test(groups = "fast")
+    public void testWriter() throws Exception {
+        MockPageContext pageContext = createPageContext(false);
+        pageContext.getOut().write("<p>");
+        pageContext.getOut().print(42);
+        pageContext.getOut().print(true);
+        pageContext.getOut().write("</p>", 0, 4);
+        assertEquals(pageContext.getMockOut().getString(), "<p>42true</p>");
+
+        pageContext.getOut().clearBuffer();
+        assertEquals(pageContext.getMockOut().getString(), "");
+    }
+}
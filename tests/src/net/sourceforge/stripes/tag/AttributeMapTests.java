@@ -0,0 +1,66 @@
+package net.sourceforge.stripes.tag;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link AttributeMap}.
+ *
+ * @author agent
+ */
+public class AttributeMapTests {
+    @Test(groups = "fast")
+    public void testPutGetRemove() {
+        AttributeMap map = new AttributeMap();
+        for (int i = 0; i < 20; i++)
+            Assert.assertNull(map.put("a" + i, "v" + i));
+        Assert.assertEquals(map.size(), 20);
+        Assert.assertEquals(map.get(new String("a7")), "v7");
+        Assert.assertEquals(map.put("a7", "x"), "v7");
+        Assert.assertEquals(map.get("a7"), "x");
+
+        Assert.assertEquals(map.remove("a0"), "v0");
+        Assert.assertNull(map.remove("a0"));
+        Assert.assertFalse(map.containsKey("a0"));
+        Assert.assertEquals(map.size(), 19);
+        Assert.assertEquals(map.nameAt(0), "a1");
+        Assert.assertEquals(map.nameAt(18), "a19");
+
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get("a1"));
+    }
+
+    @Test(groups = "fast")
+    public void testPutNullRemoves() {
+        AttributeMap map = new AttributeMap();
+        map.put("type", "text");
+        map.put("name", "foo");
+        Assert.assertNull(map.put("value", null));
+        Assert.assertEquals(map.size(), 2);
+        Assert.assertEquals(map.put("type", null), "text");
+        Assert.assertFalse(map.containsKey("type"));
+        Assert.assertEquals(map.toString(), "{name=foo}");
+    }
+
+    @Test(groups = "fast")
+    public void testInsertionOrderAndIterator() {
+        AttributeMap map = new AttributeMap();
+        map.put("type", "text");
+        map.put("name", "foo");
+        map.put("value", "bar");
+        Assert.assertEquals(map.toString(), "{type=text, name=foo, value=bar}");
+
+        Iterator<Map.Entry<String, String>> iterator = map.entrySet().iterator();
+        iterator.next();
+        Map.Entry<String, String> entry = iterator.next();
+        entry.setValue("baz");
+        iterator.remove();
+        Assert.assertEquals(iterator.next().getKey(), "value");
+        Assert.assertFalse(iterator.hasNext());
+        Assert.assertEquals(map.toString(), "{type=text, value=bar}");
+    }
+}
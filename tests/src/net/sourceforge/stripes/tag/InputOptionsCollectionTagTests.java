@@ -0,0 +1,91 @@
+package net.sourceforge.stripes.tag;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import net.sourceforge.stripes.FilterEnabledTestBase;
+import net.sourceforge.stripes.mock.MockHttpServletRequest;
+import net.sourceforge.stripes.mock.MockHttpServletResponse;
+import net.sourceforge.stripes.mock.MockPageContext;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the cacheKey attribute of {@link InputOptionsCollectionTag}.
+ *
+ * @author agent
+ */
+public class InputOptionsCollectionTagTests extends FilterEnabledTestBase {
+    @AfterMethod(alwaysRun = true)
+    public void clearCache() {
+        InputOptionsCollectionTag.clearOptionsCache();
+    }
+
+    /** Renders a select tag, formatted with the pattern "0.00", containing the collection. */
+    private String render(Collection<?> collection, Object selected, String cacheKey)
+            throws Exception {
+        MockPageContext pageContext = new MockPageContext(getMockServletContext(),
+                new MockHttpServletRequest("/test", "/page.jsp"), new MockHttpServletResponse());
+
+        FormTag form = new FormTag();
+        form.setPageContext(pageContext);
+        form.setAction("/test/Options.action");
+
+        InputSelectTag select = new InputSelectTag();
+        select.setPageContext(pageContext);
+        select.setParent(form);
+        select.setName("number");
+        select.setFormatPattern("0.00");
+        select.setValue(selected);
+
+        InputOptionsCollectionTag options = new InputOptionsCollectionTag();
+        options.setPageContext(pageContext);
+        options.setParent(select);
+        options.setCollection(collection);
+        options.setCacheKey(cacheKey);
+        options.doStartTag();
+        options.doEndTag();
+
+        return pageContext.getMockOut().getString();
+    }
+
+    @Test(groups = "fast")
+    public void testCachedOptionsMatchUncached() throws Exception {
+        Collection<Integer> numbers = Arrays.asList(1, 2, 3);
+        for (Object selected : new Object[] { 2, 3, "1.00", null }) {
+            String expected = render(numbers, selected, null);
+            Assert.assertEquals(render(numbers, selected, "numbers"), expected);
+            Assert.assertEquals(render(numbers, selected, "numbers"), expected);
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testSelectionUsesSelectFormat() throws Exception {
+        Collection<Integer> numbers = Arrays.asList(1, 2, 3);
+        render(numbers, null, "numbers");
+        String html = render(numbers, 2, "numbers");
+        Assert.assertTrue(html.contains("value=\"2\" selected=\"selected\""), html);
+        Assert.assertEquals(html.indexOf(" selected="), html.lastIndexOf(" selected="), html);
+    }
+
+    @Test(groups = "fast")
+    public void testNullCollectionIsNotCached() throws Exception {
+        Assert.assertEquals(render(null, null, "numbers"), "");
+        Collection<Integer> numbers = Arrays.asList(1, 2, 3);
+        String html = render(numbers, null, "numbers");
+        Assert.assertEquals(html, render(numbers, null, null));
+        Assert.assertTrue(html.contains("value=\"3\""), html);
+    }
+
+    @Test(groups = "fast")
+    public void testClearOptionsCache() throws Exception {
+        String first = render(Arrays.asList(1, 2), null, "numbers");
+        Assert.assertEquals(render(Arrays.asList(3, 4), null, "numbers"), first);
+
+        InputOptionsCollectionTag.clearOptionsCache();
+        Assert.assertEquals(render(Arrays.asList(3, 4), null, "numbers"),
+                render(Arrays.asList(3, 4), null, null));
+    }
+}
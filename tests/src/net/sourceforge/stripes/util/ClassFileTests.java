@@ -0,0 +1,93 @@
+package net.sourceforge.stripes.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+
+import net.sourceforge.stripes.action.UrlBinding;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ClassFile}.
+ *
+ * @author agent
+ */
+public class ClassFileTests {
+    @Retention(RetentionPolicy.RUNTIME)
+    public static @interface Complex {
+        String[] strings() default {};
+        Class<?> type() default Object.class;
+        RetentionPolicy policy() default RetentionPolicy.RUNTIME;
+        UrlBinding nested() default @UrlBinding("/nested");
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    public static @interface Invisible {}
+
+    @Invisible
+    @Complex(strings = { "a", "b" }, type = String.class, policy = RetentionPolicy.SOURCE)
+    @UrlBinding("/foo")
+    public static class Annotated extends Number implements Serializable, Comparable<Annotated> {
+        private static final long serialVersionUID = 1L;
+        public static final long LONG = 1234567890123L;
+        public static final double DOUBLE = 1.5;
+
+        @Override public double doubleValue() { return DOUBLE; }
+        @Override public float floatValue() { return 0; }
+        @Override public int intValue() { return 0; }
+        @Override public long longValue() { return LONG; }
+        public int compareTo(Annotated o) { return 0; }
+    }
+
+    private ClassFile read(Class<?> type) throws IOException {
+        InputStream in = ClassFileTests.class.getClassLoader().getResourceAsStream(
+                type.getName().replace('.', '/') + ".class");
+        try {
+            return ClassFile.read(in);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testClass() throws Exception {
+        ClassFile classFile = read(Annotated.class);
+        Assert.assertEquals(classFile.getName(), Annotated.class.getName());
+        Assert.assertEquals(classFile.getSuperclassName(), Number.class.getName());
+        Assert.assertEquals(Arrays.asList(classFile.getInterfaceNames()),
+                Arrays.asList(Serializable.class.getName(), Comparable.class.getName()));
+        Assert.assertFalse(classFile.isInterface());
+        Assert.assertFalse(classFile.isAnnotation());
+
+        Assert.assertEquals(classFile.getAnnotationNames().size(), 2);
+        Assert.assertTrue(classFile.isAnnotationPresent(Complex.class.getName()));
+        Assert.assertTrue(classFile.isAnnotationPresent(UrlBinding.class.getName()));
+        Assert.assertFalse(classFile.isAnnotationPresent(Invisible.class.getName()));
+    }
+
+    @Test(groups = "fast")
+    public void testAnnotationType() throws Exception {
+        ClassFile classFile = read(Complex.class);
+        Assert.assertTrue(classFile.isInterface());
+        Assert.assertTrue(classFile.isAnnotation());
+        Assert.assertTrue(classFile.isAnnotationPresent(Retention.class.getName()));
+    }
+
+    @Test(groups = "fast")
+    public void testObject() throws Exception {
+        ClassFile classFile = read(Object.class);
+        Assert.assertEquals(classFile.getName(), "java.lang.Object");
+        Assert.assertNull(classFile.getSuperclassName());
+    }
+
+    @Test(groups = "fast", expectedExceptions = IOException.class)
+    public void testNotAClassFile() throws Exception {
+        ClassFile.read(new java.io.ByteArrayInputStream(new byte[] { 1, 2, 3, 4 }));
+    }
+}
@@ -0,0 +1,173 @@
+package net.sourceforge.stripes.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.validation.LocalizableError;
+import net.sourceforge.stripes.validation.ScopedLocalizableError;
+import net.sourceforge.stripes.validation.SimpleError;
+import net.sourceforge.stripes.validation.ValidationError;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ClassIndex} and its use by {@link ResolverUtil}.
+ *
+ * @author agent
+ */
+public class ClassIndexTests {
+    @Test(groups = "fast")
+    public void testGenerate() throws Exception {
+        ClassIndex index = ClassIndex.generate(SimpleError.class.getName()
+                + "=net.sourceforge.stripes.validation");
+        List<String> names = index.getClassNames("net.sourceforge.stripes.validation",
+                SimpleError.class);
+
+        Assert.assertTrue(names.contains(SimpleError.class.getName()));
+        Assert.assertTrue(names.contains(LocalizableError.class.getName()));
+        Assert.assertTrue(names.contains(ScopedLocalizableError.class.getName()));
+    }
+
+    @Test(groups = "fast")
+    public void testReadAndWrite() throws Exception {
+        ClassIndex index = new ClassIndex();
+        index.add("com.myco", ActionBean.class.getName(), Arrays.asList("com.myco.A", "com.myco.b.B"));
+        index.add("org.other", Object.class.getName(), Arrays.asList("org.other.C"));
+
+        StringWriter writer = new StringWriter();
+        index.write(writer);
+        ClassIndex copy = new ClassIndex();
+        copy.read(new StringReader(writer.toString()));
+
+        Assert.assertEquals(copy.getClassNames("com.myco", ActionBean.class),
+                Arrays.asList("com.myco.A", "com.myco.b.B"));
+        Assert.assertEquals(copy.getClassNames("com.myco.b", ActionBean.class),
+                Arrays.asList("com.myco.b.B"));
+        Assert.assertEquals(copy.getClassNames("org.other", SimpleError.class),
+                Arrays.asList("org.other.C"));
+    }
+
+    @Test(groups = "fast")
+    public void testCoverage() throws Exception {
+        ClassIndex index = new ClassIndex();
+        index.add("com.myco.web", SimpleError.class.getName(), Arrays.asList("com.myco.web.A"));
+
+        // Subtypes of the indexed type are covered, supertypes are not
+        Assert.assertNotNull(index.getClassNames("com.myco.web", LocalizableError.class));
+        Assert.assertNull(index.getClassNames("com.myco.web", ValidationError.class));
+
+        // Subpackages of the indexed package are covered, parents and siblings are not
+        Assert.assertNotNull(index.getClassNames("com.myco.web.admin", SimpleError.class));
+        Assert.assertNull(index.getClassNames("com.myco", SimpleError.class));
+        Assert.assertNull(index.getClassNames("com.myco.webapp", SimpleError.class));
+    }
+
+    @Test(groups = "fast")
+    public void testStaleDirectoryIndex() throws Exception {
+        ClassIndex index = new ClassIndex();
+        index.add("com.myco", ActionBean.class.getName(), Arrays.asList("com.myco.a.A"));
+
+        File root = File.createTempFile("classindex", "");
+        root.delete();
+        try {
+            File indexFile = new File(root, ClassIndex.RESOURCE);
+            File classFile = new File(root, "com/myco/a/A.class");
+            indexFile.getParentFile().mkdirs();
+            classFile.getParentFile().mkdirs();
+            indexFile.createNewFile();
+            classFile.createNewFile();
+            URL url = indexFile.toURI().toURL();
+
+            long now = System.currentTimeMillis();
+            indexFile.setLastModified(now);
+            classFile.setLastModified(now - 60000);
+            Assert.assertFalse(index.isStale(url));
+
+            classFile.setLastModified(now + 60000);
+            Assert.assertTrue(index.isStale(url));
+        }
+        finally {
+            new File(root, ClassIndex.RESOURCE).delete();
+            new File(root, "com/myco/a/A.class").delete();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testStaleJarIndex() throws Exception {
+        ClassIndex index = new ClassIndex();
+        index.add("com.myco", ActionBean.class.getName(), Arrays.asList("com.myco.a.A"));
+
+        File jar = File.createTempFile("classindex", ".jar");
+        try {
+            long now = System.currentTimeMillis();
+            URL url = new URL("jar:" + jar.toURI().toURL() + "!/" + ClassIndex.RESOURCE);
+
+            writeJar(jar, now, now - 60000);
+            Assert.assertFalse(index.isStale(url));
+
+            writeJar(jar, now, now + 60000);
+            Assert.assertTrue(index.isStale(url));
+        }
+        finally {
+            jar.delete();
+        }
+    }
+
+    /** Writes a jar containing an index and a class file with the given times. */
+    private void writeJar(File file, long indexTime, long classTime) throws Exception {
+        JarOutputStream out = new JarOutputStream(new FileOutputStream(file));
+        try {
+            JarEntry entry = new JarEntry(ClassIndex.RESOURCE);
+            entry.setTime(indexTime);
+            out.putNextEntry(entry);
+            out.closeEntry();
+
+            entry = new JarEntry("com/myco/a/A.class");
+            entry.setTime(classTime);
+            out.putNextEntry(entry);
+            out.closeEntry();
+
+            // Classes outside the covered packages are not checked
+            entry = new JarEntry("org/other/B.class");
+            entry.setTime(classTime + 60000);
+            out.putNextEntry(entry);
+            out.closeEntry();
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testResolverUsesIndex() throws Exception {
+        // An incomplete index proves that the package was not scanned
+        ClassIndex index = new ClassIndex();
+        index.add("net.sourceforge.stripes.validation", SimpleError.class.getName(),
+                Arrays.asList(LocalizableError.class.getName(), String.class.getName()));
+
+        ResolverUtil<SimpleError> resolver = new ResolverUtil<SimpleError>();
+        resolver.setClassIndex(index);
+        resolver.findImplementations(LocalizableError.class, "net.sourceforge.stripes.validation");
+
+        Set<Class<? extends SimpleError>> expected = new HashSet<Class<? extends SimpleError>>();
+        expected.add(LocalizableError.class);
+        Assert.assertEquals(resolver.getClasses(), expected);
+
+        // Packages that are not covered are scanned
+        resolver = new ResolverUtil<SimpleError>();
+        resolver.setClassIndex(index);
+        resolver.findImplementations(SimpleError.class, "net.sourceforge.stripes");
+        Assert.assertTrue(resolver.getClasses().contains(ScopedLocalizableError.class));
+    }
+}
@@ -1,5 +1,6 @@
 package net.sourceforge.stripes.util;
 
+import javax.crypto.Cipher;
 import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 
@@ -76,4 +77,186 @@ public class CryptoUtilTest {
         }
     }
 
+    @Test(groups="fast")
+    public void byteArrayTest() throws Exception {
+        byte[] input = new byte[1000];
+        for (int i = 0; i < input.length; i++)
+            input[i] = (byte) i;
+
+        for (int length : new int[] { 0, 1, 15, 16, 17, 1000 }) {
+            byte[] bytes = new byte[length];
+            System.arraycopy(input, 0, bytes, 0, length);
+            byte[] encrypted = CryptoUtil.encrypt(bytes);
+            Assert.assertEquals(CryptoUtil.decrypt(encrypted), bytes);
+        }
+    }
+
+    @Test(groups="fast")
+    public void randomizedEncryptionTest() throws Exception {
+        String input = "Some value";
+        Assert.assertFalse(CryptoUtil.encrypt(input).equals(CryptoUtil.encrypt(input)),
+                "Encrypting the same value twice should not give the same result!");
+    }
+
+    @Test(groups="fast")
+    public void tamperedInputTest() throws Exception {
+        byte[] encrypted = CryptoUtil.encrypt("A value that must not be altered".getBytes());
+        for (int i = 0; i < encrypted.length; i++) {
+            encrypted[i] ^= 1;
+            Assert.assertNull(CryptoUtil.decrypt(encrypted), "Altered byte " + i + " went unnoticed");
+            encrypted[i] ^= 1;
+        }
+        Assert.assertNotNull(CryptoUtil.decrypt(encrypted));
+
+        String string = CryptoUtil.encrypt("Another value");
+        Assert.assertNull(CryptoUtil.decrypt(string.substring(1)));
+        Assert.assertNull(CryptoUtil.decrypt(string + "A"));
+        Assert.assertNull(CryptoUtil.decrypt(string + "="));
+    }
+
+    @Test(groups="fast")
+    public void base64Test() throws Exception {
+        for (int length = 0; length < 50; length++) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++)
+                bytes[i] = (byte) (i * 37 + length);
+
+            String encoded = CryptoUtil.encodeBase64(bytes);
+            Assert.assertEquals(encoded, Base64.encodeBytes(bytes, Base64.URL_SAFE
+                    | Base64.DONT_BREAK_LINES).replace("=", ""));
+            Assert.assertEquals(CryptoUtil.decodeBase64(encoded), bytes);
+        }
+    }
+
+    @Test(groups="fast")
+    public void keyRotationTest() throws Exception {
+        SecretKey oldKey = CryptoUtil.getSecretKey();
+        SecretKey[] oldPreviousKeys = CryptoUtil.getPreviousSecretKeys();
+
+        try {
+            SecretKey first = CryptoUtil.generateSecretKey("The first key");
+            SecretKey second = CryptoUtil.generateSecretKey("The second key");
+            SecretKey third = CryptoUtil.generateSecretKey("The third key");
+
+            CryptoUtil.setSecretKey(first);
+            String input = "A value that outlives its key";
+            String output = CryptoUtil.encrypt(input);
+
+            CryptoUtil.setSecretKey(second);
+            Assert.assertNull(CryptoUtil.decrypt(output));
+
+            CryptoUtil.setPreviousSecretKeys(third, first);
+            Assert.assertEquals(CryptoUtil.decrypt(output), input);
+            Assert.assertEquals(CryptoUtil.decrypt(CryptoUtil.encrypt(input)), input);
+
+            CryptoUtil.setSecretKey(first);
+            CryptoUtil.setPreviousSecretKeys();
+            Assert.assertEquals(CryptoUtil.decrypt(output), input);
+        }
+        finally {
+            CryptoUtil.setSecretKey(oldKey);
+            CryptoUtil.setPreviousSecretKeys(oldPreviousKeys);
+        }
+    }
+
+    @Test(groups="fast")
+    public void deterministicTokenTest() throws Exception {
+        boolean enabled = CryptoUtil.isDeterministicTokens();
+        try {
+            String input = "/some/page.jsp";
+            CryptoUtil.setDeterministicTokens(false);
+            String encrypted = CryptoUtil.encryptToken(input);
+            Assert.assertFalse(encrypted.equals(CryptoUtil.encryptToken(input)));
+            Assert.assertEquals(CryptoUtil.decryptToken(encrypted), input);
+
+            CryptoUtil.setDeterministicTokens(true);
+            String token = CryptoUtil.encryptToken(input);
+            Assert.assertEquals(CryptoUtil.encryptToken(input), token);
+            Assert.assertEquals(CryptoUtil.decryptToken(token), input);
+            Assert.assertEquals(CryptoUtil.decryptToken(token), input);
+            Assert.assertEquals(CryptoUtil.decryptToken(encrypted), input);
+            Assert.assertEquals(CryptoUtil.decryptToken(CryptoUtil.encryptToken(null)), "");
+
+            // Tokens must not be accepted as encrypted values or vice versa
+            Assert.assertNull(CryptoUtil.decrypt(token));
+            Assert.assertNull(CryptoUtil.decryptToken("~" + encrypted));
+
+            // Altered tokens must be rejected
+            String forged = token.substring(0, token.length() - 2) + "x0";
+            Assert.assertNull(CryptoUtil.decryptToken(forged));
+            Assert.assertNull(CryptoUtil.decryptToken("~"));
+            Assert.assertNull(CryptoUtil.decryptToken("~!!!!"));
+        }
+        finally {
+            CryptoUtil.setDeterministicTokens(enabled);
+        }
+    }
+
+    @Test(groups="fast")
+    public void deterministicTokenKeyChangeTest() throws Exception {
+        boolean enabled = CryptoUtil.isDeterministicTokens();
+        SecretKey oldKey = CryptoUtil.getSecretKey();
+        SecretKey[] oldPreviousKeys = CryptoUtil.getPreviousSecretKeys();
+
+        try {
+            CryptoUtil.setDeterministicTokens(true);
+            SecretKey first = CryptoUtil.generateSecretKey("The first key");
+            SecretKey second = CryptoUtil.generateSecretKey("The second key");
+
+            CryptoUtil.setSecretKey(first);
+            String token = CryptoUtil.encryptToken("value");
+            Assert.assertEquals(CryptoUtil.decryptToken(token), "value");
+
+            // Cached tokens must be discarded when the key changes
+            CryptoUtil.setSecretKey(second);
+            Assert.assertFalse(token.equals(CryptoUtil.encryptToken("value")));
+            Assert.assertNull(CryptoUtil.decryptToken(token));
+
+            CryptoUtil.setPreviousSecretKeys(first);
+            Assert.assertEquals(CryptoUtil.decryptToken(token), "value");
+        }
+        finally {
+            CryptoUtil.setSecretKey(oldKey);
+            CryptoUtil.setPreviousSecretKeys(oldPreviousKeys);
+            CryptoUtil.setDeterministicTokens(enabled);
+        }
+    }
+
+    @Test(groups="fast")
+    @SuppressWarnings("deprecation")
+    public void legacyDecryptionTest() throws Exception {
+        boolean enabled = CryptoUtil.isLegacyDecryption();
+        SecretKey legacyKey = KeyGenerator.getInstance("DESede").generateKey();
+
+        // Encrypt the value the way Stripes 1.5 did
+        byte[] input = "A value from an earlier version".getBytes();
+        byte[] nonce = CryptoUtil.nextNonce();
+        byte[] hash = CryptoUtil.generateHashCode(nonce, input);
+        byte[] bytes = new byte[hash.length + nonce.length + input.length];
+        System.arraycopy(hash, 0, bytes, 0, hash.length);
+        System.arraycopy(nonce, 0, bytes, hash.length, nonce.length);
+        System.arraycopy(input, 0, bytes, hash.length + nonce.length, input.length);
+        Cipher cipher = Cipher.getInstance("DESede");
+        cipher.init(Cipher.ENCRYPT_MODE, legacyKey);
+        String legacy = Base64.encodeBytes(cipher.doFinal(bytes),
+                Base64.URL_SAFE | Base64.DONT_BREAK_LINES);
+
+        try {
+            CryptoUtil.setLegacySecretKey(legacyKey);
+            CryptoUtil.setLegacyDecryption(false);
+            Assert.assertNull(CryptoUtil.decrypt(legacy));
+
+            CryptoUtil.setLegacyDecryption(true);
+            Assert.assertEquals(CryptoUtil.decrypt(legacy), "A value from an earlier version");
+            Assert.assertNull(CryptoUtil.decrypt(legacy.substring(1)));
+
+            // Values in the current format are not affected
+            String encrypted = CryptoUtil.encrypt("current");
+            Assert.assertEquals(CryptoUtil.decrypt(encrypted), "current");
+        }
+        finally {
+            CryptoUtil.setLegacySecretKey(null);
+            CryptoUtil.setLegacyDecryption(enabled);
+        }
+    }
 }
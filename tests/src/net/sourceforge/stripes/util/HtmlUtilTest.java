@@ -18,6 +18,7 @@ package net.sourceforge.stripes.util;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
@@ -61,4 +62,32 @@ public class HtmlUtilTest {
         Assert.assertNotNull(values);
         Assert.assertEquals(values.size(), 0);
     }
+
+    @Test(groups="fast")
+    public void testEncode() throws Exception {
+        String clean = "nothing to escape here";
+        Assert.assertSame(HtmlUtil.encode(clean), clean);
+        Assert.assertEquals(HtmlUtil.encode("<a href=\"x?a=1&b=2\">'</a>"),
+                "&lt;a href=&quot;x?a=1&amp;b=2&quot;&gt;'&lt;/a&gt;");
+        Assert.assertNull(HtmlUtil.encode(null));
+    }
+
+    @Test(groups="fast")
+    public void testStreamingEncode() throws Exception {
+        String value = "a<b>\"c\"&d e";
+
+        StringWriter out = new StringWriter();
+        HtmlUtil.encodeAttribute(value, out);
+        Assert.assertEquals(out.toString(), HtmlUtil.encode(value));
+
+        out = new StringWriter();
+        HtmlUtil.encodeText(value, out);
+        Assert.assertEquals(out.toString(), "a&lt;b&gt;\"c\"&amp;d e");
+
+        out = new StringWriter();
+        HtmlUtil.encodeAttribute("clean", out);
+        HtmlUtil.encodeAttribute(null, out);
+        HtmlUtil.encodeText("&", out);
+        Assert.assertEquals(out.toString(), "clean&amp;");
+    }
 }
@@ -72,4 +72,44 @@ public class ReflectUtilTest {
         Assert.assertNotNull(pd.getReadMethod(), "Read method is null");
         Assert.assertNotNull(pd.getWriteMethod(), "Write method is null");
     }
+
+    @Test(groups="fast")
+    public void testPropertyMetadata() throws Exception {
+        class Bean {
+            public String publicField;
+            private java.util.List<Long> ids;
+
+            @SuppressWarnings("unused")
+            public java.util.List<Long> getIds() { return ids; }
+            @SuppressWarnings("unused")
+            public void setIds(java.util.List<Long> ids) { this.ids = ids; }
+        }
+
+        PropertyMetadata ids = ReflectUtil.getPropertyMetadata(Bean.class, "ids");
+        Assert.assertNotNull(ids.getDescriptor());
+        Assert.assertEquals(ids.getReadMethod(), Bean.class.getMethod("getIds"));
+        Assert.assertEquals(ids.getType(), java.util.List.class);
+        Assert.assertEquals(ids.getGenericType(), Bean.class.getMethod("getIds").getGenericReturnType());
+        Assert.assertNull(ids.getField());
+
+        PropertyMetadata field = ReflectUtil.getPropertyMetadata(Bean.class, "publicField");
+        Assert.assertNull(field.getDescriptor());
+        Assert.assertEquals(field.getField(), Bean.class.getField("publicField"));
+        Assert.assertEquals(field.getType(), String.class);
+
+        Assert.assertNull(ReflectUtil.getPropertyMetadata(Bean.class, "noSuchProperty"));
+        Assert.assertSame(ReflectUtil.getPropertyMetadata(Bean.class, "ids"), ids);
+
+        // Flushing the cache causes the class to be examined again
+        ReflectUtil.flushCaches();
+        Assert.assertNotSame(ReflectUtil.getPropertyMetadata(Bean.class, "ids"), ids);
+    }
+
+    @Test(groups="fast")
+    public void testPropertyDescriptorsAreCopied() {
+        PropertyDescriptor[] pds = ReflectUtil.getPropertyDescriptors(PropertyDescriptor.class);
+        PropertyDescriptor first = pds[0];
+        pds[0] = null;
+        Assert.assertSame(ReflectUtil.getPropertyDescriptors(PropertyDescriptor.class)[0], first);
+    }
 }
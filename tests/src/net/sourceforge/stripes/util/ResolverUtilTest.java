@@ -9,8 +9,12 @@ import net.sourceforge.stripes.validation.TypeConverter;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.util.HashSet;
 import java.util.Set;
 
+import net.sourceforge.stripes.action.ActionBean;
+import net.sourceforge.stripes.action.UrlBinding;
+
 /**
  * Simple test case that tets out the basic functionality of the Resolver Util class.
  *
@@ -86,4 +90,69 @@ public class ResolverUtilTest {
         Assert.assertTrue(impls.size() == 1 && impls.contains(ZeroImplementations.class),
                           "There should not have been any implementations besides the interface itself.");
     }
+
+    /** A class loader that records the names of the classes that are loaded through it. */
+    private static class RecordingClassLoader extends ClassLoader {
+        Set<String> loaded = new HashSet<String>();
+
+        RecordingClassLoader() {
+            super(Thread.currentThread().getContextClassLoader());
+        }
+
+        @Override
+        public Class<?> loadClass(String name) throws ClassNotFoundException {
+            loaded.add(name);
+            return super.loadClass(name);
+        }
+    }
+
+    @Test(groups="fast")
+    public void testOnlyMatchingClassesAreLoaded() throws Exception {
+        RecordingClassLoader loader = new RecordingClassLoader();
+        ResolverUtil<SimpleError> resolver = new ResolverUtil<SimpleError>();
+        resolver.setClassLoader(loader);
+        resolver.findImplementations(SimpleError.class, "net.sourceforge.stripes.validation");
+
+        Set<String> names = new HashSet<String>();
+        for (Class<?> type : resolver.getClasses()) {
+            names.add(type.getName());
+        }
+
+        Assert.assertTrue(names.contains(LocalizableError.class.getName()));
+        Assert.assertTrue(names.contains(ScopedLocalizableError.class.getName()));
+        Assert.assertEquals(loader.loaded, names);
+    }
+
+    @Test(groups="fast")
+    public void testFindAnnotated() throws Exception {
+        RecordingClassLoader loader = new RecordingClassLoader();
+        ResolverUtil<ActionBean> resolver = new ResolverUtil<ActionBean>();
+        resolver.setClassLoader(loader);
+        resolver.findAnnotated(UrlBinding.class, "net.sourceforge.stripes.test",
+                "net.sourceforge.stripes.controller");
+
+        Assert.assertFalse(resolver.getClasses().isEmpty());
+        for (Class<?> type : resolver.getClasses()) {
+            Assert.assertTrue(type.isAnnotationPresent(UrlBinding.class), type.getName());
+        }
+        Assert.assertEquals(loader.loaded.size(), resolver.getClasses().size());
+    }
+
+    @Test(groups="fast")
+    public void testFindImplementationsCallsFindForEachPackage() throws Exception {
+        final Set<String> packages = new HashSet<String>();
+        ResolverUtil<SimpleError> resolver = new ResolverUtil<SimpleError>() {
+            @Override
+            public ResolverUtil<SimpleError> find(ResolverUtil.Test test, String packageName) {
+                packages.add(packageName);
+                return super.find(test, packageName);
+            }
+        };
+        resolver.setClassIndex(new ClassIndex());
+        resolver.findImplementations(SimpleError.class, "net.sourceforge.stripes.validation",
+                "net.sourceforge.stripes.controller");
+
+        Assert.assertEquals(packages.size(), 2);
+        Assert.assertTrue(resolver.getClasses().contains(LocalizableError.class));
+    }
 }
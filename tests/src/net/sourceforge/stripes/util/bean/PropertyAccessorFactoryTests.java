@@ -0,0 +1,83 @@
+package net.sourceforge.stripes.util.bean;
+
+import net.sourceforge.stripes.FilterEnabledTestBase;
+import net.sourceforge.stripes.test.TestActionBean;
+import net.sourceforge.stripes.test.TestBean;
+import net.sourceforge.stripes.util.PropertyMetadata;
+import net.sourceforge.stripes.util.ReflectUtil;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for {@link ReflectivePropertyAccessorFactory} and for replacing the factory used by
+ * {@link JavaBeanPropertyAccessor}.
+ */
+public class PropertyAccessorFactoryTests extends FilterEnabledTestBase {
+
+    @Test(groups="fast")
+    public void testMethodAccessor() throws Exception {
+        ReflectivePropertyAccessorFactory factory = new ReflectivePropertyAccessorFactory();
+        BeanPropertyAccessor accessor = factory.getAccessor(TestBean.class, "stringProperty");
+        Assert.assertTrue(accessor.isReadable());
+        Assert.assertTrue(accessor.isWritable());
+        Assert.assertSame(factory.getAccessor(TestBean.class, "stringProperty"), accessor);
+
+        TestBean bean = new TestBean();
+        accessor.setValue(bean, "foo");
+        Assert.assertEquals(bean.getStringProperty(), "foo");
+        Assert.assertEquals(accessor.getValue(bean), "foo");
+    }
+
+    @Test(groups="fast")
+    public void testFieldAccessor() throws Exception {
+        ReflectivePropertyAccessorFactory factory = new ReflectivePropertyAccessorFactory();
+        BeanPropertyAccessor accessor = factory.getAccessor(TestActionBean.class, "publicLong");
+
+        TestActionBean bean = new TestActionBean();
+        accessor.setValue(bean, 42L);
+        Assert.assertEquals(bean.publicLong, new Long(42L));
+        Assert.assertEquals(accessor.getValue(bean), 42L);
+    }
+
+    @Test(groups="fast")
+    public void testSharedMembersNotMadeAccessible() throws Exception {
+        ReflectivePropertyAccessorFactory factory = new ReflectivePropertyAccessorFactory();
+        factory.getAccessor(TestBean.class, "stringProperty");
+        factory.getAccessor(TestActionBean.class, "publicLong");
+
+        PropertyMetadata method = ReflectUtil.getPropertyMetadata(TestBean.class, "stringProperty");
+        Assert.assertFalse(method.getReadMethod().isAccessible());
+        Assert.assertFalse(method.getWriteMethod().isAccessible());
+        PropertyMetadata field = ReflectUtil.getPropertyMetadata(TestActionBean.class, "publicLong");
+        Assert.assertFalse(field.getField().isAccessible());
+    }
+
+    @Test(groups="fast")
+    public void testMissingProperty() throws Exception {
+        ReflectivePropertyAccessorFactory factory = new ReflectivePropertyAccessorFactory();
+        Assert.assertNull(factory.getAccessor(TestBean.class, "noSuchProperty"));
+    }
+
+    @Test(groups="fast")
+    public void testCustomFactory() throws Exception {
+        final PropertyAccessorFactory original = JavaBeanPropertyAccessor.getAccessorFactory();
+        final int[] count = { 0 };
+        JavaBeanPropertyAccessor.setAccessorFactory(new PropertyAccessorFactory() {
+            public BeanPropertyAccessor getAccessor(Class<?> beanClass, String property) {
+                ++count[0];
+                return original.getAccessor(beanClass, property);
+            }
+        });
+
+        try {
+            TestBean bean = new TestBean();
+            BeanUtil.setPropertyValue("nestedBean.intProperty", bean, 7);
+            Assert.assertEquals(bean.getNestedBean().getIntProperty(), 7);
+            Assert.assertEquals(BeanUtil.getPropertyValue("nestedBean.intProperty", bean), 7);
+            Assert.assertTrue(count[0] > 0);
+        }
+        finally {
+            JavaBeanPropertyAccessor.setAccessorFactory(original);
+        }
+    }
+}
@@ -12,6 +12,7 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
 
@@ -68,6 +69,46 @@ public class PropertyExpressionEvaluationTests extends FilterEnabledTestBase {
         Assert.assertEquals(type, Float.class);
     }
 
+    @Test(groups="fast")
+    public void testEvaluationFromTemplate() {
+        PropertyExpression expr = PropertyExpression.getExpression("listOfBeans[2].enumProperty");
+        PropertyExpressionEvaluation eval = new PropertyExpressionEvaluation(expr, new TestActionBean());
+        Assert.assertFalse(eval.isInstanceDependent());
+
+        // A detached template must not hold on to the bean
+        PropertyExpressionEvaluation template = new PropertyExpressionEvaluation(eval, null);
+        Assert.assertNull(template.getBean());
+
+        TestActionBean bean = new TestActionBean();
+        PropertyExpressionEvaluation copy = new PropertyExpressionEvaluation(template, bean);
+        Assert.assertEquals(copy.getType(), TestEnum.class);
+        Assert.assertEquals(copy.getScalarType(), TestEnum.class);
+
+        copy.setValue(TestEnum.Fifth);
+        Assert.assertEquals(bean.getListOfBeans().get(2).getEnumProperty(), TestEnum.Fifth);
+    }
+
+    @Test(groups="fast", expectedExceptions=IllegalArgumentException.class)
+    public void testEvaluationFromTemplateWithWrongBeanType() {
+        PropertyExpression expr = PropertyExpression.getExpression("stringProperty");
+        PropertyExpressionEvaluation eval = new PropertyExpressionEvaluation(expr, new TestBean());
+        new PropertyExpressionEvaluation(eval, new TestActionBean());
+    }
+
+    @Test(groups="fast", expectedExceptions=IllegalArgumentException.class)
+    public void testEvaluationFromInstanceDependentTemplate() {
+        TestActionBean root = new TestActionBean();
+        List<Object> list = new ArrayList<Object>();
+        list.add(5L);
+        root.setNakedListOfLongs(list);
+
+        PropertyExpression expr = PropertyExpression.getExpression("nakedListOfLongs[0]");
+        PropertyExpressionEvaluation eval = new PropertyExpressionEvaluation(expr, root);
+        Assert.assertEquals(eval.getType(), Long.class);
+        Assert.assertTrue(eval.isInstanceDependent());
+        new PropertyExpressionEvaluation(eval, new TestActionBean());
+    }
+
     //////////////////////////////////////////////////////////////////////////////////////
 
     @Test(groups="fast")
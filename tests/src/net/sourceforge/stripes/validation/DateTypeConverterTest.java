@@ -54,6 +54,32 @@ public class DateTypeConverterTest {
         Assert.assertEquals(format.format(date), "03/01/2007");
     }
 
+    @Test(groups="fast")
+    public void testPreProcessPatternResolvedOnce() {
+        final int[] lookups = { 0 };
+        DateTypeConverter converter = new DateTypeConverter() {
+            @Override
+            protected String getResourceString(final String key) throws MissingResourceException {
+                if (KEY_PRE_PROCESS_PATTERN.equals(key))
+                    ++lookups[0];
+                throw new MissingResourceException("Bundle not available to unit tests.", "", key);
+            }
+        };
+        converter.setLocale(Locale.US);
+
+        Collection<ValidationError> errors = new ArrayList<ValidationError>();
+        for (int i = 0; i < 5; i++) {
+            Date date = converter.convert("1/31/07", Date.class, errors);
+            Assert.assertEquals(format.format(date), "01/31/2007");
+        }
+        Assert.assertEquals(lookups[0], 1);
+
+        // A failed conversion on a reused converter must not affect the next one
+        Assert.assertNull(converter.convert("not a date", Date.class, errors));
+        Assert.assertEquals(errors.size(), 1);
+        Assert.assertEquals(format.format(converter.convert("2/28/06", Date.class, errors)), "02/28/2006");
+    }
+
     @Test(groups="fast")
     public void testVariantUsLocaleDates() {
         Collection<ValidationError> errors = new ArrayList<ValidationError>();
@@ -4,6 +4,7 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.util.Collection;
 import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
 
 import net.sourceforge.stripes.StripesTestFixture;
 import net.sourceforge.stripes.util.Log;
@@ -27,6 +28,75 @@ public class DefaultTypeConverterFactoryTest {
         Assert.assertEquals(CharacterTypeConverter.class, typeConverter.getClass());
     }
 
+    @Test(groups="fast")
+    public void testReusableTypeConverters() throws Exception {
+        final DefaultTypeConverterFactory factory = new DefaultTypeConverterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // Thread-safe converters are shared by all threads
+        TypeConverter<?> tc = factory.getTypeConverter(String.class, Locale.US);
+        Assert.assertSame(factory.getTypeConverter(String.class, Locale.US), tc);
+
+        // Other reusable converters are reused only by the same thread and for the same locale
+        final TypeConverter<?> itc = factory.getTypeConverter(Integer.class, Locale.US);
+        Assert.assertSame(factory.getTypeConverter(Integer.class, Locale.US), itc);
+        Assert.assertNotSame(factory.getTypeConverter(Integer.class, Locale.FRANCE), itc);
+
+        final TypeConverter<?>[] other = new TypeConverter<?>[1];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    other[0] = factory.getTypeConverter(Integer.class, Locale.US);
+                }
+                catch (Exception e) {
+                    log.error(e);
+                }
+            }
+        };
+        thread.start();
+        thread.join();
+        Assert.assertNotNull(other[0]);
+        Assert.assertNotSame(other[0], itc);
+
+        // Converters that are not annotated are never reused
+        Assert.assertNotSame(factory.getInstance(ATC.class, Locale.US),
+                factory.getInstance(ATC.class, Locale.US));
+    }
+
+    @Test(groups="fast")
+    public void testDestroyReleasesInstancesOfEveryThread() throws Exception {
+        final DefaultTypeConverterFactory factory = new DefaultTypeConverterFactory();
+        factory.init(StripesTestFixture.getDefaultConfiguration());
+
+        // A thread caches a converter, then waits while the factory is destroyed
+        final CountDownLatch cached = new CountDownLatch(1), destroyed = new CountDownLatch(1);
+        final TypeConverter<?>[] converters = new TypeConverter<?>[2];
+        Thread thread = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    converters[0] = factory.getTypeConverter(Integer.class, Locale.US);
+                    cached.countDown();
+                    destroyed.await();
+                    converters[1] = factory.getTypeConverter(Integer.class, Locale.US);
+                }
+                catch (Exception e) {
+                    log.error(e);
+                }
+            }
+        };
+        thread.start();
+        cached.await();
+        factory.destroy();
+        destroyed.countDown();
+        thread.join();
+
+        Assert.assertNotNull(converters[0]);
+        Assert.assertNotNull(converters[1]);
+        Assert.assertNotSame(converters[1], converters[0]);
+    }
+
     /*
      * Some tests to make sure we're getting the right type converters.
      */
@@ -0,0 +1,89 @@
+package net.sourceforge.stripes.vfs;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+/**
+ * Tests for the JAR listing in {@link DefaultVFS}.
+ *
+ * @author agent
+ */
+public class DefaultVFSTests {
+    private File jar;
+
+    @BeforeClass(alwaysRun = true)
+    public void createJar() throws Exception {
+        jar = File.createTempFile("stripes-vfs", ".jar");
+        ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar));
+        for (String name : new String[] { "com/", "com/myco/", "com/myco/b/B.class",
+                "com/myco/A.class", "com/myco2/C.class", "com/Other.class", "/com/myco/D.class" }) {
+            out.putNextEntry(new ZipEntry(name));
+            out.closeEntry();
+        }
+        out.close();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void deleteJar() {
+        jar.delete();
+    }
+
+    @Test(groups = "fast")
+    public void testListJar() throws Exception {
+        DefaultVFS vfs = new DefaultVFS();
+        URL url = jar.toURI().toURL();
+        VFS.beginScan();
+        try {
+            assertListing(vfs, url);
+        }
+        finally {
+            VFS.endScan();
+        }
+    }
+
+    private void assertListing(DefaultVFS vfs, URL url) throws Exception {
+        String[] entries = vfs.getJarEntries(url);
+        Assert.assertEquals(Arrays.asList(entries), Arrays.asList("com/Other.class",
+                "com/myco/A.class", "com/myco/D.class", "com/myco/b/B.class", "com/myco2/C.class"));
+        Assert.assertSame(vfs.getJarEntries(url), entries);
+
+        Assert.assertEquals(vfs.listResources(entries, "com/myco"),
+                Arrays.asList("com/myco/A.class", "com/myco/D.class", "com/myco/b/B.class"));
+        Assert.assertEquals(vfs.listResources(entries, "/com/myco/b/"),
+                Arrays.asList("com/myco/b/B.class"));
+        Assert.assertTrue(vfs.listResources(entries, "org").isEmpty());
+
+        URL packageUrl = new URL("jar:" + url + "!/com/myco");
+        Assert.assertEquals(vfs.list(packageUrl, "com/myco"),
+                Arrays.asList("com/myco/A.class", "com/myco/D.class", "com/myco/b/B.class"));
+
+        vfs.clearCache();
+        Assert.assertNotSame(vfs.getJarEntries(url), entries);
+    }
+
+    @Test(groups = "fast")
+    public void testJarCacheIsScopedToScan() throws Exception {
+        DefaultVFS vfs = new DefaultVFS();
+        URL url = jar.toURI().toURL();
+        Assert.assertNotSame(vfs.getJarEntries(url), vfs.getJarEntries(url));
+
+        VFS.beginScan();
+        try {
+            Assert.assertSame(vfs.getJarEntries(url), vfs.getJarEntries(url));
+        }
+        finally {
+            VFS.endScan();
+        }
+        vfs.clearCache();
+        Assert.assertNotSame(vfs.getJarEntries(url), vfs.getJarEntries(url));
+    }
+}